@@ -0,0 +1,71 @@
+/**
+ * GCLogViewer
+ * 
+ * A free open source tool to visualize data produced by the Java VM options -Xloggc:<file> or jstat > <file>.
+ * 
+ * Code license:	Apache License 2.0
+ * 
+ * http://code.google.com/p/gclogviewer
+ */
+package code.google.gclogviewer.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import code.google.gclogviewer.GCLogAnalyze;
+import code.google.gclogviewer.GCLogData;
+import code.google.gclogviewer.GCLogGenerator.Collector;
+
+/**
+ * Whole GCLogAnalyze.analysis of logs of 10M,100M and 1G generated for each collector,
+ * on one thread and on all processors.
+ *
+ * one invocation is a whole file,so it is measured as single shot time.
+ *
+ * @author <a href="mailto:bluedavy@gmail.com">bluedavy</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations=2)
+@Measurement(iterations=5)
+@Fork(value=1,jvmArgs={"-Xmx4g"})
+public class GCLogAnalyzeBenchmark {
+
+	@Param({"10","100","1024"})
+	public int megabytes;
+
+	@Param({"CMS","PARALLEL","PARALLEL_OLD"})
+	public Collector collector;
+
+	private final GCLogAnalyze analyze=new GCLogAnalyze();
+
+	private String fileName;
+
+	@Setup
+	public void setUp() throws Exception{
+		fileName=GCLogBenchLines.logFile(collector, megabytes).getPath();
+	}
+
+	@Benchmark
+	public GCLogData analysis() throws Exception{
+		return analyze.analysis(fileName);
+	}
+
+	@Benchmark
+	public GCLogData parallelAnalysis() throws Exception{
+		return analyze.analysis(fileName, Runtime.getRuntime().availableProcessors());
+	}
+
+}
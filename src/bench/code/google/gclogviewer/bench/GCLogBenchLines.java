@@ -0,0 +1,88 @@
+/**
+ * GCLogViewer
+ * 
+ * A free open source tool to visualize data produced by the Java VM options -Xloggc:<file> or jstat > <file>.
+ * 
+ * Code license:	Apache License 2.0
+ * 
+ * http://code.google.com/p/gclogviewer
+ */
+package code.google.gclogviewer.bench;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Locale;
+
+import code.google.gclogviewer.GCLogGenerator;
+import code.google.gclogviewer.GCLogGenerator.Collector;
+
+/**
+ * Representative gc log lines of each parser keyword and the generated log files benchmarks analyze,
+ * files are written once into java.io.tmpdir and reused by later runs.
+ *
+ * @author <a href="mailto:bluedavy@gmail.com">bluedavy</a>
+ */
+public class GCLogBenchLines {
+
+	private static final String DATE_STAMP="2010-11-11T13:53:14.724+0800: ";
+
+	private GCLogBenchLines(){
+		// static utility
+	}
+
+	/**
+	 * line of the parser keyword,with or without date stamp
+	 */
+	public static String line(String keyword,boolean dateStamp){
+		String line;
+		if("PSYoungGen".equals(keyword))
+			line="24.791: [GC [PSYoungGen: 462628K->62805K(512000K)] 462628K->62805K(1470464K), 0.0817750 secs] [Times: user=0.14 sys=0.15, real=0.08 secs]";
+		else if("ParNew".equals(keyword))
+			line="125.294: [GC 125.294: [ParNew: 558615K->13855K(563200K), 0.0177710 secs] 739960K->195200K(1624064K), 0.0179390 secs] [Times: user=0.05 sys=0.00, real=0.02 secs]";
+		else if("PSOldGen".equals(keyword))
+			line="38500.303: [Full GC [PSYoungGen: 42686K->0K(512000K)] [PSOldGen: 958137K->140581K(958464K)] 1000824K->140581K(1470464K) [PSPermGen: 52608K->52608K(131072K)], 0.4473140 secs] [Times: user=0.45 sys=0.00, real=0.44 secs]";
+		else if("ParOldGen".equals(keyword))
+			line="38500.303: [Full GC [PSYoungGen: 42686K->0K(512000K)] [ParOldGen: 958137K->140581K(958464K)] 1000824K->140581K(1470464K) [PSPermGen: 52608K->52608K(131072K)], 0.4473140 secs] [Times: user=0.45 sys=0.00, real=0.44 secs]";
+		else if("CMS-initial-mark".equals(keyword))
+			line="75090.950: [GC [1 CMS-initial-mark: 869925K(1060864K)] 874081K(1624064K), 0.0069590 secs] [Times: user=0.00 sys=0.00, real=0.00 secs]";
+		else if("CMS-remark".equals(keyword))
+			line="75094.860: [GC[YG occupancy: 259902 K (563200 K)]75094.860: [Rescan (parallel) , 0.0586970 secs]75094.919: [weak refs processing, 0.0168870 secs]75094.936: [class unloading, 0.0413000 secs]75094.977: [scrub symbol & string tables, 0.0115240 secs] [1 CMS-remark: 869959K(1060864K)] 1129862K(1624064K), 0.1832670 secs] [Times: user=0.23 sys=0.00, real=0.18 secs]";
+		else if("ParNew (promotion failed)".equals(keyword))
+			line="83368.174: [GC 83368.175: [ParNew (promotion failed): 563061K->563061K(563200K), 0.1841480 secs]83368.359: [CMS: 693918K->226725K(1060864K), 1.7836900 secs] 1215048K->226725K(1624064K), 1.9682580 secs] [Times: user=2.06 sys=0.09, real=1.97 secs]";
+		else
+			throw new IllegalArgumentException("no line for keyword: "+keyword);
+		return dateStamp?DATE_STAMP+line:line;
+	}
+
+	/**
+	 * log of about megabytes written by GCLogGenerator with its default seed,so all runs read same log
+	 */
+	public static File logFile(Collector collector,int megabytes) throws IOException{
+		String name="gclogviewer-bench-"+collector.name().toLowerCase(Locale.US)+"-"+megabytes+"m.log";
+		File file=new File(System.getProperty("java.io.tmpdir"), name);
+		long size=megabytes*1024L*1024L;
+		if(file.isFile() && file.length()>=size)
+			return file;
+		File tempFile=new File(file.getPath()+".tmp");
+		Writer writer=new BufferedWriter(new OutputStreamWriter(new FileOutputStream(tempFile), "ISO-8859-1"), 1024*1024);
+		try{
+			GCLogGenerator generator=new GCLogGenerator();
+			generator.setCollector(collector);
+			generator.generate(writer, size);
+		}
+		finally{
+			writer.close();
+		}
+		if(!tempFile.renameTo(file)){
+			file.delete();
+			if(!tempFile.renameTo(file))
+				throw new IOException("can't rename "+tempFile+" to "+file);
+		}
+		return file;
+	}
+
+}
@@ -0,0 +1,51 @@
+/**
+ * GCLogViewer
+ * 
+ * A free open source tool to visualize data produced by the Java VM options -Xloggc:<file> or jstat > <file>.
+ * 
+ * Code license:	Apache License 2.0
+ * 
+ * http://code.google.com/p/gclogviewer
+ */
+package code.google.gclogviewer.bench;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Run the JMH benchmarks and write results as JSON,so runs can be compared for regressions:
+ *
+ * java -cp bin:bench-classes:lib/*:jmh/* code.google.gclogviewer.bench.GCLogBenchmarks [result.json] [regexp ...]
+ *
+ * src/bench is not on the project classpath,compile it with jmh-core and jmh-generator-annprocess,
+ * the annotation processor writes the generated benchmark classes and META-INF/BenchmarkList.
+ * regexps select benchmarks,default is all of this package.
+ *
+ * @author <a href="mailto:bluedavy@gmail.com">bluedavy</a>
+ */
+public class GCLogBenchmarks {
+
+	private static final String DEFAULT_RESULT="gclogviewer-bench.json";
+
+	public static void main(String[] args) throws Exception{
+		String result=DEFAULT_RESULT;
+		int first=0;
+		if(args.length>0 && args[0].endsWith(".json")){
+			result=args[0];
+			first=1;
+		}
+		ChainedOptionsBuilder options=new OptionsBuilder()
+				.resultFormat(ResultFormatType.JSON)
+				.result(result);
+		if(first==args.length){
+			options.include(GCLogBenchmarks.class.getPackage().getName()+".*");
+		}
+		for (int i = first; i < args.length; i++) {
+			options.include(args[i]);
+		}
+		new Runner(options.build()).run();
+	}
+
+}
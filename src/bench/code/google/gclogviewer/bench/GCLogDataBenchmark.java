@@ -0,0 +1,109 @@
+/**
+ * GCLogViewer
+ * 
+ * A free open source tool to visualize data produced by the Java VM options -Xloggc:<file> or jstat > <file>.
+ * 
+ * Code license:	Apache License 2.0
+ * 
+ * http://code.google.com/p/gclogviewer
+ */
+package code.google.gclogviewer.bench;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import code.google.gclogviewer.GCLogAnalyze;
+import code.google.gclogviewer.GCLogBatch;
+import code.google.gclogviewer.GCLogData;
+import code.google.gclogviewer.GCLogGenerator.Collector;
+import code.google.gclogviewer.GCLogUtilization;
+
+/**
+ * GCLogData summary getters shown in the Summary group,on data of generated logs.
+ *
+ * @author <a href="mailto:bluedavy@gmail.com">bluedavy</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations=5,time=1)
+@Measurement(iterations=5,time=1)
+@Fork(1)
+public class GCLogDataBenchmark {
+
+	@Param({"10","100"})
+	public int megabytes;
+
+	private GCLogData data;
+
+	@Setup
+	public void setUp() throws Exception{
+		data=new GCLogAnalyze().analysis(GCLogBenchLines.logFile(Collector.CMS, megabytes).getPath(), Runtime.getRuntime().availableProcessors());
+	}
+
+	@Benchmark
+	public String throughput(){
+		return data.getThroughput();
+	}
+
+	@Benchmark
+	public void ygcSummary(Blackhole blackhole){
+		blackhole.consume(data.getYGC());
+		blackhole.consume(data.getYGCT());
+		blackhole.consume(data.getAvgYGCT());
+		blackhole.consume(data.getAvgYGCRate());
+	}
+
+	@Benchmark
+	public void fgcSummary(Blackhole blackhole){
+		blackhole.consume(data.getFGC());
+		blackhole.consume(data.getFGCT());
+		blackhole.consume(data.getAvgFGCT());
+		blackhole.consume(data.getAvgFGCRate());
+	}
+
+	@Benchmark
+	public void cmsgcSummary(Blackhole blackhole){
+		blackhole.consume(data.getCMSGC());
+		blackhole.consume(data.getCMSGCT());
+		blackhole.consume(data.getAvgCMSGCT());
+		blackhole.consume(data.getAvgCMSGCRate());
+	}
+
+	@Benchmark
+	public void ldsAndPTOS(Blackhole blackhole){
+		blackhole.consume(data.getAVGYGCLDS());
+		blackhole.consume(data.getAVGFGCLDS());
+		blackhole.consume(data.getAVGPTOS());
+	}
+
+	/**
+	 * all fields,same as GCLogBatch prints for a log
+	 */
+	@Benchmark
+	public Map<String, String> summary(){
+		return GCLogBatch.summary(data);
+	}
+
+	/**
+	 * merge of pauses and MMU curve shown beside gc trend chart
+	 */
+	@Benchmark
+	public double[] mmu(){
+		return new GCLogUtilization(data).getMMUs(GCLogUtilization.MMU_WINDOWS);
+	}
+
+}
@@ -0,0 +1,83 @@
+/**
+ * GCLogViewer
+ * 
+ * A free open source tool to visualize data produced by the Java VM options -Xloggc:<file> or jstat > <file>.
+ * 
+ * Code license:	Apache License 2.0
+ * 
+ * http://code.google.com/p/gclogviewer
+ */
+package code.google.gclogviewer.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import code.google.gclogviewer.GCLogKeywordsAndParsers;
+import code.google.gclogviewer.GCLogParser;
+import code.google.gclogviewer.OneLineGCData;
+
+/**
+ * Each GCLogParser on its representative line,with and without date stamp,
+ * and the keyword dispatch which finds the parser of a line.
+ *
+ * @author <a href="mailto:bluedavy@gmail.com">bluedavy</a>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations=5,time=1)
+@Measurement(iterations=5,time=1)
+@Fork(1)
+public class GCLogParserBenchmark {
+
+	@Param({"PSYoungGen","ParNew","PSOldGen","ParOldGen","CMS-initial-mark","CMS-remark","ParNew (promotion failed)"})
+	public String keyword;
+
+	@Param({"false","true"})
+	public boolean dateStamp;
+
+	private String line;
+
+	private GCLogParser parser;
+
+	@Setup
+	public void setUp(){
+		line=GCLogBenchLines.line(keyword, dateStamp);
+		parser=GCLogKeywordsAndParsers.getParser(keyword);
+	}
+
+	@Benchmark
+	public OneLineGCData parse() throws Exception{
+		return parser.parse(line);
+	}
+
+	/**
+	 * keyword scan and parser lookup,same as GCLogAnalyze does for each line
+	 */
+	@Benchmark
+	public GCLogParser dispatch(){
+		long match=GCLogKeywordsAndParsers.match(line);
+		return (match==-1)?null:GCLogKeywordsAndParsers.getParser(match);
+	}
+
+	/**
+	 * dispatch and parse at the keyword offset
+	 */
+	@Benchmark
+	public OneLineGCData dispatchAndParse() throws Exception{
+		long match=GCLogKeywordsAndParsers.match(line);
+		return GCLogKeywordsAndParsers.getParser(match).parse(line, GCLogKeywordsAndParsers.getOffset(match));
+	}
+
+}
@@ -9,12 +9,16 @@
  */
 package code.google.gclogviewer;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.InputStreamReader;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 /**
  * Analyze gc log to GCLogData
@@ -23,87 +27,386 @@ import java.util.List;
  */
 public class GCLogAnalyze {
 
-	private static final List<String> IGNORE_KEYWORDS=new ArrayList<String>();
+	// files smaller than 2 chunks are analyzed by one thread
+	private static final long DEFAULT_CHUNK_SIZE=16*1024*1024;
 	
-	static{
-		// CMS Concurrent Time not need calculate
-		IGNORE_KEYWORDS.add("CMS-concurrent-");
-		IGNORE_KEYWORDS.add("CMS: abort preclean due");
-	}
+	// chunk must fit in one MappedByteBuffer
+	private static final long MAX_CHUNK_SIZE=256*1024*1024;
+	
+	// chunks per thread,so fast threads can steal the rest
+	private static final int CHUNKS_PER_THREAD=4;
+	
+	private static final int BOUNDARY_WINDOW=64*1024;
+	
+	// lines between two reports to progress listener
+	private static final int PROGRESS_LINES=8192;
 	
+	private static final byte[] CONCURRENT="[CMS-concurrent-".getBytes();
+	
+	/**
+	 * analyze gc log on current thread,bytes are parsed in place from memory mapped file,
+	 * no String is created for line
+	 */
 	public GCLogData analysis(String fileName) throws Exception{
-		BufferedReader reader=new BufferedReader(new InputStreamReader(new FileInputStream(new File(fileName))));
-		String line=null;
-		GCLogData data=new GCLogData();
-		String runtime=null;
-		boolean needPrint = true;
-		OneLineGCData previousData=null;
-		while((line=reader.readLine())!=null){
-			line=line.trim();
-			GCLogParser parser=getParser(line);
+		File file=new File(fileName);
+		return analysis(file, 0, file.length(), 1, MAX_CHUNK_SIZE).getData();
+	}
+	
+	/**
+	 * map gc log file into memory,split it into line aligned chunks and analyze chunks on a fork/join pool
+	 * 
+	 * @param threads parallelism,analyze on current thread when less than 2
+	 */
+	public GCLogData analysis(String fileName,int threads) throws Exception{
+		return analysis(fileName, threads, DEFAULT_CHUNK_SIZE);
+	}
+	
+	GCLogData analysis(String fileName,int threads,long minChunkSize) throws Exception{
+		File file=new File(fileName);
+		long size=file.length();
+		if(threads<2 || size<minChunkSize*2){
+			return analysis(file, 0, size, 1, MAX_CHUNK_SIZE).getData();
+		}
+		return analysis(file, 0, size, threads, minChunkSize).getData();
+	}
+	
+	GCLogAnalyzeContext analysis(File file,long start,long end,int threads,long minChunkSize) throws Exception{
+		return analysis(file, start, end, threads, minChunkSize, null);
+	}
+	
+	/**
+	 * analyze [start,end) of gc log file in chunks,start and end must be line ends
+	 * 
+	 * @param listener told of bytes,lines and events analyzed by each chunk,may be null
+	 */
+	GCLogAnalyzeContext analysis(File file,long start,long end,int threads,long minChunkSize,GCLogProgressListener listener) throws Exception{
+		return analysis(file, start, end, threads, minChunkSize, null, listener);
+	}
+	
+	/**
+	 * @param last context of the range which ends at start,jstat rows before start are taken from it
+	 * 		  instead of being read again,may be null
+	 */
+	GCLogAnalyzeContext analysis(File file,long start,long end,int threads,long minChunkSize,GCLogAnalyzeContext last,GCLogProgressListener listener) throws Exception{
+		RandomAccessFile randomAccessFile=new RandomAccessFile(file, "r");
+		ForkJoinPool pool=null;
+		try{
+			if(listener!=null)
+				listener.start(end-start);
+			FileChannel channel=randomAccessFile.getChannel();
+			// jstat rows depend on the row before,they are parsed in one pass which is fast enough
+			GCLogJstat jstat=GCLogJstat.header(channel);
+			if(jstat!=null)
+				return jstat.analysis(channel, start, end, last, listener);
+			// collector and region size of G1 are only told at start of log,chunks after the first one start with them
+			GCLogUnifiedEvents header=GCLogUnifiedEvents.header(channel);
+			long chunkSize=Math.min(Math.max((end-start)/(Math.max(threads, 1)*CHUNKS_PER_THREAD), minChunkSize), MAX_CHUNK_SIZE);
+			long[] boundaries=splitChunks(channel, start, end, chunkSize);
+			ChunkTask task=new ChunkTask(channel, boundaries, 0, boundaries.length-1, header, listener);
+			if(boundaries.length==2){
+				return task.compute();
+			}
+			pool=new ForkJoinPool(Math.max(threads, 1));
+			return pool.invoke(task);
+		}
+		catch(RuntimeException e){
+			// chunk task wraps checked exception
+			Throwable cause=e;
+			while(cause instanceof RuntimeException && cause.getCause()!=null){
+				cause=cause.getCause();
+			}
+			if(cause instanceof RuntimeException || !(cause instanceof Exception))
+				throw e;
+			throw (Exception)cause;
+		}
+		finally{
+			if(pool!=null)
+				pool.shutdown();
+			randomAccessFile.close();
+		}
+	}
+	
+	void analysis(GCLogLineSource source,GCLogAnalyzeContext context) throws Exception{
+		analysis(source, context, null);
+	}
+	
+	/**
+	 * lines are assembled into gc records by GCLogRecordAssembler,each record is dispatched and parsed once,
+	 * lines of unified logging which are not pauses are joined to their pause by GC(n) id in context,
+	 * records which can't be parsed are not printed,they are counted in GCLogDiagnostics of context
+	 * 
+	 * @param listener told of progress every PROGRESS_LINES records and at end of source,may be null
+	 */
+	void analysis(GCLogLineSource source,GCLogAnalyzeContext context,GCLogProgressListener listener) throws Exception{
+		GCLogRecordAssembler records=new GCLogRecordAssembler(source);
+		CharSequence record=null;
+		GCLogDiagnostics diagnostics=context.getDiagnostics();
+		// counts since last report
+		int count=0;
+		int events=0;
+		long reportedBytes=0;
+		long reportedLines=0;
+		while((record=records.readLine())!=null){
+			if(++count==PROGRESS_LINES && listener!=null){
+				long bytes=records.getBytesRead();
+				long lines=records.getLinesRead();
+				listener.analyzed(bytes-reportedBytes, lines-reportedLines, events);
+				reportedBytes=bytes;
+				reportedLines=lines;
+				count=0;
+				events=0;
+			}
+			if(record.length()==0)
+				continue;
+			if(context.addUnifiedLine(record)){
+				diagnostics.skipped(GCLogDiagnostics.Category.UNIFIED_GC, record);
+				continue;
+			}
+			long match=GCLogKeywordsAndParsers.match(record);
+			GCLogParser parser=(match==-1)?null:GCLogKeywordsAndParsers.getParser(match);
 			if(parser == null){
-				for (String ignoreKeyword : IGNORE_KEYWORDS) {
-					if(line.indexOf(ignoreKeyword)!=-1){
-						needPrint=false;
-					}
-				}
-				if(needPrint){
-					System.err.println("Cannot find parser for line: "+line);
-				}
+				// stopped time lines and CMS concurrent phases are streams of their own
+				if(match==-1 && (context.addSafepointLine(record) || context.addConcurrentLine(record)))
+					continue;
+				diagnostics.unmatched(record, match!=-1);
+				continue;
+			}
+			long parseStart=System.nanoTime();
+			// record is complete,so it is parsed only once
+			OneLineGCData onelineGCData=parser.parse(record,GCLogKeywordsAndParsers.getOffset(match));
+			if(onelineGCData==null){
+				diagnostics.unmatched(record, false);
+				continue;
+			}
+			GCLogDiagnostics.ParserStats stats=diagnostics.getParserStats(match);
+			if(!onelineGCData.hasOccurTime()){
+				stats.failed(record, System.nanoTime()-parseStart);
 				continue;
 			}
-			OneLineGCData onelineGCData=parser.parse(line);
-			runtime=onelineGCData.getOccurTime();
-			if(runtime==null){
-				// try to read next line
-				String nextLine=reader.readLine();
-				line+=nextLine;
-				onelineGCData=parser.parse(line);
-				runtime=onelineGCData.getOccurTime();
-				if(runtime==null){
-					System.err.println("Runtime is null: "+line);
+			stats.parsed(System.nanoTime()-parseStart, records.isJoined());
+			context.add(parser, onelineGCData);
+			events++;
+		}
+		diagnostics.addLines(records.getLinesRead());
+		if(listener!=null){
+			listener.analyzed(records.getBytesRead()-reportedBytes, records.getLinesRead()-reportedLines, events);
+		}
+	}
+	
+	/**
+	 * boundaries of chunks,a chunk ends after a line which ends a gc record,see nextBoundary,
+	 * so a gc record split into several lines stays in one chunk
+	 */
+	private long[] splitChunks(FileChannel channel,long start,long size,long chunkSize) throws IOException{
+		List<Long> boundaries=new ArrayList<Long>();
+		boundaries.add(start);
+		long position=start+chunkSize;
+		while(position<size){
+			long boundary=nextBoundary(channel, position, size);
+			if(boundary==-1 || boundary>=size)
+				break;
+			boundaries.add(boundary);
+			position=boundary+chunkSize;
+		}
+		boundaries.add(size);
+		long[] result=new long[boundaries.size()];
+		for (int i = 0; i < result.length; i++) {
+			result[i]=boundaries.get(i);
+		}
+		return result;
+	}
+	
+	/**
+	 * position after the first line which ends a gc record in [from,size),-1 if none:
+	 * a line which ends with ']' but has no CMS-concurrent record written into its middle,
+	 * GCLogRecordAssembler cuts it out and keeps the record before it open,
+	 * the line from which scan starts is not read whole,so it is not a boundary,
+	 * a line which ends with ']' at size is not a boundary if assembler may continue its record,
+	 * e.g. a G1 pause whose details block is not written yet,see mayContinue,
+	 * or a pause line of unified logging,"[...] GC(n) Pause ...(256M) 5.123ms",
+	 * lines of a gc of unified logging come before its pause line,so they stay in one chunk,
+	 * and the line after it is not indented,so G1 details block stays with its pause,
+	 * or a row of numbers of jstat output,
+	 * or a stopped time line,"2.345: Total time for which application threads were stopped: 0.0001234 seconds",
+	 * it is written after the gc,so a safepoint which ends the log is not held by GCLogFollower
+	 */
+	static long nextBoundary(FileChannel channel,long from,long size) throws IOException{
+		ByteBuffer window=ByteBuffer.allocate(BOUNDARY_WINDOW);
+		long position=from;
+		// first byte of line,'\n' before it is read,0 when from is not a line start
+		byte first=(from==0)?(byte)'\n':0;
+		if(from>0){
+			window.limit(1);
+			if(channel.read(window, from-1)==1 && window.get(0)=='\n')
+				first='\n';
+		}
+		byte lastVisible=0;
+		byte secondLastVisible=0;
+		// last visible byte before last spaces in line
+		byte beforeSpace=0;
+		boolean space=false;
+		// visible bytes of line are all [0-9.-]
+		boolean numbers=true;
+		// '[' seen in line,and bytes of CMS-concurrent matched
+		int brackets=0;
+		int matched=0;
+		// CMS-concurrent record is written after another '[' in line
+		boolean cut=false;
+		long lineStart=from;
+		// start of line which ends with ']' before candidate,-1 if candidate is another line
+		long candidateLine=-1;
+		// position after a line which ends a record,it is a boundary if next line is not indented
+		long candidate=-1;
+		while(position<size){
+			window.clear();
+			window.limit((int)Math.min(window.capacity(), size-position));
+			int read=channel.read(window, position);
+			if(read<=0)
+				break;
+			for (int i = 0; i < read; i++) {
+				byte b=window.get(i);
+				if(candidate!=-1){
+					if(b!=' ' && b!='\t')
+						return candidate;
+					candidate=-1;
+				}
+				if(b=='\n'){
+					if(numbers && first!=0 && GCLogLineScanner.isDigit((char)lastVisible))
+						return position+i+1;
+					candidateLine=-1;
+					if(lastVisible==']' && first!=0 && !cut){
+						candidate=position+i+1;
+						candidateLine=lineStart;
+					}
+					else if((first=='[' && beforeSpace==')' && secondLastVisible=='m' && lastVisible=='s')
+						|| (GCLogLineScanner.isDigit((char)first) && secondLastVisible=='d' && lastVisible=='s'))
+						candidate=position+i+1;
+					first='\n';
+					lastVisible=0;
+					secondLastVisible=0;
+					beforeSpace=0;
+					space=false;
+					numbers=true;
+					brackets=0;
+					matched=0;
+					cut=false;
+					lineStart=position+i+1;
 					continue;
 				}
-			}
-			if(parser.isYGC()){
-				data.getYGCPauseTimes().put(runtime,onelineGCData.getPauseTime());
-				data.getYGCMemoryChanges().put(runtime, onelineGCData.getMemoryChangeInfo());
-				if(data.getGCType()==null)
-					data.setGCType(parser.getGCDescription());
-				if(previousData==null){
-					data.setDataForLDSAndPTOS(onelineGCData.getHeapMemoryAfter(), onelineGCData.getMemoryChangeInfo()[1], "0", "0",runtime);
+				if(b=='[')
+					brackets++;
+				matched=(b==CONCURRENT[matched])?matched+1:((b=='[')?1:0);
+				if(matched==CONCURRENT.length){
+					cut=cut || brackets>1;
+					matched=0;
 				}
-				else{
-					if(previousData.isYGCData())
-						data.setDataForLDSAndPTOS(onelineGCData.getHeapMemoryAfter(), onelineGCData.getMemoryChangeInfo()[1], previousData.getHeapMemoryAfter(), previousData.getMemoryChangeInfo()[1],runtime);
-					else
-						data.setDataForLDSAndPTOS(onelineGCData.getHeapMemoryAfter(), onelineGCData.getMemoryChangeInfo()[1], previousData.getHeapMemoryAfter(), "0",runtime);
+				if(b==' ' || b=='\t'){
+					if(first=='\n')
+						first=b;
+					space=true;
+				}
+				else if(b!='\r'){
+					if(first=='\n')
+						first=b;
+					if(space)
+						beforeSpace=lastVisible;
+					if(!GCLogLineScanner.isDigit((char)b) && b!='.' && b!='-')
+						numbers=false;
+					space=false;
+					secondLastVisible=lastVisible;
+					lastVisible=b;
 				}
-				previousData = onelineGCData;
-			}
-			else if(parser.isCMSGC()){
-				data.getCMSGCPauseTimes().put(runtime,onelineGCData.getPauseTime());
-				data.getCMSGCMemoryChanges().put(runtime, onelineGCData.getMemoryChangeInfo());
-				data.setGCType(parser.getGCDescription());
 			}
-			else{
-				data.getFGCPauseTimes().put(runtime,onelineGCData.getPauseTime());
-				data.getFGCMemoryChanges().put(runtime, onelineGCData.getMemoryChangeInfo());
-				data.setGCType(parser.getGCDescription());
-				previousData = onelineGCData;
+			position+=read;
+		}
+		if(candidateLine!=-1 && mayContinue(channel, candidateLine, candidate))
+			return -1;
+		return candidate;
+	}
+	
+	/**
+	 * line in [start,end) is the last one,and GCLogRecordAssembler may add the next line to its record:
+	 * it is indented,a line of a block of details,or it starts a record which may have details
+	 */
+	private static boolean mayContinue(FileChannel channel,long start,long end) throws IOException{
+		ByteBuffer buffer=ByteBuffer.allocate((int)Math.min(end-start, BOUNDARY_WINDOW));
+		channel.read(buffer, start);
+		buffer.flip();
+		if(buffer.hasRemaining() && (buffer.get(0)==' ' || buffer.get(0)=='\t'))
+			return true;
+		String line=new String(buffer.array(), 0, buffer.limit(), "ISO-8859-1").trim();
+		return GCLogRecordAssembler.isRecordStart(line) && GCLogRecordAssembler.mayHaveDetails(line);
+	}
+	
+	/**
+	 * position after the last line which ends a gc record in [from,size),from if none
+	 */
+	static long lastBoundary(FileChannel channel,long from,long size) throws IOException{
+		long windowStart=Math.max(from, size-BOUNDARY_WINDOW);
+		while(true){
+			long last=-1;
+			long boundary=nextBoundary(channel, windowStart, size);
+			while(boundary!=-1){
+				last=boundary;
+				boundary=nextBoundary(channel, boundary, size);
 			}
+			if(last!=-1)
+				return last;
+			if(windowStart==from)
+				return from;
+			windowStart=Math.max(from, windowStart-BOUNDARY_WINDOW);
 		}
-		data.setRuntime(runtime);
-		return data;
 	}
 	
-	private GCLogParser getParser(String line){
-		for(String gcLogKeyword: GCLogKeywordsAndParsers.getKeywords()){
-			if(line.indexOf(gcLogKeyword)!=-1){
-				return GCLogKeywordsAndParsers.getParser(gcLogKeyword);
+	private class ChunkTask extends RecursiveTask<GCLogAnalyzeContext> {
+		
+		private static final long serialVersionUID = 1L;
+
+		private final FileChannel channel;
+		
+		private final long[] boundaries;
+		
+		// chunk index range [from,to)
+		private final int from,to;
+		
+		// null if log tells nothing at its start
+		private final GCLogUnifiedEvents header;
+		
+		private final GCLogProgressListener listener;
+		
+		ChunkTask(FileChannel channel,long[] boundaries,int from,int to,GCLogUnifiedEvents header,GCLogProgressListener listener){
+			this.channel=channel;
+			this.boundaries=boundaries;
+			this.from=from;
+			this.to=to;
+			this.header=header;
+			this.listener=listener;
+		}
+		
+		protected GCLogAnalyzeContext compute() {
+			if(to-from==1){
+				try{
+					long start=boundaries[from];
+					MappedByteBuffer buffer=channel.map(FileChannel.MapMode.READ_ONLY, start, boundaries[to]-start);
+					GCLogAnalyzeContext context=new GCLogAnalyzeContext();
+					if(header!=null)
+						context.setUnifiedHeader(header);
+					analysis(new GCLogMappedLineSource(buffer), context, listener);
+					return context;
+				}
+				catch(Exception e){
+					throw new IllegalStateException(e);
+				}
 			}
+			int middle=(from+to)>>>1;
+			ChunkTask left=new ChunkTask(channel, boundaries, from, middle, header, listener);
+			ChunkTask right=new ChunkTask(channel, boundaries, middle, to, header, listener);
+			right.fork();
+			GCLogAnalyzeContext context=left.compute();
+			context.merge(right.join());
+			return context;
 		}
-		return null;
+		
 	}
 	
 }
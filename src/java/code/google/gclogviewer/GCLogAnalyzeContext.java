@@ -0,0 +1,270 @@
+/**
+ * GCLogViewer
+ * 
+ * A free open source tool to visualize data produced by the Java VM options -Xloggc:<file> or jstat > <file>.
+ * 
+ * Code license:	Apache License 2.0
+ * 
+ * http://code.google.com/p/gclogviewer
+ */
+package code.google.gclogviewer;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+
+/**
+ * GCLogData being analyzed from a range of gc log,together with the state carried from one gc to the next,
+ * contexts of adjacent ranges can be merged in log order.
+ *
+ * @author <a href="mailto:bluedavy@gmail.com">bluedavy</a>
+ */
+public class GCLogAnalyzeContext {
+
+	private final GCLogData data=new GCLogData();
+	
+	// last YGC or FGC data,used to caculate LDS and PTOS
+	private OneLineGCData previousData=null;
+	
+	// first YGC of this range which has no previousData,its LDS and PTOS is caculated again when merged after another range
+	private OneLineGCData firstYGCData=null;
+	
+	private String runtime=null;
+	
+	// gc type set by FGC or CMSGC wins over the one set by YGC
+	private boolean gcTypeFromOldGC=false;
+	
+	// diagnostics of lines analyzed by this context,not kept in cache file
+	private final GCLogDiagnostics diagnostics=new GCLogDiagnostics();
+	
+	// jstat rows till end of this range and the last of them,-1 and null if not jstat output,not kept in cache file
+	private long jstatRows=-1;
+	
+	private double[] jstatLastRow=null;
+	
+	// lines of unified logging joined by GC(n) id,only collector and region size are kept in cache file
+	private final GCLogUnifiedEvents unifiedEvents=new GCLogUnifiedEvents();
+	
+	/**
+	 * start with what lines at start of log tell,so a range after the start is analyzed as the whole log is
+	 */
+	void setUnifiedHeader(GCLogUnifiedEvents header){
+		unifiedEvents.init(header);
+		setCollector();
+	}
+	
+	/**
+	 * keep a line of unified logging which is not a pause for the pause of same GC(n)
+	 * 
+	 * @return false if line is not such a line,it should be dispatched to parsers
+	 */
+	public boolean addUnifiedLine(CharSequence line){
+		if(!unifiedEvents.add(line))
+			return false;
+		setCollector();
+		return true;
+	}
+	
+	/**
+	 * add the safepoint of a stopped time line,it is written after the gc in it,so run time goes on to it
+	 * 
+	 * @return false if line is not a stopped time line
+	 */
+	public boolean addSafepointLine(CharSequence line){
+		GCLogSafepoints safepoints=data.getSafepoints();
+		if(!safepoints.add(line))
+			return false;
+		runtime=BigDecimal.valueOf(safepoints.getEndTime()).setScale(3, RoundingMode.HALF_UP).toPlainString();
+		return true;
+	}
+	
+	/**
+	 * add the phase of a CMS concurrent line
+	 * 
+	 * @return false if line is not the end of a CMS concurrent phase
+	 */
+	public boolean addConcurrentLine(CharSequence line){
+		return data.getConcurrentPhases().add(line);
+	}
+	
+	public void add(GCLogParser parser,OneLineGCData onelineGCData){
+		if(onelineGCData.getGCId()!=-1)
+			unifiedEvents.complete(onelineGCData);
+		// parsers of unified logging have no description,collector is told by log
+		add(onelineGCData, parser.isYGC(), parser.isCMSGC(), parser.getGCDescription());
+	}
+	
+	/**
+	 * add gc data which is not parsed from a line of gc log,e.g. counted by jstat
+	 * 
+	 * @param gcType null if not known
+	 */
+	void add(OneLineGCData onelineGCData,boolean ygc,boolean cmsgc,String gcType){
+		runtime=onelineGCData.getOccurTime();
+		if(ygc){
+			data.getYGCEvents().add(onelineGCData);
+			if(data.getGCType()==null && gcType!=null)
+				data.setGCType(gcType);
+			if(previousData==null){
+				firstYGCData=onelineGCData;
+			}
+			setDataForLDSAndPTOS(data.getYGC()-1, onelineGCData);
+			previousData = onelineGCData;
+		}
+		else if(cmsgc){
+			data.getCMSGCEvents().add(onelineGCData);
+			setOldGCType(gcType);
+		}
+		else{
+			data.getFGCEvents().add(onelineGCData);
+			setOldGCType(gcType);
+			previousData = onelineGCData;
+		}
+	}
+	
+	/**
+	 * merge context of the range which follows this one
+	 */
+	public void merge(GCLogAnalyzeContext next){
+		// first YGC of next range is its first YGC event
+		int firstYGCIndex=data.getYGC();
+		data.append(next.data);
+		if(next.firstYGCData!=null && previousData!=null){
+			// next range could not see the gc before its first YGC
+			setDataForLDSAndPTOS(firstYGCIndex, next.firstYGCData);
+		}
+		if(previousData==null){
+			firstYGCData=next.firstYGCData;
+		}
+		if(next.previousData!=null){
+			previousData=next.previousData;
+		}
+		if(next.runtime!=null){
+			runtime=next.runtime;
+		}
+		if(next.data.getGCType()!=null && (next.gcTypeFromOldGC || data.getGCType()==null)){
+			data.setGCType(next.data.getGCType());
+		}
+		gcTypeFromOldGC|=next.gcTypeFromOldGC;
+		unifiedEvents.merge(next.unifiedEvents);
+		if(next.jstatRows!=-1){
+			jstatRows=next.jstatRows;
+			jstatLastRow=next.jstatLastRow;
+		}
+		diagnostics.merge(next.diagnostics);
+	}
+	
+	/**
+	 * jstat rows from start of file till end of this range,-1 if not known
+	 */
+	long getJstatRows(){
+		return jstatRows;
+	}
+	
+	/**
+	 * last jstat row of this range or a range before it,null if none
+	 */
+	double[] getJstatLastRow(){
+		return jstatLastRow;
+	}
+	
+	/**
+	 * keep jstat rows seen till end of this range,so rows of a range after it need not be read again
+	 */
+	void setJstatRows(long jstatRows,double[] jstatLastRow){
+		this.jstatRows=jstatRows;
+		this.jstatLastRow=jstatLastRow;
+	}
+	
+	/**
+	 * run time which is later than the last gc,e.g. time of the last jstat sample
+	 */
+	void setRuntime(String runtime){
+		this.runtime=runtime;
+	}
+	
+	public GCLogDiagnostics getDiagnostics(){
+		return diagnostics;
+	}
+	
+	public GCLogData getData(){
+		data.setRuntime(runtime);
+		data.setDiagnostics(diagnostics);
+		return data;
+	}
+	
+	/**
+	 * write state to cache file,the first YGC is not kept,so a read context can only be merged with ranges after it
+	 */
+	void write(DataOutputStream out) throws IOException{
+		GCLogCache.writeString(out, data.getGCType());
+		GCLogCache.writeString(out, runtime);
+		out.writeBoolean(gcTypeFromOldGC);
+		out.writeBoolean(previousData!=null);
+		if(previousData!=null){
+			out.writeBoolean(previousData.isYGCData());
+			out.writeLong(previousData.getHeapMemoryAfterK());
+			out.writeLong(previousData.getMemoryAfterK());
+		}
+		GCLogCache.writeString(out, unifiedEvents.getCollector());
+		out.writeLong(unifiedEvents.getRegionSize());
+		data.getYGCEvents().write(out);
+		data.getFGCEvents().write(out);
+		data.getCMSGCEvents().write(out);
+		data.getSafepoints().write(out);
+		data.getConcurrentPhases().write(out);
+	}
+	
+	static GCLogAnalyzeContext read(ByteBuffer buffer){
+		GCLogAnalyzeContext context=new GCLogAnalyzeContext();
+		context.data.setGCType(GCLogCache.readString(buffer));
+		context.runtime=GCLogCache.readString(buffer);
+		context.gcTypeFromOldGC=(buffer.get()!=0);
+		if(buffer.get()!=0){
+			OneLineGCData previous=new OneLineGCData();
+			previous.setYGCData(buffer.get()!=0);
+			previous.setHeapMemoryAfter(String.valueOf(buffer.getLong()));
+			previous.setMemoryChangeInfo(new String[]{null,String.valueOf(buffer.getLong())});
+			context.previousData=previous;
+		}
+		context.unifiedEvents.setCollector(GCLogCache.readString(buffer));
+		context.unifiedEvents.setRegionSize(buffer.getLong());
+		context.data.getYGCEvents().read(buffer);
+		context.data.getFGCEvents().read(buffer);
+		context.data.getCMSGCEvents().read(buffer);
+		context.data.getSafepoints().read(buffer);
+		context.data.getConcurrentPhases().read(buffer);
+		return context;
+	}
+	
+	// collector told by log wins over the one of parsers
+	private void setCollector(){
+		if(unifiedEvents.getCollector()!=null && !unifiedEvents.getCollector().equals(data.getGCType())){
+			data.setGCType(unifiedEvents.getCollector());
+			gcTypeFromOldGC=true;
+		}
+	}
+	
+	private void setOldGCType(String gcType){
+		if(gcType==null)
+			return;
+		data.setGCType(gcType);
+		gcTypeFromOldGC=true;
+	}
+	
+	// use primitive values,line of previous data may have been reused by line source
+	private void setDataForLDSAndPTOS(int ygcIndex,OneLineGCData current){
+		if(previousData==null){
+			data.setDataForLDSAndPTOS(ygcIndex, current.getHeapMemoryAfterK(), 0, 0);
+		}
+		else if(previousData.isYGCData()){
+			data.setDataForLDSAndPTOS(ygcIndex, current.getHeapMemoryAfterK(), previousData.getHeapMemoryAfterK(), previousData.getMemoryAfterK());
+		}
+		else{
+			data.setDataForLDSAndPTOS(ygcIndex, current.getHeapMemoryAfterK(), previousData.getHeapMemoryAfterK(), 0);
+		}
+	}
+	
+}
@@ -0,0 +1,60 @@
+/**
+ * GCLogViewer
+ * 
+ * A free open source tool to visualize data produced by the Java VM options -Xloggc:<file> or jstat > <file>.
+ * 
+ * Code license:	Apache License 2.0
+ * 
+ * http://code.google.com/p/gclogviewer
+ */
+package code.google.gclogviewer;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+/**
+ * A line of ascii gc log as a window over bytes of a ByteBuffer,no String is created unless toString() or subSequence() is called.
+ * 
+ * The window is reused by GCLogMappedLineSource for every line,so values must be read from it before next line is read.
+ *
+ * @author <a href="mailto:bluedavy@gmail.com">bluedavy</a>
+ */
+public final class GCLogAsciiLine implements CharSequence {
+
+	private static final Charset ASCII=Charset.forName("ISO-8859-1");
+	
+	private ByteBuffer buffer;
+	
+	private int start;
+	
+	private int end;
+	
+	void set(ByteBuffer buffer,int start,int end){
+		this.buffer=buffer;
+		this.start=start;
+		this.end=end;
+	}
+	
+	public int length() {
+		return end-start;
+	}
+	
+	public char charAt(int index) {
+		return (char)(buffer.get(start+index) & 0xff);
+	}
+	
+	public CharSequence subSequence(int from, int to) {
+		if(from<0 || to>length() || from>to)
+			throw new IndexOutOfBoundsException("from: "+from+" to: "+to+" length: "+length());
+		byte[] bytes=new byte[to-from];
+		for (int i = 0; i < bytes.length; i++) {
+			bytes[i]=buffer.get(start+from+i);
+		}
+		return new String(bytes, ASCII);
+	}
+	
+	public String toString() {
+		return subSequence(0, length()).toString();
+	}
+	
+}
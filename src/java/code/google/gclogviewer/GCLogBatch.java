@@ -0,0 +1,355 @@
+/**
+ * GCLogViewer
+ * 
+ * A free open source tool to visualize data produced by the Java VM options -Xloggc:<file> or jstat > <file>.
+ * 
+ * Code license:	Apache License 2.0
+ * 
+ * http://code.google.com/p/gclogviewer
+ */
+package code.google.gclogviewer;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Headless batch analyzer,no SWT is needed,so logs can be analyzed on servers:
+ *
+ * java code.google.gclogviewer.GCLogBatch [-threads n] [-format text|json] [-cache] file|glob ...
+ *
+ * each log is analyzed by one thread of a fixed pool,summary fields same as the Summary group are printed
+ * in order of the arguments,only the summary of a log is kept after it is analyzed.
+ *
+ * @author <a href="mailto:bluedavy@gmail.com">bluedavy</a>
+ */
+public class GCLogBatch {
+
+	private static final String USAGE="Usage: java code.google.gclogviewer.GCLogBatch [-threads n] [-format text|json] [-cache] file|glob ...";
+
+	// json key,summary label
+	private static final String[][] FIELDS=new String[][]{
+		{"runtime","Run time"},
+		{"gcType","GC Type"},
+		{"throughput","Throughput"},
+		{"ygc","YGC"},
+		{"ygct","YGCT"},
+		{"avgYGCT","Avg YGCT"},
+		{"avgYGCRate","Avg YGCRate"},
+		{"cmsgc","CMSGC"},
+		{"cmsgct","CMSGCT"},
+		{"avgCMSGCT","Avg CMSGCT"},
+		{"avgCMSGCRate","Avg CMSGCRate"},
+		{"cmsCycles","CMS Cycles"},
+		{"avgCMSCycleTime","Avg CMS Cycle Time"},
+		{"avgCMSCycleInterval","Avg CMS Cycle Interval"},
+		{"oldGenFillRate","Old Gen Fill Rate"},
+		{"fgc","FGC"},
+		{"fgct","FGCT"},
+		{"avgFGCT","Avg FGCT"},
+		{"avgFGCRate","Avg FGCRate"},
+		{"avgYGCLDS","AVG YGCLDS"},
+		{"avgFGCLDS","AVG FGCLDS"},
+		{"avgPTOS","AVG PTOS"},
+		{"ygcPercentiles","YGC P50/P90/P99/P99.9/Max"},
+		{"cmsgcPercentiles","CMSGC P50/P90/P99/P99.9/Max"},
+		{"fgcPercentiles","FGC P50/P90/P99/P99.9/Max"},
+		{"safepoints","Safepoints"},
+		{"nonGCSafepoints","Non GC Safepoints"},
+		{"stoppedTime","Stopped Time"},
+		{"nonGCStoppedTime","Non GC Stopped Time"},
+		{"ttspPercentiles","TTSP P50/P90/P99/P99.9/Max"}
+	};
+
+	private final GCLogAnalyze analyze=new GCLogAnalyze();
+
+	private int threads=Runtime.getRuntime().availableProcessors();
+
+	private boolean json=false;
+
+	// save and reuse .gcv sidecar next to each log
+	private boolean useCache=false;
+
+	private final List<String> patterns=new ArrayList<String>();
+
+	public static void main(String[] args) throws Exception{
+		GCLogBatch batch=new GCLogBatch();
+		if(!batch.parseArgs(args)){
+			System.err.println(USAGE);
+			System.exit(2);
+		}
+		System.exit(batch.run(System.out, System.err)?0:1);
+	}
+
+	/**
+	 * @return false if args are wrong
+	 */
+	public boolean parseArgs(String[] args){
+		for (int i = 0; i < args.length; i++) {
+			String arg=args[i];
+			if("-threads".equals(arg) && i+1<args.length){
+				try{
+					threads=Math.max(Integer.parseInt(args[++i]), 1);
+				}
+				catch(NumberFormatException e){
+					return false;
+				}
+			}
+			else if("-format".equals(arg) && i+1<args.length){
+				String format=args[++i];
+				if(!"text".equals(format) && !"json".equals(format))
+					return false;
+				json="json".equals(format);
+			}
+			else if("-cache".equals(arg)){
+				useCache=true;
+			}
+			else if(arg.startsWith("-")){
+				return false;
+			}
+			else{
+				patterns.add(arg);
+			}
+		}
+		return !patterns.isEmpty();
+	}
+
+	/**
+	 * analyze all logs and print summaries to out,errors of a log are printed to err and do not stop others,
+	 * so is parse report of a log with unknown or failed lines
+	 *
+	 * @return false if any log failed
+	 */
+	public boolean run(PrintStream out,PrintStream err) throws Exception{
+		Set<String> fileNames=new LinkedHashSet<String>();
+		for (String pattern : patterns) {
+			fileNames.addAll(expand(pattern));
+		}
+		if(fileNames.isEmpty()){
+			err.println("no gc log matched: "+patterns);
+			return false;
+		}
+		// parse report of logs with unknown or failed lines,printed to err in log order
+		final Map<String, String> reports=new ConcurrentHashMap<String, String>();
+		ExecutorService executor=Executors.newFixedThreadPool(Math.min(threads, fileNames.size()));
+		try{
+			List<Future<Map<String, String>>> futures=new ArrayList<Future<Map<String, String>>>();
+			for (final String fileName : fileNames) {
+				futures.add(executor.submit(new Callable<Map<String, String>>() {
+					public Map<String, String> call() throws Exception {
+						GCLogData data=useCache?new GCLogFollower(analyze, fileName, 1).follow():analyze.analysis(fileName);
+						if(data.getDiagnostics().hasProblems())
+							reports.put(fileName, data.getDiagnostics().getReport());
+						return summary(data);
+					}
+				}));
+			}
+			boolean success=true;
+			int index=0;
+			if(json)
+				out.println("[");
+			for (String fileName : fileNames) {
+				Map<String, String> summary;
+				String error=null;
+				try{
+					summary=futures.get(index).get();
+				}
+				catch(ExecutionException e){
+					Throwable cause=(e.getCause()==null)?e:e.getCause();
+					error=(cause.getMessage()==null)?cause.toString():cause.getMessage();
+					summary=new LinkedHashMap<String, String>();
+					err.println(fileName+": "+error);
+					success=false;
+				}
+				if(reports.containsKey(fileName))
+					err.print(fileName+" parse report:\n"+reports.get(fileName));
+				if(json)
+					printJSON(out, fileName, summary, error, index==fileNames.size()-1);
+				else if(error==null)
+					printText(out, fileName, summary);
+				index++;
+			}
+			if(json)
+				out.println("]");
+			out.flush();
+			return success;
+		}
+		finally{
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * summary fields of GCLogData,keyed by json key in Summary group order
+	 */
+	public static Map<String, String> summary(GCLogData data){
+		if(data.getRuntime()==null)
+			throw new IllegalStateException("no gc found");
+		Map<String, String> summary=new LinkedHashMap<String, String>();
+		summary.put("runtime", data.getRuntime());
+		summary.put("gcType", data.getGCType());
+		summary.put("throughput", data.getThroughput());
+		summary.put("ygc", String.valueOf(data.getYGC()));
+		summary.put("ygct", data.getYGCT());
+		summary.put("avgYGCT", data.getAvgYGCT());
+		summary.put("avgYGCRate", data.getAvgYGCRate());
+		if(data.getCMSGC()>0){
+			summary.put("cmsgc", String.valueOf(data.getCMSGC()));
+			summary.put("cmsgct", data.getCMSGCT());
+			summary.put("avgCMSGCT", data.getAvgCMSGCT());
+			summary.put("avgCMSGCRate", data.getAvgCMSGCRate());
+		}
+		if(data.getCMSCycles()>0){
+			summary.put("cmsCycles", String.valueOf(data.getCMSCycles()));
+			summary.put("avgCMSCycleTime", data.getAvgCMSCycleTime());
+			summary.put("avgCMSCycleInterval", data.getAvgCMSCycleInterval());
+			summary.put("oldGenFillRate", data.getOldGenFillRateOfCMSCycle());
+		}
+		summary.put("fgc", String.valueOf(data.getFGC()));
+		summary.put("fgct", data.getFGCT());
+		summary.put("avgFGCT", data.getAvgFGCT());
+		summary.put("avgFGCRate", data.getAvgFGCRate());
+		summary.put("avgYGCLDS", data.getAVGYGCLDS()+"(K)");
+		summary.put("avgFGCLDS", data.getAVGFGCLDS()+"(K)");
+		summary.put("avgPTOS", data.getAVGPTOS()+"(K)");
+		summary.put("ygcPercentiles", data.getYGCPercentiles());
+		if(data.getCMSGC()>0)
+			summary.put("cmsgcPercentiles", data.getCMSGCPercentiles());
+		summary.put("fgcPercentiles", data.getFGCPercentiles());
+		if(data.getSafepoints().size()>0){
+			summary.put("safepoints", String.valueOf(data.getSafepoints().size()));
+			summary.put("nonGCSafepoints", String.valueOf(data.getNonGCSafepoints()));
+			summary.put("stoppedTime", data.getStoppedTime());
+			summary.put("nonGCStoppedTime", data.getNonGCStoppedTime());
+			summary.put("ttspPercentiles", data.getTTSPPercentiles());
+		}
+		return summary;
+	}
+
+	/**
+	 * file itself if pattern has no glob chars,else files matched by it in name order,
+	 * the directories before the first glob segment are walked,** walks all sub directories
+	 */
+	static List<String> expand(String pattern) throws IOException{
+		String path=pattern.replace('\\', '/');
+		int glob=firstGlobChar(path);
+		if(glob==-1)
+			return Collections.singletonList(pattern);
+		int slash=path.lastIndexOf('/', glob);
+		final Path base=Paths.get((slash==-1)?".":(slash==0)?"/":path.substring(0, slash));
+		if(!Files.isDirectory(base))
+			return Collections.emptyList();
+		final boolean relative=(slash==-1);
+		final PathMatcher matcher=FileSystems.getDefault().getPathMatcher("glob:"+path);
+		int depth=Integer.MAX_VALUE;
+		if(path.indexOf("**")==-1){
+			depth=1;
+			for (int i = slash+1; i < path.length(); i++) {
+				if(path.charAt(i)=='/')
+					depth++;
+			}
+		}
+		final List<String> fileNames=new ArrayList<String>();
+		Files.walkFileTree(base, EnumSet.noneOf(FileVisitOption.class), depth, new SimpleFileVisitor<Path>() {
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+				Path name=relative?base.relativize(file):file;
+				if(attrs.isRegularFile() && matcher.matches(name))
+					fileNames.add(name.toString());
+				return FileVisitResult.CONTINUE;
+			}
+			public FileVisitResult visitFileFailed(Path file, IOException e) throws IOException {
+				// unreadable directory,skip it
+				return FileVisitResult.CONTINUE;
+			}
+		});
+		Collections.sort(fileNames);
+		return fileNames;
+	}
+
+	private static int firstGlobChar(String path){
+		for (int i = 0; i < path.length(); i++) {
+			char c=path.charAt(i);
+			if(c=='*' || c=='?' || c=='[' || c=='{')
+				return i;
+		}
+		return -1;
+	}
+
+	private static void printText(PrintStream out,String fileName,Map<String, String> summary){
+		out.println(fileName);
+		for (String[] field : FIELDS) {
+			String value=summary.get(field[0]);
+			if(value!=null)
+				out.println("\t"+field[1]+": "+value);
+		}
+		out.println();
+	}
+
+	private static void printJSON(PrintStream out,String fileName,Map<String, String> summary,String error,boolean last){
+		StringBuilder builder=new StringBuilder();
+		builder.append("  {\"file\": ").append(quote(fileName));
+		if(error!=null)
+			builder.append(", \"error\": ").append(quote(error));
+		for (Map.Entry<String, String> entry : summary.entrySet()) {
+			builder.append(", ").append(quote(entry.getKey())).append(": ").append(quote(entry.getValue()));
+		}
+		builder.append(last?"}":"},");
+		out.println(builder);
+	}
+
+	private static String quote(String value){
+		if(value==null)
+			return "null";
+		StringBuilder builder=new StringBuilder(value.length()+2);
+		builder.append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c=value.charAt(i);
+			switch (c) {
+				case '"':
+					builder.append("\\\"");
+					break;
+				case '\\':
+					builder.append("\\\\");
+					break;
+				case '\n':
+					builder.append("\\n");
+					break;
+				case '\r':
+					builder.append("\\r");
+					break;
+				case '\t':
+					builder.append("\\t");
+					break;
+				default:
+					if(c<0x20)
+						builder.append(String.format("\\u%04x", (int)c));
+					else
+						builder.append(c);
+			}
+		}
+		return builder.append('"').toString();
+	}
+
+}
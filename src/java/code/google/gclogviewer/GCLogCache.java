@@ -0,0 +1,183 @@
+/**
+ * GCLogViewer
+ * 
+ * A free open source tool to visualize data produced by the Java VM options -Xloggc:<file> or jstat > <file>.
+ * 
+ * Code license:	Apache License 2.0
+ * 
+ * http://code.google.com/p/gclogviewer
+ */
+package code.google.gclogviewer;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.zip.CRC32;
+
+/**
+ * Binary sidecar file(gc.log.gcv) of analyzed gc events,so a gc log opened again is not parsed again.
+ *
+ * Cache is keyed on log size,mtime and crc of the head and the tail of the analyzed bytes:
+ * same size and mtime means unchanged,a bigger log whose head and tail are unchanged was only appended,
+ * then only bytes after the analyzed offset need to be parsed.
+ *
+ * @author <a href="mailto:bluedavy@gmail.com">bluedavy</a>
+ */
+public class GCLogCache {
+
+	public static final String SUFFIX=".gcv";
+
+	private static final int MAGIC=0x47435631;
+
+	// change it when format or parsers change,so old cache files are not used
+	private static final int VERSION=9;
+
+	// bytes of head and tail to hash
+	private static final int HASH_SIZE=64*1024;
+
+	private final File logFile;
+
+	private final File cacheFile;
+
+	// analyzed bytes of log covered by last loaded cache
+	private long offset;
+
+	// why last load() found a broken cache file,null if it did not
+	private String loadProblem;
+
+	public GCLogCache(File logFile){
+		this.logFile=logFile;
+		this.cacheFile=new File(logFile.getPath()+SUFFIX);
+	}
+
+	public File getCacheFile(){
+		return cacheFile;
+	}
+
+	/**
+	 * bytes of log covered by context returned by last load()
+	 */
+	public long getOffset(){
+		return offset;
+	}
+
+	/**
+	 * problem of the cache file found by last load(),null if cache file is not broken,
+	 * a missing or outdated cache file is not a problem
+	 */
+	public String getLoadProblem(){
+		return loadProblem;
+	}
+
+	/**
+	 * @param channel channel of log file
+	 * @return context of log analyzed till getOffset(),null if no cache or cache is not valid for current log
+	 */
+	public GCLogAnalyzeContext load(FileChannel channel) throws IOException{
+		loadProblem=null;
+		if(!cacheFile.isFile())
+			return null;
+		RandomAccessFile randomAccessFile=new RandomAccessFile(cacheFile, "r");
+		try{
+			// read into heap,a mapped cache file stays locked on windows until gc,so save() could not replace it
+			long size=randomAccessFile.length();
+			if(size>Integer.MAX_VALUE)
+				return null;
+			byte[] bytes=new byte[(int)size];
+			randomAccessFile.readFully(bytes);
+			ByteBuffer buffer=ByteBuffer.wrap(bytes);
+			if(buffer.remaining()<48 || buffer.getInt()!=MAGIC || buffer.getInt()!=VERSION)
+				return null;
+			long cachedLength=buffer.getLong();
+			long cachedLastModified=buffer.getLong();
+			long cachedOffset=buffer.getLong();
+			long headHash=buffer.getLong();
+			long tailHash=buffer.getLong();
+			long length=channel.size();
+			if(length<cachedOffset || length<cachedLength)
+				return null;
+			// same size but touched,may be rewritten in place
+			if(length==cachedLength && logFile.lastModified()!=cachedLastModified)
+				return null;
+			if(headHash!=hash(channel, 0, Math.min(HASH_SIZE, cachedOffset))
+			   || tailHash!=hash(channel, Math.max(0, cachedOffset-HASH_SIZE), cachedOffset))
+				return null;
+			GCLogAnalyzeContext context=GCLogAnalyzeContext.read(buffer);
+			offset=cachedOffset;
+			return context;
+		}
+		catch(RuntimeException e){
+			// broken cache file,log is analyzed again
+			loadProblem="read cache file failed: "+cacheFile+","+e;
+			return null;
+		}
+		finally{
+			randomAccessFile.close();
+		}
+	}
+
+	/**
+	 * save context of log analyzed till offset,cache file is replaced as a whole
+	 */
+	public void save(FileChannel channel,GCLogAnalyzeContext context,long offset) throws IOException{
+		File tempFile=new File(cacheFile.getPath()+".tmp");
+		DataOutputStream out=new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile), 64*1024));
+		try{
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeLong(channel.size());
+			out.writeLong(logFile.lastModified());
+			out.writeLong(offset);
+			out.writeLong(hash(channel, 0, Math.min(HASH_SIZE, offset)));
+			out.writeLong(hash(channel, Math.max(0, offset-HASH_SIZE), offset));
+			context.write(out);
+		}
+		finally{
+			out.close();
+		}
+		if(!tempFile.renameTo(cacheFile)){
+			cacheFile.delete();
+			if(!tempFile.renameTo(cacheFile)){
+				tempFile.delete();
+				throw new IOException("cannot write cache file: "+cacheFile);
+			}
+		}
+	}
+
+	static void writeString(DataOutputStream out,String value) throws IOException{
+		if(value==null){
+			out.writeInt(-1);
+			return;
+		}
+		out.writeInt(value.length());
+		out.writeBytes(value);
+	}
+
+	static String readString(ByteBuffer buffer){
+		int length=buffer.getInt();
+		if(length==-1)
+			return null;
+		char[] chars=new char[length];
+		for (int i = 0; i < length; i++) {
+			chars[i]=(char)(buffer.get() & 0xff);
+		}
+		return new String(chars);
+	}
+
+	private static long hash(FileChannel channel,long start,long end) throws IOException{
+		CRC32 crc=new CRC32();
+		ByteBuffer buffer=ByteBuffer.allocate((int)(end-start));
+		while(buffer.hasRemaining()){
+			if(channel.read(buffer, start+buffer.position())<=0)
+				break;
+		}
+		crc.update(buffer.array(), 0, buffer.position());
+		return crc.getValue();
+	}
+
+}
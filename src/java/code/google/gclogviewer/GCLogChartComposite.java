@@ -9,13 +9,18 @@
  */
 package code.google.gclogviewer;
 
-import org.eclipse.swt.events.MouseEvent;
 import org.eclipse.swt.widgets.Composite;
 import org.jfree.chart.JFreeChart;
+import org.jfree.chart.axis.ValueAxis;
+import org.jfree.chart.event.ChartProgressEvent;
+import org.jfree.chart.plot.Plot;
+import org.jfree.chart.plot.XYPlot;
 import org.jfree.experimental.chart.swt.ChartComposite;
 
 /**
- * override mouseDown event,disable redraw where mousedown,so performance will be a little well
+ * after chart is drawn,GCLogTrendDataset is resampled to the plot width and the visible time range,
+ * so chart is drawn again with only the items which can be seen when it is resized or zoomed,
+ * resample reads GCLogEventsPyramid buckets,so mouse down and drag zoom are enabled again.
  * 
  * @author <a href="mailto:bluedavy@gmail.com">bluedavy</a>
  */
@@ -26,8 +31,24 @@ public class GCLogChartComposite extends ChartComposite {
 	}
 
 	@Override
-	public void mouseDown(MouseEvent event) {
-		// Do Nothing
+	public void chartProgress(ChartProgressEvent event) {
+		super.chartProgress(event);
+		if(event.getType()!=ChartProgressEvent.DRAWING_FINISHED || getChart()==null || getChartRenderingInfo()==null)
+			return;
+		Plot plot=getChart().getPlot();
+		if(!(plot instanceof XYPlot) || !(((XYPlot)plot).getDataset() instanceof GCLogTrendDataset))
+			return;
+		GCLogTrendDataset dataset=(GCLogTrendDataset)((XYPlot)plot).getDataset();
+		int width=(int)getChartRenderingInfo().getPlotInfo().getDataArea().getWidth();
+		if(width<=0)
+			return;
+		ValueAxis axis=((XYPlot)plot).getDomainAxis();
+		if(axis.isAutoRange()){
+			dataset.resample(Double.NaN, Double.NaN, width);
+		}
+		else{
+			dataset.resample(axis.getLowerBound(), axis.getUpperBound(), width);
+		}
 	}
 	
 }
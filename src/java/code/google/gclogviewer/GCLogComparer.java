@@ -0,0 +1,85 @@
+/**
+ * GCLogViewer
+ * 
+ * A free open source tool to visualize data produced by the Java VM options -Xloggc:<file> or jstat > <file>.
+ * 
+ * Code license:	Apache License 2.0
+ * 
+ * http://code.google.com/p/gclogviewer
+ */
+package code.google.gclogviewer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Analyze several gc logs at the same time to compare them,
+ * logs are analyzed on a pool bounded by processors,the processors are shared by chunks of each log.
+ *
+ * @author <a href="mailto:bluedavy@gmail.com">bluedavy</a>
+ */
+public class GCLogComparer {
+
+	private final GCLogAnalyze analyze;
+
+	private final int threads;
+
+	private GCLogProgressListener progressListener;
+
+	public GCLogComparer(GCLogAnalyze analyze,int threads){
+		this.analyze=analyze;
+		this.threads=Math.max(threads, 1);
+	}
+
+	/**
+	 * listener of analysis of all logs,sizes of logs add up
+	 */
+	public void setProgressListener(GCLogProgressListener progressListener){
+		this.progressListener=progressListener;
+	}
+
+	/**
+	 * @return GCLogData of each log,in order of fileNames
+	 */
+	public List<GCLogData> analysis(List<String> fileNames) throws Exception{
+		List<GCLogData> result=new ArrayList<GCLogData>();
+		if(fileNames.isEmpty())
+			return result;
+		int poolSize=Math.min(fileNames.size(), threads);
+		final int threadsPerLog=Math.max(threads/poolSize, 1);
+		final GCLogProgressListener listener=progressListener;
+		ExecutorService executor=Executors.newFixedThreadPool(poolSize);
+		try{
+			List<Future<GCLogData>> futures=new ArrayList<Future<GCLogData>>();
+			for (final String fileName : fileNames) {
+				futures.add(executor.submit(new Callable<GCLogData>() {
+					public GCLogData call() throws Exception {
+						GCLogFollower follower=new GCLogFollower(analyze, fileName, threadsPerLog);
+						follower.setProgressListener(listener);
+						return follower.follow();
+					}
+				}));
+			}
+			for (Future<GCLogData> future : futures) {
+				try{
+					result.add(future.get());
+				}
+				catch(ExecutionException e){
+					if(e.getCause() instanceof Exception)
+						throw (Exception)e.getCause();
+					throw e;
+				}
+			}
+			return result;
+		}
+		finally{
+			executor.shutdownNow();
+		}
+	}
+
+}
@@ -0,0 +1,343 @@
+/**
+ * GCLogViewer
+ * 
+ * A free open source tool to visualize data produced by the Java VM options -Xloggc:<file> or jstat > <file>.
+ * 
+ * Code license:	Apache License 2.0
+ * 
+ * http://code.google.com/p/gclogviewer
+ */
+package code.google.gclogviewer;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Columnar store of CMS concurrent phases in log order,a phase line is written when it ends:
+ *
+ *   125.296: [CMS-concurrent-mark: 0.100/0.200 secs] [Times: user=0.35 sys=0.01, real=0.20 secs]
+ *   [5.123s][info][gc] GC(3) Concurrent Mark 200.123ms
+ *
+ * cpu/wall of old format are cpu time of the CMS thread and elapsed time,secs,
+ * unified logging tells wall only(cpu of its [gc,cpu] line is of all threads),so cpu is NaN.
+ *
+ * phases of one concurrent cycle are mark,preclean,abortable-preclean,sweep and reset,
+ * cycles are derived from phases: a cycle starts when its mark starts and ends when reset ends,
+ * a cycle which has no reset before next mark,e.g. broken by concurrent mode failure,is not a cycle.
+ *
+ * @author <a href="mailto:bluedavy@gmail.com">bluedavy</a>
+ */
+public class GCLogConcurrentPhases {
+
+	private static final int INITIAL_CAPACITY=64;
+
+	private static final String CONCURRENT="[CMS-concurrent-";
+
+	private static final String UNIFIED_CONCURRENT="Concurrent ";
+
+	private static final Phase[] PHASES=Phase.values();
+
+	/**
+	 * CMS concurrent phases in cycle order
+	 */
+	public enum Phase{
+		MARK("mark","Mark"),
+		PRECLEAN("preclean","Preclean"),
+		ABORTABLE_PRECLEAN("abortable-preclean","Abortable Preclean"),
+		SWEEP("sweep","Sweep"),
+		RESET("reset","Reset");
+		// "[CMS-concurrent-mark: "
+		private final String marker;
+		// "Concurrent Mark " of unified logging
+		private final String unifiedName;
+		Phase(String name,String unifiedName){
+			marker=name+": ";
+			this.unifiedName=UNIFIED_CONCURRENT+unifiedName+" ";
+		}
+	}
+
+	private int size=0;
+
+	// phase end time,secs
+	private double[] times=new double[INITIAL_CAPACITY];
+
+	private byte[] phases=new byte[INITIAL_CAPACITY];
+
+	// cpu time,secs,NaN if not logged
+	private double[] cpus=new double[INITIAL_CAPACITY];
+
+	// wall time,secs
+	private double[] walls=new double[INITIAL_CAPACITY];
+
+	private double totalCPU=0;
+
+	// cycles derived from phases,cycleCount is -1 when phases changed
+	private int cycleCount=-1;
+
+	private double[] cycleStarts;
+
+	private double[] cycleEnds;
+
+	private double[] cycleCPUs;
+
+	/**
+	 * add the phase of a CMS concurrent line
+	 *
+	 * @return false if line is not the end of a CMS concurrent phase,e.g. a -start line
+	 */
+	public boolean add(CharSequence line){
+		int marker=GCLogLineScanner.indexOf(line, CONCURRENT, 0);
+		if(marker==-1)
+			return addUnified(line);
+		int nameStart=marker+CONCURRENT.length();
+		for (Phase phase : PHASES) {
+			if(!GCLogLineScanner.regionMatches(line, nameStart, phase.marker))
+				continue;
+			int cpuStart=nameStart+phase.marker.length();
+			int cpuEnd=GCLogLineScanner.numberEnd(line, cpuStart);
+			if(cpuEnd==cpuStart || cpuEnd>=line.length() || line.charAt(cpuEnd)!='/')
+				return false;
+			int wallEnd=GCLogLineScanner.numberEnd(line, cpuEnd+1);
+			if(wallEnd==cpuEnd+1)
+				return false;
+			int timeStart=GCLogLineScanner.occurTimeStart(line, GCLogLineScanner.dateStampEnd(line), marker);
+			if(timeStart==-1)
+				return false;
+			add(GCLogLineScanner.parseDouble(line, timeStart, GCLogLineScanner.numberEnd(line, timeStart)), phase,
+					GCLogLineScanner.parseDouble(line, cpuStart, cpuEnd), GCLogLineScanner.parseDouble(line, cpuEnd+1, wallEnd));
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * [gc] GC(3) Concurrent Mark 200.123ms
+	 */
+	private boolean addUnified(CharSequence line){
+		int messageStart=GCLogUnifiedLine.messageStart(line);
+		if(messageStart==-1)
+			return false;
+		int tagsStart=GCLogUnifiedLine.tagsStart(line, messageStart);
+		if(!GCLogUnifiedLine.isTags(line, tagsStart, "gc"))
+			return false;
+		int textStart=GCLogUnifiedLine.textStart(line, messageStart);
+		if(!GCLogLineScanner.regionMatches(line, textStart, UNIFIED_CONCURRENT))
+			return false;
+		for (Phase phase : PHASES) {
+			if(!GCLogLineScanner.regionMatches(line, textStart, phase.unifiedName))
+				continue;
+			int wallStart=textStart+phase.unifiedName.length();
+			int wallEnd=GCLogLineScanner.numberEnd(line, wallStart);
+			if(wallEnd==wallStart || !GCLogLineScanner.regionMatches(line, wallEnd, "ms"))
+				return false;
+			int uptimeStart=GCLogUnifiedLine.uptimeStart(line, messageStart);
+			if(uptimeStart==-1)
+				return false;
+			add(GCLogUnifiedLine.uptimeSecs(line, uptimeStart), phase, Double.NaN, GCLogLineScanner.parseDouble(line, wallStart, wallEnd)/1000);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * @param time end time of phase
+	 * @param cpu NaN if not known
+	 */
+	public void add(double time,Phase phase,double cpu,double wall){
+		ensureCapacity(size+1);
+		times[size]=time;
+		phases[size]=(byte)phase.ordinal();
+		cpus[size]=cpu;
+		walls[size]=wall;
+		size++;
+		if(!Double.isNaN(cpu))
+			totalCPU+=cpu;
+		cycleCount=-1;
+	}
+
+	/**
+	 * append phases of the next part of log,a cycle split by the parts is joined again
+	 */
+	public void append(GCLogConcurrentPhases next){
+		ensureCapacity(size+next.size);
+		System.arraycopy(next.times, 0, times, size, next.size);
+		System.arraycopy(next.phases, 0, phases, size, next.size);
+		System.arraycopy(next.cpus, 0, cpus, size, next.size);
+		System.arraycopy(next.walls, 0, walls, size, next.size);
+		size+=next.size;
+		totalCPU+=next.totalCPU;
+		cycleCount=-1;
+	}
+
+	public int size(){
+		return size;
+	}
+
+	public double getTime(int index){
+		return times[index];
+	}
+
+	public Phase getPhase(int index){
+		return PHASES[phases[index]];
+	}
+
+	public double getCPU(int index){
+		return cpus[index];
+	}
+
+	public double getWall(int index){
+		return walls[index];
+	}
+
+	/**
+	 * cpu time of all phases whose cpu is logged,secs
+	 */
+	public double getTotalCPU(){
+		return totalCPU;
+	}
+
+	public int getCycleCount(){
+		cycles();
+		return cycleCount;
+	}
+
+	/**
+	 * start time of mark of the cycle
+	 */
+	public double getCycleStart(int cycle){
+		cycles();
+		return cycleStarts[cycle];
+	}
+
+	/**
+	 * end time of reset of the cycle
+	 */
+	public double getCycleEnd(int cycle){
+		cycles();
+		return cycleEnds[cycle];
+	}
+
+	/**
+	 * cpu time of phases of the cycle,NaN if not logged
+	 */
+	public double getCycleCPU(int cycle){
+		cycles();
+		return cycleCPUs[cycle];
+	}
+
+	/**
+	 * avg time from mark start to reset end,secs,0 if no cycle
+	 */
+	public double getAvgCycleLength(){
+		cycles();
+		if(cycleCount==0)
+			return 0;
+		double length=0;
+		for (int i = 0; i < cycleCount; i++) {
+			length+=cycleEnds[i]-cycleStarts[i];
+		}
+		return length/cycleCount;
+	}
+
+	/**
+	 * avg cpu time of a cycle,secs,NaN if not logged
+	 */
+	public double getAvgCycleCPU(){
+		cycles();
+		if(cycleCount==0)
+			return Double.NaN;
+		double cpu=0;
+		for (int i = 0; i < cycleCount; i++) {
+			cpu+=cycleCPUs[i];
+		}
+		return cpu/cycleCount;
+	}
+
+	/**
+	 * avg time from a cycle start to next cycle start,secs,0 if less than two cycles
+	 */
+	public double getAvgCycleInterval(){
+		cycles();
+		if(cycleCount<2)
+			return 0;
+		return (cycleStarts[cycleCount-1]-cycleStarts[0])/(cycleCount-1);
+	}
+
+	private void cycles(){
+		if(cycleCount!=-1)
+			return;
+		cycleStarts=new double[size/2+1];
+		cycleEnds=new double[cycleStarts.length];
+		cycleCPUs=new double[cycleStarts.length];
+		int count=0;
+		// start of the cycle whose reset is not seen yet,NaN if none
+		double start=Double.NaN;
+		double cpu=0;
+		for (int i = 0; i < size; i++) {
+			Phase phase=PHASES[phases[i]];
+			if(phase==Phase.MARK){
+				start=times[i]-walls[i];
+				cpu=0;
+			}
+			if(Double.isNaN(start))
+				continue;
+			cpu+=cpus[i];
+			if(phase==Phase.RESET){
+				cycleStarts[count]=start;
+				cycleEnds[count]=times[i];
+				cycleCPUs[count]=cpu;
+				count++;
+				start=Double.NaN;
+			}
+		}
+		cycleCount=count;
+	}
+
+	void write(DataOutputStream out) throws IOException{
+		out.writeInt(size);
+		out.writeDouble(totalCPU);
+		for (int i = 0; i < size; i++) {
+			out.writeDouble(times[i]);
+		}
+		out.write(phases, 0, size);
+		for (int i = 0; i < size; i++) {
+			out.writeDouble(cpus[i]);
+		}
+		for (int i = 0; i < size; i++) {
+			out.writeDouble(walls[i]);
+		}
+	}
+
+	/**
+	 * read columns written by write() into this empty store
+	 */
+	void read(ByteBuffer buffer){
+		int count=buffer.getInt();
+		totalCPU=buffer.getDouble();
+		ensureCapacity(count);
+		size=count;
+		readDoubles(buffer, times);
+		buffer.get(phases, 0, size);
+		readDoubles(buffer, cpus);
+		readDoubles(buffer, walls);
+		cycleCount=-1;
+	}
+
+	private void readDoubles(ByteBuffer buffer,double[] column){
+		buffer.asDoubleBuffer().get(column, 0, size);
+		buffer.position(buffer.position()+size*8);
+	}
+
+	private void ensureCapacity(int capacity){
+		if(capacity<=times.length)
+			return;
+		int newCapacity=Math.max(capacity, times.length+(times.length>>1));
+		times=Arrays.copyOf(times, newCapacity);
+		phases=Arrays.copyOf(phases, newCapacity);
+		cpus=Arrays.copyOf(cpus, newCapacity);
+		walls=Arrays.copyOf(walls, newCapacity);
+	}
+
+}
@@ -10,50 +10,61 @@
 package code.google.gclogviewer;
 
 import java.text.DecimalFormat;
-import java.util.HashMap;
-import java.util.Map;
 
 /**
+ * gc events are kept in GCLogEvents columns,the time keyed getters are read only views over them,
+ * they keep all gc of a time,see GCLogEvents.View.
+ * 
  * @author <a href="mailto:bluedavy@gmail.com">bluedavy</a>
  */
 public class GCLogData{
 	
-	// key: time  value: consumetime
-	private Map<String, String> ygcPauseTimes=new HashMap<String, String>();
-	
-	// key: time value: String[0]: memoryBefore String[1]: memoryAfter
-	private Map<String, String[]> ygcMemoryChanges=new HashMap<String, String[]>();
-	
-	// key: time  value: consumetime
-	private Map<String, String> fgcPauseTimes=new HashMap<String, String>();
-	
-	// key: time value: String[0]: memoryBefore String[1]: memoryAfter
-	private Map<String, String[]> fgcMemoryChanges=new HashMap<String, String[]>();
+	private final GCLogEvents ygcEvents=new GCLogEvents();
 	
-	// key: time  value: pausetime
-	private Map<String, String> cmsGCPauseTimes=new HashMap<String, String>();
+	private final GCLogEvents fgcEvents=new GCLogEvents();
 	
-	// key: time value: String[0]: memoryBefore String[1]: memoryAfter
-	private Map<String, String[]> cmsGCMemoryChanges=new HashMap<String, String[]>();
-	
-	// YGC Live data size
-	private Map<String, String> ygcLDS=new HashMap<String, String>();
-	
-	// YGC Promote to old size
-	private Map<String,String> ygcPTOS=new HashMap<String, String>();
+	private final GCLogEvents cmsGCEvents=new GCLogEvents();
 	
 	private String gcType;
 	
 	private DecimalFormat doubleformat=new DecimalFormat("#0.000");
 	
 	private String runtime;
+	
+	private GCLogDiagnostics diagnostics=new GCLogDiagnostics();
+	
+	private final GCLogSafepoints safepoints=new GCLogSafepoints();
+	
+	private final GCLogConcurrentPhases concurrentPhases=new GCLogConcurrentPhases();
+
+	public GCLogEvents getYGCEvents() {
+		return ygcEvents;
+	}
+
+	public GCLogEvents getFGCEvents() {
+		return fgcEvents;
+	}
+
+	public GCLogEvents getCMSGCEvents() {
+		return cmsGCEvents;
+	}
 
-	public Map<String, String[]> getCMSGCMemoryChanges() {
-		return cmsGCMemoryChanges;
+	/**
+	 * safepoints of stopped time lines,empty if -XX:+PrintGCApplicationStoppedTime or -Xlog:safepoint is not on
+	 */
+	public GCLogSafepoints getSafepoints() {
+		return safepoints;
 	}
 
-	public void setCMSGCMemoryChanges(Map<String, String[]> cmsGCMemoryChanges) {
-		this.cmsGCMemoryChanges = cmsGCMemoryChanges;
+	/**
+	 * CMS concurrent phases,empty if collector is not CMS
+	 */
+	public GCLogConcurrentPhases getConcurrentPhases() {
+		return concurrentPhases;
+	}
+
+	public GCLogEvents.View<String[]> getCMSGCMemoryChanges() {
+		return cmsGCEvents.memoryChangesView();
 	}
 	
 	public String getRuntime() {
@@ -64,57 +75,135 @@ public class GCLogData{
 		this.runtime = runtime;
 	}
 
-	public Map<String, String> getYGCPauseTimes() {
-		return ygcPauseTimes;
+	/**
+	 * diagnostics of lines analyzed into this data,lines loaded from cache are not in it
+	 */
+	public GCLogDiagnostics getDiagnostics() {
+		return diagnostics;
 	}
 
-	public Map<String, String[]> getYGCMemoryChanges() {
-		return ygcMemoryChanges;
+	public void setDiagnostics(GCLogDiagnostics diagnostics) {
+		this.diagnostics = diagnostics;
 	}
 
-	public Map<String, String> getFGCPauseTimes() {
-		return fgcPauseTimes;
+	/**
+	 * run time,secs,0 if no gc found
+	 */
+	public double getRuntimeSecs() {
+		return runtime==null?0:Double.parseDouble(runtime);
 	}
 
-	public Map<String, String[]> getFGCMemoryChanges() {
-		return fgcMemoryChanges;
+	public GCLogEvents.View<String> getYGCPauseTimes() {
+		return ygcEvents.pauseTimesView();
 	}
 
-	public Map<String, String> getCMSGCPauseTimes() {
-		return cmsGCPauseTimes;
+	public GCLogEvents.View<String[]> getYGCMemoryChanges() {
+		return ygcEvents.memoryChangesView();
 	}
 
-	public void setYGCPauseTimes(Map<String, String> ygcPauseTimes) {
-		this.ygcPauseTimes = ygcPauseTimes;
+	public GCLogEvents.View<String> getFGCPauseTimes() {
+		return fgcEvents.pauseTimesView();
 	}
 
-	public void setYGCMemoryChanges(Map<String, String[]> ygcMemoryChanges) {
-		this.ygcMemoryChanges = ygcMemoryChanges;
+	public GCLogEvents.View<String[]> getFGCMemoryChanges() {
+		return fgcEvents.memoryChangesView();
 	}
 
-	public void setFGCPauseTimes(Map<String, String> fgcPauseTimes) {
-		this.fgcPauseTimes = fgcPauseTimes;
+	public GCLogEvents.View<String> getCMSGCPauseTimes() {
+		return cmsGCEvents.pauseTimesView();
 	}
 
-	public void setFGCMemoryChanges(Map<String, String[]> fgcMemoryChanges) {
-		this.fgcMemoryChanges = fgcMemoryChanges;
+	public String getThroughput() {
+		// (1-(YGCT+FGCT+CMSGCT)/RUNTIME)*100%,
+		// application is stopped longer than gc pauses when stopped time is logged,so use it
+		double stopped=getGCTDouble(ygcEvents)+getGCTDouble(fgcEvents)+getGCTDouble(cmsGCEvents);
+		if(safepoints.size()>0)
+			stopped=Math.max(stopped, safepoints.getTotalStopped());
+		return doubleformat.format((1-(stopped/Double.parseDouble(runtime)))*100)+"%";
 	}
-
-	public void setCMSGCPauseTimes(Map<String, String> cmsGCPauseTimes) {
-		this.cmsGCPauseTimes = cmsGCPauseTimes;
+	
+	/**
+	 * total stopped time of safepoints
+	 */
+	public String getStoppedTime(){
+		return doubleformat.format(safepoints.getTotalStopped())+" secs";
 	}
-
-	public String getThroughput() {
-		// (1-(YGCT+FGCT+CMSGCT)/RUNTIME)*100%
-		return doubleformat.format((1-((getGCTDouble(ygcPauseTimes)+getGCTDouble(fgcPauseTimes)+getGCTDouble(cmsGCPauseTimes))/Double.parseDouble(runtime)))*100)+"%";
+	
+	/**
+	 * safepoints in which no gc pause starts
+	 */
+	public int getNonGCSafepoints(){
+		return safepoints.getNonGCCount(ygcEvents, fgcEvents, cmsGCEvents);
+	}
+	
+	/**
+	 * stopped time of safepoints in which no gc pause starts
+	 */
+	public String getNonGCStoppedTime(){
+		return doubleformat.format(safepoints.getNonGCStopped(ygcEvents, fgcEvents, cmsGCEvents))+" secs";
+	}
+	
+	public int getCMSCycles(){
+		return concurrentPhases.getCycleCount();
+	}
+	
+	/**
+	 * avg CMS concurrent cycle time from mark start to reset end,with cpu time of its phases
+	 */
+	public String getAvgCMSCycleTime(){
+		String cycleTime=doubleformat.format(concurrentPhases.getAvgCycleLength())+" secs";
+		double cpu=concurrentPhases.getAvgCycleCPU();
+		return Double.isNaN(cpu)?cycleTime:cycleTime+"(cpu "+doubleformat.format(cpu)+")";
+	}
+	
+	/**
+	 * avg time from a CMS concurrent cycle start to the next one
+	 */
+	public String getAvgCMSCycleInterval(){
+		return doubleformat.format(concurrentPhases.getAvgCycleInterval())+" secs";
+	}
+	
+	/**
+	 * K promoted to old gen per second by YGC,0 if less than two YGC
+	 */
+	public long getOldGenFillRate(){
+		if(getYGC()<2)
+			return 0;
+		double time=ygcEvents.getMaxTime()-ygcEvents.getTime(0);
+		if(time<=0)
+			return 0;
+		return (long)(ygcEvents.getTotalPTOS()/time);
+	}
+	
+	/**
+	 * old gen fill rate,and K promoted while an avg CMS cycle runs,
+	 * old gen must have that much free when cycle starts or it ends in concurrent mode failure
+	 */
+	public String getOldGenFillRateOfCMSCycle(){
+		long fillRate=getOldGenFillRate();
+		return fillRate+"(K)/secs,"+(long)(fillRate*concurrentPhases.getAvgCycleLength())+"(K) a cycle";
+	}
+	
+	/**
+	 * time to safepoint p50/p90/p99/p99.9/max,ms as it is far shorter than pauses
+	 */
+	public String getTTSPPercentiles(){
+		GCLogPauseHistogram histogram=safepoints.getTTSPHistogram();
+		if(histogram.getCount()==0)
+			return "-";
+		StringBuilder percentiles=new StringBuilder();
+		for (double percent : GCLogPauseHistogram.SUMMARY_PERCENTILES) {
+			percentiles.append(doubleformat.format(histogram.getPercentile(percent)*1000)).append("/");
+		}
+		return percentiles.append(doubleformat.format(histogram.getMax()*1000)).append(" ms").toString();
 	}
 	
 	public int getFGC(){
-		return fgcPauseTimes.size();
+		return fgcEvents.size();
 	}
 	
 	public String getFGCT(){
-		double pauseTimes=getGCTDouble(fgcPauseTimes);
+		double pauseTimes=getGCTDouble(fgcEvents);
 		return doubleformat.format(pauseTimes)+" secs";
 	}
 	
@@ -122,12 +211,7 @@ public class GCLogData{
 		if(getFGC()==0)
 			return "0 secs";
 		// last FGC time / FGC
-		double maxFGCHappenTime=0;
-		for (String happenTime : fgcPauseTimes.keySet()) {
-			if(maxFGCHappenTime < Double.parseDouble(happenTime)){
-				maxFGCHappenTime = Double.parseDouble(happenTime); 
-			}
-		}
+		double maxFGCHappenTime=fgcEvents.getMaxTime();
 		return doubleformat.format(maxFGCHappenTime/getFGC())+" secs";
 	}
 	
@@ -135,16 +219,16 @@ public class GCLogData{
 		if(getFGC() == 0){
 			return "0 secs";
 		}
-		double pauseTimes=getGCTDouble(fgcPauseTimes);
+		double pauseTimes=getGCTDouble(fgcEvents);
 		return doubleformat.format(pauseTimes/getFGC())+" secs";
 	}
 	
 	public int getCMSGC(){
-		return cmsGCPauseTimes.size();
+		return cmsGCEvents.size();
 	}
 	
 	public String getCMSGCT(){
-		double pauseTimes=getGCTDouble(cmsGCPauseTimes);
+		double pauseTimes=getGCTDouble(cmsGCEvents);
 		return doubleformat.format(pauseTimes)+" secs";
 	}
 	
@@ -152,26 +236,21 @@ public class GCLogData{
 		if(getCMSGC()==0)
 			return "0 secs";
 		// last CMSGC time / CMSGC
-		double maxCMSGCHappenTime=0;
-		for (String happenTime : cmsGCPauseTimes.keySet()) {
-			if(maxCMSGCHappenTime < Double.parseDouble(happenTime)){
-				maxCMSGCHappenTime = Double.parseDouble(happenTime); 
-			}
-		}
+		double maxCMSGCHappenTime=cmsGCEvents.getMaxTime();
 		return doubleformat.format(maxCMSGCHappenTime/getCMSGC())+" secs";
 	}
 	
 	public String getAvgCMSGCT(){
-		double pauseTimes=getGCTDouble(cmsGCPauseTimes);
+		double pauseTimes=getGCTDouble(cmsGCEvents);
 		return doubleformat.format(pauseTimes/getCMSGC())+" secs";
 	}
 	
 	public int getYGC(){
-		return ygcPauseTimes.size();
+		return ygcEvents.size();
 	}
 	
 	public String getYGCT(){
-		double pauseTimes = getGCTDouble(ygcPauseTimes);
+		double pauseTimes = getGCTDouble(ygcEvents);
 		return doubleformat.format(pauseTimes)+" secs";
 	}
 	
@@ -179,17 +258,12 @@ public class GCLogData{
 		if(getYGC()==0)
 			return "0 secs";
 		// last YGC time / YGC
-		double maxYGCHappenTime=0;
-		for (String happenTime : ygcPauseTimes.keySet()) {
-			if(maxYGCHappenTime < Double.parseDouble(happenTime)){
-				maxYGCHappenTime = Double.parseDouble(happenTime); 
-			}
-		}
+		double maxYGCHappenTime=ygcEvents.getMaxTime();
 		return doubleformat.format(maxYGCHappenTime/getYGC())+" secs";
 	}
 
 	public String getAvgYGCT(){
-		double pauseTimes = getGCTDouble(ygcPauseTimes);
+		double pauseTimes = getGCTDouble(ygcEvents);
 		return doubleformat.format(pauseTimes/getYGC())+" secs";
 	}
 	
@@ -201,62 +275,77 @@ public class GCLogData{
 		this.gcType=gcType;
 	}
 	
-	public Map<String, String> getYGCLDS() {
-		return ygcLDS;
+	public GCLogEvents.View<String> getYGCLDS() {
+		return ygcEvents.ldsView();
 	}
 	
 	public int getAVGYGCLDS(){
-		if(ygcLDS.size()==0)
+		if(getYGC()==0)
 			return 0;
-		int summaryLDS=0;
-		for (String lds : ygcLDS.values()) {
-			summaryLDS += Integer.parseInt(lds);
-		}
-		return summaryLDS/ygcLDS.size();	
+		return (int)(ygcEvents.getTotalLDS()/getYGC());
 	}
 	
 	public int getAVGFGCLDS(){
 		if(getFGC()==0)
 			return 0;
-		int summaryLDS=0;
-		for (String[] changes : fgcMemoryChanges.values()) {
-			summaryLDS += Integer.parseInt(changes[1]);
-		}
-		return summaryLDS/fgcMemoryChanges.size();
+		return (int)(fgcEvents.getTotalMemoryAfter()/getFGC());
 	}
 	
 	public int getAVGPTOS(){
-		if(ygcPTOS.size()==0)
+		if(getYGC()==0)
 			return 0;
-		int summaryPTOS=0;
-		for (String ptos : ygcPTOS.values()) {
-			summaryPTOS += Integer.parseInt(ptos);
-		}
-		return summaryPTOS/ygcPTOS.size();
+		return (int)(ygcEvents.getTotalPTOS()/getYGC());
 	}
 
-	public Map<String, String> getYGCPTOS() {
-		return ygcPTOS;
+	public GCLogEvents.View<String> getYGCPTOS() {
+		return ygcEvents.ptosView();
 	}
 
 	// caculate ygcLDS and ygcPTOS
 	// YGC LDS: current (ygcHeapMemoryAfter) - previous(ygcHeapMemoryAfter - MemoryAfterGC)
 	// YGC Promote to old size: current (ygcHeapMemoryAfter - MemoryAfterGC) - previous(ygcHeapMemoryAfter - MemoryAfterGC)
-	public void setDataForLDSAndPTOS(String currentYGCHeapMemoryAfter,String currentMemoryAfterGC,
-								     String previousYGCHeapMemoryAfter,String previousMemoryAfterGC,
-								     String happenTime) {
-		String ygcLDSInfo = String.valueOf(Integer.parseInt(currentYGCHeapMemoryAfter) - (Integer.parseInt(previousYGCHeapMemoryAfter)-Integer.parseInt(previousMemoryAfterGC)));
-		String ygcPTOSInfo = String.valueOf((Integer.parseInt(currentYGCHeapMemoryAfter)-Integer.parseInt(currentMemoryAfterGC)) - (Integer.parseInt(previousYGCHeapMemoryAfter)-Integer.parseInt(previousMemoryAfterGC)));
-		ygcLDS.put(happenTime, ygcLDSInfo);
-		ygcPTOS.put(happenTime, ygcPTOSInfo);
-	}
-	
-	private double getGCTDouble(Map<String,String> pauseTimesMap) {
-		double pauseTimes=0;
-		for (String pauseTime : pauseTimesMap.values()) {
-			pauseTimes+=Double.parseDouble(pauseTime);
+	public void setDataForLDSAndPTOS(int ygcIndex,long currentYGCHeapMemoryAfter,
+								     long previousYGCHeapMemoryAfter,long previousMemoryAfterGC) {
+		ygcEvents.setLDS(ygcIndex, currentYGCHeapMemoryAfter-(previousYGCHeapMemoryAfter-previousMemoryAfterGC));
+	}
+	
+	/**
+	 * append data of the next part of log,gc of it happens after gc of this
+	 */
+	public void append(GCLogData next){
+		ygcEvents.append(next.ygcEvents);
+		fgcEvents.append(next.fgcEvents);
+		cmsGCEvents.append(next.cmsGCEvents);
+		safepoints.append(next.safepoints);
+		concurrentPhases.append(next.concurrentPhases);
+	}
+	
+	/**
+	 * YGC pause p50/p90/p99/p99.9/max
+	 */
+	public String getYGCPercentiles(){
+		return getPercentiles(ygcEvents);
+	}
+	
+	public String getFGCPercentiles(){
+		return getPercentiles(fgcEvents);
+	}
+	
+	public String getCMSGCPercentiles(){
+		return getPercentiles(cmsGCEvents);
+	}
+	
+	private double getGCTDouble(GCLogEvents events) {
+		return events.getTotalPause();
+	}
+	
+	private String getPercentiles(GCLogEvents events) {
+		GCLogPauseHistogram histogram=events.getPauseHistogram();
+		StringBuilder percentiles=new StringBuilder();
+		for (double percent : GCLogPauseHistogram.SUMMARY_PERCENTILES) {
+			percentiles.append(doubleformat.format(histogram.getPercentile(percent))).append("/");
 		}
-		return pauseTimes;
+		return percentiles.append(doubleformat.format(histogram.getMax())).append(" secs").toString();
 	}
 
 }
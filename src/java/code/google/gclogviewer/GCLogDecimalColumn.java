@@ -0,0 +1,169 @@
+/**
+ * GCLogViewer
+ * 
+ * A free open source tool to visualize data produced by the Java VM options -Xloggc:<file> or jstat > <file>.
+ * 
+ * Code license:	Apache License 2.0
+ * 
+ * http://code.google.com/p/gclogviewer
+ */
+package code.google.gclogviewer;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Growable column of decimal values as printed in log,e.g. time 1234.567 or pause 0.0177710:
+ *
+ * fraction digits of a column are the same in one log,so values are kept as int units of one scale,
+ * 1234.567 is 1234567 at scale 3,4 bytes a value and printed exactly as in log.
+ * a value whose scale differs,which is out of int range or is not exact at its scale,e.g. 29.3333 of
+ * a gc counted by jstat,turns the column into doubles with a scale a value,12 bytes a value.
+ *
+ * @author <a href="mailto:bluedavy@gmail.com">bluedavy</a>
+ */
+final class GCLogDecimalColumn {
+
+	private static final double[] POWERS=new double[]{1,10,100,1000,10000,100000,1000000,10000000,100000000,1000000000};
+
+	private int size=0;
+
+	// scale of units,-1 until first value
+	private int scale=-1;
+
+	// values as units of scale,null after column turns into doubles
+	private int[] units;
+
+	// values and their scales,null while all values are units
+	private double[] values=null;
+
+	private byte[] scales=null;
+
+	GCLogDecimalColumn(int capacity){
+		units=new int[capacity];
+	}
+
+	void add(double value,int valueScale){
+		if(size==0 && units!=null)
+			scale=valueScale;
+		if(units!=null){
+			if(valueScale==scale && scale<POWERS.length){
+				double scaled=value*POWERS[scale];
+				long unit=Math.round(scaled);
+				if(unit>=Integer.MIN_VALUE && unit<=Integer.MAX_VALUE && unit/POWERS[scale]==value){
+					units[size++]=(int)unit;
+					return;
+				}
+			}
+			toDoubles();
+		}
+		values[size]=value;
+		scales[size]=(byte)valueScale;
+		size++;
+	}
+
+	/**
+	 * append values of the next column
+	 */
+	void append(GCLogDecimalColumn next){
+		if(next.size==0)
+			return;
+		if(size==0 && units!=null)
+			scale=next.scale;
+		if(units!=null && next.units!=null && next.scale==scale){
+			System.arraycopy(next.units, 0, units, size, next.size);
+			size+=next.size;
+			return;
+		}
+		toDoubles();
+		for (int i = 0; i < next.size; i++) {
+			values[size+i]=next.get(i);
+			scales[size+i]=(byte)next.getScale(i);
+		}
+		size+=next.size;
+	}
+
+	double get(int index){
+		return (units!=null)?units[index]/POWERS[scale]:values[index];
+	}
+
+	int getScale(int index){
+		return (units!=null)?scale:scales[index];
+	}
+
+	/**
+	 * value as printed in log
+	 */
+	String getText(int index){
+		if(units!=null)
+			return BigDecimal.valueOf(units[index], scale).toPlainString();
+		return BigDecimal.valueOf(values[index]).setScale(scales[index], RoundingMode.HALF_UP).toPlainString();
+	}
+
+	int capacity(){
+		return (units!=null)?units.length:values.length;
+	}
+
+	void ensureCapacity(int capacity){
+		if(units!=null){
+			units=Arrays.copyOf(units, capacity);
+		}
+		else{
+			values=Arrays.copyOf(values, capacity);
+			scales=Arrays.copyOf(scales, capacity);
+		}
+	}
+
+	void write(DataOutputStream out) throws IOException{
+		out.writeBoolean(units!=null);
+		if(units!=null){
+			out.writeInt(scale);
+			for (int i = 0; i < size; i++) {
+				out.writeInt(units[i]);
+			}
+			return;
+		}
+		for (int i = 0; i < size; i++) {
+			out.writeDouble(values[i]);
+		}
+		out.write(scales, 0, size);
+	}
+
+	/**
+	 * read count values written by write() into this empty column
+	 */
+	void read(ByteBuffer buffer,int count){
+		size=count;
+		if(buffer.get()!=0){
+			scale=buffer.getInt();
+			units=new int[Math.max(count, units.length)];
+			buffer.asIntBuffer().get(units, 0, count);
+			buffer.position(buffer.position()+count*4);
+			return;
+		}
+		int capacity=Math.max(count, units.length);
+		units=null;
+		values=new double[capacity];
+		scales=new byte[capacity];
+		buffer.asDoubleBuffer().get(values, 0, count);
+		buffer.position(buffer.position()+count*8);
+		buffer.get(scales, 0, count);
+	}
+
+	private void toDoubles(){
+		if(units==null)
+			return;
+		values=new double[units.length];
+		scales=new byte[units.length];
+		for (int i = 0; i < size; i++) {
+			values[i]=units[i]/POWERS[scale];
+		}
+		Arrays.fill(scales, 0, size, (byte)scale);
+		units=null;
+	}
+
+}
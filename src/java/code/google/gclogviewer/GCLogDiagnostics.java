@@ -0,0 +1,346 @@
+/**
+ * GCLogViewer
+ * 
+ * A free open source tool to visualize data produced by the Java VM options -Xloggc:<file> or jstat > <file>.
+ * 
+ * Code license:	Apache License 2.0
+ * 
+ * http://code.google.com/p/gclogviewer
+ */
+package code.google.gclogviewer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Diagnostics of a gc log analysis,instead of printing every line which can't be parsed:
+ * lines without parser are counted by category found with one keyword scan,
+ * matched records are counted by keyword with parse time,records assembled from lines and failures,
+ * only the first MAX_SAMPLES lines of each category and keyword are kept as examples.
+ *
+ * each analyzed range has its own diagnostics,they are merged in log order as GCLogAnalyzeContext.
+ * problems of the cache file of log are kept too,they lose no gc,the log is analyzed again.
+ *
+ * @author <a href="mailto:bluedavy@gmail.com">bluedavy</a>
+ */
+public class GCLogDiagnostics {
+
+	// example lines kept of each category and of each keyword
+	public static final int MAX_SAMPLES=5;
+
+	// longer example line is cut
+	private static final int MAX_SAMPLE_LENGTH=200;
+
+	private static final Category[] CATEGORIES=Category.values();
+
+	// marker index -> category
+	private static final List<Category> markerCategories=new ArrayList<Category>();
+
+	private static final GCLogKeywordAutomaton automaton;
+
+	static{
+		List<String> markers=new ArrayList<String>();
+		for (Category category : CATEGORIES) {
+			for (String marker : category.markers) {
+				markers.add(marker);
+				markerCategories.add(category);
+			}
+		}
+		automaton=new GCLogKeywordAutomaton(markers);
+	}
+
+	private long lines=0;
+
+	private final long[] counts=new long[CATEGORIES.length];
+
+	private final List<List<String>> samples=new ArrayList<List<String>>();
+
+	// keyword index -> stats,null if no line of keyword
+	private final ParserStats[] parserStats=new ParserStats[GCLogKeywordsAndParsers.getKeywords().size()];
+
+	// cache file could not be read or saved
+	private final List<String> cacheProblems=new ArrayList<String>();
+
+	public GCLogDiagnostics(){
+		for (int i = 0; i < CATEGORIES.length; i++) {
+			samples.add(new ArrayList<String>());
+		}
+	}
+
+	/**
+	 * kinds of lines which have no parser,first category in order whose marker is in line wins
+	 */
+	public enum Category{
+		// CMS concurrent phase ends which are parsed into GCLogConcurrentPhases are not counted
+		CMS_CONCURRENT("CMS and G1 concurrent phases","CMS-concurrent-","CMS: abort preclean due","[GC concurrent-"),
+		TENURING_DISTRIBUTION("-XX:+PrintTenuringDistribution","Desired survivor size","- age "),
+		HEAP_AT_GC("-XX:+PrintHeapAtGC","Heap before GC","Heap after GC","{Heap","par new generation","def new generation",
+				"concurrent mark-sweep generation","concurrent-mark-sweep perm gen","tenured generation",
+				"eden space","from space","to space","object space","the space","Metaspace","class space"),
+		// stopped time lines which are parsed into safepoints are not counted
+		STOPPED_TIME("-XX:+PrintGCApplicationStoppedTime","Total time for which application threads were stopped","Application time:"),
+		JVM_INFO("JVM information","Java HotSpot","OpenJDK","Memory:","CommandLine flags:"),
+		// phases,heap and other details of unified logging which are joined by GC(n) id,or not pauses
+		UNIFIED_GC("-Xlog:gc* details","][gc"),
+		// header rows repeated by jstat -h<n>
+		JSTAT_HEADER("jstat column headers"),
+		// keyword of gc is found but it has no parser,e.g. Serial
+		NO_PARSER("gc without parser"),
+		UNKNOWN("unknown format");
+		private final String description;
+		private final String[] markers;
+		Category(String description,String... markers){
+			this.description=description;
+			this.markers=markers;
+		}
+		public String getDescription(){
+			return description;
+		}
+		/**
+		 * lines of this category are lost gc info or unknown format
+		 */
+		public boolean isProblem(){
+			return this==NO_PARSER || this==UNKNOWN;
+		}
+	}
+
+	void addLines(long count){
+		lines+=count;
+	}
+
+	/**
+	 * line which has no parser
+	 *
+	 * @param hasKeyword gc keyword is found in line
+	 */
+	void unmatched(CharSequence line,boolean hasKeyword){
+		Category category=Category.UNKNOWN;
+		if(hasKeyword){
+			category=Category.NO_PARSER;
+		}
+		else{
+			long match=automaton.match(line);
+			if(match!=-1)
+				category=markerCategories.get(GCLogKeywordAutomaton.keywordIndex(match));
+		}
+		skipped(category, line);
+	}
+	
+	/**
+	 * line of known category which has no parser
+	 */
+	void skipped(Category category,CharSequence line){
+		counts[category.ordinal()]++;
+		addSample(samples.get(category.ordinal()), line);
+	}
+
+	/**
+	 * stats of keyword of GCLogKeywordsAndParsers.match
+	 */
+	ParserStats getParserStats(long match){
+		int index=GCLogKeywordAutomaton.keywordIndex(match);
+		if(parserStats[index]==null)
+			parserStats[index]=new ParserStats(GCLogKeywordsAndParsers.getKeyword(match));
+		return parserStats[index];
+	}
+
+	/**
+	 * cache file of log is broken or can't be saved,only the first MAX_SAMPLES problems are kept
+	 */
+	void cacheFailed(String problem){
+		addSample(cacheProblems, problem);
+	}
+
+	/**
+	 * add diagnostics of the range which follows this one
+	 */
+	public void merge(GCLogDiagnostics next){
+		lines+=next.lines;
+		for (int i = 0; i < counts.length; i++) {
+			counts[i]+=next.counts[i];
+			addSamples(samples.get(i), next.samples.get(i));
+		}
+		for (int i = 0; i < parserStats.length; i++) {
+			if(next.parserStats[i]==null)
+				continue;
+			if(parserStats[i]==null)
+				parserStats[i]=new ParserStats(next.parserStats[i].keyword);
+			parserStats[i].merge(next.parserStats[i]);
+		}
+		addSamples(cacheProblems, next.cacheProblems);
+	}
+
+	public long getLines(){
+		return lines;
+	}
+
+	public long getCount(Category category){
+		return counts[category.ordinal()];
+	}
+
+	public List<String> getSamples(Category category){
+		return Collections.unmodifiableList(samples.get(category.ordinal()));
+	}
+
+	public List<String> getCacheProblems(){
+		return Collections.unmodifiableList(cacheProblems);
+	}
+
+	/**
+	 * stats of keywords which have lines,in keyword order
+	 */
+	public List<ParserStats> getParserStats(){
+		List<ParserStats> result=new ArrayList<ParserStats>();
+		for (ParserStats stats : parserStats) {
+			if(stats!=null)
+				result.add(stats);
+		}
+		return result;
+	}
+
+	/**
+	 * lines without parser which are not known output of other JVM options
+	 */
+	public long getUnknownLines(){
+		long unknown=0;
+		for (Category category : CATEGORIES) {
+			if(category.isProblem())
+				unknown+=counts[category.ordinal()];
+		}
+		return unknown;
+	}
+
+	public long getFailedLines(){
+		long failed=0;
+		for (ParserStats stats : getParserStats()) {
+			failed+=stats.failed;
+		}
+		return failed;
+	}
+
+	/**
+	 * some lines are unknown or failed to parse,so gc may be lost
+	 */
+	public boolean hasProblems(){
+		return getUnknownLines()>0 || getFailedLines()>0;
+	}
+
+	/**
+	 * counts of parsers and categories with example lines,one item a line
+	 */
+	public String getReport(){
+		StringBuilder report=new StringBuilder();
+		report.append("lines: ").append(lines).append("\n");
+		for (ParserStats stats : getParserStats()) {
+			report.append("parser ").append(stats.keyword).append(": ").append(stats.parsed).append(" parsed,")
+				.append(stats.joined).append(" assembled from lines,").append(stats.failed).append(" failed,")
+				.append(String.format(Locale.US, "%.3f", stats.nanos/1000000.0)).append(" ms\n");
+			appendSamples(report, stats.failedSamples);
+		}
+		for (Category category : CATEGORIES) {
+			if(counts[category.ordinal()]==0)
+				continue;
+			report.append(category.isProblem()?"":"skipped ").append(category.description).append(": ").append(counts[category.ordinal()]).append(" lines\n");
+			appendSamples(report, samples.get(category.ordinal()));
+		}
+		if(!cacheProblems.isEmpty()){
+			report.append("cache file: ").append(cacheProblems.size()).append(" problems\n");
+			appendSamples(report, cacheProblems);
+		}
+		return report.toString();
+	}
+
+	private static void appendSamples(StringBuilder report,List<String> lines){
+		for (String line : lines) {
+			report.append("    ").append(line).append("\n");
+		}
+	}
+
+	private static void addSample(List<String> samples,CharSequence line){
+		if(samples.size()>=MAX_SAMPLES)
+			return;
+		if(line.length()>MAX_SAMPLE_LENGTH)
+			samples.add(line.subSequence(0, MAX_SAMPLE_LENGTH).toString()+"...");
+		else
+			samples.add(line.toString());
+	}
+
+	private static void addSamples(List<String> samples,List<String> next){
+		for (int i = 0; i < next.size() && samples.size()<MAX_SAMPLES; i++) {
+			samples.add(next.get(i));
+		}
+	}
+
+	/**
+	 * lines of one gc keyword
+	 */
+	public static class ParserStats {
+
+		private final String keyword;
+
+		private long parsed=0;
+
+		// record assembled from more than one line
+		private long joined=0;
+
+		private long failed=0;
+
+		// parse time of parsed and failed lines
+		private long nanos=0;
+
+		private final List<String> failedSamples=new ArrayList<String>();
+
+		ParserStats(String keyword){
+			this.keyword=keyword;
+		}
+
+		void parsed(long parseNanos,boolean joinedLine){
+			parsed++;
+			nanos+=parseNanos;
+			if(joinedLine)
+				joined++;
+		}
+
+		void failed(CharSequence line,long parseNanos){
+			failed++;
+			nanos+=parseNanos;
+			addSample(failedSamples, line);
+		}
+
+		void merge(ParserStats next){
+			parsed+=next.parsed;
+			joined+=next.joined;
+			failed+=next.failed;
+			nanos+=next.nanos;
+			addSamples(failedSamples, next.failedSamples);
+		}
+
+		public String getKeyword(){
+			return keyword;
+		}
+
+		public long getParsed(){
+			return parsed;
+		}
+
+		public long getJoined(){
+			return joined;
+		}
+
+		public long getFailed(){
+			return failed;
+		}
+
+		public long getNanos(){
+			return nanos;
+		}
+
+		public List<String> getFailedSamples(){
+			return Collections.unmodifiableList(failedSamples);
+		}
+
+	}
+
+}
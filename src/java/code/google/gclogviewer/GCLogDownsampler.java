@@ -0,0 +1,117 @@
+/**
+ * GCLogViewer
+ * 
+ * A free open source tool to visualize data produced by the Java VM options -Xloggc:<file> or jstat > <file>.
+ * 
+ * Code license:	Apache License 2.0
+ * 
+ * http://code.google.com/p/gclogviewer
+ */
+package code.google.gclogviewer;
+
+/**
+ * Downsample a series to what can be seen in the chart: items in [lower,upper] are split into buckets
+ * of same time width(one bucket one pixel),only the first,min,max and last item of each bucket are kept,
+ * so the drawn line looks same as drawing all items and spikes like long FGC pauses are never lost.
+ *
+ * @author <a href="mailto:bluedavy@gmail.com">bluedavy</a>
+ */
+public class GCLogDownsampler {
+
+	// no downsample when items are less than this times buckets
+	static final int ITEMS_PER_BUCKET=4;
+
+	private GCLogDownsampler(){
+		// static utility
+	}
+
+	/**
+	 * @return indices of kept items in order,one item before lower and one after upper are kept too,
+	 * 		   so the line goes to the edges of chart
+	 */
+	public static int[] downsample(GCLogEventsSeries series,double lower,double upper,int buckets){
+		int count=series.getItemCount();
+		int from=Math.max(series.indexOf(lower)-1, 0);
+		int to=series.indexOf(upper);
+		while(to<count && series.getX(to)<=upper){
+			to++;
+		}
+		to=Math.min(to+1, count);
+		if(to<=from)
+			return new int[0];
+		if(to-from<=buckets*ITEMS_PER_BUCKET || upper<=lower){
+			int[] indices=new int[to-from];
+			for (int i = 0; i < indices.length; i++) {
+				indices[i]=from+i;
+			}
+			return indices;
+		}
+		int[] indices=new int[buckets*4+8];
+		int size=0;
+		double width=(upper-lower)/buckets;
+		int bucket=Integer.MIN_VALUE;
+		int first=-1,min=-1,max=-1,last=-1;
+		double minY=0,maxY=0;
+		for (int i = from; i < to; i++) {
+			int current=bucket(series.getX(i), lower, width, buckets);
+			double y=series.getY(i);
+			if(current!=bucket){
+				if(first!=-1){
+					indices=ensureCapacity(indices, size+4);
+					size=addBucket(indices, size, first, min, max, last);
+				}
+				bucket=current;
+				first=min=max=i;
+				minY=maxY=y;
+			}
+			else if(y<minY){
+				min=i;
+				minY=y;
+			}
+			else if(y>maxY){
+				max=i;
+				maxY=y;
+			}
+			last=i;
+		}
+		indices=ensureCapacity(indices, size+4);
+		size=addBucket(indices, size, first, min, max, last);
+		int[] result=new int[size];
+		System.arraycopy(indices, 0, result, 0, size);
+		return result;
+	}
+
+	// items before lower and after upper are in their own bucket
+	private static int bucket(double x,double lower,double width,int buckets){
+		if(x<lower)
+			return -1;
+		return Math.min((int)((x-lower)/width), buckets);
+	}
+
+	// add first,min,max,last in index order without duplicates
+	private static int addBucket(int[] indices,int size,int first,int min,int max,int last){
+		int low=Math.min(min, max);
+		int high=Math.max(min, max);
+		size=add(indices, size, first);
+		size=add(indices, size, low);
+		size=add(indices, size, high);
+		size=add(indices, size, last);
+		return size;
+	}
+
+	private static int add(int[] indices,int size,int index){
+		if(size>0 && indices[size-1]>=index)
+			return size;
+		indices[size]=index;
+		return size+1;
+	}
+
+	private static int[] ensureCapacity(int[] indices,int capacity){
+		if(capacity<=indices.length)
+			return indices;
+		int[] newIndices=new int[Math.max(capacity, indices.length*2)];
+		System.arraycopy(indices, 0, newIndices, 0, indices.length);
+		return newIndices;
+	}
+
+}
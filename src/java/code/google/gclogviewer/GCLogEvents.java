@@ -0,0 +1,490 @@
+/**
+ * GCLogViewer
+ * 
+ * A free open source tool to visualize data produced by the Java VM options -Xloggc:<file> or jstat > <file>.
+ * 
+ * Code license:	Apache License 2.0
+ * 
+ * http://code.google.com/p/gclogviewer
+ */
+package code.google.gclogviewer;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Columnar store of gc events of one collector kind(YGC,FGC or CMSGC) in log order,
+ * every field is a growable primitive column,event i is the i-th value of all columns,
+ * time and pause are int units of the scale printed in log(see GCLogDecimalColumn),so an event is about 24 bytes.
+ *
+ * gc with same occur time are all kept,they are no longer overwritten as in a time keyed map.
+ *
+ * running aggregates are kept while events are added,so summary values are O(1).
+ *
+ * @author <a href="mailto:bluedavy@gmail.com">bluedavy</a>
+ */
+public class GCLogEvents {
+
+	private static final int INITIAL_CAPACITY=64;
+
+	private int size=0;
+
+	// gc occur time,secs,kept as printed in log
+	private final GCLogDecimalColumn times=new GCLogDecimalColumn(INITIAL_CAPACITY);
+
+	// gc pause time,secs,kept as printed in log
+	private final GCLogDecimalColumn pauses=new GCLogDecimalColumn(INITIAL_CAPACITY);
+
+	// K,int is enough for 2T heap
+	private int[] memoryBefores=new int[INITIAL_CAPACITY];
+
+	private int[] memoryAfters=new int[INITIAL_CAPACITY];
+
+	private int[] heapMemoryAfters=new int[INITIAL_CAPACITY];
+
+	// YGC live data size,K,PTOS is derived from it
+	private int[] ldses=new int[INITIAL_CAPACITY];
+
+	// ms of each GCLogPhase,one column a phase,null until an event has phases(G1),0 if not logged
+	private float[][] phases=null;
+
+	// running aggregates,K sums are long so big heaps will not overflow
+	private double totalPause=0;
+
+	private double minPause=Double.NaN;
+
+	private double maxPause=Double.NaN;
+
+	private double maxTime=0;
+
+	private long totalMemoryAfter=0;
+
+	private long totalLDS=0;
+
+	private final GCLogPauseHistogram pauseHistogram=new GCLogPauseHistogram();
+
+	public void add(OneLineGCData data){
+		add(data.getOccurTimeSecs(), data.getOccurTimeScale(), data.getPauseTimeSecs(), data.getPauseTimeScale(),
+			data.getMemoryBeforeK(), data.getMemoryAfterK(), data.getHeapMemoryAfterK());
+		if(data.getPhaseTimes()!=null)
+			setPhaseTimes(size-1, data.getPhaseTimes());
+	}
+
+	public void add(double time,int timeScale,double pause,int pauseScale,long memoryBefore,long memoryAfter,long heapMemoryAfter){
+		ensureCapacity(size+1);
+		times.add(time, timeScale);
+		pauses.add(pause, pauseScale);
+		memoryBefores[size]=(int)memoryBefore;
+		memoryAfters[size]=(int)memoryAfter;
+		heapMemoryAfters[size]=(int)heapMemoryAfter;
+		ldses[size]=0;
+		if(phases!=null){
+			for (float[] column : phases) {
+				column[size]=0;
+			}
+		}
+		size++;
+		totalPause+=pause;
+		minPause=(size==1)?pause:Math.min(minPause, pause);
+		maxPause=(size==1)?pause:Math.max(maxPause, pause);
+		maxTime=Math.max(maxTime, time);
+		totalMemoryAfter+=memoryAfter;
+		pauseHistogram.add(pause);
+	}
+
+	/**
+	 * append events of the next part of log
+	 */
+	public void append(GCLogEvents next){
+		ensureCapacity(size+next.size);
+		times.append(next.times);
+		pauses.append(next.pauses);
+		System.arraycopy(next.memoryBefores, 0, memoryBefores, size, next.size);
+		System.arraycopy(next.memoryAfters, 0, memoryAfters, size, next.size);
+		System.arraycopy(next.heapMemoryAfters, 0, heapMemoryAfters, size, next.size);
+		System.arraycopy(next.ldses, 0, ldses, size, next.size);
+		if(next.phases!=null){
+			allocatePhases();
+			for (int i = 0; i < phases.length; i++) {
+				System.arraycopy(next.phases[i], 0, phases[i], size, next.size);
+			}
+		}
+		else if(phases!=null){
+			for (float[] column : phases) {
+				Arrays.fill(column, size, size+next.size, 0);
+			}
+		}
+		if(next.size>0){
+			minPause=(size==0)?next.minPause:Math.min(minPause, next.minPause);
+			maxPause=(size==0)?next.maxPause:Math.max(maxPause, next.maxPause);
+		}
+		size+=next.size;
+		totalPause+=next.totalPause;
+		maxTime=Math.max(maxTime, next.maxTime);
+		totalMemoryAfter+=next.totalMemoryAfter;
+		totalLDS+=next.totalLDS;
+		pauseHistogram.add(next.pauseHistogram);
+	}
+
+	public int size(){
+		return size;
+	}
+
+	public double getTime(int index){
+		return times.get(index);
+	}
+
+	public double getPause(int index){
+		return pauses.get(index);
+	}
+
+	public long getMemoryBefore(int index){
+		return memoryBefores[index];
+	}
+
+	public long getMemoryAfter(int index){
+		return memoryAfters[index];
+	}
+
+	public long getHeapMemoryAfter(int index){
+		return heapMemoryAfters[index];
+	}
+
+	public long getLDS(int index){
+		return ldses[index];
+	}
+
+	// PTOS: (heapMemoryAfter - memoryAfter) - previous old = LDS - memoryAfter
+	public long getPTOS(int index){
+		return ldses[index]-memoryAfters[index];
+	}
+
+	/**
+	 * events have phase times,see GCLogPhase
+	 */
+	public boolean hasPhases(){
+		return phases!=null;
+	}
+
+	/**
+	 * ms of phase,0 if not logged
+	 */
+	public double getPhaseTime(int index,GCLogPhase phase){
+		return (phases==null)?0:phases[phase.ordinal()][index];
+	}
+
+	/**
+	 * @param times ms of each GCLogPhase by ordinal
+	 */
+	public void setPhaseTimes(int index,double[] times){
+		allocatePhases();
+		for (int i = 0; i < phases.length; i++) {
+			phases[i][index]=(float)times[i];
+		}
+	}
+
+	public void setLDS(int index,long lds){
+		totalLDS+=lds-ldses[index];
+		ldses[index]=(int)lds;
+	}
+
+	/**
+	 * sum of pause time,secs
+	 */
+	public double getTotalPause(){
+		return totalPause;
+	}
+
+	/**
+	 * NaN if no event
+	 */
+	public double getMinPause(){
+		return minPause;
+	}
+
+	/**
+	 * NaN if no event
+	 */
+	public double getMaxPause(){
+		return maxPause;
+	}
+
+	/**
+	 * time of the last event,0 if no event
+	 */
+	public double getMaxTime(){
+		return maxTime;
+	}
+
+	public long getTotalMemoryAfter(){
+		return totalMemoryAfter;
+	}
+
+	public long getTotalLDS(){
+		return totalLDS;
+	}
+
+	public long getTotalPTOS(){
+		return totalLDS-totalMemoryAfter;
+	}
+
+	/**
+	 * histogram of all pauses,for percentiles
+	 */
+	public GCLogPauseHistogram getPauseHistogram(){
+		return pauseHistogram;
+	}
+
+	/**
+	 * occur time as printed in log
+	 */
+	public String getTimeText(int index){
+		return times.getText(index);
+	}
+
+	/**
+	 * pause time as printed in log
+	 */
+	public String getPauseText(int index){
+		return pauses.getText(index);
+	}
+
+	/**
+	 * index of the first event which occurs at time,-1 if none,events must be in time order
+	 */
+	public int indexOf(double time){
+		int index=ceilingIndex(time);
+		return (index<size && times.get(index)==time)?index:-1;
+	}
+
+	/**
+	 * index of the first event which occurs at or after time,size if none,events must be in time order
+	 */
+	public int ceilingIndex(double time){
+		int low=0;
+		int high=size-1;
+		while(low<=high){
+			int middle=(low+high)>>>1;
+			if(times.get(middle)<time)
+				low=middle+1;
+			else
+				high=middle-1;
+		}
+		return low;
+	}
+
+	/**
+	 * key: time value: pausetime,read only view
+	 */
+	public View<String> pauseTimesView(){
+		return new View<String>(){
+			public String getValue(int index) {
+				return getPauseText(index);
+			}
+		};
+	}
+
+	/**
+	 * key: time value: String[0]: memoryBefore String[1]: memoryAfter,read only view
+	 */
+	public View<String[]> memoryChangesView(){
+		return new View<String[]>(){
+			public String[] getValue(int index) {
+				return new String[]{String.valueOf(memoryBefores[index]),String.valueOf(memoryAfters[index])};
+			}
+		};
+	}
+
+	/**
+	 * key: time value: LDS,read only view
+	 */
+	public View<String> ldsView(){
+		return new View<String>(){
+			public String getValue(int index) {
+				return String.valueOf(getLDS(index));
+			}
+		};
+	}
+
+	/**
+	 * key: time value: PTOS,read only view
+	 */
+	public View<String> ptosView(){
+		return new View<String>(){
+			public String getValue(int index) {
+				return String.valueOf(getPTOS(index));
+			}
+		};
+	}
+
+	/**
+	 * write columns and aggregates to cache file
+	 */
+	void write(DataOutputStream out) throws IOException{
+		out.writeInt(size);
+		out.writeDouble(totalPause);
+		out.writeDouble(minPause);
+		out.writeDouble(maxPause);
+		out.writeDouble(maxTime);
+		out.writeLong(totalMemoryAfter);
+		out.writeLong(totalLDS);
+		pauseHistogram.write(out);
+		times.write(out);
+		pauses.write(out);
+		writeInts(out, memoryBefores);
+		writeInts(out, memoryAfters);
+		writeInts(out, heapMemoryAfters);
+		writeInts(out, ldses);
+		out.writeBoolean(phases!=null);
+		if(phases!=null){
+			for (float[] column : phases) {
+				for (int i = 0; i < size; i++) {
+					out.writeFloat(column[i]);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * read columns written by write() from mapped cache file into this empty store,one bulk copy per column
+	 */
+	void read(ByteBuffer buffer){
+		int count=buffer.getInt();
+		totalPause=buffer.getDouble();
+		minPause=buffer.getDouble();
+		maxPause=buffer.getDouble();
+		maxTime=buffer.getDouble();
+		totalMemoryAfter=buffer.getLong();
+		totalLDS=buffer.getLong();
+		pauseHistogram.read(buffer);
+		ensureCapacity(count);
+		size=count;
+		times.read(buffer, count);
+		pauses.read(buffer, count);
+		readInts(buffer, memoryBefores);
+		readInts(buffer, memoryAfters);
+		readInts(buffer, heapMemoryAfters);
+		readInts(buffer, ldses);
+		if(buffer.get()!=0){
+			allocatePhases();
+			for (float[] column : phases) {
+				buffer.asFloatBuffer().get(column, 0, size);
+				buffer.position(buffer.position()+size*4);
+			}
+		}
+	}
+	
+	private void writeInts(DataOutputStream out,int[] column) throws IOException{
+		for (int i = 0; i < size; i++) {
+			out.writeInt(column[i]);
+		}
+	}
+	
+	private void readInts(ByteBuffer buffer,int[] column){
+		buffer.asIntBuffer().get(column, 0, size);
+		buffer.position(buffer.position()+size*4);
+	}
+
+	private void ensureCapacity(int capacity){
+		if(capacity<=memoryBefores.length)
+			return;
+		int newCapacity=Math.max(capacity, memoryBefores.length+(memoryBefores.length>>1));
+		times.ensureCapacity(newCapacity);
+		pauses.ensureCapacity(newCapacity);
+		memoryBefores=Arrays.copyOf(memoryBefores, newCapacity);
+		memoryAfters=Arrays.copyOf(memoryAfters, newCapacity);
+		heapMemoryAfters=Arrays.copyOf(heapMemoryAfters, newCapacity);
+		ldses=Arrays.copyOf(ldses, newCapacity);
+		if(phases!=null){
+			for (int i = 0; i < phases.length; i++) {
+				phases[i]=Arrays.copyOf(phases[i], newCapacity);
+			}
+		}
+	}
+
+	private void allocatePhases(){
+		if(phases!=null)
+			return;
+		phases=new float[GCLogPhase.count()][memoryBefores.length];
+	}
+
+	/**
+	 * read only view of events keyed by time text in log order,
+	 * it is a multimap,not a Map,as gc with same time text are all kept:
+	 * get(key) is the value of the first event of key,iterate events by index to see all of them.
+	 * views are equal if they have same keys and values in same order.
+	 */
+	public abstract class View<V> {
+
+		public abstract V getValue(int index);
+
+		public int size() {
+			return size;
+		}
+
+		public String getKey(int index) {
+			return getTimeText(index);
+		}
+
+		public boolean containsKey(String key) {
+			return index(key)!=-1;
+		}
+
+		/**
+		 * value of the first event of key,null if none
+		 */
+		public V get(String key) {
+			int index=index(key);
+			return (index==-1)?null:getValue(index);
+		}
+
+		public boolean equals(Object other) {
+			if(other==this)
+				return true;
+			if(!(other instanceof View))
+				return false;
+			View<?> view=(View<?>)other;
+			if(view.size()!=size())
+				return false;
+			for (int i = 0; i < size(); i++) {
+				if(!getKey(i).equals(view.getKey(i)) || !Arrays.deepEquals(new Object[]{getValue(i)}, new Object[]{view.getValue(i)}))
+					return false;
+			}
+			return true;
+		}
+
+		public int hashCode() {
+			int hash=1;
+			for (int i = 0; i < size(); i++) {
+				hash=31*hash+getKey(i).hashCode();
+				hash=31*hash+Arrays.deepHashCode(new Object[]{getValue(i)});
+			}
+			return hash;
+		}
+
+		public String toString() {
+			StringBuilder text=new StringBuilder("{");
+			for (int i = 0; i < size(); i++) {
+				if(i>0)
+					text.append(", ");
+				text.append(getKey(i)).append('=').append(Arrays.deepToString(new Object[]{getValue(i)}));
+			}
+			return text.append('}').toString();
+		}
+
+		private int index(String key){
+			if(key==null)
+				return -1;
+			try{
+				return indexOf(Double.parseDouble(key));
+			}
+			catch(NumberFormatException e){
+				return -1;
+			}
+		}
+
+	}
+
+}
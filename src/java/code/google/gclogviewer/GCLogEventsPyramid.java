@@ -0,0 +1,202 @@
+/**
+ * GCLogViewer
+ * 
+ * A free open source tool to visualize data produced by the Java VM options -Xloggc:<file> or jstat > <file>.
+ * 
+ * Code license:	Apache License 2.0
+ * 
+ * http://code.google.com/p/gclogviewer
+ */
+package code.google.gclogviewer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Min/max/count of a GCLogEventsSeries at power-of-two time resolutions,level k buckets are 2^k times
+ * as wide as level 0 buckets,each level is built from the one below.
+ *
+ * to draw a time range with some pixels,the level whose buckets are just narrower than a pixel is used,
+ * so the work depends on pixels instead of items,only when zoomed in below level 0 the items are read.
+ *
+ * @author <a href="mailto:bluedavy@gmail.com">bluedavy</a>
+ */
+public class GCLogEventsPyramid {
+
+	// level 0 has about one bucket for this many items
+	private static final int ITEMS_PER_BUCKET=8;
+
+	private final GCLogEventsSeries series;
+
+	// items when built,pyramid is built again when events are appended
+	private final int itemCount;
+
+	// x of bucket 0 start
+	private final double origin;
+
+	private final double baseWidth;
+
+	// per level: item index of min y and max y in bucket,-1 if bucket is empty
+	private final List<int[]> minIndices=new ArrayList<int[]>();
+
+	private final List<int[]> maxIndices=new ArrayList<int[]>();
+
+	private final List<int[]> counts=new ArrayList<int[]>();
+
+	public GCLogEventsPyramid(GCLogEventsSeries series){
+		this.series=series;
+		this.itemCount=series.getItemCount();
+		double from=Double.MAX_VALUE;
+		double to=-Double.MAX_VALUE;
+		for (int i = 0; i < itemCount; i++) {
+			double x=series.getX(i);
+			from=Math.min(from, x);
+			to=Math.max(to, x);
+		}
+		if(itemCount==0){
+			from=to=0;
+		}
+		origin=from;
+		// power of two width,so buckets of all levels are aligned
+		double width=Math.max((to-from)*ITEMS_PER_BUCKET/Math.max(itemCount, 1), Double.MIN_NORMAL);
+		baseWidth=Math.pow(2, Math.ceil(Math.log(width)/Math.log(2)));
+		buildLevel0(Math.max((int)((to-from)/baseWidth)+1, 1));
+		while(counts.get(counts.size()-1).length>1){
+			buildNextLevel();
+		}
+	}
+
+	public GCLogEventsSeries getSeries(){
+		return series;
+	}
+
+	/**
+	 * whether events were appended after pyramid was built
+	 */
+	public boolean isStale(){
+		return series.getItemCount()!=itemCount;
+	}
+
+	public int getLevels(){
+		return counts.size();
+	}
+
+	/**
+	 * time width of buckets of level
+	 */
+	public double getBucketWidth(int level){
+		return baseWidth*(1L<<level);
+	}
+
+	/**
+	 * @return indices of min and max items of each bucket in [lower,upper] and one item before lower and
+	 * 		   one after upper in index order,same as GCLogDownsampler when no level is fine enough
+	 */
+	public int[] downsample(double lower,double upper,int buckets){
+		if(itemCount==0)
+			return new int[0];
+		double pixelWidth=(upper-lower)/Math.max(buckets, 1);
+		if(!(pixelWidth>=baseWidth))
+			return GCLogDownsampler.downsample(series, lower, upper, buckets);
+		int level=(int)Math.min(Math.floor(Math.log(pixelWidth/baseWidth)/Math.log(2)), counts.size()-1);
+		int[] levelCounts=counts.get(level);
+		int[] levelMins=minIndices.get(level);
+		int[] levelMaxs=maxIndices.get(level);
+		double width=getBucketWidth(level);
+		int from=Math.max((int)Math.floor((lower-origin)/width)-1, 0);
+		int to=Math.min((int)Math.floor((upper-origin)/width)+1, levelCounts.length-1);
+		int[] indices=new int[Math.max((to-from+1)*2, 0)+2];
+		int size=0;
+		for (int bucket = from; bucket <= to; bucket++) {
+			if(levelCounts[bucket]==0)
+				continue;
+			indices[size++]=levelMins[bucket];
+			indices[size++]=levelMaxs[bucket];
+		}
+		// items just outside the range,so the line goes to the edges of chart
+		indices[size++]=Math.max(series.indexOf(lower)-1, 0);
+		int last=series.indexOf(upper);
+		while(last<itemCount && series.getX(last)<=upper){
+			last++;
+		}
+		indices[size++]=Math.min(last, itemCount-1);
+		Arrays.sort(indices, 0, size);
+		int distinct=0;
+		for (int i = 0; i < size; i++) {
+			if(distinct==0 || indices[i]!=indices[distinct-1])
+				indices[distinct++]=indices[i];
+		}
+		int[] result=new int[distinct];
+		System.arraycopy(indices, 0, result, 0, distinct);
+		return result;
+	}
+
+	/**
+	 * items of level 0 buckets overlapping [lower,upper),buckets on the edges are counted as a whole
+	 */
+	public int count(double lower,double upper){
+		int[] levelCounts=counts.get(0);
+		int from=Math.max((int)Math.floor((lower-origin)/baseWidth), 0);
+		int to=Math.min((int)Math.ceil((upper-origin)/baseWidth), levelCounts.length);
+		int count=0;
+		for (int bucket = from; bucket < to; bucket++) {
+			count+=levelCounts[bucket];
+		}
+		return count;
+	}
+
+	private void buildLevel0(int buckets){
+		int[] levelCounts=new int[buckets];
+		int[] levelMins=new int[buckets];
+		int[] levelMaxs=new int[buckets];
+		Arrays.fill(levelMins, -1);
+		Arrays.fill(levelMaxs, -1);
+		for (int i = 0; i < itemCount; i++) {
+			int bucket=Math.min((int)((series.getX(i)-origin)/baseWidth), buckets-1);
+			double y=series.getY(i);
+			if(levelCounts[bucket]==0){
+				levelMins[bucket]=i;
+				levelMaxs[bucket]=i;
+			}
+			else if(y<series.getY(levelMins[bucket])){
+				levelMins[bucket]=i;
+			}
+			else if(y>series.getY(levelMaxs[bucket])){
+				levelMaxs[bucket]=i;
+			}
+			levelCounts[bucket]++;
+		}
+		counts.add(levelCounts);
+		minIndices.add(levelMins);
+		maxIndices.add(levelMaxs);
+	}
+
+	private void buildNextLevel(){
+		int[] lowerCounts=counts.get(counts.size()-1);
+		int[] lowerMins=minIndices.get(minIndices.size()-1);
+		int[] lowerMaxs=maxIndices.get(maxIndices.size()-1);
+		int buckets=(lowerCounts.length+1)/2;
+		int[] levelCounts=new int[buckets];
+		int[] levelMins=new int[buckets];
+		int[] levelMaxs=new int[buckets];
+		for (int bucket = 0; bucket < buckets; bucket++) {
+			int left=bucket*2;
+			int right=left+1;
+			levelCounts[bucket]=lowerCounts[left];
+			levelMins[bucket]=lowerMins[left];
+			levelMaxs[bucket]=lowerMaxs[left];
+			if(right>=lowerCounts.length || lowerCounts[right]==0)
+				continue;
+			levelCounts[bucket]+=lowerCounts[right];
+			if(levelMins[bucket]==-1 || series.getY(lowerMins[right])<series.getY(levelMins[bucket]))
+				levelMins[bucket]=lowerMins[right];
+			if(levelMaxs[bucket]==-1 || series.getY(lowerMaxs[right])>series.getY(levelMaxs[bucket]))
+				levelMaxs[bucket]=lowerMaxs[right];
+		}
+		counts.add(levelCounts);
+		minIndices.add(levelMins);
+		maxIndices.add(levelMaxs);
+	}
+
+}
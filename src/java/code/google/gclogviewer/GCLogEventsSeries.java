@@ -0,0 +1,125 @@
+/**
+ * GCLogViewer
+ * 
+ * A free open source tool to visualize data produced by the Java VM options -Xloggc:<file> or jstat > <file>.
+ * 
+ * Code license:	Apache License 2.0
+ * 
+ * http://code.google.com/p/gclogviewer
+ */
+package code.google.gclogviewer;
+
+/**
+ * One chart series read straight from columns of GCLogEvents,x is gc occur time,
+ * items are in log order,so x is sorted.
+ *
+ * events appended to GCLogEvents(follow mode) are seen by the series at once.
+ *
+ * @author <a href="mailto:bluedavy@gmail.com">bluedavy</a>
+ */
+public class GCLogEventsSeries {
+
+	private static final int PAUSE_TIME=0;
+	private static final int MEMORY_CHANGE=1;
+	private static final int MEMORY_AFTER=2;
+	private static final int LDS=3;
+	private static final int PTOS=4;
+
+	private final String key;
+
+	private final GCLogEvents events;
+
+	private final int type;
+
+	private GCLogEventsSeries(String key,GCLogEvents events,int type){
+		this.key=key;
+		this.events=events;
+		this.type=type;
+	}
+
+	/**
+	 * x: occur time y: pause time(ms)
+	 */
+	public static GCLogEventsSeries pauseTimes(String key,GCLogEvents events){
+		return new GCLogEventsSeries(key, events, PAUSE_TIME);
+	}
+
+	/**
+	 * two items each gc,x: occur time y: memory before gc,x: occur time+pause time y: memory after gc
+	 */
+	public static GCLogEventsSeries memoryChanges(String key,GCLogEvents events){
+		return new GCLogEventsSeries(key, events, MEMORY_CHANGE);
+	}
+
+	/**
+	 * x: occur time y: memory after gc(K),it is the live data size of FGC
+	 */
+	public static GCLogEventsSeries memoryAfters(String key,GCLogEvents events){
+		return new GCLogEventsSeries(key, events, MEMORY_AFTER);
+	}
+
+	/**
+	 * x: occur time y: YGC live data size(K)
+	 */
+	public static GCLogEventsSeries lds(String key,GCLogEvents events){
+		return new GCLogEventsSeries(key, events, LDS);
+	}
+
+	/**
+	 * x: occur time y: YGC promotion to old size(K)
+	 */
+	public static GCLogEventsSeries ptos(String key,GCLogEvents events){
+		return new GCLogEventsSeries(key, events, PTOS);
+	}
+
+	public String getKey(){
+		return key;
+	}
+
+	public int getItemCount(){
+		return (type==MEMORY_CHANGE)?events.size()*2:events.size();
+	}
+
+	public double getX(int item){
+		if(type==MEMORY_CHANGE){
+			int index=item>>1;
+			if((item & 1)==0)
+				return events.getTime(index);
+			return events.getTime(index)+events.getPause(index);
+		}
+		return events.getTime(item);
+	}
+
+	public double getY(int item){
+		switch (type) {
+			case PAUSE_TIME:
+				return events.getPause(item)*1000;
+			case MEMORY_CHANGE:
+				int index=item>>1;
+				return ((item & 1)==0)?events.getMemoryBefore(index):events.getMemoryAfter(index);
+			case MEMORY_AFTER:
+				return events.getMemoryAfter(item);
+			case LDS:
+				return events.getLDS(item);
+			default:
+				return events.getPTOS(item);
+		}
+	}
+
+	/**
+	 * first item whose x is not less than x,getItemCount() if none
+	 */
+	public int indexOf(double x){
+		int low=0;
+		int high=getItemCount()-1;
+		while(low<=high){
+			int middle=(low+high)>>>1;
+			if(getX(middle)<x)
+				low=middle+1;
+			else
+				high=middle-1;
+		}
+		return low;
+	}
+
+}
@@ -0,0 +1,189 @@
+/**
+ * GCLogViewer
+ * 
+ * A free open source tool to visualize data produced by the Java VM options -Xloggc:<file> or jstat > <file>.
+ * 
+ * Code license:	Apache License 2.0
+ * 
+ * http://code.google.com/p/gclogviewer
+ */
+package code.google.gclogviewer;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * Follow a growing -Xloggc file,each call of follow() only analyzes the lines appended since last call.
+ * 
+ * Lines are consumed up to the last line ending with ']',so a gc record which is being written stays for next call,
+ * a last line whose record may go on,e.g. a G1 pause whose details block is not written yet,stays too.
+ * When the file becomes shorter or its head changes,it was truncated or rotated,whole file is analyzed again.
+ * 
+ * Appended lines are merged into whole GCLogData only when getData() is called,so follow() can run on
+ * a background thread while the ui thread reads GCLogData.
+ * 
+ * When whole file is analyzed,events are loaded from GCLogCache if it is valid and only the rest of file is parsed,
+ * then the cache is saved again.
+ *
+ * @author <a href="mailto:bluedavy@gmail.com">bluedavy</a>
+ */
+public class GCLogFollower {
+
+	// bytes of file head to detect rotation
+	private static final int HEAD_SIZE=256;
+	
+	private static final long MIN_CHUNK_SIZE=16*1024*1024;
+	
+	private final GCLogAnalyze analyze;
+	
+	private final File file;
+	
+	private final int threads;
+	
+	// null when cache is disabled
+	private final GCLogCache cache;
+	
+	private GCLogAnalyzeContext context;
+	
+	// appended lines not merged into context yet
+	private GCLogAnalyzeContext appended;
+	
+	// bytes analyzed
+	private long offset;
+	
+	private byte[] head;
+	
+	private boolean restarted;
+	
+	private volatile GCLogProgressListener progressListener;
+	
+	public GCLogFollower(GCLogAnalyze analyze,String fileName,int threads){
+		this(analyze, fileName, threads, true);
+	}
+	
+	public GCLogFollower(GCLogAnalyze analyze,String fileName,int threads,boolean useCache){
+		this.analyze=analyze;
+		this.file=new File(fileName);
+		this.threads=threads;
+		this.cache=useCache?new GCLogCache(file):null;
+	}
+	
+	/**
+	 * listener of analysis of following follow() calls,null to stop reporting
+	 */
+	public void setProgressListener(GCLogProgressListener progressListener){
+		this.progressListener=progressListener;
+	}
+	
+	/**
+	 * @return GCLogData of appended lines,null if nothing appended;
+	 * 		   GCLogData of whole file at first call or when file is truncated or rotated,then isRestarted() is true
+	 */
+	public synchronized GCLogData follow() throws Exception{
+		RandomAccessFile randomAccessFile=new RandomAccessFile(file, "r");
+		try{
+			FileChannel channel=randomAccessFile.getChannel();
+			long length=channel.size();
+			restarted=!isSameFile(channel, length);
+			if(restarted){
+				appended=null;
+				offset=0;
+				context=(cache==null)?null:cache.load(channel);
+				if(context!=null)
+					offset=cache.getOffset();
+			}
+			long end=GCLogAnalyze.lastBoundary(channel, offset, length);
+			head=readHead(channel, Math.min(HEAD_SIZE, length));
+			if(restarted){
+				boolean changed=true;
+				if(context==null){
+					context=analyze.analysis(file, 0, end, threads, MIN_CHUNK_SIZE, progressListener);
+				}
+				else if(end>offset){
+					// only tail appended after cache was saved
+					context.merge(analyze.analysis(file, offset, end, threads, MIN_CHUNK_SIZE, progressListener));
+				}
+				else{
+					changed=false;
+				}
+				if(cache!=null && cache.getLoadProblem()!=null)
+					context.getDiagnostics().cacheFailed(cache.getLoadProblem());
+				offset=end;
+				if(cache!=null && changed){
+					saveCache(channel);
+				}
+				return context.getData();
+			}
+			if(end<=offset)
+				return null;
+			// last context ends at offset,rows of jstat output before it are not read again
+			GCLogAnalyzeContext appendedContext=analyze.analysis(file, offset, end, 1, MIN_CHUNK_SIZE, (appended!=null)?appended:context, progressListener);
+			GCLogData appendedData=appendedContext.getData();
+			if(appended==null){
+				appended=appendedContext;
+			}
+			else{
+				appended.merge(appendedContext);
+			}
+			offset=end;
+			return appendedData;
+		}
+		finally{
+			randomAccessFile.close();
+		}
+	}
+	
+	/**
+	 * whether last follow() analyzed whole file
+	 */
+	public synchronized boolean isRestarted(){
+		return restarted;
+	}
+	
+	/**
+	 * GCLogData of whole file analyzed so far
+	 */
+	public synchronized GCLogData getData(){
+		if(context==null)
+			return null;
+		if(appended!=null){
+			context.merge(appended);
+			appended=null;
+		}
+		return context.getData();
+	}
+	
+	public String getFileName(){
+		return file.getPath();
+	}
+	
+	private void saveCache(FileChannel channel){
+		try{
+			cache.save(channel, context, offset);
+		}
+		catch(IOException e){
+			// cache is only an optimization,problem is told by diagnostics
+			context.getDiagnostics().cacheFailed("save cache file failed: "+e.getMessage());
+		}
+	}
+	
+	private boolean isSameFile(FileChannel channel,long length) throws Exception{
+		if(context==null || length<offset || length<head.length)
+			return false;
+		return Arrays.equals(head, readHead(channel, head.length));
+	}
+	
+	private byte[] readHead(FileChannel channel,long length) throws Exception{
+		ByteBuffer buffer=ByteBuffer.allocate((int)length);
+		while(buffer.hasRemaining()){
+			if(channel.read(buffer, buffer.position())<=0)
+				break;
+		}
+		return buffer.array();
+	}
+	
+}
@@ -0,0 +1,568 @@
+/**
+ * GCLogViewer
+ * 
+ * A free open source tool to visualize data produced by the Java VM options -Xloggc:<file> or jstat > <file>.
+ * 
+ * Code license:	Apache License 2.0
+ * 
+ * http://code.google.com/p/gclogviewer
+ */
+package code.google.gclogviewer;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TimeZone;
+
+/**
+ * Generate gc log of any size for benchmarks and large file tests,same seed and settings always write same log:
+ *
+ * java code.google.gclogviewer.GCLogGenerator [-collector cms|parallel|parallelold] [-size 10g] [-seed n]
+ * 		[-datestamps] [-start 2010-11-11T00:00:00] [-uptime secs] [-interval secs] [-young K] [-old K] [-perm K] file
+ *
+ * heap is simulated: each YGC promotes some young to old,old is cleaned to the live size by CMS cycles
+ * (initial-mark,concurrent phases,remark),by promotion failed or by Full GC when it is full.
+ * lines are same as -XX:+PrintGCDetails -XX:+PrintGCTimeStamps [-XX:+PrintGCDateStamps] of jdk 6.
+ *
+ * @author <a href="mailto:bluedavy@gmail.com">bluedavy</a>
+ */
+public class GCLogGenerator {
+
+	public enum Collector{
+		// ParNew + CMS
+		CMS,
+		// PSYoungGen + PSOldGen
+		PARALLEL,
+		// PSYoungGen + ParOldGen
+		PARALLEL_OLD
+	}
+
+	private static final String USAGE="Usage: java code.google.gclogviewer.GCLogGenerator [-collector cms|parallel|parallelold] [-size 10g] [-seed n] "
+			+"[-datestamps] [-start 2010-11-11T00:00:00] [-uptime secs] [-interval secs] [-young K] [-old K] [-perm K] file";
+
+	// CMS cycle starts when old is above this
+	private static final double CMS_INITIATING_OCCUPANCY=0.7;
+
+	// Full GC of parallel collector when promotion would go above this
+	private static final double FULL_OCCUPANCY=0.98;
+
+	private static final double PROMOTION_FAILED_RATE=0.001;
+
+	private Collector collector=Collector.CMS;
+
+	private long seed=20101111L;
+
+	private boolean dateStamps=false;
+
+	// jvm start time of date stamps
+	private long startMillis=1289404800000L;
+
+	private TimeZone timeZone=TimeZone.getTimeZone("GMT+08:00");
+
+	// time stamp of first gc
+	private double startUptime=1.0;
+
+	// average seconds between two YGC
+	private double interval=1.5;
+
+	private long youngSize=563200;
+
+	private long oldSize=1060864;
+
+	private long permSize=131072;
+
+	private Random random;
+
+	private double time;
+
+	private long old;
+
+	private long live;
+
+	// 0: no CMS cycle,1: marking,2: precleaned,3: sweeping
+	private int cmsPhase;
+
+	private int ygc;
+
+	private int fgc;
+
+	private int cmsgc;
+
+	// CMS cycles which end with reset
+	private int cmsCycles;
+
+	private SimpleDateFormat secondsFormat;
+
+	private SimpleDateFormat zoneFormat;
+
+	private long formattedSecond=Long.MIN_VALUE;
+
+	private String formattedDate;
+
+	private String formattedZone;
+
+	private final StringBuilder builder=new StringBuilder(512);
+
+	public static void main(String[] args) throws Exception{
+		GCLogGenerator generator=new GCLogGenerator();
+		long size=100*1024*1024;
+		String fileName=null;
+		try{
+			for (int i = 0; i < args.length; i++) {
+				String arg=args[i];
+				if("-datestamps".equals(arg)){
+					generator.setDateStamps(true);
+					continue;
+				}
+				if(!arg.startsWith("-")){
+					fileName=arg;
+					continue;
+				}
+				if(i+1>=args.length)
+					throw new IllegalArgumentException(arg);
+				String value=args[++i];
+				if("-collector".equals(arg))
+					generator.setCollector(parseCollector(value));
+				else if("-size".equals(arg))
+					size=parseSize(value);
+				else if("-seed".equals(arg))
+					generator.setSeed(Long.parseLong(value));
+				else if("-start".equals(arg))
+					generator.setStartMillis(parseStart(value, generator.timeZone));
+				else if("-uptime".equals(arg))
+					generator.setStartUptime(Double.parseDouble(value));
+				else if("-interval".equals(arg))
+					generator.setInterval(Double.parseDouble(value));
+				else if("-young".equals(arg))
+					generator.setYoungSize(Long.parseLong(value));
+				else if("-old".equals(arg))
+					generator.setOldSize(Long.parseLong(value));
+				else if("-perm".equals(arg))
+					generator.setPermSize(Long.parseLong(value));
+				else
+					throw new IllegalArgumentException(arg);
+			}
+		}
+		catch(Exception e){
+			System.err.println(e.getMessage());
+			fileName=null;
+		}
+		if(fileName==null){
+			System.err.println(USAGE);
+			System.exit(2);
+		}
+		Writer writer=new BufferedWriter(new OutputStreamWriter(new FileOutputStream(fileName), "ISO-8859-1"), 1024*1024);
+		try{
+			generator.generate(writer, size);
+		}
+		finally{
+			writer.close();
+		}
+		System.out.println(fileName+": YGC "+generator.getYGC()+",FGC "+generator.getFGC()+",CMSGC "+generator.getCMSGC());
+	}
+
+	public void setCollector(Collector collector) {
+		this.collector = collector;
+	}
+
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+
+	public void setDateStamps(boolean dateStamps) {
+		this.dateStamps = dateStamps;
+	}
+
+	public void setStartMillis(long startMillis) {
+		this.startMillis = startMillis;
+	}
+
+	public void setTimeZone(TimeZone timeZone) {
+		this.timeZone = timeZone;
+	}
+
+	public void setStartUptime(double startUptime) {
+		this.startUptime = startUptime;
+	}
+
+	public void setInterval(double interval) {
+		this.interval = interval;
+	}
+
+	public void setYoungSize(long youngSize) {
+		this.youngSize = youngSize;
+	}
+
+	public void setOldSize(long oldSize) {
+		this.oldSize = oldSize;
+	}
+
+	public void setPermSize(long permSize) {
+		this.permSize = permSize;
+	}
+
+	public int getYGC() {
+		return ygc;
+	}
+
+	public int getFGC() {
+		return fgc;
+	}
+
+	public int getCMSGC() {
+		return cmsgc;
+	}
+
+	public int getCMSCycles() {
+		return cmsCycles;
+	}
+
+	/**
+	 * write gc log until at least bytes are written,a CMS cycle may end after that
+	 *
+	 * @return chars written,one char is one byte since log is ascii
+	 */
+	public long generate(Writer writer,long bytes) throws IOException{
+		random=new Random(seed);
+		time=startUptime;
+		live=(long)(oldSize*0.3);
+		old=(long)(oldSize*0.1);
+		cmsPhase=0;
+		ygc=fgc=cmsgc=cmsCycles=0;
+		secondsFormat=new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss", Locale.US);
+		secondsFormat.setTimeZone(timeZone);
+		zoneFormat=new SimpleDateFormat("Z", Locale.US);
+		zoneFormat.setTimeZone(timeZone);
+		formattedSecond=Long.MIN_VALUE;
+		long written=0;
+		while(written<bytes || cmsPhase!=0){
+			builder.setLength(0);
+			next();
+			writer.write(builder.toString());
+			written+=builder.length();
+			time+=interval*(0.5+random.nextDouble());
+		}
+		return written;
+	}
+
+	// append lines of the next gc to builder
+	private void next(){
+		// live data size drifts in [20%,40%] of old
+		live=Math.min(Math.max(live+(long)((random.nextDouble()-0.5)*oldSize*0.01), (long)(oldSize*0.2)), (long)(oldSize*0.4));
+		if(collector==Collector.CMS){
+			if(random.nextDouble()<PROMOTION_FAILED_RATE){
+				promotionFailed();
+				cmsPhase=0;
+			}
+			else if(cmsPhase==0 && old>oldSize*CMS_INITIATING_OCCUPANCY){
+				initialMark();
+				cmsPhase=1;
+			}
+			else if(cmsPhase==2){
+				remark();
+				cmsPhase=3;
+			}
+			else{
+				youngGC();
+				if(cmsPhase==1){
+					concurrent("mark", 0.4);
+					concurrentStart("preclean");
+					concurrent("preclean", 0.02);
+					cmsPhase=2;
+				}
+				else if(cmsPhase==3){
+					concurrent("sweep", 0.3);
+					old=Math.min(old, live+(long)(random.nextDouble()*oldSize*0.05));
+					concurrentStart("reset");
+					concurrent("reset", 0.01);
+					cmsCycles++;
+					cmsPhase=0;
+				}
+			}
+		}
+		else{
+			long promoted=promoted();
+			if(old+promoted>oldSize*FULL_OCCUPANCY)
+				fullGC();
+			else
+				youngGC();
+		}
+	}
+
+	private long promoted(){
+		return (long)(youngSize*(0.002+0.008*random.nextDouble()));
+	}
+
+	private void youngGC(){
+		long youngBefore=(long)(youngSize*(0.95+0.05*random.nextDouble()));
+		long youngAfter=(long)(youngSize*(0.01+0.02*random.nextDouble()));
+		long promoted=Math.min(promoted(), oldSize-old);
+		long heapBefore=youngBefore+old;
+		old+=promoted;
+		long heapAfter=youngAfter+old;
+		double pause=0.005+0.05*random.nextDouble();
+		timeStamp();
+		if(collector==Collector.CMS){
+			builder.append("[GC ");
+			append(time+0.0005, 3);
+			builder.append(": [ParNew: ");
+			memoryChange(youngBefore, youngAfter, youngSize);
+			builder.append(", ");
+			append(pause*0.99, 7);
+			builder.append(" secs] ");
+		}
+		else{
+			builder.append("[GC [PSYoungGen: ");
+			memoryChange(youngBefore, youngAfter, youngSize);
+			builder.append("] ");
+		}
+		memoryChange(heapBefore, heapAfter, youngSize+oldSize);
+		builder.append(", ");
+		append(pause, 7);
+		builder.append(" secs] ");
+		times(pause);
+		time+=pause;
+		ygc++;
+	}
+
+	private void fullGC(){
+		long youngBefore=(long)(youngSize*(0.05+0.2*random.nextDouble()));
+		long oldBefore=old;
+		old=live;
+		double pause=0.3+2*random.nextDouble();
+		long perm=(long)(permSize*0.4);
+		timeStamp();
+		builder.append("[Full GC [PSYoungGen: ");
+		memoryChange(youngBefore, 0, youngSize);
+		builder.append((collector==Collector.PARALLEL)?"] [PSOldGen: ":"] [ParOldGen: ");
+		memoryChange(oldBefore, old, oldSize);
+		builder.append("] ");
+		memoryChange(youngBefore+oldBefore, old, youngSize+oldSize);
+		builder.append(" [PSPermGen: ");
+		memoryChange(perm, perm, permSize);
+		builder.append("], ");
+		append(pause, 7);
+		builder.append(" secs] ");
+		times(pause);
+		time+=pause;
+		fgc++;
+	}
+
+	private void promotionFailed(){
+		long youngBefore=(long)(youngSize*(0.98+0.02*random.nextDouble()));
+		long oldBefore=old;
+		old=live;
+		double youngPause=0.1+0.1*random.nextDouble();
+		double oldPause=1+1*random.nextDouble();
+		timeStamp();
+		builder.append("[GC ");
+		append(time+0.001, 3);
+		builder.append(": [ParNew (promotion failed): ");
+		memoryChange(youngBefore, youngBefore, youngSize);
+		builder.append(", ");
+		append(youngPause, 7);
+		builder.append(" secs]");
+		append(time+0.001+youngPause, 3);
+		builder.append(": [CMS: ");
+		memoryChange(oldBefore, old, oldSize);
+		builder.append(", ");
+		append(oldPause, 7);
+		builder.append(" secs] ");
+		memoryChange(youngBefore+oldBefore, old, youngSize+oldSize);
+		builder.append(", ");
+		append(youngPause+oldPause, 7);
+		builder.append(" secs] ");
+		times(youngPause+oldPause);
+		time+=youngPause+oldPause;
+		fgc++;
+	}
+
+	private void initialMark(){
+		double pause=0.002+0.01*random.nextDouble();
+		long young=(long)(youngSize*random.nextDouble());
+		timeStamp();
+		builder.append("[GC [1 CMS-initial-mark: ");
+		append(old);
+		builder.append("K(");
+		append(oldSize);
+		builder.append("K)] ");
+		append(old+young);
+		builder.append("K(");
+		append(youngSize+oldSize);
+		builder.append("K), ");
+		append(pause, 7);
+		builder.append(" secs] ");
+		times(pause);
+		time+=pause;
+		cmsgc++;
+		concurrentStart("mark");
+	}
+
+	private void remark(){
+		long young=(long)(youngSize*random.nextDouble());
+		double rescan=0.02+0.05*random.nextDouble();
+		double refs=0.01*random.nextDouble();
+		double classes=0.04*random.nextDouble();
+		double symbols=0.01*random.nextDouble();
+		double pause=rescan+refs+classes+symbols+0.001;
+		timeStamp();
+		builder.append("[GC[YG occupancy: ");
+		append(young);
+		builder.append(" K (");
+		append(youngSize);
+		builder.append(" K)]");
+		double phaseTime=time;
+		append(phaseTime, 3);
+		builder.append(": [Rescan (parallel) , ");
+		append(rescan, 7);
+		builder.append(" secs]");
+		phaseTime+=rescan;
+		append(phaseTime, 3);
+		builder.append(": [weak refs processing, ");
+		append(refs, 7);
+		builder.append(" secs]");
+		phaseTime+=refs;
+		append(phaseTime, 3);
+		builder.append(": [class unloading, ");
+		append(classes, 7);
+		builder.append(" secs]");
+		phaseTime+=classes;
+		append(phaseTime, 3);
+		builder.append(": [scrub symbol & string tables, ");
+		append(symbols, 7);
+		builder.append(" secs] [1 CMS-remark: ");
+		append(old);
+		builder.append("K(");
+		append(oldSize);
+		builder.append("K)] ");
+		append(old+young);
+		builder.append("K(");
+		append(youngSize+oldSize);
+		builder.append("K), ");
+		append(pause, 7);
+		builder.append(" secs] ");
+		times(pause);
+		time+=pause;
+		cmsgc++;
+		concurrentStart("sweep");
+	}
+
+	private void concurrentStart(String phase){
+		timeStamp();
+		builder.append("[CMS-concurrent-").append(phase).append("-start]\n");
+	}
+
+	private void concurrent(String phase,double maxSeconds){
+		double cpu=maxSeconds*random.nextDouble();
+		double wall=cpu*(1+random.nextDouble());
+		// line is written when phase ends
+		time+=wall;
+		timeStamp();
+		builder.append("[CMS-concurrent-").append(phase).append(": ");
+		append(cpu, 3);
+		builder.append('/');
+		append(wall, 3);
+		builder.append(" secs] ");
+		times(wall);
+	}
+
+	// [Times: user=0.05 sys=0.00, real=0.02 secs] and line end
+	private void times(double real){
+		builder.append("[Times: user=");
+		append(real*(1+3*random.nextDouble()), 2);
+		builder.append(" sys=");
+		append(real*0.1*random.nextDouble(), 2);
+		builder.append(", real=");
+		append(real, 2);
+		builder.append(" secs]\n");
+	}
+
+	// [date stamp: ]time stamp:
+	private void timeStamp(){
+		// date stamp and time stamp are of same millisecond
+		time=Math.round(time*1000)/1000.0;
+		if(dateStamps){
+			long millis=startMillis+Math.round(time*1000);
+			long second=millis/1000;
+			if(second!=formattedSecond){
+				Date date=new Date(second*1000);
+				formattedDate=secondsFormat.format(date);
+				formattedZone=zoneFormat.format(date);
+				formattedSecond=second;
+			}
+			builder.append(formattedDate).append('.');
+			long fraction=millis-second*1000;
+			if(fraction<100)
+				builder.append('0');
+			if(fraction<10)
+				builder.append('0');
+			builder.append(fraction).append(formattedZone).append(": ");
+		}
+		append(time, 3);
+		builder.append(": ");
+	}
+
+	private void memoryChange(long before,long after,long capacity){
+		append(before);
+		builder.append("K->");
+		append(after);
+		builder.append("K(");
+		append(capacity);
+		builder.append("K)");
+	}
+
+	private void append(long value){
+		builder.append(value);
+	}
+
+	// fixed digits after point,no String.format,it is slow for GBs of log
+	private void append(double value,int digits){
+		long scale=1;
+		for (int i = 0; i < digits; i++) {
+			scale*=10;
+		}
+		long scaled=Math.round(value*scale);
+		builder.append(scaled/scale).append('.');
+		String fraction=Long.toString(scaled%scale);
+		for (int i = fraction.length(); i < digits; i++) {
+			builder.append('0');
+		}
+		builder.append(fraction);
+	}
+
+	private static Collector parseCollector(String value){
+		if("cms".equalsIgnoreCase(value))
+			return Collector.CMS;
+		if("parallel".equalsIgnoreCase(value))
+			return Collector.PARALLEL;
+		if("parallelold".equalsIgnoreCase(value))
+			return Collector.PARALLEL_OLD;
+		throw new IllegalArgumentException("unknown collector: "+value);
+	}
+
+	// 100,64k,10m,20g
+	static long parseSize(String value){
+		String number=value.toLowerCase(Locale.US);
+		long unit=1;
+		char last=number.charAt(number.length()-1);
+		if(last=='k' || last=='m' || last=='g'){
+			unit=(last=='k')?1024L:(last=='m')?1024L*1024L:1024L*1024L*1024L;
+			number=number.substring(0, number.length()-1);
+		}
+		return Long.parseLong(number)*unit;
+	}
+
+	private static long parseStart(String value,TimeZone timeZone) throws ParseException{
+		SimpleDateFormat format=new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss", Locale.US);
+		format.setTimeZone(timeZone);
+		return format.parse(value).getTime();
+	}
+
+}
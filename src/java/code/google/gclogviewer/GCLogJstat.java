@@ -0,0 +1,324 @@
+/**
+ * GCLogViewer
+ * 
+ * A free open source tool to visualize data produced by the Java VM options -Xloggc:<file> or jstat > <file>.
+ * 
+ * Code license:	Apache License 2.0
+ * 
+ * http://code.google.com/p/gclogviewer
+ */
+package code.google.gclogviewer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reader of jstat -gc or -gcutil output(jstat -gc [-t] [-h<n>] pid interval > <file>),
+ * columns are found by names of the header row once,then each row is split and parsed in place:
+ *
+ *   Timestamp        S0C    S1C    S0U    S1U      EC       EU        OC         OU    ...   YGC     YGCT    FGC    FGCT     GCT
+ *           12.3  512.0  512.0    0.0  480.0   4096.0   2048.6   10240.0     3821.7  ...    10    0.123      1    0.050    0.173
+ *
+ * counters of YGC,FGC and CGC(JDK 9+,concurrent collector pauses) which grow from one row to the next
+ * are gc events of the interval between the two rows,n gcs of one interval share the growth of gc time evenly
+ * and are spread evenly over the interval.
+ * memory change is the one between the two rows(jstat -gc only,-gcutil has no sizes),not of the gc itself.
+ * time of a row is its Timestamp(jstat -t),else rows are taken as INTERVAL secs apart from 0.
+ * gc type is "jstat -gc" or "jstat -gcutil",jstat does not tell the collector.
+ *
+ * @author <a href="mailto:bluedavy@gmail.com">bluedavy</a>
+ */
+public class GCLogJstat {
+
+	// secs between rows without Timestamp column,jstat interval is not written in output
+	public static final double INTERVAL=1;
+
+	// bytes read at file start to find the header row
+	private static final int HEAD_SIZE=4096;
+
+	// bytes before a range where the row before it is searched,when rows have Timestamp
+	private static final int PREVIOUS_WINDOW=64*1024;
+
+	// rows between two reports to progress listener
+	private static final int PROGRESS_ROWS=8192;
+
+	// fraction digits of gc occur time spread over an interval
+	private static final int TIME_SCALE=3;
+
+	// fraction digits of pause,gc time of jstat has 3,it is shared by gcs of an interval
+	private static final int PAUSE_SCALE=6;
+
+	private static final String[] YOUNG_USED=new String[]{"S0U","S1U","EU"};
+
+	private final String[] names;
+
+	private final int timestamp;
+
+	private final int ygc,ygct,fgc,fgct,cgc,cgct;
+
+	// used K of survivors and eden,null for -gcutil
+	private final int[] young;
+
+	private final int old;
+
+	private final String gcType;
+
+	// current and previous row,NaN for "-" values
+	private double[] row;
+
+	private double[] previous;
+
+	private boolean hasPrevious=false;
+
+	// rows before current row
+	private long rows=0;
+
+	private GCLogJstat(String[] names){
+		this.names=names;
+		List<String> columns=Arrays.asList(names);
+		timestamp=columns.indexOf("Timestamp");
+		ygc=columns.indexOf("YGC");
+		ygct=columns.indexOf("YGCT");
+		fgc=columns.indexOf("FGC");
+		fgct=columns.indexOf("FGCT");
+		cgc=columns.indexOf("CGC");
+		cgct=columns.indexOf("CGCT");
+		old=columns.indexOf("OU");
+		int[] youngColumns=new int[YOUNG_USED.length];
+		for (int i = 0; i < YOUNG_USED.length; i++) {
+			youngColumns[i]=columns.indexOf(YOUNG_USED[i]);
+		}
+		young=(youngColumns[0]==-1 || youngColumns[1]==-1 || youngColumns[2]==-1 || old==-1)?null:youngColumns;
+		gcType=(young==null)?"jstat -gcutil":"jstat -gc";
+		row=new double[names.length];
+		previous=new double[names.length];
+	}
+
+	/**
+	 * columns of a jstat header row
+	 *
+	 * @return null if line is not a jstat header with YGC,YGCT,FGC and FGCT columns
+	 */
+	public static GCLogJstat header(CharSequence line){
+		List<String> names=new ArrayList<String>();
+		int i=0;
+		int length=line.length();
+		while(i<length){
+			while(i<length && line.charAt(i)<=' '){
+				i++;
+			}
+			int start=i;
+			while(i<length && line.charAt(i)>' '){
+				i++;
+			}
+			if(i>start)
+				names.add(line.subSequence(start, i).toString());
+		}
+		if(!names.contains("YGC") || !names.contains("YGCT") || !names.contains("FGC") || !names.contains("FGCT"))
+			return null;
+		return new GCLogJstat(names.toArray(new String[names.size()]));
+	}
+
+	/**
+	 * columns of the header row at start of file
+	 *
+	 * @return null if file is not jstat output
+	 */
+	public static GCLogJstat header(FileChannel channel) throws IOException{
+		ByteBuffer head=ByteBuffer.allocate((int)Math.min(HEAD_SIZE, channel.size()));
+		channel.read(head, 0);
+		head.flip();
+		GCLogMappedLineSource source=new GCLogMappedLineSource(head);
+		CharSequence line;
+		while((line=source.readLine())!=null){
+			// last line of head may be cut
+			if(line.length()>0)
+				return (source.getBytesRead()<head.limit() || head.limit()==channel.size())?header(line):null;
+		}
+		return null;
+	}
+
+	/**
+	 * analyze rows of [start,end) of jstat output file,start and end must be line ends,
+	 * the row before start is found in file so gcs of the interval before the first row are not lost
+	 *
+	 * @param listener told of bytes,lines and events analyzed,may be null
+	 */
+	public GCLogAnalyzeContext analysis(FileChannel channel,long start,long end,GCLogProgressListener listener) throws IOException{
+		return analysis(channel, start, end, null, listener);
+	}
+
+	/**
+	 * @param last context of the range which ends at start,e.g. lines analyzed by last follow,
+	 * 		  its row count and last row are taken instead of reading rows before start again,may be null
+	 */
+	public GCLogAnalyzeContext analysis(FileChannel channel,long start,long end,GCLogAnalyzeContext last,GCLogProgressListener listener) throws IOException{
+		hasPrevious=false;
+		rows=0;
+		if(start>0 && last!=null && last.getJstatRows()!=-1
+		   && (last.getJstatLastRow()==null || last.getJstatLastRow().length==names.length)){
+			rows=last.getJstatRows();
+			if(last.getJstatLastRow()!=null){
+				System.arraycopy(last.getJstatLastRow(), 0, previous, 0, names.length);
+				hasPrevious=true;
+			}
+		}
+		else if(start>0){
+			// row count is only needed when rows have no time
+			long from=(timestamp==-1)?0:Math.max(0, start-PREVIOUS_WINDOW);
+			GCLogMappedLineSource before=new GCLogMappedLineSource(channel.map(FileChannel.MapMode.READ_ONLY, from, start-from));
+			CharSequence line;
+			while((line=before.readLine())!=null){
+				if(parseRow(line, previous)){
+					hasPrevious=true;
+					rows++;
+				}
+			}
+			if(timestamp!=-1)
+				rows=0;
+		}
+		GCLogAnalyzeContext context=new GCLogAnalyzeContext();
+		analysis(new GCLogMappedLineSource(channel.map(FileChannel.MapMode.READ_ONLY, start, end-start)), context, listener);
+		// rows before end,so the range after this one is analyzed without reading them again
+		context.setJstatRows(rows, hasPrevious?previous.clone():null);
+		return context;
+	}
+
+	void analysis(GCLogLineSource source,GCLogAnalyzeContext context,GCLogProgressListener listener) throws IOException{
+		GCLogDiagnostics diagnostics=context.getDiagnostics();
+		CharSequence line;
+		long lines=0;
+		// counts since last report
+		int count=0;
+		int events=0;
+		long reportedBytes=0;
+		long reportedLines=0;
+		double time=0;
+		while((line=source.readLine())!=null){
+			lines++;
+			if(++count==PROGRESS_ROWS && listener!=null){
+				listener.analyzed(source.getBytesRead()-reportedBytes, lines-reportedLines, events);
+				reportedBytes=source.getBytesRead();
+				reportedLines=lines;
+				count=0;
+				events=0;
+			}
+			if(line.length()==0)
+				continue;
+			if(!parseRow(line, row)){
+				diagnostics.skipped(isHeader(line)?GCLogDiagnostics.Category.JSTAT_HEADER:GCLogDiagnostics.Category.UNKNOWN, line);
+				continue;
+			}
+			time=(timestamp==-1)?rows*INTERVAL:row[timestamp];
+			if(hasPrevious){
+				double previousTime=(timestamp==-1)?(rows-1)*INTERVAL:previous[timestamp];
+				events+=addEvents(context, ygc, ygct, previousTime, time);
+				events+=addEvents(context, fgc, fgct, previousTime, time);
+				events+=addEvents(context, cgc, cgct, previousTime, time);
+			}
+			double[] swap=previous;
+			previous=row;
+			row=swap;
+			hasPrevious=true;
+			rows++;
+		}
+		if(hasPrevious && lines>0)
+			context.setRuntime(BigDecimal.valueOf(time).setScale(TIME_SCALE, RoundingMode.HALF_UP).toPlainString());
+		diagnostics.addLines(lines);
+		if(listener!=null){
+			listener.analyzed(source.getBytesRead()-reportedBytes, lines-reportedLines, events);
+		}
+	}
+
+	/**
+	 * gcs counted by countColumn between previous row and row
+	 *
+	 * @return number of gcs added
+	 */
+	private int addEvents(GCLogAnalyzeContext context,int countColumn,int timeColumn,double previousTime,double time){
+		if(countColumn==-1 || timeColumn==-1)
+			return 0;
+		double growth=row[countColumn]-previous[countColumn];
+		// NaN of "-",or counter restarted by a new JVM
+		if(!(growth>0))
+			return 0;
+		int count=(int)growth;
+		double gcTime=row[timeColumn]-previous[timeColumn];
+		String pause=BigDecimal.valueOf((gcTime>0)?gcTime/count:0).setScale(PAUSE_SCALE, RoundingMode.HALF_UP).toPlainString();
+		boolean ygcData=countColumn==ygc;
+		long before=0,after=0,heapAfter=0;
+		if(young!=null){
+			long youngBefore=used(previous, young);
+			long youngAfter=used(row, young);
+			long oldBefore=Math.round(previous[old]);
+			long oldAfter=Math.round(row[old]);
+			before=ygcData?youngBefore:youngBefore+oldBefore;
+			after=ygcData?youngAfter:youngAfter+oldAfter;
+			heapAfter=youngAfter+oldAfter;
+		}
+		for (int i = 0; i < count; i++) {
+			OneLineGCData data=new OneLineGCData();
+			data.setYGCData(ygcData);
+			data.setOccurTime(previousTime+(time-previousTime)*(i+1)/(count+1), TIME_SCALE);
+			data.setPauseTime(pause);
+			data.setMemoryChangeInfo(before, after);
+			data.setHeapMemoryAfter(heapAfter);
+			context.add(data, ygcData, countColumn==cgc, gcType);
+		}
+		return count;
+	}
+
+	private static long used(double[] values,int[] columns){
+		double used=0;
+		for (int column : columns) {
+			used+=values[column];
+		}
+		return Math.round(used);
+	}
+
+	/**
+	 * parse numbers of a row into values,"-" is NaN
+	 *
+	 * @return false if line is not a row of these columns
+	 */
+	boolean parseRow(CharSequence line,double[] values){
+		int i=0;
+		int length=line.length();
+		int column=0;
+		while(i<length){
+			while(i<length && line.charAt(i)<=' '){
+				i++;
+			}
+			if(i==length)
+				break;
+			if(column==values.length)
+				return false;
+			int start=i;
+			if(line.charAt(i)=='-'){
+				i++;
+				values[column]=Double.NaN;
+			}
+			else{
+				i=GCLogLineScanner.numberEnd(line, i);
+				if(i==start)
+					return false;
+				values[column]=GCLogLineScanner.parseDouble(line, start, i);
+			}
+			if(i<length && line.charAt(i)>' ')
+				return false;
+			column++;
+		}
+		return column==values.length;
+	}
+
+	private boolean isHeader(CharSequence line){
+		return GCLogLineScanner.regionMatches(line, 0, names[0]);
+	}
+
+}
@@ -0,0 +1,139 @@
+/**
+ * GCLogViewer
+ * 
+ * A free open source tool to visualize data produced by the Java VM options -Xloggc:<file> or jstat > <file>.
+ * 
+ * Code license:	Apache License 2.0
+ * 
+ * http://code.google.com/p/gclogviewer
+ */
+package code.google.gclogviewer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Aho-Corasick automaton over ascii gc keywords,find the highest priority keyword
+ * (the smallest index in keywords list) of a line in one scan.
+ *
+ * @author <a href="mailto:bluedavy@gmail.com">bluedavy</a>
+ */
+public final class GCLogKeywordAutomaton {
+
+	private static final int ALPHABET=128;
+
+	private final int[] keywordLengths;
+
+	// next[state][char]: full transition table,no fail link walking when scan
+	private final int[][] next;
+
+	// best keyword index which ends at state,-1 if none
+	private final int[] outputs;
+
+	public GCLogKeywordAutomaton(List<String> keywords){
+		keywordLengths=new int[keywords.size()];
+		List<int[]> trie=new ArrayList<int[]>();
+		List<Integer> trieOutputs=new ArrayList<Integer>();
+		trie.add(newState());
+		trieOutputs.add(-1);
+		for (int i = 0; i < keywords.size(); i++) {
+			String keyword=keywords.get(i);
+			keywordLengths[i]=keyword.length();
+			int state=0;
+			for (int j = 0; j < keyword.length(); j++) {
+				char c=keyword.charAt(j);
+				if(c>=ALPHABET)
+					throw new IllegalArgumentException("keyword must be ascii: "+keyword);
+				if(trie.get(state)[c]==-1){
+					trie.get(state)[c]=trie.size();
+					trie.add(newState());
+					trieOutputs.add(-1);
+				}
+				state=trie.get(state)[c];
+			}
+			if(trieOutputs.get(state)==-1)
+				trieOutputs.set(state, i);
+		}
+		next=trie.toArray(new int[trie.size()][]);
+		outputs=new int[next.length];
+		for (int i = 0; i < outputs.length; i++) {
+			outputs[i]=trieOutputs.get(i);
+		}
+		// bfs to resolve fail links into the transition table
+		int[] fails=new int[next.length];
+		LinkedList<Integer> queue=new LinkedList<Integer>();
+		for (int c = 0; c < ALPHABET; c++) {
+			if(next[0][c]==-1){
+				next[0][c]=0;
+			}
+			else{
+				fails[next[0][c]]=0;
+				queue.add(next[0][c]);
+			}
+		}
+		while(!queue.isEmpty()){
+			int state=queue.removeFirst();
+			outputs[state]=better(outputs[state], outputs[fails[state]]);
+			for (int c = 0; c < ALPHABET; c++) {
+				int child=next[state][c];
+				if(child==-1){
+					next[state][c]=next[fails[state]][c];
+				}
+				else{
+					fails[child]=next[fails[state]][c];
+					queue.add(child);
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return -1 if no keyword in line,else keyword index in high 32 bits and offset of it in low 32 bits,
+	 * 		   use {@link #keywordIndex(long)} and {@link #offset(long)} to read
+	 */
+	public long match(CharSequence line){
+		int state=0;
+		int best=-1;
+		int bestOffset=-1;
+		int length=line.length();
+		for (int i = 0; i < length; i++) {
+			char c=line.charAt(i);
+			state=(c<ALPHABET)?next[state][c]:0;
+			int output=outputs[state];
+			if(output!=-1 && (best==-1 || output<best)){
+				best=output;
+				bestOffset=i-keywordLengths[output]+1;
+				if(best==0)
+					break;
+			}
+		}
+		if(best==-1)
+			return -1;
+		return ((long)best<<32) | bestOffset;
+	}
+
+	public static int keywordIndex(long match){
+		return (int)(match>>>32);
+	}
+
+	public static int offset(long match){
+		return (int)match;
+	}
+
+	private static int better(int output,int other){
+		if(output==-1)
+			return other;
+		if(other==-1)
+			return output;
+		return Math.min(output, other);
+	}
+
+	private static int[] newState(){
+		int[] state=new int[ALPHABET];
+		Arrays.fill(state, -1);
+		return state;
+	}
+
+}
@@ -17,10 +17,19 @@ import java.util.Map;
 import code.google.gclogviewer.parser.CMSFailedFGCLogParser;
 import code.google.gclogviewer.parser.CMSInitialMarkFGCLogParser;
 import code.google.gclogviewer.parser.CMSRemarkFGCLogParser;
+import code.google.gclogviewer.parser.G1CleanupGCLogParser;
+import code.google.gclogviewer.parser.G1FGCLogParser;
+import code.google.gclogviewer.parser.G1RemarkGCLogParser;
+import code.google.gclogviewer.parser.G1YGCLogParser;
 import code.google.gclogviewer.parser.ParFGCLogParser;
 import code.google.gclogviewer.parser.ParallelFGCLogParser;
 import code.google.gclogviewer.parser.ParallelYGCLogParser;
 import code.google.gclogviewer.parser.ParnewYGCLogParser;
+import code.google.gclogviewer.parser.UnifiedCleanupGCLogParser;
+import code.google.gclogviewer.parser.UnifiedFGCLogParser;
+import code.google.gclogviewer.parser.UnifiedInitialMarkGCLogParser;
+import code.google.gclogviewer.parser.UnifiedRemarkGCLogParser;
+import code.google.gclogviewer.parser.UnifiedYGCLogParser;
 
 /**
  * @author <a href="mailto:bluedavy@gmail.com">bluedavy</a>
@@ -31,6 +40,16 @@ public class GCLogKeywordsAndParsers {
 	
 	private static Map<String, GCLogParser> parsers=new HashMap<String, GCLogParser>();
 	
+	// keyword index -> parser,null when keyword has no parser
+	private static GCLogParser[] indexedParsers;
+	
+	private static GCLogKeywordAutomaton automaton;
+	
+	// keywords of unified logging lines,they follow old format keywords in keywords
+	private static GCLogKeywordAutomaton unifiedAutomaton;
+	
+	private static int unifiedKeywordsStart;
+	
 	static{
 		// first FGC keyword,just because when fgc,ygc keyword will also exists
 		for(FGCType type: FGCType.values()){
@@ -40,6 +59,14 @@ public class GCLogKeywordsAndParsers {
 		for(YGCType type: YGCType.values()){
 			keywords.add(type.getKeyword());
 		}
+		// then unified logging keywords,only matched in lines of unified logging,
+		// where old format keywords are heap details,e.g. [gc,heap] GC(5) PSYoungGen: ...
+		unifiedKeywordsStart=keywords.size();
+		List<String> unifiedKeywords=new ArrayList<String>();
+		for(UnifiedType type: UnifiedType.values()){
+			keywords.add(type.getKeyword());
+			unifiedKeywords.add(type.getKeyword());
+		}
 		parsers.put(YGCType.PARALLEL.getKeyword(), new ParallelYGCLogParser());
 		parsers.put(YGCType.PARNEW.getKeyword(), new ParnewYGCLogParser());
 		parsers.put(FGCType.PARALLEL.getKeyword(), new ParallelFGCLogParser());
@@ -47,6 +74,21 @@ public class GCLogKeywordsAndParsers {
 		parsers.put(FGCType.CMSINITIALMARK.getKeyword(), new CMSInitialMarkFGCLogParser());
 		parsers.put(FGCType.CMSREMARK.getKeyword(), new CMSRemarkFGCLogParser());
 		parsers.put(FGCType.CMSFailed.getKeyword(), new CMSFailedFGCLogParser());
+		parsers.put(FGCType.G1REMARK.getKeyword(), new G1RemarkGCLogParser());
+		parsers.put(FGCType.G1CLEANUP.getKeyword(), new G1CleanupGCLogParser());
+		parsers.put(FGCType.G1FULL.getKeyword(), new G1FGCLogParser());
+		parsers.put(YGCType.G1.getKeyword(), new G1YGCLogParser());
+		parsers.put(UnifiedType.YOUNG.getKeyword(), new UnifiedYGCLogParser());
+		parsers.put(UnifiedType.FULL.getKeyword(), new UnifiedFGCLogParser());
+		parsers.put(UnifiedType.INITIALMARK.getKeyword(), new UnifiedInitialMarkGCLogParser());
+		parsers.put(UnifiedType.REMARK.getKeyword(), new UnifiedRemarkGCLogParser());
+		parsers.put(UnifiedType.CLEANUP.getKeyword(), new UnifiedCleanupGCLogParser());
+		indexedParsers=new GCLogParser[keywords.size()];
+		for (int i = 0; i < indexedParsers.length; i++) {
+			indexedParsers[i]=parsers.get(keywords.get(i));
+		}
+		automaton=new GCLogKeywordAutomaton(keywords.subList(0, unifiedKeywordsStart));
+		unifiedAutomaton=new GCLogKeywordAutomaton(unifiedKeywords);
 	}
 	
 	public static List<String> getKeywords(){
@@ -57,13 +99,44 @@ public class GCLogKeywordsAndParsers {
 		return parsers.get(gcLogKeyword);
 	}
 	
+	/**
+	 * find the first keyword in keywords order which the line contains,in one scan
+	 * 
+	 * @return -1 if line has no keyword,else pass it to {@link #getParser(long)} and {@link #getOffset(long)}
+	 */
+	public static long match(CharSequence line){
+		if(line.length()==0 || line.charAt(0)!='[' || GCLogUnifiedLine.messageStart(line)==-1)
+			return automaton.match(line);
+		long match=unifiedAutomaton.match(line);
+		if(match==-1)
+			return -1;
+		return match+((long)unifiedKeywordsStart<<32);
+	}
+	
+	public static GCLogParser getParser(long match){
+		return indexedParsers[GCLogKeywordAutomaton.keywordIndex(match)];
+	}
+	
+	public static String getKeyword(long match){
+		return keywords.get(GCLogKeywordAutomaton.keywordIndex(match));
+	}
+	
+	/**
+	 * offset of the matched keyword in line
+	 */
+	public static int getOffset(long match){
+		return GCLogKeywordAutomaton.offset(match);
+	}
+	
 	public enum FGCType{
 		// Serial
 		SERIAL("Tenured"),
 		// Parallel
 		PARALLEL("PSOldGen"),PAR("ParOldGen"),
 		// CMS
-		CMSINITIALMARK("CMS-initial-mark"),CMSREMARK("CMS-remark"),CMSFailed("ParNew (promotion failed)");
+		CMSINITIALMARK("CMS-initial-mark"),CMSREMARK("CMS-remark"),CMSFailed("ParNew (promotion failed)"),
+		// G1,Full GC is the last one,other collectors' full gc lines have their generation keyword
+		G1REMARK("GC remark"),G1CLEANUP("GC cleanup"),G1FULL("Full GC");
 		private String keyword;
 		FGCType(String keyword){
 			this.keyword=keyword;
@@ -73,13 +146,33 @@ public class GCLogKeywordsAndParsers {
 		}
 	}
 	
+	/**
+	 * pauses of unified logging(-Xlog:gc),one keyword for all collectors
+	 */
+	public enum UnifiedType{
+		YOUNG("Pause Young"),FULL("Pause Full"),
+		// CMS and G1
+		INITIALMARK("Pause Initial Mark"),REMARK("Pause Remark"),
+		// G1
+		CLEANUP("Pause Cleanup");
+		private String keyword;
+		UnifiedType(String keyword){
+			this.keyword=keyword;
+		}
+		public String getKeyword(){
+			return keyword;
+		}
+	}
+	
 	public enum YGCType{
 		// Serial
 		SERIAL("DefNew"),
 		// Parallel
 		PARALLEL("PSYoungGen"),
 		// CMS
-		PARNEW("ParNew");
+		PARNEW("ParNew"),
+		// G1,young and mixed
+		G1("GC pause");
 		private String keyword;
 		YGCType(String keyword){
 			this.keyword=keyword;
@@ -0,0 +1,309 @@
+/**
+ * GCLogViewer
+ * 
+ * A free open source tool to visualize data produced by the Java VM options -Xloggc:<file> or jstat > <file>.
+ * 
+ * Code license:	Apache License 2.0
+ * 
+ * http://code.google.com/p/gclogviewer
+ */
+package code.google.gclogviewer;
+
+/**
+ * Hand-written scanner for gc log lines,used by parsers instead of regex.
+ *
+ * All methods are stateless and work on index positions of the line,numbers are read
+ * straight into primitives,no Matcher or substring is created.
+ *
+ * @author <a href="mailto:bluedavy@gmail.com">bluedavy</a>
+ */
+public final class GCLogLineScanner {
+
+	private static final double[] POWERS_OF_TEN=new double[19];
+
+	static{
+		POWERS_OF_TEN[0]=1;
+		for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+			POWERS_OF_TEN[i]=POWERS_OF_TEN[i-1]*10;
+		}
+	}
+
+	private GCLogLineScanner(){
+		// static utility
+	}
+
+	public static boolean isDigit(char c){
+		return c>='0' && c<='9';
+	}
+
+	/**
+	 * end of the [0-9]+ run which begins at start
+	 */
+	public static int digitsEnd(CharSequence line,int start){
+		int i=start;
+		int length=line.length();
+		while(i<length && isDigit(line.charAt(i))){
+			i++;
+		}
+		return i;
+	}
+
+	/**
+	 * end of the [0-9.]+ run which begins at start
+	 */
+	public static int numberEnd(CharSequence line,int start){
+		int i=start;
+		int length=line.length();
+		while(i<length){
+			char c=line.charAt(i);
+			if(!isDigit(c) && c!='.')
+				break;
+			i++;
+		}
+		return i;
+	}
+
+	/**
+	 * end of the date stamp(2010-11-10T17:03:49) at line start,-1 if line has no date stamp,
+	 * the millis and zone part is not included
+	 */
+	public static int dateStampEnd(CharSequence line){
+		int length=line.length();
+		if(length<11 || !isDigit(line.charAt(0)) || line.charAt(4)!='-' || line.charAt(10)!='T')
+			return -1;
+		int i=0;
+		while(i<length){
+			char c=line.charAt(i);
+			if(!isDigit(c) && c!='-' && c!='T' && c!=':')
+				break;
+			i++;
+		}
+		return i;
+	}
+
+	/**
+	 * start of the gc occur time,the first [0-9.]+ followed by ':' in [0,limit),
+	 * when line has date stamp,the occur time is the one after the "+0800: " of date stamp
+	 *
+	 * @return -1 if not found
+	 */
+	public static int occurTimeStart(CharSequence line,int dateStampEnd,int limit){
+		int i=0;
+		if(dateStampEnd!=-1){
+			int colon=indexOf(line, ": ", dateStampEnd);
+			if(colon==-1)
+				return -1;
+			i=colon+2;
+		}
+		while(i<limit){
+			char c=line.charAt(i);
+			if(isDigit(c) || c=='.'){
+				int end=numberEnd(line, i);
+				if(end<limit && line.charAt(end)==':')
+					return i;
+				i=end;
+			}
+			else{
+				i++;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * scan date stamp and occur time before limit(usually the gc keyword) into data
+	 *
+	 * @return false if occur time not found
+	 */
+	public static boolean scanOccurTime(CharSequence line,int limit,OneLineGCData data){
+		int dateStampEnd=dateStampEnd(line);
+		int timeStart=occurTimeStart(line, dateStampEnd, limit);
+		if(timeStart==-1)
+			return false;
+		if(dateStampEnd!=-1)
+			data.setOccurDateTime(line, 0, dateStampEnd);
+		data.setOccurTime(line, timeStart, numberEnd(line, timeStart));
+		return true;
+	}
+
+	/**
+	 * start of the last ", [0-9.]+ secs" number in [from,limit),it is the pause time of the whole gc
+	 *
+	 * @return -1 if not found
+	 */
+	public static int pauseTimeStart(CharSequence line,int from,int limit){
+		int secs=lastIndexOf(line, " secs", limit-5);
+		while(secs>=from){
+			int start=secs;
+			while(start>from){
+				char c=line.charAt(start-1);
+				if(!isDigit(c) && c!='.')
+					break;
+				start--;
+			}
+			if(start<secs && start-2>=from && line.charAt(start-1)==' ' && line.charAt(start-2)==',')
+				return start;
+			secs=lastIndexOf(line, " secs", secs-1);
+		}
+		return -1;
+	}
+
+	/**
+	 * whether "[0-9]+K->[0-9]+K(" begins at start
+	 */
+	public static boolean isMemoryChange(CharSequence line,int start){
+		int beforeEnd=digitsEnd(line, start);
+		if(beforeEnd==start || !regionMatches(line, beforeEnd, "K->"))
+			return false;
+		int afterStart=beforeEnd+3;
+		int afterEnd=digitsEnd(line, afterStart);
+		return afterEnd>afterStart && regionMatches(line, afterEnd, "K(");
+	}
+
+	/**
+	 * start of the last "[0-9]+K->[0-9]+K(" which is preceded by prefix in [from,limit)
+	 *
+	 * @return -1 if not found
+	 */
+	public static int lastMemoryChangeStart(CharSequence line,String prefix,int from,int limit){
+		int index=lastIndexOf(line, prefix, limit-prefix.length());
+		while(index>=from){
+			int start=index+prefix.length();
+			if(isMemoryChange(line, start))
+				return start;
+			index=lastIndexOf(line, prefix, index-1);
+		}
+		return -1;
+	}
+
+	/**
+	 * start of the last "->[0-9]+K(" target number in [from,limit),it is the heap memory after gc
+	 *
+	 * @return -1 if not found
+	 */
+	public static int lastMemoryAfterStart(CharSequence line,int from,int limit){
+		int index=lastIndexOf(line, "->", limit-2);
+		while(index>=from){
+			int start=index+2;
+			int end=digitsEnd(line, start);
+			if(end>start && regionMatches(line, end, "K("))
+				return start;
+			index=lastIndexOf(line, "->", index-1);
+		}
+		return -1;
+	}
+
+	/**
+	 * end of the size which begins at start,[0-9.]+ and a B,K,M or G unit,e.g. 24M or 3633.0K
+	 *
+	 * @return -1 if no size begins at start
+	 */
+	public static int sizeEnd(CharSequence line,int start){
+		int end=numberEnd(line, start);
+		if(end==start || end>=line.length() || unitK(line.charAt(end))==0)
+			return -1;
+		return end+1;
+	}
+
+	/**
+	 * size in [start,end) which sizeEnd found,K
+	 */
+	public static long sizeK(CharSequence line,int start,int end){
+		double value=parseDouble(line, start, end-1);
+		char unit=line.charAt(end-1);
+		if(unit=='B')
+			return Math.round(value/1024);
+		return Math.round(value*unitK(unit));
+	}
+
+	private static long unitK(char unit){
+		switch(unit){
+			case 'B':
+			case 'K':
+				return 1;
+			case 'M':
+				return 1024;
+			case 'G':
+				return 1024*1024;
+			default:
+				return 0;
+		}
+	}
+
+	public static boolean regionMatches(CharSequence line,int offset,String str){
+		int length=str.length();
+		if(offset<0 || offset+length>line.length())
+			return false;
+		for (int i = 0; i < length; i++) {
+			if(line.charAt(offset+i)!=str.charAt(i))
+				return false;
+		}
+		return true;
+	}
+
+	public static int indexOf(CharSequence line,String str,int from){
+		int max=line.length()-str.length();
+		char first=str.charAt(0);
+		for (int i = Math.max(from, 0); i <= max; i++) {
+			if(line.charAt(i)==first && regionMatches(line, i, str))
+				return i;
+		}
+		return -1;
+	}
+
+	public static int lastIndexOf(CharSequence line,String str,int from){
+		char first=str.charAt(0);
+		for (int i = Math.min(from, line.length()-str.length()); i >= 0; i--) {
+			if(line.charAt(i)==first && regionMatches(line, i, str))
+				return i;
+		}
+		return -1;
+	}
+
+	/**
+	 * digits after '.' of the number in [start,end),0 if it has no '.'
+	 */
+	public static int fractionDigits(CharSequence line,int start,int end){
+		for (int i = start; i < end; i++) {
+			if(line.charAt(i)=='.')
+				return end-i-1;
+		}
+		return 0;
+	}
+	
+	/**
+	 * parse [0-9]+ in [start,end)
+	 */
+	public static long parseLong(CharSequence line,int start,int end){
+		long value=0;
+		for (int i = start; i < end; i++) {
+			value=value*10+(line.charAt(i)-'0');
+		}
+		return value;
+	}
+
+	/**
+	 * parse [0-9]+(.[0-9]+)? in [start,end),result is same as Double.parseDouble when
+	 * the digits fit in a long,which is always true for gc log numbers
+	 */
+	public static double parseDouble(CharSequence line,int start,int end){
+		long mantissa=0;
+		int fractionDigits=-1;
+		for (int i = start; i < end; i++) {
+			char c=line.charAt(i);
+			if(c=='.'){
+				fractionDigits=0;
+				continue;
+			}
+			mantissa=mantissa*10+(c-'0');
+			if(fractionDigits>=0)
+				fractionDigits++;
+		}
+		if(fractionDigits<=0)
+			return mantissa;
+		if(fractionDigits>=POWERS_OF_TEN.length)
+			return Double.parseDouble(line.subSequence(start, end).toString());
+		return mantissa/POWERS_OF_TEN[fractionDigits];
+	}
+
+}
@@ -0,0 +1,32 @@
+/**
+ * GCLogViewer
+ * 
+ * A free open source tool to visualize data produced by the Java VM options -Xloggc:<file> or jstat > <file>.
+ * 
+ * Code license:	Apache License 2.0
+ * 
+ * http://code.google.com/p/gclogviewer
+ */
+package code.google.gclogviewer;
+
+import java.io.IOException;
+
+/**
+ * Source of gc log lines for GCLogAnalyze
+ *
+ * @author <a href="mailto:bluedavy@gmail.com">bluedavy</a>
+ */
+public interface GCLogLineSource {
+
+	/**
+	 * @return next trimmed line,null when no more lines;
+	 * 		   the line may be reused by source,read it before next call
+	 */
+	public CharSequence readLine() throws IOException;
+	
+	/**
+	 * bytes of source consumed by lines read so far
+	 */
+	public long getBytesRead();
+	
+}
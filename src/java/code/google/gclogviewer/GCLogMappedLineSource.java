@@ -0,0 +1,55 @@
+/**
+ * GCLogViewer
+ * 
+ * A free open source tool to visualize data produced by the Java VM options -Xloggc:<file> or jstat > <file>.
+ * 
+ * Code license:	Apache License 2.0
+ * 
+ * http://code.google.com/p/gclogviewer
+ */
+package code.google.gclogviewer;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Read lines of a memory mapped range of gc log,gc log is ascii so bytes are not decoded by charset,
+ * lines are returned trimmed as a GCLogAsciiLine window reused for every line
+ *
+ * @author <a href="mailto:bluedavy@gmail.com">bluedavy</a>
+ */
+public class GCLogMappedLineSource implements GCLogLineSource {
+
+	private final ByteBuffer buffer;
+	
+	private final GCLogAsciiLine line=new GCLogAsciiLine();
+	
+	public GCLogMappedLineSource(ByteBuffer buffer){
+		this.buffer=buffer;
+	}
+	
+	public CharSequence readLine() {
+		if(!buffer.hasRemaining())
+			return null;
+		int start=buffer.position();
+		int limit=buffer.limit();
+		int end=start;
+		while(end<limit && buffer.get(end)!='\n'){
+			end++;
+		}
+		buffer.position(Math.min(end+1, limit));
+		// trim as String.trim(),'\r' is trimmed too
+		while(start<end && (buffer.get(start) & 0xff)<=' '){
+			start++;
+		}
+		while(end>start && (buffer.get(end-1) & 0xff)<=' '){
+			end--;
+		}
+		line.set(buffer, start, end);
+		return line;
+	}
+	
+	public long getBytesRead() {
+		return buffer.position();
+	}
+	
+}
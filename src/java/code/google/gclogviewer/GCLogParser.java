@@ -16,7 +16,17 @@ package code.google.gclogviewer;
  */
 public interface GCLogParser {
 	
-	public OneLineGCData parse(String lineInfo) throws Exception;
+	public OneLineGCData parse(CharSequence lineInfo) throws Exception;
+	
+	/**
+	 * @param lineInfo a whole record,lines of it are joined by GCLogRecordAssembler before dispatch
+	 * @param keywordOffset offset of the gc keyword found when dispatch,scan for gc info starts from it
+	 * @return data without occur time if record can't be parsed,it is counted as a failed line of the parser
+	 * 		   in GCLogDiagnostics and not retried,
+	 * 		   null if record is not of this parser though keyword is found,e.g. Full GC of other collectors,
+	 * 		   then record is counted as a line without parser
+	 */
+	public OneLineGCData parse(CharSequence lineInfo,int keywordOffset) throws Exception;
 	
 	public boolean isYGC();
 	
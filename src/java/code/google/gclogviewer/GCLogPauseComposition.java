@@ -0,0 +1,134 @@
+/**
+ * GCLogViewer
+ * 
+ * A free open source tool to visualize data produced by the Java VM options -Xloggc:<file> or jstat > <file>.
+ * 
+ * Code license:	Apache License 2.0
+ * 
+ * http://code.google.com/p/gclogviewer
+ */
+package code.google.gclogviewer;
+
+import java.util.Arrays;
+
+/**
+ * Composition of pauses over time: events are put into buckets of same time width,
+ * each bucket has the average ms of each GCLogPhase and of the part of pause no phase accounts for,
+ * they add up to the average pause of the bucket,so a stacked chart shows what pauses are made of.
+ *
+ * worker phases are parts of EVACUATE,so EVACUATE is only counted for events whose worker phases are not logged.
+ *
+ * @author <a href="mailto:bluedavy@gmail.com">bluedavy</a>
+ */
+public class GCLogPauseComposition {
+
+	public static final String UNACCOUNTED="Unaccounted";
+
+	// GCLogPhase by ordinal,then unaccounted
+	private static final int COMPONENTS=GCLogPhase.count()+1;
+
+	// buckets which have events
+	private int size=0;
+
+	// average occur time of events in bucket,secs
+	private final double[] times;
+
+	// bucket -> average ms of each component
+	private final double[][] values;
+
+	// component has time in some bucket
+	private final boolean[] used=new boolean[COMPONENTS];
+
+	public GCLogPauseComposition(GCLogEvents events,int buckets){
+		double begin=(events.size()==0)?0:events.getTime(0);
+		double width=(events.size()==0)?0:(events.getMaxTime()-begin)/buckets;
+		times=new double[buckets];
+		values=new double[buckets][COMPONENTS];
+		double[] sums=new double[COMPONENTS];
+		int from=0;
+		for (int bucket = 0; bucket < buckets && from < events.size(); bucket++) {
+			double end=(bucket==buckets-1)?Double.MAX_VALUE:begin+width*(bucket+1);
+			Arrays.fill(sums, 0);
+			double time=0;
+			int to=from;
+			while(to<events.size() && events.getTime(to)<end){
+				time+=events.getTime(to);
+				addEvent(events, to, sums);
+				to++;
+			}
+			if(to==from)
+				continue;
+			int count=to-from;
+			times[size]=time/count;
+			for (int i = 0; i < COMPONENTS; i++) {
+				values[size][i]=sums[i]/count;
+				if(sums[i]>0)
+					used[i]=true;
+			}
+			size++;
+			from=to;
+		}
+	}
+
+	/**
+	 * add ms of each component of event
+	 */
+	private static void addEvent(GCLogEvents events,int index,double[] sums){
+		double workers=0;
+		for (int i = 0; i < GCLogPhase.count(); i++) {
+			GCLogPhase phase=GCLogPhase.get(i);
+			if(phase.isWorker())
+				workers+=events.getPhaseTime(index, phase);
+		}
+		double accounted=0;
+		for (int i = 0; i < GCLogPhase.count(); i++) {
+			GCLogPhase phase=GCLogPhase.get(i);
+			if(workers>0 && phase==GCLogPhase.EVACUATE)
+				continue;
+			double time=events.getPhaseTime(index, phase);
+			sums[i]+=time;
+			accounted+=time;
+		}
+		sums[COMPONENTS-1]+=Math.max(events.getPause(index)*1000-accounted, 0);
+	}
+
+	/**
+	 * buckets which have events
+	 */
+	public int size(){
+		return size;
+	}
+
+	/**
+	 * average occur time of events in bucket,secs
+	 */
+	public double getTime(int bucket){
+		return times[bucket];
+	}
+
+	public int getComponentCount(){
+		return COMPONENTS;
+	}
+
+	/**
+	 * phase name,or UNACCOUNTED for the last component
+	 */
+	public String getComponentName(int component){
+		return (component==COMPONENTS-1)?UNACCOUNTED:GCLogPhase.get(component).getName();
+	}
+
+	/**
+	 * component has time in some bucket,others need not be shown
+	 */
+	public boolean isUsed(int component){
+		return used[component];
+	}
+
+	/**
+	 * average ms of component in bucket
+	 */
+	public double getValue(int bucket,int component){
+		return values[bucket][component];
+	}
+
+}
@@ -0,0 +1,171 @@
+/**
+ * GCLogViewer
+ * 
+ * A free open source tool to visualize data produced by the Java VM options -Xloggc:<file> or jstat > <file>.
+ * 
+ * Code license:	Apache License 2.0
+ * 
+ * http://code.google.com/p/gclogviewer
+ */
+package code.google.gclogviewer;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Log bucketed histogram of pause times,memory is fixed whatever the log size:
+ * pauses are counted in micro seconds,each power of two range is split into 64 linear sub buckets,
+ * so a bucket is at most 1/64 of its value wide,from 1 micro second to 2^40 micro seconds(about 12 days).
+ *
+ * percentile is found by walking the buckets,it costs same for a small log and for a 10G log.
+ *
+ * @author <a href="mailto:bluedavy@gmail.com">bluedavy</a>
+ */
+public class GCLogPauseHistogram {
+
+	private static final int SUB_BUCKET_BITS=7;
+
+	private static final int SUB_BUCKETS=1<<SUB_BUCKET_BITS;
+
+	private static final int HALF_SUB_BUCKETS=SUB_BUCKETS/2;
+
+	private static final long MAX_MICROS=(1L<<40)-1;
+
+	static final int BUCKETS=bucket(MAX_MICROS)+1;
+
+	// percentiles shown in summary,then max
+	public static final double[] SUMMARY_PERCENTILES=new double[]{50,90,99,99.9};
+
+	private final long[] counts=new long[BUCKETS];
+
+	private long count=0;
+
+	private long maxMicros=0;
+
+	public void add(double pauseSecs){
+		long micros=Math.min(Math.max(Math.round(pauseSecs*1000000), 0), MAX_MICROS);
+		counts[bucket(micros)]++;
+		count++;
+		maxMicros=Math.max(maxMicros, micros);
+	}
+
+	/**
+	 * add counts of other histogram
+	 */
+	public void add(GCLogPauseHistogram other){
+		for (int i = 0; i < BUCKETS; i++) {
+			counts[i]+=other.counts[i];
+		}
+		count+=other.count;
+		maxMicros=Math.max(maxMicros, other.maxMicros);
+	}
+
+	public long getCount(){
+		return count;
+	}
+
+	/**
+	 * max pause,secs
+	 */
+	public double getMax(){
+		return maxMicros/1000000.0;
+	}
+
+	/**
+	 * pause which percent of pauses are not longer than,secs,it is the upper bound of its bucket
+	 * and never more than max,0 if no pause
+	 *
+	 * @param percent 0-100,e.g. 99.9
+	 */
+	public double getPercentile(double percent){
+		if(count==0)
+			return 0;
+		long rank=Math.max((long)Math.ceil(Math.min(percent, 100)/100*count), 1);
+		long seen=0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen+=counts[i];
+			if(seen>=rank)
+				return Math.min(upperBound(i), maxMicros)/1000000.0;
+		}
+		return getMax();
+	}
+
+	public int getBucketCount(){
+		return BUCKETS;
+	}
+
+	/**
+	 * pauses in bucket
+	 */
+	public long getCount(int bucket){
+		return counts[bucket];
+	}
+
+	/**
+	 * smallest pause of bucket,secs
+	 */
+	public double getLowerBound(int bucket){
+		return lowerBound(bucket)/1000000.0;
+	}
+
+	/**
+	 * largest pause of bucket,secs
+	 */
+	public double getUpperBound(int bucket){
+		return upperBound(bucket)/1000000.0;
+	}
+
+	// values below SUB_BUCKETS have own bucket,then top 7 bits of value decide its bucket
+	private static int bucket(long micros){
+		if(micros<SUB_BUCKETS)
+			return (int)micros;
+		int shift=63-Long.numberOfLeadingZeros(micros)-(SUB_BUCKET_BITS-1);
+		return shift*HALF_SUB_BUCKETS+(int)(micros>>>shift);
+	}
+
+	private static long lowerBound(int bucket){
+		if(bucket<SUB_BUCKETS)
+			return bucket;
+		int shift=bucket/HALF_SUB_BUCKETS-1;
+		return (long)(bucket-shift*HALF_SUB_BUCKETS)<<shift;
+	}
+
+	private static long upperBound(int bucket){
+		if(bucket<SUB_BUCKETS)
+			return bucket;
+		int shift=bucket/HALF_SUB_BUCKETS-1;
+		return ((long)(bucket-shift*HALF_SUB_BUCKETS+1)<<shift)-1;
+	}
+
+	/**
+	 * write not empty buckets to cache file
+	 */
+	void write(DataOutputStream out) throws IOException{
+		out.writeLong(count);
+		out.writeLong(maxMicros);
+		int buckets=0;
+		for (int i = 0; i < BUCKETS; i++) {
+			if(counts[i]!=0)
+				buckets++;
+		}
+		out.writeInt(buckets);
+		for (int i = 0; i < BUCKETS; i++) {
+			if(counts[i]==0)
+				continue;
+			out.writeInt(i);
+			out.writeLong(counts[i]);
+		}
+	}
+
+	void read(ByteBuffer buffer){
+		count=buffer.getLong();
+		maxMicros=buffer.getLong();
+		int buckets=buffer.getInt();
+		for (int i = 0; i < buckets; i++) {
+			int bucket=buffer.getInt();
+			counts[bucket]=buffer.getLong();
+		}
+	}
+
+}
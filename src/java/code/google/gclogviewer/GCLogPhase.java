@@ -0,0 +1,156 @@
+/**
+ * GCLogViewer
+ * 
+ * A free open source tool to visualize data produced by the Java VM options -Xloggc:<file> or jstat > <file>.
+ * 
+ * Code license:	Apache License 2.0
+ * 
+ * http://code.google.com/p/gclogviewer
+ */
+package code.google.gclogviewer;
+
+/**
+ * Phases of a G1 evacuation pause,as -XX:+PrintGCDetails and -Xlog:gc+phases print them:
+ *
+ *      [Ext Root Scanning (ms): Min: 0.4, Avg: 0.6, Max: 0.9, Diff: 0.5, Sum: 2.4]
+ *   [Code Root Fixup: 0.0 ms]
+ *   [0.350s][info][gc,phases] GC(0)   Evacuate Collection Set: 3.9ms
+ *   [0.350s][debug][gc,phases] GC(0)     Object Copy (ms):   Min:  2.4, Avg:  2.6, Max:  2.7, Diff:  0.3, Sum: 10.3, Workers: 4
+ *
+ * time of a worker phase is the avg of workers,worker phases are parts of EVACUATE,
+ * other phases follow each other,so worker phases(or EVACUATE when they are not logged)
+ * and the other phases add up to about the pause.
+ *
+ * @author <a href="mailto:bluedavy@gmail.com">bluedavy</a>
+ */
+public enum GCLogPhase {
+
+	// phases of gc workers
+	EXT_ROOT_SCANNING(true,"Ext Root Scanning"),
+	UPDATE_RS(true,"Update RS"),
+	SCAN_RS(true,"Scan RS","Scan Heap Roots"),
+	CODE_ROOT_SCANNING(true,"Code Root Scanning","Code Root Scan"),
+	OBJECT_COPY(true,"Object Copy"),
+	TERMINATION(true,"Termination"),
+	WORKER_OTHER(true,"GC Worker Other"),
+	// phases one after another
+	PRE_EVACUATE(false,"Pre Evacuate Collection Set"),
+	MERGE_HEAP_ROOTS(false,"Merge Heap Roots"),
+	EVACUATE(false,"Evacuate Collection Set","Parallel Time"),
+	CODE_ROOT_FIXUP(false,"Code Root Fixup"),
+	CODE_ROOT_PURGE(false,"Code Root Purge"),
+	CLEAR_CT(false,"Clear CT"),
+	POST_EVACUATE(false,"Post Evacuate Collection Set"),
+	OTHER(false,"Other");
+
+	private static final GCLogPhase[] PHASES=values();
+
+	private static final String WORKER_SUFFIX=" (ms):";
+
+	private static final String AVG="Avg:";
+
+	private final boolean worker;
+
+	// first name is shown,others are names of other JDK versions
+	private final String[] names;
+
+	// "[name (ms):" or "[name: " of -XX:+PrintGCDetails block
+	private final String[] markers;
+
+	GCLogPhase(boolean worker,String... names){
+		this.worker=worker;
+		this.names=names;
+		markers=new String[names.length];
+		for (int i = 0; i < names.length; i++) {
+			markers[i]="["+names[i]+(worker?WORKER_SUFFIX:": ");
+		}
+	}
+
+	public String getName(){
+		return names[0];
+	}
+
+	/**
+	 * phase of gc workers,its time is part of EVACUATE
+	 */
+	public boolean isWorker(){
+		return worker;
+	}
+
+	public static int count(){
+		return PHASES.length;
+	}
+
+	public static GCLogPhase get(int ordinal){
+		return PHASES[ordinal];
+	}
+
+	/**
+	 * scan phase times of a -XX:+PrintGCDetails block of G1 pause which starts from from
+	 *
+	 * @param times ms of each phase by ordinal,phases not in block are not changed
+	 * @return false if no phase is in block
+	 */
+	public static boolean scanBlock(CharSequence record,int from,double[] times){
+		boolean found=false;
+		for (GCLogPhase phase : PHASES) {
+			for (String marker : phase.markers) {
+				int index=GCLogLineScanner.indexOf(record, marker, from);
+				if(index==-1)
+					continue;
+				double time=phase.time(record, index+marker.length());
+				if(time>=0){
+					times[phase.ordinal()]=time;
+					found=true;
+				}
+				break;
+			}
+		}
+		return found;
+	}
+
+	/**
+	 * phase of a -Xlog:gc+phases line whose text after GC(n) starts at textStart,its time is set in times
+	 *
+	 * @return null if text is not a known phase
+	 */
+	public static GCLogPhase scanLine(CharSequence line,int textStart,double[] times){
+		for (GCLogPhase phase : PHASES) {
+			for (String name : phase.names) {
+				if(!GCLogLineScanner.regionMatches(line, textStart, name))
+					continue;
+				int nameEnd=textStart+name.length();
+				if(phase.worker?!GCLogLineScanner.regionMatches(line, nameEnd, WORKER_SUFFIX):!GCLogLineScanner.regionMatches(line, nameEnd, ":"))
+					continue;
+				double time=phase.time(line, nameEnd+(phase.worker?WORKER_SUFFIX.length():1));
+				if(time<0)
+					return null;
+				times[phase.ordinal()]=time;
+				return phase;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * ms after name,avg of workers for worker phase,-1 if not found
+	 */
+	private double time(CharSequence line,int start){
+		int i=start;
+		if(worker){
+			int avg=GCLogLineScanner.indexOf(line, AVG, start);
+			int end=GCLogLineScanner.indexOf(line, "]", start);
+			if(avg==-1 || (end!=-1 && avg>end))
+				return -1;
+			i=avg+AVG.length();
+		}
+		while(i<line.length() && line.charAt(i)==' '){
+			i++;
+		}
+		int end=GCLogLineScanner.numberEnd(line, i);
+		if(end==i)
+			return -1;
+		return GCLogLineScanner.parseDouble(line, i, end);
+	}
+
+}
@@ -0,0 +1,114 @@
+/**
+ * GCLogViewer
+ * 
+ * A free open source tool to visualize data produced by the Java VM options -Xloggc:<file> or jstat > <file>.
+ * 
+ * Code license:	Apache License 2.0
+ * 
+ * http://code.google.com/p/gclogviewer
+ */
+package code.google.gclogviewer;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts of GCLogAnalyze progress,analysis threads only add to counters,
+ * rates and ETA are computed when it is sampled,so ui can read it at its own rate.
+ *
+ * rates are averages since this progress was created.
+ *
+ * @author <a href="mailto:bluedavy@gmail.com">bluedavy</a>
+ */
+public class GCLogProgress implements GCLogProgressListener {
+
+	private static final long MB=1024*1024;
+	
+	private final long startNanos=System.nanoTime();
+	
+	private final AtomicLong totalBytes=new AtomicLong();
+	
+	private final AtomicLong bytes=new AtomicLong();
+	
+	private final AtomicLong lines=new AtomicLong();
+	
+	private final AtomicLong events=new AtomicLong();
+	
+	public void start(long bytes) {
+		totalBytes.addAndGet(bytes);
+	}
+	
+	public void analyzed(long bytes, long lines, long events) {
+		this.bytes.addAndGet(bytes);
+		this.lines.addAndGet(lines);
+		this.events.addAndGet(events);
+	}
+	
+	public long getTotalBytes(){
+		return totalBytes.get();
+	}
+	
+	public long getBytes(){
+		return bytes.get();
+	}
+	
+	public long getLines(){
+		return lines.get();
+	}
+	
+	public long getEvents(){
+		return events.get();
+	}
+	
+	/**
+	 * analyzed bytes,0-100
+	 */
+	public int getPercent(){
+		long total=totalBytes.get();
+		if(total<=0)
+			return 0;
+		return (int)Math.min(bytes.get()*100/total, 100);
+	}
+	
+	public double getBytesPerSecond(){
+		return perSecond(bytes.get());
+	}
+	
+	public double getLinesPerSecond(){
+		return perSecond(lines.get());
+	}
+	
+	public double getEventsPerSecond(){
+		return perSecond(events.get());
+	}
+	
+	/**
+	 * secs left at average byte rate so far,-1 if nothing analyzed yet
+	 */
+	public double getETASecs(){
+		double rate=getBytesPerSecond();
+		if(rate<=0)
+			return -1;
+		return Math.max(totalBytes.get()-bytes.get(), 0)/rate;
+	}
+	
+	private double perSecond(long count){
+		double secs=(System.nanoTime()-startNanos)/1000000000.0;
+		if(secs<=0)
+			return 0;
+		return count/secs;
+	}
+	
+	/**
+	 * e.g. 512/3072 MB,1200000 lines/s,90000 events/s,ETA 35 secs
+	 */
+	public String toString(){
+		StringBuilder builder=new StringBuilder();
+		builder.append(getBytes()/MB).append('/').append(getTotalBytes()/MB).append(" MB,");
+		builder.append((long)getLinesPerSecond()).append(" lines/s,");
+		builder.append((long)getEventsPerSecond()).append(" events/s,ETA ");
+		double eta=getETASecs();
+		builder.append(eta<0?"-":String.valueOf((long)Math.ceil(eta))).append(" secs");
+		return builder.toString();
+	}
+	
+}
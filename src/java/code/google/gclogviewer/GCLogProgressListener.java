@@ -0,0 +1,32 @@
+/**
+ * GCLogViewer
+ * 
+ * A free open source tool to visualize data produced by the Java VM options -Xloggc:<file> or jstat > <file>.
+ * 
+ * Code license:	Apache License 2.0
+ * 
+ * http://code.google.com/p/gclogviewer
+ */
+package code.google.gclogviewer;
+
+/**
+ * Listener of GCLogAnalyze progress,it is called from analysis threads,
+ * several chunks and several logs may report at the same time
+ *
+ * @author <a href="mailto:bluedavy@gmail.com">bluedavy</a>
+ */
+public interface GCLogProgressListener {
+
+	/**
+	 * analysis of a range of log starts,called once for each analyzed range,so sizes of several logs add up
+	 * 
+	 * @param bytes size of range
+	 */
+	public void start(long bytes);
+	
+	/**
+	 * counts analyzed since last report of same chunk,reported every few thousand lines and at end of chunk
+	 */
+	public void analyzed(long bytes,long lines,long events);
+	
+}
@@ -0,0 +1,325 @@
+/**
+ * GCLogViewer
+ * 
+ * A free open source tool to visualize data produced by the Java VM options -Xloggc:<file> or jstat > <file>.
+ * 
+ * Code license:	Apache License 2.0
+ * 
+ * http://code.google.com/p/gclogviewer
+ */
+package code.google.gclogviewer;
+
+import java.io.IOException;
+
+/**
+ * Assemble gc records from lines of a source,so each record is parsed once:
+ *
+ * a record starts with a time stamp (or date stamp) and '[',and ends with ']',e.g. after [Times: ...],
+ * a record which does not end on its first line is buffered,following lines which start with ':','(','[' or ','
+ * continue it until one ends with ']'.
+ * other lines written into the middle of a record,e.g. -XX:+PrintTenuringDistribution,are returned as they are,
+ * CMS-concurrent records written into the middle of a line are cut out and returned as records of their own:
+ *
+ *   1.000: [GC 1.000: [ParNew1.001: [CMS-concurrent-abortable-preclean: 0.010/0.020 secs] [Times: ...]
+ *   Desired survivor size 3342336 bytes, new threshold 1 (max 6)
+ *   : 558615K->13855K(563200K), 0.0177710 secs] 739960K->195200K(1624064K), 0.0179390 secs] [Times: ...]
+ *
+ * is returned as the CMS-concurrent record,the tenuring line,then the ParNew record of line 1 and 3.
+ * a record which is not ended before next record starts or source ends is returned as it is.
+ *
+ * a record which ends with ", 0.0046740 secs]" and no [Times: ...] may have an indented block of details
+ * after it,as G1 prints with -XX:+PrintGCDetails,following lines which start with '['(they are indented,
+ * but source trims lines) are added to it until the [Times: ...] line:
+ *
+ *   0.297: [GC pause (G1 Evacuation Pause) (young), 0.0046740 secs]
+ *      [Parallel Time: 3.6 ms, GC Workers: 4]
+ *      ...
+ *      [Eden: 24.0M(24.0M)->0.0B(13.0M) Survivors: 0.0B->3072.0K Heap: 24.0M(256.0M)->3633.0K(256.0M)]
+ *    [Times: user=0.01 sys=0.00, real=0.00 secs]
+ *
+ * lines which are not in a record are returned without copy,same as source.
+ *
+ * @author <a href="mailto:bluedavy@gmail.com">bluedavy</a>
+ */
+public class GCLogRecordAssembler implements GCLogLineSource {
+
+	private static final String CONCURRENT="[CMS-concurrent-";
+
+	private static final String TIMES="[Times:";
+	
+	private static final String SECS=" secs]";
+
+	private final GCLogLineSource source;
+
+	// record being assembled
+	private final StringBuilder partial=new StringBuilder();
+
+	private int partialLines=0;
+
+	// partial is a complete record,only an indented block of details may follow
+	private boolean details=false;
+
+	// assembled record returned to caller
+	private final StringBuilder record=new StringBuilder();
+
+	// CMS-concurrent record cut out of a line
+	private final StringBuilder concurrent=new StringBuilder();
+
+	// rest of line after CMS-concurrent record is cut out
+	private final StringBuilder rest=new StringBuilder();
+
+	// line which starts next record while a record is not ended,assembled at next call
+	private final StringBuilder held=new StringBuilder();
+
+	private boolean hasHeld=false;
+
+	// returned at next call
+	private CharSequence queued=null;
+
+	private boolean queuedJoined=false;
+
+	private long linesRead=0;
+
+	private boolean joined=false;
+
+	public GCLogRecordAssembler(GCLogLineSource source){
+		this.source=source;
+	}
+
+	/**
+	 * @return next record,null when no more lines;
+	 * 		   the record may be reused,read it before next call
+	 */
+	public CharSequence readLine() throws IOException {
+		if(queued!=null){
+			CharSequence next=queued;
+			queued=null;
+			joined=queuedJoined;
+			return next;
+		}
+		if(hasHeld){
+			hasHeld=false;
+			CharSequence next=assemble(held);
+			if(next!=null)
+				return next;
+		}
+		while(true){
+			CharSequence line=source.readLine();
+			if(line==null)
+				return (partialLines>0)?takePartial():null;
+			linesRead++;
+			int concurrentStart=GCLogLineScanner.indexOf(line, CONCURRENT, 0);
+			int start=(concurrentStart==-1)?-1:stampStart(line, concurrentStart);
+			if(start>0){
+				int end=concurrentEnd(line, concurrentStart);
+				concurrent.setLength(0);
+				concurrent.append(line, start, end);
+				rest.setLength(0);
+				rest.append(line, 0, start);
+				rest.append(line, end, line.length());
+				trim(rest);
+				if(rest.length()>0){
+					queued=assemble(rest);
+					queuedJoined=joined;
+				}
+				joined=false;
+				return concurrent;
+			}
+			CharSequence next=assemble(line);
+			if(next!=null)
+				return next;
+		}
+	}
+
+	public long getBytesRead() {
+		return source.getBytesRead();
+	}
+
+	/**
+	 * lines read from source
+	 */
+	public long getLinesRead(){
+		return linesRead;
+	}
+
+	/**
+	 * last record was assembled from more than one line
+	 */
+	public boolean isJoined(){
+		return joined;
+	}
+
+	/**
+	 * @return record to return,null if line is buffered
+	 */
+	private CharSequence assemble(CharSequence line){
+		if(partialLines==0){
+			if(isRecordStart(line) && (!endsRecord(line) || mayHaveDetails(line))){
+				partial.append(line);
+				partialLines=1;
+				details=endsRecord(line);
+				return null;
+			}
+			joined=false;
+			return line;
+		}
+		if(details){
+			if(isDetail(line)){
+				partial.append(line);
+				partialLines++;
+				return isTimes(line)?takePartial():null;
+			}
+			// record has no more details,return it and start again from line
+			held.setLength(0);
+			held.append(line);
+			hasHeld=true;
+			return takePartial();
+		}
+		if(line.length()==0)
+			return null;
+		if(isContinuation(line)){
+			partial.append(line);
+			partialLines++;
+			return endsRecord(line)?takePartial():null;
+		}
+		if(isRecordStart(line) && GCLogLineScanner.indexOf(line, CONCURRENT, 0)==-1){
+			// record is not ended,return it as it is and start again from line
+			held.setLength(0);
+			held.append(line);
+			hasHeld=true;
+			return takePartial();
+		}
+		// other output inside record
+		joined=false;
+		return line;
+	}
+
+	private CharSequence takePartial(){
+		record.setLength(0);
+		record.append(partial);
+		joined=partialLines>1;
+		partial.setLength(0);
+		partialLines=0;
+		details=false;
+		return record;
+	}
+
+	/**
+	 * line starts with "[yyyy-MM-ddT...: ]digits.digits: [",
+	 * so stamped lines of other output,e.g. Total time for which application threads were stopped,are not records
+	 */
+	static boolean isRecordStart(CharSequence line){
+		int timeStart=0;
+		int digitsEnd=GCLogLineScanner.digitsEnd(line, 0);
+		if(digitsEnd==4 && digitsEnd<line.length() && line.charAt(digitsEnd)=='-'){
+			timeStart=GCLogLineScanner.indexOf(line, ": ", digitsEnd)+2;
+			if(timeStart==1)
+				return false;
+			digitsEnd=GCLogLineScanner.digitsEnd(line, timeStart);
+		}
+		if(digitsEnd==timeStart || digitsEnd>=line.length() || line.charAt(digitsEnd)!='.')
+			return false;
+		int fractionEnd=GCLogLineScanner.digitsEnd(line, digitsEnd+1);
+		return GCLogLineScanner.regionMatches(line, fractionEnd, ": [");
+	}
+
+	/**
+	 * record ends with pause of ", 0.0046740 secs]",not with [Times: ... real=0.00 secs]
+	 */
+	static boolean mayHaveDetails(CharSequence line){
+		int secs=line.length()-SECS.length();
+		if(!GCLogLineScanner.regionMatches(line, secs, SECS))
+			return false;
+		int start=secs;
+		while(start>0 && (GCLogLineScanner.isDigit(line.charAt(start-1)) || line.charAt(start-1)=='.')){
+			start--;
+		}
+		return start<secs && start>=2 && line.charAt(start-1)==' ' && line.charAt(start-2)==',';
+	}
+
+	/**
+	 * line of a block of details,starts with '[' but is not a line of unified logging
+	 */
+	private static boolean isDetail(CharSequence line){
+		return line.length()>0 && line.charAt(0)=='[' && GCLogUnifiedLine.messageStart(line)==-1;
+	}
+
+	private static boolean isTimes(CharSequence line){
+		return GCLogLineScanner.regionMatches(line, 0, TIMES);
+	}
+
+	private static boolean isContinuation(CharSequence line){
+		char first=line.charAt(0);
+		return first==':' || first=='(' || first=='[' || first==',';
+	}
+
+	private static boolean endsRecord(CharSequence line){
+		return line.length()>0 && line.charAt(line.length()-1)==']';
+	}
+
+	/**
+	 * start of "[datestamp: ]time: " before bracket,bracket itself if there is no stamp
+	 */
+	private static int stampStart(CharSequence line,int bracket){
+		if(bracket<2 || line.charAt(bracket-1)!=' ' || line.charAt(bracket-2)!=':')
+			return bracket;
+		int start=bracket-2;
+		while(start>0 && isStampChar(line.charAt(start-1), false)){
+			start--;
+		}
+		if(start==bracket-2)
+			return bracket;
+		// date stamp ends with ": " too,e.g. 2010-11-10T17:03:49.068+0800: 125.300:
+		if(start>=2 && line.charAt(start-1)==' ' && line.charAt(start-2)==':'){
+			int dateStart=start-2;
+			while(dateStart>0 && isStampChar(line.charAt(dateStart-1), true)){
+				dateStart--;
+			}
+			if(start-2-dateStart>=20)
+				return dateStart;
+		}
+		return start;
+	}
+
+	private static boolean isStampChar(char c,boolean date){
+		if((c>='0' && c<='9') || c=='.')
+			return true;
+		return date && (c=='-' || c=='T' || c==':' || c=='+');
+	}
+
+	/**
+	 * end of CMS-concurrent record,after its [Times: ...] if there is one
+	 */
+	private static int concurrentEnd(CharSequence line,int bracket){
+		int end=closeBracket(line, bracket);
+		int next=end;
+		while(next<line.length() && line.charAt(next)==' '){
+			next++;
+		}
+		if(GCLogLineScanner.regionMatches(line, next, TIMES))
+			end=closeBracket(line, next);
+		return end;
+	}
+
+	private static int closeBracket(CharSequence line,int bracket){
+		for (int i = bracket; i < line.length(); i++) {
+			if(line.charAt(i)==']')
+				return i+1;
+		}
+		return line.length();
+	}
+
+	private static void trim(StringBuilder builder){
+		int end=builder.length();
+		while(end>0 && builder.charAt(end-1)<=' '){
+			end--;
+		}
+		builder.setLength(end);
+		int start=0;
+		while(start<builder.length() && builder.charAt(start)<=' '){
+			start++;
+		}
+		builder.delete(0, start);
+	}
+
+}
@@ -0,0 +1,296 @@
+/**
+ * GCLogViewer
+ * 
+ * A free open source tool to visualize data produced by the Java VM options -Xloggc:<file> or jstat > <file>.
+ * 
+ * Code license:	Apache License 2.0
+ * 
+ * http://code.google.com/p/gclogviewer
+ */
+package code.google.gclogviewer;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Columnar store of safepoints which stopped application threads in log order,from lines of
+ * -XX:+PrintGCApplicationStoppedTime or -Xlog:safepoint:
+ *
+ *   2.345: Total time for which application threads were stopped: 0.0001234 seconds, Stopping threads took: 0.0000123 seconds
+ *   [2.345s][info][safepoint] Total time for which application threads were stopped: 0.0001234 seconds, Stopping threads took: 0.0000123 seconds
+ *   [2.345s][info][safepoint] Safepoint "G1CollectForAllocation", Time since last: 1000 ns, Reaching safepoint: 12300 ns, At safepoint: 111100 ns, Total: 123400 ns
+ *
+ * the line is written when threads are resumed,so a safepoint starts at its time stamp minus stopped time.
+ * stopped time includes time to safepoint(TTSP,"Stopping threads took" or "Reaching safepoint"),
+ * TTSP is NaN when not logged,e.g. before JDK 8.
+ * a safepoint in which no gc pause starts is a non-gc one,e.g. biased lock revocation or deoptimization.
+ *
+ * @author <a href="mailto:bluedavy@gmail.com">bluedavy</a>
+ */
+public class GCLogSafepoints {
+
+	private static final int INITIAL_CAPACITY=64;
+
+	private static final String STOPPED="Total time for which application threads were stopped: ";
+
+	private static final String STOPPING="Stopping threads took: ";
+
+	private static final String SAFEPOINT="Safepoint \"";
+
+	private static final String REACHING="Reaching safepoint: ";
+
+	private static final String TOTAL="Total: ";
+
+	private static final double NANOS_PER_SEC=1000000000.0;
+
+	// secs a gc pause may start before its safepoint as time stamps are rounded
+	private static final double TOLERANCE=0.001;
+
+	private int size=0;
+
+	// safepoint start time,secs
+	private double[] times=new double[INITIAL_CAPACITY];
+
+	// stopped time,secs
+	private double[] stoppeds=new double[INITIAL_CAPACITY];
+
+	// time to safepoint,secs,NaN if not logged
+	private double[] ttsps=new double[INITIAL_CAPACITY];
+
+	private double totalStopped=0;
+
+	// time stamp of the last line,secs
+	private double endTime=0;
+
+	private final GCLogPauseHistogram stoppedHistogram=new GCLogPauseHistogram();
+
+	private final GCLogPauseHistogram ttspHistogram=new GCLogPauseHistogram();
+
+	/**
+	 * add the safepoint of a stopped time line
+	 *
+	 * @return false if line is not a stopped time line
+	 */
+	public boolean add(CharSequence line){
+		int marker=GCLogLineScanner.indexOf(line, STOPPED, 0);
+		double stopped;
+		double ttsp=Double.NaN;
+		if(marker!=-1){
+			int start=marker+STOPPED.length();
+			int end=GCLogLineScanner.numberEnd(line, start);
+			if(end==start)
+				return false;
+			stopped=GCLogLineScanner.parseDouble(line, start, end);
+			int stopping=GCLogLineScanner.indexOf(line, STOPPING, end);
+			if(stopping!=-1){
+				start=stopping+STOPPING.length();
+				end=GCLogLineScanner.numberEnd(line, start);
+				if(end>start)
+					ttsp=GCLogLineScanner.parseDouble(line, start, end);
+			}
+		}
+		else{
+			marker=GCLogLineScanner.indexOf(line, SAFEPOINT, 0);
+			if(marker==-1)
+				return false;
+			long reaching=nanos(line, REACHING, marker);
+			long total=nanos(line, TOTAL, marker);
+			if(reaching==-1 || total==-1)
+				return false;
+			stopped=total/NANOS_PER_SEC;
+			ttsp=reaching/NANOS_PER_SEC;
+		}
+		double time;
+		int messageStart=GCLogUnifiedLine.messageStart(line);
+		if(messageStart!=-1){
+			int uptimeStart=GCLogUnifiedLine.uptimeStart(line, messageStart);
+			if(uptimeStart==-1)
+				return false;
+			time=GCLogUnifiedLine.uptimeSecs(line, uptimeStart);
+		}
+		else{
+			int timeStart=GCLogLineScanner.occurTimeStart(line, GCLogLineScanner.dateStampEnd(line), marker);
+			if(timeStart==-1)
+				return false;
+			time=GCLogLineScanner.parseDouble(line, timeStart, GCLogLineScanner.numberEnd(line, timeStart));
+		}
+		add(time-stopped, stopped, ttsp);
+		endTime=Math.max(endTime, time);
+		return true;
+	}
+
+	/**
+	 * @param ttsp NaN if not known
+	 */
+	public void add(double time,double stopped,double ttsp){
+		ensureCapacity(size+1);
+		times[size]=time;
+		stoppeds[size]=stopped;
+		ttsps[size]=ttsp;
+		size++;
+		totalStopped+=stopped;
+		stoppedHistogram.add(stopped);
+		if(!Double.isNaN(ttsp))
+			ttspHistogram.add(ttsp);
+	}
+
+	/**
+	 * append safepoints of the next part of log
+	 */
+	public void append(GCLogSafepoints next){
+		ensureCapacity(size+next.size);
+		System.arraycopy(next.times, 0, times, size, next.size);
+		System.arraycopy(next.stoppeds, 0, stoppeds, size, next.size);
+		System.arraycopy(next.ttsps, 0, ttsps, size, next.size);
+		size+=next.size;
+		totalStopped+=next.totalStopped;
+		endTime=Math.max(endTime, next.endTime);
+		stoppedHistogram.add(next.stoppedHistogram);
+		ttspHistogram.add(next.ttspHistogram);
+	}
+
+	public int size(){
+		return size;
+	}
+
+	public double getTime(int index){
+		return times[index];
+	}
+
+	public double getStopped(int index){
+		return stoppeds[index];
+	}
+
+	public double getTTSP(int index){
+		return ttsps[index];
+	}
+
+	/**
+	 * secs
+	 */
+	public double getTotalStopped(){
+		return totalStopped;
+	}
+
+	/**
+	 * time stamp of the last stopped time line,secs
+	 */
+	public double getEndTime(){
+		return endTime;
+	}
+
+	public GCLogPauseHistogram getStoppedHistogram(){
+		return stoppedHistogram;
+	}
+
+	/**
+	 * histogram of safepoints whose TTSP is logged
+	 */
+	public GCLogPauseHistogram getTTSPHistogram(){
+		return ttspHistogram;
+	}
+
+	/**
+	 * no gc pause of events starts in the safepoint
+	 *
+	 * @param events events of each gc kind,each in time order
+	 */
+	public boolean isNonGC(int index,GCLogEvents... events){
+		double start=times[index]-TOLERANCE;
+		double end=times[index]+stoppeds[index]+TOLERANCE;
+		for (GCLogEvents gcEvents : events) {
+			int next=gcEvents.ceilingIndex(start);
+			if(next<gcEvents.size() && gcEvents.getTime(next)<=end)
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * safepoints in which no gc pause starts
+	 */
+	public int getNonGCCount(GCLogEvents... events){
+		int count=0;
+		for (int i = 0; i < size; i++) {
+			if(isNonGC(i, events))
+				count++;
+		}
+		return count;
+	}
+
+	/**
+	 * stopped time of safepoints in which no gc pause starts,secs
+	 */
+	public double getNonGCStopped(GCLogEvents... events){
+		double stopped=0;
+		for (int i = 0; i < size; i++) {
+			if(isNonGC(i, events))
+				stopped+=stoppeds[i];
+		}
+		return stopped;
+	}
+
+	void write(DataOutputStream out) throws IOException{
+		out.writeInt(size);
+		out.writeDouble(totalStopped);
+		out.writeDouble(endTime);
+		stoppedHistogram.write(out);
+		ttspHistogram.write(out);
+		for (int i = 0; i < size; i++) {
+			out.writeDouble(times[i]);
+		}
+		for (int i = 0; i < size; i++) {
+			out.writeDouble(stoppeds[i]);
+		}
+		for (int i = 0; i < size; i++) {
+			out.writeDouble(ttsps[i]);
+		}
+	}
+
+	/**
+	 * read columns written by write() into this empty store
+	 */
+	void read(ByteBuffer buffer){
+		int count=buffer.getInt();
+		totalStopped=buffer.getDouble();
+		endTime=buffer.getDouble();
+		stoppedHistogram.read(buffer);
+		ttspHistogram.read(buffer);
+		ensureCapacity(count);
+		size=count;
+		readDoubles(buffer, times);
+		readDoubles(buffer, stoppeds);
+		readDoubles(buffer, ttsps);
+	}
+
+	private void readDoubles(ByteBuffer buffer,double[] column){
+		buffer.asDoubleBuffer().get(column, 0, size);
+		buffer.position(buffer.position()+size*8);
+	}
+
+	private void ensureCapacity(int capacity){
+		if(capacity<=times.length)
+			return;
+		int newCapacity=Math.max(capacity, times.length+(times.length>>1));
+		times=Arrays.copyOf(times, newCapacity);
+		stoppeds=Arrays.copyOf(stoppeds, newCapacity);
+		ttsps=Arrays.copyOf(ttsps, newCapacity);
+	}
+
+	/**
+	 * ns of "name: 12300 ns" after from,-1 if not found
+	 */
+	private static long nanos(CharSequence line,String name,int from){
+		int marker=GCLogLineScanner.indexOf(line, name, from);
+		if(marker==-1)
+			return -1;
+		int start=marker+name.length();
+		int end=GCLogLineScanner.digitsEnd(line, start);
+		if(end==start)
+			return -1;
+		return GCLogLineScanner.parseLong(line, start, end);
+	}
+
+}
@@ -0,0 +1,174 @@
+/**
+ * GCLogViewer
+ * 
+ * A free open source tool to visualize data produced by the Java VM options -Xloggc:<file> or jstat > <file>.
+ * 
+ * Code license:	Apache License 2.0
+ * 
+ * http://code.google.com/p/gclogviewer
+ */
+package code.google.gclogviewer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jfree.data.xy.AbstractXYDataset;
+
+/**
+ * Trend chart dataset of GCLogEventsSeries,items are downsampled to the visible time range and the plot width,
+ * GCLogChartComposite resamples it when chart is resized or zoomed.
+ *
+ * a GCLogEventsPyramid is built for each series which needs downsample,so resample reads buckets of the
+ * level matching the visible range instead of all items,it is built again after events are appended.
+ *
+ * items are read from the event columns,no copy and no sort: a series which needs no downsample is
+ * wrapped as it is,else only indices of kept items are held.
+ *
+ * @author <a href="mailto:bluedavy@gmail.com">bluedavy</a>
+ */
+public class GCLogTrendDataset extends AbstractXYDataset {
+
+	private static final long serialVersionUID = 1L;
+
+	// buckets before the plot width is known
+	public static final int DEFAULT_BUCKETS=1000;
+
+	private final List<GCLogEventsSeries> sources=new ArrayList<GCLogEventsSeries>();
+
+	// kept item indices of each series,null means all items
+	private final List<int[]> indices=new ArrayList<int[]>();
+
+	// built when the series is first downsampled
+	private final List<GCLogEventsPyramid> pyramids=new ArrayList<GCLogEventsPyramid>();
+
+	// last resample arguments,NaN lower and upper means whole time range
+	private double lower=Double.NaN;
+
+	private double upper=Double.NaN;
+
+	private int buckets=DEFAULT_BUCKETS;
+
+	// items of all series when last resampled,events may be appended in follow mode
+	private int sampledItems=-1;
+
+	public void addEventsSeries(GCLogEventsSeries source){
+		sources.add(source);
+		indices.add(null);
+		pyramids.add(null);
+	}
+
+	public int getSeriesCount() {
+		return sources.size();
+	}
+
+	public Comparable<?> getSeriesKey(int series) {
+		return sources.get(series).getKey();
+	}
+
+	public int getItemCount(int series) {
+		int[] kept=indices.get(series);
+		return (kept==null)?sources.get(series).getItemCount():kept.length;
+	}
+
+	public double getXValue(int series, int item) {
+		return sources.get(series).getX(index(series, item));
+	}
+
+	public double getYValue(int series, int item) {
+		return sources.get(series).getY(index(series, item));
+	}
+
+	public Number getX(int series, int item) {
+		return Double.valueOf(getXValue(series, item));
+	}
+
+	public Number getY(int series, int item) {
+		return Double.valueOf(getYValue(series, item));
+	}
+
+	/**
+	 * downsample all series again to whole time range
+	 */
+	public void resample(){
+		resample(Double.NaN, Double.NaN, buckets);
+	}
+
+	/**
+	 * downsample all series to [lower,upper] with buckets,NaN lower and upper means whole time range
+	 *
+	 * @return false if nothing changed since last resample
+	 */
+	public boolean resample(double lower,double upper,int buckets){
+		int items=getSourceItemCount();
+		if(same(lower, this.lower) && same(upper, this.upper) && buckets==this.buckets && items==sampledItems)
+			return false;
+		this.lower=lower;
+		this.upper=upper;
+		this.buckets=Math.max(buckets, 1);
+		this.sampledItems=items;
+		double from=lower;
+		double to=upper;
+		if(Double.isNaN(from) || Double.isNaN(to)){
+			double[] range=getTimeRange();
+			from=range[0];
+			to=range[1];
+		}
+		for (int i = 0; i < sources.size(); i++) {
+			GCLogEventsSeries source=sources.get(i);
+			if(source.getItemCount()<=this.buckets*GCLogDownsampler.ITEMS_PER_BUCKET){
+				// fewer items than pixels can show,wrap them all
+				indices.set(i, null);
+			}
+			else{
+				indices.set(i, getPyramid(i).downsample(from, to, this.buckets));
+			}
+		}
+		fireDatasetChanged();
+		return true;
+	}
+
+	/**
+	 * [first time,last time] of all series
+	 */
+	public double[] getTimeRange(){
+		double from=Double.MAX_VALUE;
+		double to=-Double.MAX_VALUE;
+		for (GCLogEventsSeries source : sources) {
+			int count=source.getItemCount();
+			if(count==0)
+				continue;
+			from=Math.min(from, source.getX(0));
+			to=Math.max(to, source.getX(count-1));
+		}
+		if(from>to)
+			return new double[]{0,0};
+		return new double[]{from,to};
+	}
+
+	private GCLogEventsPyramid getPyramid(int series){
+		GCLogEventsPyramid pyramid=pyramids.get(series);
+		if(pyramid==null || pyramid.isStale()){
+			pyramid=new GCLogEventsPyramid(sources.get(series));
+			pyramids.set(series, pyramid);
+		}
+		return pyramid;
+	}
+
+	private int index(int series,int item){
+		int[] kept=indices.get(series);
+		return (kept==null)?item:kept[item];
+	}
+
+	private int getSourceItemCount(){
+		int items=0;
+		for (GCLogEventsSeries source : sources) {
+			items+=source.getItemCount();
+		}
+		return items;
+	}
+
+	private static boolean same(double value,double other){
+		return (Double.isNaN(value) && Double.isNaN(other)) || value==other;
+	}
+
+}
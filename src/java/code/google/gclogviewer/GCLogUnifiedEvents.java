@@ -0,0 +1,301 @@
+/**
+ * GCLogViewer
+ * 
+ * A free open source tool to visualize data produced by the Java VM options -Xloggc:<file> or jstat > <file>.
+ * 
+ * Code license:	Apache License 2.0
+ * 
+ * http://code.google.com/p/gclogviewer
+ */
+package code.google.gclogviewer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * Join lines of one gc of unified logging by its GC(n) id,instead of matching lines by text:
+ *
+ *   [5.123s][info][gc,start    ] GC(5) Pause Young (Allocation Failure)
+ *   [5.130s][info][gc,heap     ] GC(5) PSYoungGen: 65536K(76288K)->10736K(76288K) Eden: ...
+ *   [5.130s][info][gc          ] GC(5) Pause Young (Allocation Failure) 65M->10M(245M) 7.017ms
+ *
+ * the [gc,start],[gc,heap] and [gc,phases] lines come first,what they tell is kept in a slot of the id,
+ * when the [gc] pause line is parsed its data takes the start uptime,young gen change and phase times from the slot.
+ * G1 tells young gen in regions,"Eden regions: 12->0(10)" and "Survivor regions: 0->2(2)",
+ * they are changed to K by the region size of the "Heap Region Size: 1M" line at log start,
+ * a range of log after its start gets the region size from header(channel).
+ * ids of one log only grow and few gcs are in progress at once,so slots are a small ring indexed by id.
+ *
+ * also the collector is taken from the "Using G1" line at log start,a range after the start gets it from header(channel) too.
+ *
+ * @author <a href="mailto:bluedavy@gmail.com">bluedavy</a>
+ */
+public class GCLogUnifiedEvents {
+
+	private static final int SLOTS=16;
+
+	// bytes read at file start to find the lines of gc init
+	private static final int HEAD_SIZE=64*1024;
+
+	private static final String USING="Using ";
+
+	private static final String[] YOUNG_GENS=new String[]{"PSYoungGen: ","DefNew: ","ParNew: "};
+
+	private static final String[] YOUNG_REGIONS=new String[]{"Eden regions: ","Survivor regions: "};
+
+	private static final String[] REGION_SIZES=new String[]{"Heap Region Size: ","Heap region size: "};
+
+	// "Using ..." -> gc type as old format parsers name it
+	private static final String[][] COLLECTORS=new String[][]{
+		{"G1","G1GC"},{"Parallel","ParallelGC"},{"Serial","SerialGC"},{"Concurrent Mark Sweep","ConcMarkSweepGC"},
+		{"Shenandoah","ShenandoahGC"},{"The Z Garbage Collector","ZGC"}
+	};
+
+	private final long[] ids=new long[SLOTS];
+
+	// uptime of [gc,start] line,secs,-1 if not seen
+	private final double[] starts=new double[SLOTS];
+
+	private final int[] startScales=new int[SLOTS];
+
+	// young gen change of [gc,heap] line,K,-1 if not seen
+	private final long[] youngBefores=new long[SLOTS];
+
+	private final long[] youngAfters=new long[SLOTS];
+
+	// G1 young gen regions of [gc,heap] lines,eden and survivor are added up
+	private final long[] regionBefores=new long[SLOTS];
+
+	private final long[] regionAfters=new long[SLOTS];
+
+	// ms of [gc,phases] lines by phase ordinal,null if not seen
+	private final double[][] phaseTimes=new double[SLOTS][];
+
+	private String collector=null;
+
+	// K of a G1 region,0 if not seen
+	private long regionSize=0;
+
+	public GCLogUnifiedEvents(){
+		Arrays.fill(ids, -1);
+	}
+
+	/**
+	 * what lines at start of file tell,chunks and appended lines after the start do not see them
+	 *
+	 * @return null if file tells neither collector nor region size
+	 */
+	public static GCLogUnifiedEvents header(FileChannel channel) throws IOException{
+		ByteBuffer head=ByteBuffer.allocate((int)Math.min(HEAD_SIZE, channel.size()));
+		channel.read(head, 0);
+		head.flip();
+		GCLogMappedLineSource source=new GCLogMappedLineSource(head);
+		GCLogUnifiedEvents header=new GCLogUnifiedEvents();
+		CharSequence line;
+		while((header.collector==null || header.regionSize==0) && (line=source.readLine())!=null){
+			// last line of head may be cut
+			if(source.getBytesRead()==head.limit() && head.limit()<channel.size())
+				break;
+			header.add(line);
+		}
+		return (header.collector!=null || header.regionSize>0)?header:null;
+	}
+
+	/**
+	 * start with what lines at start of log tell,see header(channel)
+	 */
+	void init(GCLogUnifiedEvents header){
+		collector=header.collector;
+		regionSize=header.regionSize;
+	}
+
+	/**
+	 * take what lines of the range which follows tell
+	 */
+	void merge(GCLogUnifiedEvents next){
+		if(next.collector!=null)
+			collector=next.collector;
+		if(next.regionSize>0)
+			regionSize=next.regionSize;
+	}
+
+	/**
+	 * K of a G1 region,0 if not known
+	 */
+	long getRegionSize(){
+		return regionSize;
+	}
+
+	void setRegionSize(long regionSize){
+		this.regionSize=regionSize;
+	}
+
+	void setCollector(String collector){
+		this.collector=collector;
+	}
+
+	/**
+	 * keep what a line of unified logging which is not a pause tells
+	 *
+	 * @return true if line is a gc line of unified logging which is not a pause,
+	 * 		   false if it is a pause or other line,then it is dispatched to parsers
+	 */
+	public boolean add(CharSequence line){
+		int messageStart=GCLogUnifiedLine.messageStart(line);
+		if(messageStart==-1)
+			return false;
+		int tagsStart=GCLogUnifiedLine.tagsStart(line, messageStart);
+		if(!GCLogUnifiedLine.hasTag(line, tagsStart, "gc"))
+			return false;
+		long id=GCLogUnifiedLine.gcId(line, messageStart);
+		if(id==-1){
+			if(GCLogLineScanner.regionMatches(line, messageStart, USING))
+				collector=collector(line, messageStart+USING.length());
+			else
+				addRegionSize(line, messageStart);
+			return true;
+		}
+		if(GCLogUnifiedLine.isTags(line, tagsStart, "gc"))
+			return false;
+		int textStart=GCLogUnifiedLine.textStart(line, messageStart);
+		if(GCLogUnifiedLine.isTags(line, tagsStart, "gc,start")){
+			int slot=slot(id);
+			int uptimeStart=GCLogUnifiedLine.uptimeStart(line, messageStart);
+			if(uptimeStart!=-1){
+				starts[slot]=GCLogUnifiedLine.uptimeSecs(line, uptimeStart);
+				startScales[slot]=GCLogUnifiedLine.uptimeScale(line, uptimeStart);
+			}
+		}
+		else if(GCLogUnifiedLine.isTags(line, tagsStart, "gc,heap")){
+			addYoungGen(line, textStart, id);
+			addYoungRegions(line, textStart, id);
+		}
+		else if(GCLogUnifiedLine.isTags(line, tagsStart, "gc,phases")){
+			int slot=slot(id);
+			if(phaseTimes[slot]==null)
+				phaseTimes[slot]=new double[GCLogPhase.count()];
+			GCLogPhase.scanLine(line, textStart, phaseTimes[slot]);
+		}
+		return true;
+	}
+
+	/**
+	 * complete data of a pause line with lines of same GC(n) seen before,the slot is freed
+	 */
+	public void complete(OneLineGCData data){
+		long id=data.getGCId();
+		int slot=(int)(id%SLOTS);
+		if(id==-1 || ids[slot]!=id)
+			return;
+		if(starts[slot]>=0)
+			data.setOccurTime(starts[slot], startScales[slot]);
+		if(data.isYGCData() && youngBefores[slot]>=0)
+			data.setMemoryChangeInfo(youngBefores[slot], youngAfters[slot]);
+		else if(data.isYGCData() && regionBefores[slot]>=0 && regionSize>0)
+			data.setMemoryChangeInfo(regionBefores[slot]*regionSize, regionAfters[slot]*regionSize);
+		if(phaseTimes[slot]!=null)
+			data.setPhaseTimes(phaseTimes[slot]);
+		ids[slot]=-1;
+	}
+
+	/**
+	 * gc type of "Using ..." line,null if not seen
+	 */
+	public String getCollector(){
+		return collector;
+	}
+
+	/**
+	 * [gc,heap] GC(5) PSYoungGen: 65536K->10720K(76288K),or 65536K(76288K)->10736K(76288K) since JDK 17
+	 */
+	private void addYoungGen(CharSequence line,int textStart,long id){
+		for (String youngGen : YOUNG_GENS) {
+			if(!GCLogLineScanner.regionMatches(line, textStart, youngGen))
+				continue;
+			int beforeStart=textStart+youngGen.length();
+			int beforeEnd=GCLogLineScanner.sizeEnd(line, beforeStart);
+			if(beforeEnd==-1)
+				return;
+			int arrow=beforeEnd;
+			if(arrow<line.length() && line.charAt(arrow)=='(')
+				arrow=GCLogLineScanner.indexOf(line, ")", arrow)+1;
+			if(arrow==0 || !GCLogLineScanner.regionMatches(line, arrow, "->"))
+				return;
+			int afterEnd=GCLogLineScanner.sizeEnd(line, arrow+2);
+			if(afterEnd==-1)
+				return;
+			int slot=slot(id);
+			youngBefores[slot]=GCLogLineScanner.sizeK(line, beforeStart, beforeEnd);
+			youngAfters[slot]=GCLogLineScanner.sizeK(line, arrow+2, afterEnd);
+			return;
+		}
+	}
+
+	/**
+	 * [gc,heap] GC(5) Eden regions: 12->0(10),and Survivor regions: 0->2(2) in the next line
+	 */
+	private void addYoungRegions(CharSequence line,int textStart,long id){
+		for (String regions : YOUNG_REGIONS) {
+			if(!GCLogLineScanner.regionMatches(line, textStart, regions))
+				continue;
+			int beforeStart=textStart+regions.length();
+			int beforeEnd=GCLogLineScanner.digitsEnd(line, beforeStart);
+			if(beforeEnd==beforeStart || !GCLogLineScanner.regionMatches(line, beforeEnd, "->"))
+				return;
+			int afterEnd=GCLogLineScanner.digitsEnd(line, beforeEnd+2);
+			if(afterEnd==beforeEnd+2)
+				return;
+			int slot=slot(id);
+			if(regionBefores[slot]==-1){
+				regionBefores[slot]=0;
+				regionAfters[slot]=0;
+			}
+			regionBefores[slot]+=GCLogLineScanner.parseLong(line, beforeStart, beforeEnd);
+			regionAfters[slot]+=GCLogLineScanner.parseLong(line, beforeEnd+2, afterEnd);
+			return;
+		}
+	}
+
+	/**
+	 * [gc,init] Heap Region Size: 1M,or [gc,heap] Heap region size: 1M of older JDK
+	 */
+	private void addRegionSize(CharSequence line,int messageStart){
+		for (String regionSizeName : REGION_SIZES) {
+			if(!GCLogLineScanner.regionMatches(line, messageStart, regionSizeName))
+				continue;
+			int start=messageStart+regionSizeName.length();
+			int end=GCLogLineScanner.sizeEnd(line, start);
+			if(end!=-1)
+				regionSize=GCLogLineScanner.sizeK(line, start, end);
+			return;
+		}
+	}
+
+	/**
+	 * slot of id,a slot of an older id is taken over
+	 */
+	private int slot(long id){
+		int slot=(int)(id%SLOTS);
+		if(ids[slot]!=id){
+			ids[slot]=id;
+			starts[slot]=-1;
+			youngBefores[slot]=-1;
+			youngAfters[slot]=-1;
+			regionBefores[slot]=-1;
+			regionAfters[slot]=-1;
+			phaseTimes[slot]=null;
+		}
+		return slot;
+	}
+
+	private static String collector(CharSequence line,int start){
+		for (String[] collector : COLLECTORS) {
+			if(GCLogLineScanner.regionMatches(line, start, collector[0]))
+				return collector[1];
+		}
+		return line.subSequence(start, line.length()).toString().trim();
+	}
+
+}
@@ -0,0 +1,199 @@
+/**
+ * GCLogViewer
+ * 
+ * A free open source tool to visualize data produced by the Java VM options -Xloggc:<file> or jstat > <file>.
+ * 
+ * Code license:	Apache License 2.0
+ * 
+ * http://code.google.com/p/gclogviewer
+ */
+package code.google.gclogviewer;
+
+/**
+ * Hand-written scanner for lines of JVM unified logging(-Xlog:gc*),same way as GCLogLineScanner:
+ *
+ *   [2023-01-01T10:00:00.123+0800][0.345s][info][gc,start    ] GC(12) Pause Young (Normal) (G1 Evacuation Pause)
+ *
+ * decorators are [..] groups at line start,each one is known by its shape where it is,
+ * JVM writes them in fixed order(time,uptime,...,level,tags),so tags is always the last group,
+ * then message starts,events of one gc have the same GC(n) id.
+ *
+ * line is unified only if its first group starts with a digit(time or uptime decorator),
+ * so [GC ...,[Times: ... of old format are never taken as decorators.
+ *
+ * @author <a href="mailto:bluedavy@gmail.com">bluedavy</a>
+ */
+public final class GCLogUnifiedLine {
+
+	private static final String GC_ID="GC(";
+
+	private GCLogUnifiedLine(){
+		// static utility
+	}
+
+	/**
+	 * start of message after decorators and spaces
+	 *
+	 * @return -1 if line is not unified logging
+	 */
+	public static int messageStart(CharSequence line){
+		if(line.length()<3 || line.charAt(0)!='[' || !GCLogLineScanner.isDigit(line.charAt(1)))
+			return -1;
+		int i=0;
+		int length=line.length();
+		while(i<length && line.charAt(i)=='['){
+			int end=groupEnd(line, i);
+			if(end==-1)
+				break;
+			i=end;
+		}
+		if(i==0)
+			return -1;
+		while(i<length && line.charAt(i)==' '){
+			i++;
+		}
+		return i;
+	}
+
+	/**
+	 * start of uptime value,[0.345s] or [345ms](uptimemillis,the last ms group as timemillis is before it)
+	 *
+	 * @return -1 if line has no uptime decorator
+	 */
+	public static int uptimeStart(CharSequence line,int messageStart){
+		int millis=-1;
+		int i=0;
+		while(i<messageStart && line.charAt(i)=='['){
+			int end=groupEnd(line, i);
+			if(end==-1)
+				break;
+			int numberEnd=GCLogLineScanner.numberEnd(line, i+1);
+			if(numberEnd>i+1){
+				if(line.charAt(numberEnd)=='s' && numberEnd+1<end && line.charAt(numberEnd+1)==']')
+					return i+1;
+				if(GCLogLineScanner.regionMatches(line, numberEnd, "ms]"))
+					millis=i+1;
+			}
+			i=end;
+		}
+		return millis;
+	}
+
+	/**
+	 * uptime,secs
+	 */
+	public static double uptimeSecs(CharSequence line,int uptimeStart){
+		int end=GCLogLineScanner.numberEnd(line, uptimeStart);
+		if(line.charAt(end)=='m')
+			return GCLogLineScanner.parseLong(line, uptimeStart, end)/1000.0;
+		return GCLogLineScanner.parseDouble(line, uptimeStart, end);
+	}
+
+	/**
+	 * fraction digits of uptime in secs
+	 */
+	public static int uptimeScale(CharSequence line,int uptimeStart){
+		int end=GCLogLineScanner.numberEnd(line, uptimeStart);
+		if(line.charAt(end)=='m')
+			return 3;
+		return GCLogLineScanner.fractionDigits(line, uptimeStart, end);
+	}
+
+	/**
+	 * start of the time decorator,2023-01-01T10:00:00.123+0800
+	 *
+	 * @return -1 if line has no time decorator
+	 */
+	public static int dateStart(CharSequence line,int messageStart){
+		if(messageStart>20 && line.charAt(5)=='-' && line.charAt(11)=='T')
+			return 1;
+		return -1;
+	}
+
+	/**
+	 * start of tags decorator,the last group,-1 if line has no tags
+	 */
+	public static int tagsStart(CharSequence line,int messageStart){
+		int i=messageStart-1;
+		while(i>0 && line.charAt(i)==' '){
+			i--;
+		}
+		if(i<=0 || line.charAt(i)!=']')
+			return -1;
+		int start=GCLogLineScanner.lastIndexOf(line, "[", i);
+		return (start==-1)?-1:start+1;
+	}
+
+	/**
+	 * tags decorator is exactly tags,e.g. "gc" for [gc          ] but not for [gc,start    ]
+	 */
+	public static boolean isTags(CharSequence line,int tagsStart,String tags){
+		if(tagsStart==-1 || !GCLogLineScanner.regionMatches(line, tagsStart, tags))
+			return false;
+		char next=line.charAt(tagsStart+tags.length());
+		return next==' ' || next==']';
+	}
+
+	/**
+	 * tags decorator starts with tag,e.g. "gc" for [gc] and [gc,start]
+	 */
+	public static boolean hasTag(CharSequence line,int tagsStart,String tag){
+		if(tagsStart==-1 || !GCLogLineScanner.regionMatches(line, tagsStart, tag))
+			return false;
+		char next=line.charAt(tagsStart+tag.length());
+		return next==' ' || next==']' || next==',';
+	}
+
+	/**
+	 * n of the GC(n) which begins message
+	 *
+	 * @return -1 if message has no gc id
+	 */
+	public static long gcId(CharSequence line,int messageStart){
+		if(!GCLogLineScanner.regionMatches(line, messageStart, GC_ID))
+			return -1;
+		int start=messageStart+GC_ID.length();
+		int end=GCLogLineScanner.digitsEnd(line, start);
+		if(end==start || end>=line.length() || line.charAt(end)!=')')
+			return -1;
+		return GCLogLineScanner.parseLong(line, start, end);
+	}
+
+	/**
+	 * start of message text after GC(n),messageStart if message has no gc id
+	 */
+	public static int textStart(CharSequence line,int messageStart){
+		if(gcId(line, messageStart)==-1)
+			return messageStart;
+		int i=GCLogLineScanner.indexOf(line, ")", messageStart)+1;
+		while(i<line.length() && line.charAt(i)==' '){
+			i++;
+		}
+		return i;
+	}
+
+	/**
+	 * end of the [...] decorator group which begins at start,-1 if it is not a decorator,
+	 * a decorator has no space inside,tags are padded with spaces before ']'
+	 */
+	private static int groupEnd(CharSequence line,int start){
+		int length=line.length();
+		int i=start+1;
+		while(i<length){
+			char c=line.charAt(i);
+			if(c==']')
+				return (i==start+1)?-1:i+1;
+			if(c==' '){
+				while(i<length && line.charAt(i)==' '){
+					i++;
+				}
+				return (i<length && line.charAt(i)==']')?i+1:-1;
+			}
+			if(c=='[')
+				return -1;
+			i++;
+		}
+		return -1;
+	}
+
+}
@@ -0,0 +1,199 @@
+/**
+ * GCLogViewer
+ * 
+ * A free open source tool to visualize data produced by the Java VM options -Xloggc:<file> or jstat > <file>.
+ * 
+ * Code license:	Apache License 2.0
+ * 
+ * http://code.google.com/p/gclogviewer
+ */
+package code.google.gclogviewer;
+
+/**
+ * Mutator utilization of a run: YGC,FGC and CMSGC pauses are merged into one time ordered stream of
+ * not overlapped pauses,with running sum of pause time,so pause time in any window is two lookups.
+ *
+ * MMU(minimum mutator utilization) of a window size is the least part of any window of that size
+ * which is not paused,the worst window starts at a pause start or ends at a pause end,
+ * both ends of windows only move forward,so each window size is one two pointer pass over the pauses.
+ * throughput over time is the same pass over windows ending at evenly spaced times.
+ *
+ * @author <a href="mailto:bluedavy@gmail.com">bluedavy</a>
+ */
+public class GCLogUtilization {
+
+	// window sizes of MMU curve,secs,10 ms to 10 min
+	public static final double[] MMU_WINDOWS=new double[]{0.01,0.02,0.05,0.1,0.2,0.5,1,2,5,10,20,30,60,120,300,600};
+
+	private final int size;
+
+	// pause start time,secs,ascending and pauses are not overlapped
+	private final double[] starts;
+
+	// pause time of pauses before index,secs,size+1 values
+	private final double[] paused;
+
+	private final double begin;
+
+	private final double end;
+
+	public GCLogUtilization(GCLogData data){
+		this(data.getRuntimeSecs(),data.getYGCEvents(),data.getFGCEvents(),data.getCMSGCEvents());
+	}
+
+	/**
+	 * @param runtime run time,secs,run is from 0 to the later of it and the end of last pause
+	 * @param events events of each gc kind,each in time order
+	 */
+	GCLogUtilization(double runtime,GCLogEvents... events){
+		int total=0;
+		for (GCLogEvents gcEvents : events) {
+			total+=gcEvents.size();
+		}
+		starts=new double[total];
+		paused=new double[total+1];
+		int[] next=new int[events.length];
+		int count=0;
+		for (int i = 0; i < total; i++) {
+			// merge,the earliest next event of all kinds
+			int from=-1;
+			for (int j = 0; j < events.length; j++) {
+				if(next[j]<events[j].size() && (from<0 || events[j].getTime(next[j])<events[from].getTime(next[from])))
+					from=j;
+			}
+			double start=events[from].getTime(next[from]);
+			double pause=events[from].getPause(next[from]);
+			next[from]++;
+			if(pause<=0)
+				continue;
+			// overlapped part of pauses is counted once
+			if(count>0 && start<end(count-1)){
+				double previousEnd=end(count-1);
+				paused[count]+=Math.max(start+pause-previousEnd, 0);
+				continue;
+			}
+			starts[count]=start;
+			paused[count+1]=paused[count]+pause;
+			count++;
+		}
+		size=count;
+		begin=(size==0)?0:Math.min(0, starts[0]);
+		end=(size==0)?runtime:Math.max(runtime, end(size-1));
+	}
+
+	/**
+	 * count of pauses after overlapped pauses are merged
+	 */
+	public int size(){
+		return size;
+	}
+
+	public double getBegin(){
+		return begin;
+	}
+
+	public double getEnd(){
+		return end;
+	}
+
+	/**
+	 * pause time of the whole run,secs
+	 */
+	public double getTotalPause(){
+		return paused[size];
+	}
+
+	/**
+	 * MMU of window size,0-1,NaN if run is shorter than window
+	 *
+	 * @param window secs
+	 */
+	public double getMMU(double window){
+		if(window<=0 || window>end-begin)
+			return Double.NaN;
+		double maxPaused=0;
+		Cursor from=new Cursor();
+		Cursor to=new Cursor();
+		// windows start at a pause start,last ones are moved back into the run
+		for (int i = 0; i < size; i++) {
+			double start=Math.min(starts[i], end-window);
+			maxPaused=Math.max(maxPaused, to.pausedBefore(start+window)-from.pausedBefore(start));
+		}
+		from=new Cursor();
+		to=new Cursor();
+		// windows end at a pause end,first ones are moved forward into the run
+		for (int i = 0; i < size; i++) {
+			double stop=Math.max(end(i), begin+window);
+			maxPaused=Math.max(maxPaused, to.pausedBefore(stop)-from.pausedBefore(stop-window));
+		}
+		return Math.max(1-maxPaused/window, 0);
+	}
+
+	/**
+	 * MMU of each window size,same order as windows
+	 */
+	public double[] getMMUs(double[] windows){
+		double[] mmus=new double[windows.length];
+		for (int i = 0; i < windows.length; i++) {
+			mmus[i]=getMMU(windows[i]);
+		}
+		return mmus;
+	}
+
+	/**
+	 * window of throughput over time,about one hundredth of run,one of MMU_WINDOWS and at least 1 sec
+	 */
+	public double getThroughputWindow(){
+		double window=1;
+		for (double mmuWindow : MMU_WINDOWS) {
+			if(mmuWindow>window && mmuWindow<=(end-begin)/100)
+				window=mmuWindow;
+		}
+		return window;
+	}
+
+	/**
+	 * throughput of windows ending at evenly spaced times from begin+window to end,
+	 * window is cut to run if run is shorter
+	 *
+	 * @return times(secs) and throughputs(0-1) of windows,both points long,empty if run is empty
+	 */
+	public double[][] getThroughputs(double window,int points){
+		window=Math.min(window, end-begin);
+		if(window<=0 || points<=0)
+			return new double[2][0];
+		double[][] throughputs=new double[2][points];
+		Cursor from=new Cursor();
+		Cursor to=new Cursor();
+		double step=(points==1)?0:(end-begin-window)/(points-1);
+		for (int i = 0; i < points; i++) {
+			double stop=(i==points-1)?end:begin+window+step*i;
+			throughputs[0][i]=stop;
+			throughputs[1][i]=Math.max(1-(to.pausedBefore(stop)-from.pausedBefore(stop-window))/window, 0);
+		}
+		return throughputs;
+	}
+
+	private double end(int index){
+		return starts[index]+paused[index+1]-paused[index];
+	}
+
+	/**
+	 * pause time before a time,times asked must not go back,so whole pass moves over pauses only once
+	 */
+	private class Cursor {
+
+		// first pause which ends after last asked time
+		private int index=0;
+
+		double pausedBefore(double time){
+			while(index<size && end(index)<=time)
+				index++;
+			if(index<size && starts[index]<time)
+				return paused[index]+time-starts[index];
+			return paused[index];
+		}
+
+	}
+
+}
@@ -9,9 +9,12 @@
  */
 package code.google.gclogviewer;
 
-import java.text.DecimalFormat;
-import java.util.Map;
-import java.util.Map.Entry;
+import java.io.File;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.events.SelectionAdapter;
@@ -22,6 +25,7 @@ import org.eclipse.swt.graphics.Rectangle;
 import org.eclipse.swt.layout.GridData;
 import org.eclipse.swt.layout.GridLayout;
 import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Event;
 import org.eclipse.swt.widgets.FileDialog;
 import org.eclipse.swt.widgets.Group;
 import org.eclipse.swt.widgets.Label;
@@ -33,10 +37,16 @@ import org.eclipse.swt.widgets.ProgressBar;
 import org.eclipse.swt.widgets.Shell;
 import org.jfree.chart.ChartFactory;
 import org.jfree.chart.JFreeChart;
+import org.jfree.chart.axis.LogarithmicAxis;
+import org.jfree.chart.axis.NumberAxis;
 import org.jfree.chart.event.ChartProgressEvent;
 import org.jfree.chart.event.ChartProgressListener;
+import org.jfree.chart.plot.CategoryPlot;
 import org.jfree.chart.plot.PlotOrientation;
 import org.jfree.chart.plot.XYPlot;
+import org.jfree.chart.renderer.xy.XYLineAndShapeRenderer;
+import org.jfree.data.category.DefaultCategoryDataset;
+import org.jfree.data.xy.DefaultTableXYDataset;
 import org.jfree.data.xy.XYDataset;
 import org.jfree.data.xy.XYSeries;
 import org.jfree.data.xy.XYSeriesCollection;
@@ -55,10 +65,27 @@ public class GCLogViewer {
 	
 	private static final String SHELL_TITLE="GCLogViewer";
 	
+	// millis between two checks of followed log file
+	private static final long FOLLOW_INTERVAL=2000;
+	
+	// points of throughput over time in gc trend chart
+	private static final int THROUGHPUT_POINTS=500;
+	
+	// millis between two samples of analysis progress
+	private static final int PROGRESS_INTERVAL=200;
+	
+	// part of progress bar for analysis,the rest is for charts
+	private static final int ANALYSIS_PROGRESS=70;
+	
+	// time buckets of pause composition chart
+	private static final int COMPOSITION_BUCKETS=200;
+	
 	private Shell shell = null;
 	private Menu menuBar,fileMenu,toolsMenu;
 	private MenuItem fileMenuHeader,toolsMenuItem,fileOpenMenuItem;
 	private MenuItem memoryLeakDetectionMenuItem,gcTuningMenuItem,compareLogMenuItem,exportToPDFMenuItem;
+	private MenuItem pauseDistributionMenuItem,pauseCompositionMenuItem,parseReportMenuItem;
+	private MenuItem followMenuItem;
 	private MenuItem exitMenuItem,backToHomeMenuItem;
 	private Group summary = null,gcTrendGroup = null, memoryTrendGroup=null;
 	private Label runtimedataLabel;
@@ -68,11 +95,17 @@ public class GCLogViewer {
 	private Label fgcDataLabel,fgctDataLabel,avgFGCTDataLabel,avgFGCRateDataLabel;
 	private Label cmsgcDataLabel,cmsgctDataLabel,avgCMSGCTDataLabel,avgCMSGCRateDataLabel;
 	private Label avgYGCLDSDataLabel,avgFGCLDSDataLabel,avgPTOSDataLabel;
+	private Label ygcPercentilesDataLabel,cmsgcPercentilesDataLabel,fgcPercentilesDataLabel;
+	private Label cmsCyclesDataLabel,avgCMSCycleTimeDataLabel,avgCMSCycleIntervalDataLabel,oldGenFillRateDataLabel;
+	private Label safepointsDataLabel,stoppedTimeDataLabel,nonGCStoppedTimeDataLabel,ttspPercentilesDataLabel;
 	private ChartComposite gcTrendChart=null ,memoryTrendChart=null;
+	// MMU curve,beside gc trend chart
+	private ChartComposite mmuChart=null;
 	private ProgressBar bar;
 	private final GCLogAnalyze analyze=new GCLogAnalyze();
 	private GCLogData currentGCLogData=null;
 	private String currentGCLogFile=null;
+	private volatile GCLogFollower follower=null;
 
 	public static void main(String[] args) {
 		Display display = Display.getDefault();
@@ -124,6 +157,11 @@ public class GCLogViewer {
 		fileOpenMenuItem.setText("&Open log file...");
 		fileOpenMenuItem.addSelectionListener(new OpenFileListener());
 		
+		followMenuItem = new MenuItem(fileMenu, SWT.CHECK);
+		followMenuItem.setText("&Follow log file");
+		followMenuItem.setEnabled(false);
+		followMenuItem.addSelectionListener(new FollowLogListener());
+		
 		toolsMenu = new Menu(shell,SWT.DROP_DOWN);
 		toolsMenuItem.setMenu(toolsMenu);
 		
@@ -139,6 +177,18 @@ public class GCLogViewer {
 		gcTuningMenuItem.setText("Data for GC Tuning");
 		gcTuningMenuItem.setEnabled(false);
 		gcTuningMenuItem.addSelectionListener(new DataForGCTuningListener());
+		pauseDistributionMenuItem = new MenuItem(toolsMenu, SWT.PUSH);
+		pauseDistributionMenuItem.setText("Pause Distribution");
+		pauseDistributionMenuItem.setEnabled(false);
+		pauseDistributionMenuItem.addSelectionListener(new PauseDistributionListener());
+		pauseCompositionMenuItem = new MenuItem(toolsMenu, SWT.PUSH);
+		pauseCompositionMenuItem.setText("Pause Composition");
+		pauseCompositionMenuItem.setEnabled(false);
+		pauseCompositionMenuItem.addSelectionListener(new PauseCompositionListener());
+		parseReportMenuItem = new MenuItem(toolsMenu, SWT.PUSH);
+		parseReportMenuItem.setText("Parse Report");
+		parseReportMenuItem.setEnabled(false);
+		parseReportMenuItem.addSelectionListener(new ParseReportListener());
 		exportToPDFMenuItem = new MenuItem(toolsMenu,SWT.PUSH);
 		exportToPDFMenuItem.setText("Export to PDF");
 		exportToPDFMenuItem.setEnabled(false);
@@ -232,6 +282,34 @@ public class GCLogViewer {
 		avgCMSGCRateDataLabel.setText("xxx seconds");
 		avgCMSGCRateDataLabel.setLayoutData(cmsgcInfoGrid);
 		
+		// CMS Cycle Grid
+		GridData cmsCycleGrid=new GridData(GridData.FILL_BOTH);
+		cmsCycleGrid.exclude=true;
+		final Label cmsCyclesLabel=new Label(summary,SWT.NONE);
+		cmsCyclesLabel.setText("CMS Cycles: ");
+		cmsCyclesLabel.setLayoutData(cmsCycleGrid);
+		cmsCyclesDataLabel=new Label(summary,SWT.NONE);
+		cmsCyclesDataLabel.setText("xxx");
+		cmsCyclesDataLabel.setLayoutData(cmsCycleGrid);
+		final Label avgCMSCycleTimeLabel=new Label(summary,SWT.NONE);
+		avgCMSCycleTimeLabel.setText("Avg Cycle Time: ");
+		avgCMSCycleTimeLabel.setLayoutData(cmsCycleGrid);
+		avgCMSCycleTimeDataLabel=new Label(summary,SWT.NONE);
+		avgCMSCycleTimeDataLabel.setText("xxx seconds");
+		avgCMSCycleTimeDataLabel.setLayoutData(cmsCycleGrid);
+		final Label avgCMSCycleIntervalLabel=new Label(summary,SWT.NONE);
+		avgCMSCycleIntervalLabel.setText("Avg Cycle Interval: ");
+		avgCMSCycleIntervalLabel.setLayoutData(cmsCycleGrid);
+		avgCMSCycleIntervalDataLabel=new Label(summary,SWT.NONE);
+		avgCMSCycleIntervalDataLabel.setText("xxx seconds");
+		avgCMSCycleIntervalDataLabel.setLayoutData(cmsCycleGrid);
+		final Label oldGenFillRateLabel=new Label(summary,SWT.NONE);
+		oldGenFillRateLabel.setText("Old Gen Fill Rate: ");
+		oldGenFillRateLabel.setLayoutData(cmsCycleGrid);
+		oldGenFillRateDataLabel=new Label(summary,SWT.NONE);
+		oldGenFillRateDataLabel.setText("xxx(K)/seconds");
+		oldGenFillRateDataLabel.setLayoutData(cmsCycleGrid);
+		
 		// LDS & PTOS Grid
 		GridData ldsAndPTOSGrid=new GridData(GridData.FILL_BOTH);
 		ldsAndPTOSGrid.exclude=true;
@@ -287,6 +365,55 @@ public class GCLogViewer {
 		avgFGCRateDataLabel.setText("xxx seconds");
 		avgFGCRateDataLabel.setLayoutData(fgcInfoGrid);
 		
+		// Stopped Time Grid
+		GridData stoppedTimeGrid=new GridData(GridData.FILL_BOTH);
+		stoppedTimeGrid.exclude=true;
+		final Label safepointsLabel=new Label(summary,SWT.NONE);
+		safepointsLabel.setText("Safepoints(Non GC): ");
+		safepointsLabel.setLayoutData(stoppedTimeGrid);
+		safepointsDataLabel=new Label(summary,SWT.NONE);
+		safepointsDataLabel.setText("xxx");
+		safepointsDataLabel.setLayoutData(stoppedTimeGrid);
+		final Label stoppedTimeLabel=new Label(summary,SWT.NONE);
+		stoppedTimeLabel.setText("Stopped Time: ");
+		stoppedTimeLabel.setLayoutData(stoppedTimeGrid);
+		stoppedTimeDataLabel=new Label(summary,SWT.NONE);
+		stoppedTimeDataLabel.setText("xxx seconds");
+		stoppedTimeDataLabel.setLayoutData(stoppedTimeGrid);
+		final Label nonGCStoppedTimeLabel=new Label(summary,SWT.NONE);
+		nonGCStoppedTimeLabel.setText("Non GC Stopped Time: ");
+		nonGCStoppedTimeLabel.setLayoutData(stoppedTimeGrid);
+		nonGCStoppedTimeDataLabel=new Label(summary,SWT.NONE);
+		nonGCStoppedTimeDataLabel.setText("xxx seconds");
+		nonGCStoppedTimeDataLabel.setLayoutData(stoppedTimeGrid);
+		final Label ttspPercentilesLabel=new Label(summary,SWT.NONE);
+		ttspPercentilesLabel.setText("TTSP P50/90/99/99.9/Max: ");
+		ttspPercentilesLabel.setLayoutData(stoppedTimeGrid);
+		ttspPercentilesDataLabel=new Label(summary,SWT.NONE);
+		ttspPercentilesDataLabel.setText("xxx ms");
+		ttspPercentilesDataLabel.setLayoutData(stoppedTimeGrid);
+		
+		// Pause Percentiles Grid
+		GridData percentilesGrid=new GridData(GridData.FILL_BOTH);
+		final Label ygcPercentilesLabel=new Label(summary,SWT.NONE);
+		ygcPercentilesLabel.setText("YGC P50/90/99/99.9/Max: ");
+		ygcPercentilesLabel.setLayoutData(percentilesGrid);
+		ygcPercentilesDataLabel=new Label(summary,SWT.NONE);
+		ygcPercentilesDataLabel.setText("xxx seconds");
+		ygcPercentilesDataLabel.setLayoutData(percentilesGrid);
+		final Label cmsgcPercentilesLabel=new Label(summary,SWT.NONE);
+		cmsgcPercentilesLabel.setText("CMSGC P50/90/99/99.9/Max: ");
+		cmsgcPercentilesLabel.setLayoutData(percentilesGrid);
+		cmsgcPercentilesDataLabel=new Label(summary,SWT.NONE);
+		cmsgcPercentilesDataLabel.setText("xxx seconds");
+		cmsgcPercentilesDataLabel.setLayoutData(percentilesGrid);
+		final Label fgcPercentilesLabel=new Label(summary,SWT.NONE);
+		fgcPercentilesLabel.setText("FGC P50/90/99/99.9/Max: ");
+		fgcPercentilesLabel.setLayoutData(percentilesGrid);
+		fgcPercentilesDataLabel=new Label(summary,SWT.NONE);
+		fgcPercentilesDataLabel.setText("xxx seconds");
+		fgcPercentilesDataLabel.setLayoutData(percentilesGrid);
+		
 	}
 	
 	private void createSummary() {
@@ -307,7 +434,7 @@ public class GCLogViewer {
 		GridData grid=new GridData(GridData.FILL_BOTH);
 		grid.heightHint=shell.getDisplay().getBounds().height*4/10;
 		gcTrendGroup.setLayoutData(grid);
-		gcTrendGroup.setLayout(new GridLayout());
+		gcTrendGroup.setLayout(new GridLayout(2,false));
 	}
 	
 	private void createMemoryTrendGroup() {
@@ -330,7 +457,12 @@ public class GCLogViewer {
 	}
 	
 	private JFreeChart createGCTrendChart(GCLogData data) {
-    	XYDataset gcTrendDataset = createGCTrendDataset(data,null);
+		JFreeChart chart=createGCTrendChart(createGCTrendDataset(data,null,""));
+		addThroughputTrend(chart.getXYPlot(), new GCLogUtilization(data));
+		return chart;
+	}
+	
+	private JFreeChart createGCTrendChart(XYDataset gcTrendDataset) {
         JFreeChart chart = ChartFactory.createXYLineChart(
             "GC Trend", 
             "Time(S)", 
@@ -353,49 +485,98 @@ public class GCLogViewer {
         return chart;
     }
     
-    private XYDataset createGCTrendDataset(GCLogData data,XYSeriesCollection dataset) {
-    	String suffix="";
-    	if(dataset!=null){
-    		suffix="-2";
-    	}
-    	XYSeries ygcSeries=new XYSeries("YGC"+suffix);
-        Map<String, String> ygcPauseTimes=data.getYGCPauseTimes();
-        DecimalFormat timeformat=new DecimalFormat("#0.00");
-        DecimalFormat doubleformat=new DecimalFormat("#0.0000");
-        for (Entry<String, String> entry : ygcPauseTimes.entrySet()) {
-        	double happenTime=Double.parseDouble(timeformat.format(Double.parseDouble(entry.getKey())));
-        	double pauseTime=Double.parseDouble(doubleformat.format(Double.parseDouble(entry.getValue())))*1000;
-        	ygcSeries.add(happenTime,pauseTime,true);
-		}
-        XYSeries fgcSeries=new XYSeries("FGC"+suffix);
-        Map<String, String> fgcPauseTimes=data.getFGCPauseTimes();
-        for (Entry<String, String> entry : fgcPauseTimes.entrySet()) {
-        	double happenTime=Double.parseDouble(timeformat.format(Double.parseDouble(entry.getKey())));
-        	double pauseTime=Double.parseDouble(doubleformat.format(Double.parseDouble(entry.getValue())))*1000;
-        	fgcSeries.add(happenTime,pauseTime,true);
-		}
-        XYSeries cmsgcSeries=new XYSeries("CMSGC"+suffix);
-        Map<String, String> cmsgcPauseTimes=data.getCMSGCPauseTimes();
-        for (Entry<String, String> entry : cmsgcPauseTimes.entrySet()) {
-        	double happenTime=Double.parseDouble(timeformat.format(Double.parseDouble(entry.getKey())));
-        	double pauseTime=Double.parseDouble(doubleformat.format(Double.parseDouble(entry.getValue())))*1000;
-        	cmsgcSeries.add(happenTime,pauseTime,true);
-		}
+    private GCLogTrendDataset createGCTrendDataset(GCLogData data,GCLogTrendDataset dataset,String suffix) {
         if(dataset==null)
-        	dataset = new XYSeriesCollection();
-        if(fgcPauseTimes.size()>0)
-        	dataset.addSeries(fgcSeries);
-        if(cmsgcPauseTimes.size()>0)
-        	dataset.addSeries(cmsgcSeries);
-        dataset.addSeries(ygcSeries);
+        	dataset = new GCLogTrendDataset();
+        if(data.getFGC()>0)
+        	dataset.addEventsSeries(GCLogEventsSeries.pauseTimes("FGC"+suffix, data.getFGCEvents()));
+        if(data.getCMSGC()>0)
+        	dataset.addEventsSeries(GCLogEventsSeries.pauseTimes("CMSGC"+suffix, data.getCMSGCEvents()));
+        dataset.addEventsSeries(GCLogEventsSeries.pauseTimes("YGC"+suffix, data.getYGCEvents()));
+        dataset.resample();
         return dataset;
     }
     
+    /**
+     * throughput of sliding window over time on its own axis of gc trend chart
+     */
+    private void addThroughputTrend(XYPlot plot,GCLogUtilization utilization) {
+    	plot.setDataset(1, createThroughputTrendDataset(utilization));
+    	NumberAxis axis=new NumberAxis("Throughput(%)");
+    	axis.setRange(0, 100);
+    	plot.setRangeAxis(1, axis);
+    	plot.mapDatasetToRangeAxis(1, 1);
+    	plot.setRenderer(1, new XYLineAndShapeRenderer(true, false));
+    }
+    
+    private XYDataset createThroughputTrendDataset(GCLogUtilization utilization) {
+    	double window=utilization.getThroughputWindow();
+    	XYSeries series=new XYSeries("Throughput("+BigDecimal.valueOf(window).stripTrailingZeros().toPlainString()+"s window)", false, true);
+    	double[][] throughputs=utilization.getThroughputs(window, THROUGHPUT_POINTS);
+    	for (int i = 0; i < throughputs[0].length; i++) {
+    		series.add(throughputs[0][i], throughputs[1][i]*100, false);
+    	}
+    	return new XYSeriesCollection(series);
+    }
+    
+    private JFreeChart createMMUChart(GCLogData data) {
+    	return createMMUChart(createMMUSeries("MMU", new GCLogUtilization(data)));
+    }
+    
+    /**
+     * minimum mutator utilization of window sizes from 10 ms to 10 min,window axis is logarithmic
+     */
+    private JFreeChart createMMUChart(XYDataset mmuDataset) {
+        JFreeChart chart = ChartFactory.createXYLineChart(
+            "MMU", 
+            "Window(S)", 
+            "Min Utilization(%)",
+            mmuDataset, 
+            PlotOrientation.VERTICAL,
+            true, 
+            true, 
+            false
+        );
+        chart.setBackgroundPaint( java.awt.Color.white );
+        chart.setBorderVisible( true );
+        chart.setBorderPaint( java.awt.Color.BLACK );
+        XYPlot plot = (XYPlot) chart.getPlot();
+        plot.setDomainAxis(new LogarithmicAxis("Window(S)"));
+        plot.getRangeAxis().setRange(0, 100);
+        plot.setBackgroundPaint(java.awt.Color.lightGray);
+        plot.setDomainGridlinePaint(java.awt.Color.white);
+        plot.setRangeGridlinePaint(java.awt.Color.white);
+        plot.setAxisOffset(new RectangleInsets(5.0, 5.0, 5.0, 5.0));
+        plot.getRangeAxis().setFixedDimension(15.0);
+        ((XYLineAndShapeRenderer)plot.getRenderer()).setBaseShapesVisible(true);
+        return chart;
+    }
+    
+    private XYSeriesCollection createMMUSeries(String key,GCLogUtilization utilization) {
+    	return addMMUSeries(new XYSeriesCollection(), key, utilization);
+    }
+    
+    private XYSeriesCollection addMMUSeries(XYSeriesCollection dataset,String key,GCLogUtilization utilization) {
+    	XYSeries series=new XYSeries(key, false, true);
+    	double[] mmus=utilization.getMMUs(GCLogUtilization.MMU_WINDOWS);
+    	for (int i = 0; i < mmus.length; i++) {
+    		// run is shorter than window
+    		if(Double.isNaN(mmus[i]))
+    			break;
+    		series.add(GCLogUtilization.MMU_WINDOWS[i], mmus[i]*100, false);
+    	}
+    	dataset.addSeries(series);
+    	return dataset;
+    }
+    
     /**
      * create Memory Trend Chart
      */
     private JFreeChart createMemoryTrendChart(GCLogData data) {
-    	XYDataset memoryTrendDataset = createMemoryTrendDataset(data,null);
+    	return createMemoryTrendChart(createMemoryTrendDataset(data,null,""));
+    }
+    
+    private JFreeChart createMemoryTrendChart(XYDataset memoryTrendDataset) {
         JFreeChart chart = ChartFactory.createXYLineChart(
             "Memory Trend", 
             "Time(S)", 
@@ -421,62 +602,30 @@ public class GCLogViewer {
     /**
      * create Memory Trend Dataset
      */
-    private XYDataset createMemoryTrendDataset(GCLogData data,XYSeriesCollection dataset) {
-    	String suffix="";
-    	if(dataset!=null){
-    		suffix="-2";
-    	}
-    	XYSeries ygcSeries=new XYSeries("YGC"+suffix);
-        Map<String, String[]> ygcMemoryChanges=data.getYGCMemoryChanges();
-        DecimalFormat doubleformat=new DecimalFormat("#0.00");
-        for (Entry<String, String[]> entry : ygcMemoryChanges.entrySet()) {
-        	String beginMemoryInfo=entry.getValue()[0];
-        	String endMemoryInfo=entry.getValue()[1];
-        	String happenTime=entry.getKey();
-        	double beginMemory=Double.parseDouble(beginMemoryInfo);
-        	double endMemory=Double.parseDouble(endMemoryInfo);
-			double beginTime=Double.parseDouble(doubleformat.format(Double.parseDouble(happenTime)));
-			ygcSeries.add(beginTime, beginMemory, true);
-        	double pauseTime=Double.parseDouble(doubleformat.format(Double.parseDouble(data.getYGCPauseTimes().get(happenTime))));
-        	ygcSeries.add(pauseTime+beginTime,endMemory,true);
-		}
-        XYSeries fgcSeries=new XYSeries("FGC"+suffix);
-        Map<String, String[]> fgcMemoryChanges=data.getFGCMemoryChanges();
-        for (Entry<String, String[]> entry : fgcMemoryChanges.entrySet()) {
-        	String beginMemoryInfo=entry.getValue()[0];
-        	String endMemoryInfo=entry.getValue()[1];
-        	String happenTime=entry.getKey();
-        	double beginMemory=Double.parseDouble(beginMemoryInfo);
-        	double endMemory=Double.parseDouble(endMemoryInfo);
-			double beginTime=Double.parseDouble(doubleformat.format(Double.parseDouble(happenTime)));
-			fgcSeries.add(beginTime, beginMemory, true);
-        	double pauseTime=Double.parseDouble(doubleformat.format(Double.parseDouble(data.getFGCPauseTimes().get(happenTime))));
-        	fgcSeries.add(pauseTime+beginTime,endMemory,true);
-		}
-        XYSeries cmsgcSeries=new XYSeries("CMSGC"+suffix);
-        Map<String, String[]> cmsgcMemoryChanges=data.getCMSGCMemoryChanges();
-        for (Entry<String, String[]> entry : cmsgcMemoryChanges.entrySet()) {
-        	String beginMemoryInfo=entry.getValue()[0];
-        	String endMemoryInfo=entry.getValue()[1];
-        	String happenTime=entry.getKey();
-        	double beginMemory=Double.parseDouble(beginMemoryInfo);
-        	double endMemory=Double.parseDouble(endMemoryInfo);
-			double beginTime=Double.parseDouble(doubleformat.format(Double.parseDouble(happenTime)));
-			cmsgcSeries.add(beginTime, beginMemory, true);
-        	double pauseTime=Double.parseDouble(doubleformat.format(Double.parseDouble(data.getCMSGCPauseTimes().get(happenTime))));
-        	cmsgcSeries.add(pauseTime+beginTime,endMemory,true);
-		}
+    private GCLogTrendDataset createMemoryTrendDataset(GCLogData data,GCLogTrendDataset dataset,String suffix) {
         if(dataset==null)
-        	dataset = new XYSeriesCollection();
-        if(fgcMemoryChanges.size()>0){
-        	dataset.addSeries(fgcSeries);
+        	dataset = new GCLogTrendDataset();
+        if(data.getFGC()>0){
+        	dataset.addEventsSeries(GCLogEventsSeries.memoryChanges("FGC"+suffix, data.getFGCEvents()));
         }
-        if(cmsgcMemoryChanges.size()>0){
-        	dataset.addSeries(cmsgcSeries);
+        if(data.getCMSGC()>0){
+        	dataset.addEventsSeries(GCLogEventsSeries.memoryChanges("CMSGC"+suffix, data.getCMSGCEvents()));
         }
-        dataset.addSeries(ygcSeries);
+        dataset.addEventsSeries(GCLogEventsSeries.memoryChanges("YGC"+suffix, data.getYGCEvents()));
+        dataset.resample();
         return dataset;
-
+    }
+    
+    /**
+     * trend charts read events of GCLogData directly,so appended gc of followed log only needs new datasets,
+     * zoomed range of charts is kept
+     */
+    private void refreshTrendDatasets(GCLogData data){
+    	GCLogUtilization utilization=new GCLogUtilization(data);
+    	gcTrendChart.getChart().getXYPlot().setDataset(createGCTrendDataset(data, null, ""));
+    	gcTrendChart.getChart().getXYPlot().setDataset(1, createThroughputTrendDataset(utilization));
+    	mmuChart.getChart().getXYPlot().setDataset(createMMUSeries("MMU", utilization));
+    	memoryTrendChart.getChart().getXYPlot().setDataset(createMemoryTrendDataset(data, null, ""));
     }
     
     private JFreeChart createLDSTrendChart(GCLogData data) {
@@ -504,26 +653,12 @@ public class GCLogViewer {
     }
     
     private XYDataset createLDSTrendDataset(GCLogData data) {
-    	XYSeries ygcSeries=new XYSeries("YGC");
-        Map<String, String> ygcLDS=data.getYGCLDS();
-        DecimalFormat timeformat=new DecimalFormat("#0.00");
-        for (Entry<String, String> entry : ygcLDS.entrySet()) {
-        	double happenTime=Double.parseDouble(timeformat.format(Double.parseDouble(entry.getKey())));
-        	double ldsSize=Double.parseDouble(entry.getValue());
-        	ygcSeries.add(happenTime,ldsSize,true);
-		}
-        XYSeries fgcSeries=new XYSeries("FGC");
-        Map<String, String[]> fgcPauseTimes=data.getFGCMemoryChanges();
-        for (Entry<String, String[]> entry : fgcPauseTimes.entrySet()) {
-        	double happenTime=Double.parseDouble(timeformat.format(Double.parseDouble(entry.getKey())));
-        	double ldsSize=Double.parseDouble(entry.getValue()[1]);
-        	fgcSeries.add(happenTime,ldsSize,true);
-		}
-        XYSeriesCollection dataset = new XYSeriesCollection();
+        GCLogTrendDataset dataset = new GCLogTrendDataset();
         if(data.getFGC()>0)
-        	dataset.addSeries(fgcSeries);
+        	dataset.addEventsSeries(GCLogEventsSeries.memoryAfters("FGC", data.getFGCEvents()));
         if(data.getYGC()>0)
-        	dataset.addSeries(ygcSeries);
+        	dataset.addEventsSeries(GCLogEventsSeries.lds("YGC", data.getYGCEvents()));
+        dataset.resample();
         return dataset;
     }
     
@@ -551,21 +686,186 @@ public class GCLogViewer {
         return chart;
     }
     
+    /**
+     * count of pauses in each histogram bucket,pause axis is logarithmic
+     */
+    private JFreeChart createPauseHistogramChart(GCLogData data) {
+    	XYSeriesCollection dataset=new XYSeriesCollection();
+    	if(data.getFGC()>0)
+    		dataset.addSeries(createPauseHistogramSeries("FGC", data.getFGCEvents().getPauseHistogram()));
+    	if(data.getCMSGC()>0)
+    		dataset.addSeries(createPauseHistogramSeries("CMSGC", data.getCMSGCEvents().getPauseHistogram()));
+    	dataset.addSeries(createPauseHistogramSeries("YGC", data.getYGCEvents().getPauseHistogram()));
+        JFreeChart chart = ChartFactory.createXYLineChart(
+            "Pause Time Distribution", 
+            "Pause Time(ms)", 
+            "Count",
+            dataset, 
+            PlotOrientation.VERTICAL,
+            true, 
+            true, 
+            false
+        );
+        chart.setBackgroundPaint( java.awt.Color.white );
+        chart.setBorderVisible( true );
+        chart.setBorderPaint( java.awt.Color.BLACK );
+        XYPlot plot = (XYPlot) chart.getPlot();
+        plot.setDomainAxis(new LogarithmicAxis("Pause Time(ms)"));
+        plot.setBackgroundPaint(java.awt.Color.lightGray);
+        plot.setDomainGridlinePaint(java.awt.Color.white);
+        plot.setRangeGridlinePaint(java.awt.Color.white);
+        plot.setAxisOffset(new RectangleInsets(5.0, 5.0, 5.0, 5.0));
+        plot.getRangeAxis().setFixedDimension(15.0);
+        return chart;
+    }
+    
+    private XYSeries createPauseHistogramSeries(String key,GCLogPauseHistogram histogram) {
+    	XYSeries series=new XYSeries(key, true, false);
+    	for (int i = 0; i < histogram.getBucketCount(); i++) {
+    		if(histogram.getCount(i)==0)
+    			continue;
+    		// log axis can't show 0
+    		series.add(Math.max(histogram.getUpperBound(i)*1000, 0.001), histogram.getCount(i), false);
+    	}
+    	return series;
+    }
+    
+    private JFreeChart createPausePercentilesChart(GCLogData data) {
+    	DefaultCategoryDataset dataset=new DefaultCategoryDataset();
+    	if(data.getFGC()>0)
+    		addPausePercentiles(dataset, "FGC", data.getFGCEvents().getPauseHistogram());
+    	if(data.getCMSGC()>0)
+    		addPausePercentiles(dataset, "CMSGC", data.getCMSGCEvents().getPauseHistogram());
+    	addPausePercentiles(dataset, "YGC", data.getYGCEvents().getPauseHistogram());
+        JFreeChart chart = ChartFactory.createBarChart(
+            "Pause Time Percentiles", 
+            "Percentile", 
+            "Pause Time(ms)",
+            dataset, 
+            PlotOrientation.VERTICAL,
+            true, 
+            true, 
+            false
+        );
+        chart.setBackgroundPaint( java.awt.Color.white );
+        chart.setBorderVisible( true );
+        chart.setBorderPaint( java.awt.Color.BLACK );
+        CategoryPlot plot = (CategoryPlot) chart.getPlot();
+        plot.setBackgroundPaint(java.awt.Color.lightGray);
+        plot.setRangeGridlinePaint(java.awt.Color.white);
+        plot.setAxisOffset(new RectangleInsets(5.0, 5.0, 5.0, 5.0));
+        return chart;
+    }
+    
+    private void addPausePercentiles(DefaultCategoryDataset dataset,String key,GCLogPauseHistogram histogram) {
+    	for (double percent : GCLogPauseHistogram.SUMMARY_PERCENTILES) {
+    		dataset.addValue(histogram.getPercentile(percent)*1000, key, "P"+BigDecimal.valueOf(percent).stripTrailingZeros().toPlainString());
+    	}
+    	dataset.addValue(histogram.getMax()*1000, key, "Max");
+    }
+    
+    /**
+     * average time of each phase of YGC pauses over time,stacked up to the average pause
+     */
+    private JFreeChart createPauseCompositionChart(GCLogData data) {
+    	GCLogPauseComposition composition=new GCLogPauseComposition(data.getYGCEvents(), COMPOSITION_BUCKETS);
+    	DefaultTableXYDataset dataset=new DefaultTableXYDataset();
+    	for (int component = 0; component < composition.getComponentCount(); component++) {
+    		if(!composition.isUsed(component))
+    			continue;
+    		XYSeries series=new XYSeries(composition.getComponentName(component), true, false);
+    		for (int i = 0; i < composition.size(); i++) {
+    			series.add(composition.getTime(i), composition.getValue(i, component), false);
+    		}
+    		dataset.addSeries(series);
+    	}
+        JFreeChart chart = ChartFactory.createStackedXYAreaChart(
+            "YGC Pause Composition", 
+            "Time(S)", 
+            "Pause Time(ms)",
+            dataset, 
+            PlotOrientation.VERTICAL,
+            true, 
+            true, 
+            false
+        );
+        chart.setBackgroundPaint( java.awt.Color.white );
+        chart.setBorderVisible( true );
+        chart.setBorderPaint( java.awt.Color.BLACK );
+        XYPlot plot = (XYPlot) chart.getPlot();
+        plot.setBackgroundPaint(java.awt.Color.lightGray);
+        plot.setDomainGridlinePaint(java.awt.Color.white);
+        plot.setRangeGridlinePaint(java.awt.Color.white);
+        plot.setAxisOffset(new RectangleInsets(5.0, 5.0, 5.0, 5.0));
+        plot.getRangeAxis().setFixedDimension(15.0);
+        return chart;
+    }
+    
     private XYDataset createPTOSTrendDataset(GCLogData data) {
-    	XYSeries ygcSeries=new XYSeries("YGC");
-        Map<String, String> ygcPTOS=data.getYGCPTOS();
-        DecimalFormat timeformat=new DecimalFormat("#0.00");
-        for (Entry<String, String> entry : ygcPTOS.entrySet()) {
-        	double happenTime=Double.parseDouble(timeformat.format(Double.parseDouble(entry.getKey())));
-        	double ptosSize=Double.parseDouble(entry.getValue());
-        	ygcSeries.add(happenTime,ptosSize,true);
-		}
-        XYSeriesCollection dataset = new XYSeriesCollection();
+        GCLogTrendDataset dataset = new GCLogTrendDataset();
         if(data.getYGC()>0)
-        	dataset.addSeries(ygcSeries);
+        	dataset.addEventsSeries(GCLogEventsSeries.ptos("YGC", data.getYGCEvents()));
+        dataset.resample();
         return dataset;
     }
 	
+    private void updateSummary(GCLogData data){
+		runtimedataLabel.setText(data.getRuntime());
+		gctypedataLabel.setText(data.getGCType());
+		throughputdataLabel.setText(data.getThroughput());
+		ygcDataLabel.setText(String.valueOf(data.getYGC()));
+		ygctDataLabel.setText(data.getYGCT());
+		avgYGCTDataLabel.setText(data.getAvgYGCT());
+		avgYGCRateDataLabel.setText(data.getAvgYGCRate());
+		fgcDataLabel.setText(String.valueOf(data.getFGC()));
+		fgctDataLabel.setText(data.getFGCT());
+		avgFGCTDataLabel.setText(data.getAvgFGCT());
+		avgFGCRateDataLabel.setText(data.getAvgFGCRate());
+		ygcPercentilesDataLabel.setText(data.getYGCPercentiles());
+		cmsgcPercentilesDataLabel.setText(data.getCMSGCPercentiles());
+		fgcPercentilesDataLabel.setText(data.getFGCPercentiles());
+		((GridData)avgYGCLDSDataLabel.getLayoutData()).exclude=true;
+		compareLogMenuItem.setEnabled(true);
+		memoryLeakDetectionMenuItem.setEnabled(true);
+		gcTuningMenuItem.setEnabled(true);
+		pauseDistributionMenuItem.setEnabled(true);
+		pauseCompositionMenuItem.setEnabled(true);
+		parseReportMenuItem.setEnabled(true);
+		followMenuItem.setEnabled(true);
+		if(data.getCMSCycles()>0){
+			cmsCyclesDataLabel.setText(String.valueOf(data.getCMSCycles()));
+			avgCMSCycleTimeDataLabel.setText(data.getAvgCMSCycleTime());
+			avgCMSCycleIntervalDataLabel.setText(data.getAvgCMSCycleInterval());
+			oldGenFillRateDataLabel.setText(data.getOldGenFillRateOfCMSCycle());
+			((GridData)cmsCyclesDataLabel.getLayoutData()).exclude=false;
+		}
+		else{
+			((GridData)cmsCyclesDataLabel.getLayoutData()).exclude=true;
+		}
+		if(data.getSafepoints().size()>0){
+			safepointsDataLabel.setText(data.getSafepoints().size()+"("+data.getNonGCSafepoints()+")");
+			stoppedTimeDataLabel.setText(data.getStoppedTime());
+			nonGCStoppedTimeDataLabel.setText(data.getNonGCStoppedTime());
+			ttspPercentilesDataLabel.setText(data.getTTSPPercentiles());
+			((GridData)safepointsDataLabel.getLayoutData()).exclude=false;
+		}
+		else{
+			((GridData)safepointsDataLabel.getLayoutData()).exclude=true;
+		}
+		if(data.getCMSGC()>0){
+			cmsgcDataLabel.setText(String.valueOf(data.getCMSGC()));
+			cmsgctDataLabel.setText(data.getCMSGCT());
+			avgCMSGCTDataLabel.setText(data.getAvgCMSGCT());
+			avgCMSGCRateDataLabel.setText(data.getAvgCMSGCRate());
+			((GridData)cmsgcDataLabel.getLayoutData()).exclude=false;
+			summary.layout();
+		}
+		else{
+			((GridData)cmsgcDataLabel.getLayoutData()).exclude=true;
+			summary.layout();
+		}
+    }
+    
     class MemoryLeakDetectionListener extends SelectionAdapter{
     	
     	@Override
@@ -615,6 +915,77 @@ public class GCLogViewer {
     	
     }
     
+    /**
+     * pause histogram and percentiles of each gc kind,instead of trend charts
+     */
+    class PauseDistributionListener extends SelectionAdapter{
+    	
+    	@Override
+    	public void widgetSelected(SelectionEvent e) {
+    		if(currentGCLogData==null)
+    			return;
+    		final JFreeChart histogramChart=createPauseHistogramChart(currentGCLogData);
+    		final JFreeChart percentilesChart=createPausePercentilesChart(currentGCLogData);
+    		Display.getDefault().syncExec(new Runnable() {
+				public void run() {
+					shell.setText(SHELL_TITLE+": "+currentGCLogFile+" Pause Distribution View");
+					gcTrendChart.setChart(histogramChart);
+		    		gcTrendChart.pack();
+		    		gcTrendGroup.layout();
+		    		memoryTrendChart.setChart(percentilesChart);
+		    		memoryTrendChart.pack();
+		    		memoryTrendGroup.layout();
+		    		backToHomeMenuItem.setEnabled(true);
+				}
+			});
+    	}
+    	
+    }
+    
+    /**
+     * phases of YGC pauses(G1 with details) over time,instead of memory trend chart
+     */
+    class PauseCompositionListener extends SelectionAdapter{
+    	
+    	@Override
+    	public void widgetSelected(SelectionEvent e) {
+    		if(currentGCLogData==null)
+    			return;
+    		final JFreeChart compositionChart=createPauseCompositionChart(currentGCLogData);
+    		Display.getDefault().syncExec(new Runnable() {
+				public void run() {
+					shell.setText(SHELL_TITLE+": "+currentGCLogFile+" Pause Composition View");
+		    		memoryTrendChart.setChart(compositionChart);
+		    		memoryTrendChart.pack();
+		    		memoryTrendGroup.layout();
+		    		backToHomeMenuItem.setEnabled(true);
+				}
+			});
+    	}
+    	
+    }
+    
+    /**
+     * lines which were not parsed and parse time of each gc keyword,of lines analyzed since the log was opened
+     */
+    class ParseReportListener extends SelectionAdapter{
+    	
+    	@Override
+    	public void widgetSelected(SelectionEvent e) {
+    		if(currentGCLogData==null)
+    			return;
+    		showParseReport(currentGCLogFile, currentGCLogData.getDiagnostics());
+    	}
+    	
+    }
+    
+    private void showParseReport(String fileName,GCLogDiagnostics diagnostics) {
+    	MessageBox messageBox = new MessageBox(shell, (diagnostics.hasProblems()?SWT.ICON_WARNING:SWT.ICON_INFORMATION) | SWT.OK);
+    	messageBox.setText("Parse Report: "+fileName);
+    	messageBox.setMessage(diagnostics.getReport());
+    	messageBox.open();
+    }
+    
     class BackToHomeListener extends SelectionAdapter{
     	
     	@Override
@@ -623,11 +994,15 @@ public class GCLogViewer {
     			return;
     		final JFreeChart gcTrendChartComposite=createGCTrendChart(currentGCLogData);
     		final JFreeChart memoryTrendChartComposite=createMemoryTrendChart(currentGCLogData);
+    		// mmu chart of compared logs
+    		final JFreeChart mmuChartComposite=createMMUChart(currentGCLogData);
     		Display.getDefault().syncExec(new Runnable() {
 				public void run() {
 					shell.setText(SHELL_TITLE+": "+currentGCLogFile+" Main View");
 					gcTrendChart.setChart(gcTrendChartComposite);
 		    		gcTrendChart.pack();
+		    		mmuChart.setChart(mmuChartComposite);
+		    		mmuChart.pack();
 		    		gcTrendGroup.layout();
 		    		memoryTrendChart.setChart(memoryTrendChartComposite);
 		    		memoryTrendChart.pack();
@@ -641,6 +1016,10 @@ public class GCLogViewer {
     	
     }
     
+    /**
+     * compare current log with several logs,logs are analyzed at the same time and
+     * charts are built off ui thread,then swapped in together
+     */
     class CompareLogListener extends SelectionAdapter{
     	
     	@Override
@@ -656,58 +1035,135 @@ public class GCLogViewer {
 				});
     			return;
     		}
-    		FileDialog dialog=new FileDialog(shell,SWT.OPEN);
+    		FileDialog dialog=new FileDialog(shell,SWT.OPEN | SWT.MULTI);
 			dialog.setFilterNames(FILTER_NAMES);
 			dialog.setFilterExtensions(FILTER_EXTS);
-			final String fileName=dialog.open();
-			if((fileName!=null)&&(!"".equals(fileName))){
-				Display.getDefault().syncExec(new Runnable(){
-					public void run() {
-						shell.setText(SHELL_TITLE+": Compare "+ currentGCLogFile +" with "+fileName);
-						((GridData)bar.getLayoutData()).exclude=false;
-						shell.layout();
-					}
-				});
-				new Thread(new Runnable() {
-					public void run() {
+			if(dialog.open()==null || dialog.getFileNames().length==0)
+				return;
+			final List<String> fileNames=new ArrayList<String>();
+			for (String name : dialog.getFileNames()) {
+				fileNames.add(new File(dialog.getFilterPath(), name).getPath());
+			}
+			final GCLogData baseData=currentGCLogData;
+			final String baseFile=currentGCLogFile;
+			// follow merges appended gc into baseData on ui thread,pause it while compare thread reads baseData
+			final boolean following=followMenuItem.getSelection();
+			followMenuItem.setSelection(false);
+			followMenuItem.setEnabled(false);
+			final String title=SHELL_TITLE+": Compare "+ baseFile +" with "+fileNames;
+			Display.getDefault().syncExec(new Runnable(){
+				public void run() {
+					shell.setText(title);
+					((GridData)bar.getLayoutData()).exclude=false;
+					shell.layout();
+				}
+			});
+			new Thread(new Runnable() {
+				public void run() {
+					try{
+						GCLogComparer comparer=new GCLogComparer(analyze,Runtime.getRuntime().availableProcessors());
+						GCLogProgress progress=new GCLogProgress();
+						ProgressSampler sampler=new ProgressSampler(progress, title);
+						comparer.setProgressListener(progress);
+						sampler.start();
+						List<GCLogData> compareDatas;
 						try{
-							final GCLogData data=analyze.analysis(fileName);
-							Display.getDefault().syncExec(new Runnable() {
-								public void run() {
-									XYSeriesCollection gcTrendDataset=(XYSeriesCollection) gcTrendChart.getChart().getXYPlot().getDataset();
-									createGCTrendDataset(data, gcTrendDataset);
-							        gcTrendChart.pack();
-									gcTrendGroup.layout();
-									XYSeriesCollection memoryTrendDataset=(XYSeriesCollection) memoryTrendChart.getChart().getXYPlot().getDataset();
-									createMemoryTrendDataset(data, memoryTrendDataset);
-									memoryTrendChart.pack();
-									memoryTrendGroup.layout();
-									backToHomeMenuItem.setEnabled(true);
-									((GridData)avgYGCLDSDataLabel.getLayoutData()).exclude=true;
-									summary.layout();
-								}
-							});
+							compareDatas=comparer.analysis(fileNames);
 						}
-						catch(final Exception e){
-							Display.getDefault().asyncExec(new Runnable(){
-								public void run() {
-									MessageBox messageBox = new MessageBox(shell, SWT.ERROR | SWT.OK);
-									messageBox.setText(e.toString());
-									StringBuilder errorString=new StringBuilder("Pls visit GCLogViewer website to feedback this exception,error Details: \r\n");
-									StackTraceElement[] eles=e.getStackTrace();
-									for (int i = eles.length-1; i > eles.length-5; i--) {
-										errorString.append(eles[i]);
-										errorString.append("\r\n");
-									}
-									messageBox.setMessage(errorString.toString());
-							        messageBox.open();
-								}
-							});
-							e.printStackTrace();
+						finally{
+							sampler.stop();
+						}
+						List<String> allFiles=new ArrayList<String>();
+						allFiles.add(baseFile);
+						allFiles.addAll(fileNames);
+						List<GCLogData> allDatas=new ArrayList<GCLogData>();
+						allDatas.add(baseData);
+						allDatas.addAll(compareDatas);
+						String[] suffixes=compareSuffixes(allFiles);
+						GCLogTrendDataset gcTrendDataset=new GCLogTrendDataset();
+						GCLogTrendDataset memoryTrendDataset=new GCLogTrendDataset();
+						XYSeriesCollection mmuDataset=new XYSeriesCollection();
+						for (int i = 0; i < allDatas.size(); i++) {
+							createGCTrendDataset(allDatas.get(i), gcTrendDataset, suffixes[i]);
+							createMemoryTrendDataset(allDatas.get(i), memoryTrendDataset, suffixes[i]);
+							addMMUSeries(mmuDataset, "MMU"+suffixes[i], new GCLogUtilization(allDatas.get(i)));
 						}
+						final JFreeChart chart=createGCTrendChart(gcTrendDataset);
+						final JFreeChart chart2=createMemoryTrendChart(memoryTrendDataset);
+						final JFreeChart chart3=createMMUChart(mmuDataset);
+						Display.getDefault().asyncExec(new Runnable() {
+							public void run() {
+								if(shell.isDisposed() || currentGCLogData!=baseData)
+									return;
+								gcTrendChart.setChart(chart);
+						        gcTrendChart.pack();
+						        mmuChart.setChart(chart3);
+						        mmuChart.pack();
+								gcTrendGroup.layout();
+								memoryTrendChart.setChart(chart2);
+								memoryTrendChart.pack();
+								memoryTrendGroup.layout();
+								backToHomeMenuItem.setEnabled(true);
+								((GridData)avgYGCLDSDataLabel.getLayoutData()).exclude=true;
+								summary.layout();
+							}
+						});
 					}
-				}).start();
+					catch(final Exception e){
+						Display.getDefault().asyncExec(new Runnable(){
+							public void run() {
+								MessageBox messageBox = new MessageBox(shell, SWT.ERROR | SWT.OK);
+								messageBox.setText(e.toString());
+								StringBuilder errorString=new StringBuilder("Pls visit GCLogViewer website to feedback this exception,error Details: \r\n");
+								StackTraceElement[] eles=e.getStackTrace();
+								for (int i = eles.length-1; i > eles.length-5; i--) {
+									errorString.append(eles[i]);
+									errorString.append("\r\n");
+								}
+								messageBox.setMessage(errorString.toString());
+						        messageBox.open();
+							}
+						});
+						e.printStackTrace();
+					}
+					finally{
+						Display.getDefault().asyncExec(new Runnable() {
+							public void run() {
+								resumeFollow(baseData, following);
+							}
+						});
+					}
+				}
+			}).start();
+    	}
+    	
+    	/**
+    	 * follow again after compare thread is done with baseData,unless another log is opened
+    	 */
+    	private void resumeFollow(GCLogData baseData,boolean following){
+    		if(shell.isDisposed() || currentGCLogData!=baseData)
+    			return;
+    		followMenuItem.setEnabled(true);
+    		if(following){
+    			followMenuItem.setSelection(true);
+    			followMenuItem.notifyListeners(SWT.Selection, new Event());
+    		}
+    	}
+    	
+    	/**
+    	 * series name suffix of each log: " (file name)",index is added when file names are same
+    	 */
+    	private String[] compareSuffixes(List<String> fileNames){
+    		String[] suffixes=new String[fileNames.size()];
+    		Set<String> names=new HashSet<String>();
+    		for (int i = 0; i < suffixes.length; i++) {
+				String name=new File(fileNames.get(i)).getName();
+				if(!names.add(name)){
+					name=name+" "+(i+1);
+				}
+				suffixes[i]=" ("+name+")";
 			}
+    		return suffixes;
     	}
     	
     }
@@ -718,10 +1174,10 @@ public class GCLogViewer {
 			public void chartProgress(ChartProgressEvent event) {
 				switch (event.getType()) {
 					case ChartProgressEvent.DRAWING_STARTED:
-						bar.setSelection(bar.getSelection()+5);
+						bar.setSelection(Math.min(bar.getSelection()+5, bar.getMaximum()));
 						break;
 					case ChartProgressEvent.DRAWING_FINISHED:
-						bar.setSelection(bar.getSelection()+30);
+						bar.setSelection(Math.min(bar.getSelection()+30, bar.getMaximum()));
 						break;
 					default:
 						break;
@@ -735,6 +1191,8 @@ public class GCLogViewer {
 			dialog.setFilterExtensions(FILTER_EXTS);
 			final String fileName=dialog.open();
 			if((fileName!=null)&&(!"".equals(fileName))){
+				follower=null;
+				followMenuItem.setSelection(false);
 				Display.getDefault().syncExec(new Runnable(){
 					public void run() {
 						shell.setText(SHELL_TITLE+": "+fileName+" Main View");
@@ -746,22 +1204,37 @@ public class GCLogViewer {
 
 					public void run() {
 						try {
-							final GCLogData data=analyze.analysis(fileName);
+							GCLogFollower fileFollower=new GCLogFollower(analyze,fileName,Runtime.getRuntime().availableProcessors());
+							GCLogProgress progress=new GCLogProgress();
+							ProgressSampler sampler=new ProgressSampler(progress, SHELL_TITLE+": "+fileName+" Main View");
+							fileFollower.setProgressListener(progress);
+							sampler.start();
+							final GCLogData data;
+							try{
+								data=fileFollower.follow();
+							}
+							finally{
+								sampler.stop();
+								// appended lines are not shown in progress bar
+								fileFollower.setProgressListener(null);
+							}
+							follower=fileFollower;
 							Display.getDefault().asyncExec(new Runnable(){
 								public void run() {
-									bar.setSelection(5);
+									bar.setSelection(ANALYSIS_PROGRESS+5);
 								}
 							});
 							final JFreeChart chart=createGCTrendChart(data);
 							Display.getDefault().asyncExec(new Runnable(){
 								public void run() {
-									bar.setSelection(10);
+									bar.setSelection(ANALYSIS_PROGRESS+10);
 								}
 							});
 							final JFreeChart chart2=createMemoryTrendChart(data);
+							final JFreeChart chart3=createMMUChart(data);
 							Display.getDefault().asyncExec(new Runnable(){
 								public void run() {
-									bar.setSelection(15);
+									bar.setSelection(ANALYSIS_PROGRESS+15);
 								}
 							});
 							chart.addProgressListener(new WatchChartProgress());
@@ -769,43 +1242,8 @@ public class GCLogViewer {
 							Display.getDefault().asyncExec(new Runnable(){
 
 								public void run() {
-									runtimedataLabel.setText(data.getRuntime());
-									bar.setSelection(16);
-									gctypedataLabel.setText(data.getGCType());
-									bar.setSelection(17);
-									throughputdataLabel.setText(data.getThroughput());
-									bar.setSelection(18);
-									ygcDataLabel.setText(String.valueOf(data.getYGC()));
-									bar.setSelection(22);
-									ygctDataLabel.setText(data.getYGCT());
-									bar.setSelection(23);
-									avgYGCTDataLabel.setText(data.getAvgYGCT());
-									bar.setSelection(24);
-									avgYGCRateDataLabel.setText(data.getAvgYGCRate());
-									fgcDataLabel.setText(String.valueOf(data.getFGC()));
-									bar.setSelection(25);
-									fgctDataLabel.setText(data.getFGCT());
-									bar.setSelection(26);
-									avgFGCTDataLabel.setText(data.getAvgFGCT());
-									avgFGCRateDataLabel.setText(data.getAvgFGCRate());
-									bar.setSelection(27);
-									((GridData)avgYGCLDSDataLabel.getLayoutData()).exclude=true;
-									compareLogMenuItem.setEnabled(true);
-									memoryLeakDetectionMenuItem.setEnabled(true);
-									gcTuningMenuItem.setEnabled(true);
-									if(data.getCMSGC()>0){
-										cmsgcDataLabel.setText(String.valueOf(data.getCMSGC()));
-										cmsgctDataLabel.setText(data.getCMSGCT());
-										avgCMSGCTDataLabel.setText(data.getAvgCMSGCT());
-										avgCMSGCRateDataLabel.setText(data.getAvgCMSGCRate());
-										((GridData)cmsgcDataLabel.getLayoutData()).exclude=false;
-										summary.layout();
-									}
-									else{
-										((GridData)cmsgcDataLabel.getLayoutData()).exclude=true;
-										summary.layout();
-									}
-									bar.setSelection(30);
+									updateSummary(data);
+									bar.setSelection(ANALYSIS_PROGRESS+20);
 									
 									if(gcTrendChart==null){
 										gcTrendChart=new GCLogChartComposite(gcTrendGroup,SWT.NONE,chart,true);
@@ -816,6 +1254,16 @@ public class GCLogViewer {
 										gcTrendChart.setChart(chart);
 									}
 									gcTrendChart.pack();
+									if(mmuChart==null){
+										mmuChart=new ChartComposite(gcTrendGroup,SWT.NONE,chart3,true);
+										GridData grid=new GridData(GridData.FILL_VERTICAL);
+										grid.widthHint=shell.getDisplay().getBounds().width/4;
+										mmuChart.setLayoutData(grid);
+									}
+									else{
+										mmuChart.setChart(chart3);
+									}
+									mmuChart.pack();
 									gcTrendGroup.layout();
 									if(memoryTrendChart==null){
 										memoryTrendChart=new GCLogChartComposite(memoryTrendGroup,SWT.NONE,chart2,true);
@@ -827,6 +1275,9 @@ public class GCLogViewer {
 									}
 									memoryTrendChart.pack();
 									memoryTrendGroup.layout();
+									// lost gc must not be silent
+									if(data.getDiagnostics().hasProblems())
+										showParseReport(fileName, data.getDiagnostics());
 								}
 							});
 							currentGCLogData = data;
@@ -857,6 +1308,123 @@ public class GCLogViewer {
 		
 	}
 	
+	/**
+	 * show analysis progress on progress bar and shell title every PROGRESS_INTERVAL,
+	 * analysis threads only add to counters of GCLogProgress,so ui is not called for every line
+	 */
+	class ProgressSampler implements Runnable {
+		
+		private final GCLogProgress progress;
+		
+		private final String title;
+		
+		private volatile boolean stopped=false;
+		
+		ProgressSampler(GCLogProgress progress,String title){
+			this.progress=progress;
+			this.title=title;
+		}
+		
+		void start(){
+			Display.getDefault().asyncExec(this);
+		}
+		
+		/**
+		 * stop sampling and restore shell title
+		 */
+		void stop(){
+			stopped=true;
+			Display.getDefault().asyncExec(new Runnable() {
+				public void run() {
+					if(!shell.isDisposed())
+						shell.setText(title);
+				}
+			});
+		}
+		
+		public void run() {
+			if(stopped || shell.isDisposed())
+				return;
+			bar.setSelection(progress.getPercent()*ANALYSIS_PROGRESS/100);
+			shell.setText(title+" - "+progress);
+			Display.getDefault().timerExec(PROGRESS_INTERVAL, this);
+		}
+		
+	}
+	
+	/**
+	 * check followed log file every FOLLOW_INTERVAL,add appended gc to summary and trend charts
+	 */
+	class FollowLogListener extends SelectionAdapter {
+		
+		public void widgetSelected(SelectionEvent event) {
+			final GCLogFollower fileFollower=follower;
+			if(!followMenuItem.getSelection() || fileFollower==null)
+				return;
+			Thread followThread=new Thread(new Runnable() {
+				public void run() {
+					while(follower==fileFollower && isFollowing()){
+						try{
+							Thread.sleep(FOLLOW_INTERVAL);
+							final GCLogData appended=fileFollower.follow();
+							if(appended==null)
+								continue;
+							final boolean restarted=fileFollower.isRestarted();
+							final JFreeChart chart=restarted?createGCTrendChart(appended):null;
+							final JFreeChart chart2=restarted?createMemoryTrendChart(appended):null;
+							final JFreeChart chart3=restarted?createMMUChart(appended):null;
+							Display.getDefault().asyncExec(new Runnable() {
+								public void run() {
+									// follow is paused while compare thread reads currentGCLogData,appended gc stays in follower
+									if(follower!=fileFollower || shell.isDisposed() || !followMenuItem.getSelection())
+										return;
+									// merge appended gc on ui thread,other readers of currentGCLogData pause follow
+									GCLogData data=fileFollower.getData();
+									currentGCLogData=data;
+									updateSummary(data);
+									// other views are rebuilt from currentGCLogData when back to home
+									if(backToHomeMenuItem.getEnabled())
+										return;
+									if(restarted){
+										gcTrendChart.setChart(chart);
+										memoryTrendChart.setChart(chart2);
+										mmuChart.setChart(chart3);
+									}
+									else{
+										refreshTrendDatasets(data);
+									}
+								}
+							});
+						}
+						catch(InterruptedException e){
+							return;
+						}
+						catch(Exception e){
+							// file may be rotating,try again next time
+							e.printStackTrace();
+						}
+					}
+				}
+			}, "GCLogFollower");
+			followThread.setDaemon(true);
+			followThread.start();
+		}
+		
+		private boolean isFollowing(){
+			final boolean[] selected=new boolean[1];
+			Display display=Display.getDefault();
+			if(display.isDisposed())
+				return false;
+			display.syncExec(new Runnable() {
+				public void run() {
+					selected[0]=!followMenuItem.isDisposed() && followMenuItem.getSelection();
+				}
+			});
+			return selected[0];
+		}
+		
+	}
+	
 	class ExitListener extends SelectionAdapter {
 	    
 		public void widgetSelected(SelectionEvent event) {
@@ -9,30 +9,81 @@
  */
 package code.google.gclogviewer;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+
 /**
  * extract One Line data to OneLineGCData Object 
  *
+ * parsers record where each field is in the line and its primitive value,
+ * the String form is only cut from the line when someone asks for it,
+ * values which are not in line,e.g. of unified logging or jstat,are kept as primitives and formatted when asked for.
+ *
+ * line may be a GCLogAsciiLine reused for next line,so String values must be asked for
+ * before next line is read,primitive values are always safe.
+ *
  * @author <a href="mailto:bluedavy@gmail.com">bluedavy</a>
  */
 public class OneLineGCData {
 
-	// int[0]: memoryBeforeGC int[1]: memoryAfterGC
-	private String[] memoryChangeInfo=new String[2];
-	
-	// HeapMemoryAfter
-	private String heapMemoryAfter;
-
-	// gc occur time
-	private String occurTime;
-	
-	// gc occur dateTime
-	private String occurDateTime;
-	
-	// gc pause time
-	private String pauseTime;
-	
+	private static final int OCCUR_TIME=0;
+	private static final int OCCUR_DATETIME=1;
+	private static final int PAUSE_TIME=2;
+	private static final int MEMORY_BEFORE=3;
+	private static final int MEMORY_AFTER=4;
+	private static final int HEAP_MEMORY_AFTER=5;
+	private static final int FIELDS=6;
+
+	private static final double[] POWERS=new double[]{1,10,100,1000,10000,100000,1000000,10000000,100000000,1000000000};
+
+	// line the spans point into
+	private CharSequence line;
+
+	// spans[field*2]: start spans[field*2+1]: end, -1 means not in line
+	private final int[] spans=new int[FIELDS*2];
+
+	// String values,cut from line lazily or set directly
+	private final String[] values=new String[FIELDS];
+
+	// field is set as a primitive value,not in line,its String is formatted lazily
+	private final boolean[] primitives=new boolean[FIELDS];
+
+	// String[0]: memoryBeforeGC String[1]: memoryAfterGC
+	private String[] memoryChangeInfo;
+
+	// gc occur time,secs
+	private double occurTime;
+
+	// gc pause time,secs
+	private double pauseTime;
+
+	// fraction digits of occur time and pause time in line
+	private int occurTimeScale;
+
+	private int pauseTimeScale;
+
+	// K
+	private long memoryBefore;
+
+	// K
+	private long memoryAfter;
+
+	// K
+	private long heapMemoryAfter;
+
 	private boolean isYGCData;
-	
+
+	// GC(n) id of unified logging,-1 for old format
+	private long gcId=-1;
+
+	// ms of each GCLogPhase by ordinal,null if gc has no phases logged
+	private double[] phaseTimes;
+
+	public OneLineGCData(){
+		Arrays.fill(spans, -1);
+	}
+
 	public boolean isYGCData() {
 		return isYGCData;
 	}
@@ -41,44 +92,210 @@ public class OneLineGCData {
 		this.isYGCData = isYGCData;
 	}
 
+	public long getGCId() {
+		return gcId;
+	}
+
+	public void setGCId(long gcId) {
+		this.gcId = gcId;
+	}
+
+	public double[] getPhaseTimes() {
+		return phaseTimes;
+	}
+
+	public void setPhaseTimes(double[] phaseTimes) {
+		this.phaseTimes = phaseTimes;
+	}
+
 	public String getOccurDateTime() {
-		return occurDateTime;
+		return getValue(OCCUR_DATETIME);
 	}
 
 	public void setOccurDateTime(String occurDateTime) {
-		this.occurDateTime = occurDateTime;
+		values[OCCUR_DATETIME]=occurDateTime;
+	}
+
+	public void setOccurDateTime(CharSequence line,int start,int end) {
+		setSpan(OCCUR_DATETIME, line, start, end);
 	}
 
 	public String[] getMemoryChangeInfo() {
+		if(memoryChangeInfo==null){
+			memoryChangeInfo=new String[]{getValue(MEMORY_BEFORE),getValue(MEMORY_AFTER)};
+		}
 		return memoryChangeInfo;
 	}
 
 	public String getOccurTime() {
-		return occurTime;
+		return getValue(OCCUR_TIME);
+	}
+
+	public boolean hasOccurTime(){
+		return hasValue(OCCUR_TIME);
 	}
 
 	public String getPauseTime() {
-		return pauseTime;
+		return getValue(PAUSE_TIME);
 	}
 
 	public void setMemoryChangeInfo(String[] memoryChangeInfo) {
 		this.memoryChangeInfo = memoryChangeInfo;
+		values[MEMORY_BEFORE]=memoryChangeInfo[0];
+		values[MEMORY_AFTER]=memoryChangeInfo[1];
+		primitives[MEMORY_BEFORE]=false;
+		primitives[MEMORY_AFTER]=false;
+		if(memoryChangeInfo[0]!=null)
+			memoryBefore=Long.parseLong(memoryChangeInfo[0]);
+		if(memoryChangeInfo[1]!=null)
+			memoryAfter=Long.parseLong(memoryChangeInfo[1]);
+	}
+
+	public void setMemoryChangeInfo(long memoryBeforeK,long memoryAfterK){
+		setPrimitive(MEMORY_BEFORE);
+		setPrimitive(MEMORY_AFTER);
+		memoryChangeInfo=null;
+		memoryBefore=memoryBeforeK;
+		memoryAfter=memoryAfterK;
+	}
+
+	public void setMemoryChangeInfo(CharSequence line,int beforeStart,int beforeEnd,int afterStart,int afterEnd){
+		setSpan(MEMORY_BEFORE, line, beforeStart, beforeEnd);
+		setSpan(MEMORY_AFTER, line, afterStart, afterEnd);
+		memoryChangeInfo=null;
+		memoryBefore=GCLogLineScanner.parseLong(line, beforeStart, beforeEnd);
+		memoryAfter=GCLogLineScanner.parseLong(line, afterStart, afterEnd);
 	}
 
 	public void setOccurTime(String occurTime) {
-		this.occurTime = occurTime;
+		values[OCCUR_TIME]=occurTime;
+		primitives[OCCUR_TIME]=false;
+		if(occurTime!=null){
+			this.occurTime=Double.parseDouble(occurTime);
+			occurTimeScale=GCLogLineScanner.fractionDigits(occurTime, 0, occurTime.length());
+		}
+	}
+
+	/**
+	 * occur time which is not in line as it is,e.g. caculated from uptime of unified logging,
+	 * it is rounded to scale fraction digits
+	 */
+	public void setOccurTime(double occurTime,int scale) {
+		setPrimitive(OCCUR_TIME);
+		this.occurTime=(scale<POWERS.length)?Math.round(occurTime*POWERS[scale])/POWERS[scale]:occurTime;
+		occurTimeScale=scale;
+	}
+
+	public void setOccurTime(CharSequence line,int start,int end) {
+		setSpan(OCCUR_TIME, line, start, end);
+		occurTime=GCLogLineScanner.parseDouble(line, start, end);
+		occurTimeScale=GCLogLineScanner.fractionDigits(line, start, end);
 	}
 
 	public void setPauseTime(String pauseTime) {
-		this.pauseTime = pauseTime;
+		values[PAUSE_TIME]=pauseTime;
+		if(pauseTime!=null){
+			this.pauseTime=Double.parseDouble(pauseTime);
+			pauseTimeScale=GCLogLineScanner.fractionDigits(pauseTime, 0, pauseTime.length());
+		}
+	}
+
+	public void setPauseTime(CharSequence line,int start,int end) {
+		setSpan(PAUSE_TIME, line, start, end);
+		pauseTime=GCLogLineScanner.parseDouble(line, start, end);
+		pauseTimeScale=GCLogLineScanner.fractionDigits(line, start, end);
 	}
-	
+
 	public String getHeapMemoryAfter() {
-		return heapMemoryAfter;
+		return getValue(HEAP_MEMORY_AFTER);
 	}
 
 	public void setHeapMemoryAfter(String heapMemoryAfter) {
-		this.heapMemoryAfter = heapMemoryAfter;
+		values[HEAP_MEMORY_AFTER]=heapMemoryAfter;
+		primitives[HEAP_MEMORY_AFTER]=false;
+		if(heapMemoryAfter!=null)
+			this.heapMemoryAfter=Long.parseLong(heapMemoryAfter);
+	}
+
+	public void setHeapMemoryAfter(long heapMemoryAfterK) {
+		setPrimitive(HEAP_MEMORY_AFTER);
+		heapMemoryAfter=heapMemoryAfterK;
+	}
+
+	public void setHeapMemoryAfter(CharSequence line,int start,int end) {
+		setSpan(HEAP_MEMORY_AFTER, line, start, end);
+		heapMemoryAfter=GCLogLineScanner.parseLong(line, start, end);
+	}
+
+	public double getOccurTimeSecs() {
+		return occurTime;
+	}
+
+	public double getPauseTimeSecs() {
+		return pauseTime;
+	}
+
+	public int getOccurTimeScale() {
+		return occurTimeScale;
 	}
-	
+
+	public int getPauseTimeScale() {
+		return pauseTimeScale;
+	}
+
+	public long getMemoryBeforeK() {
+		return memoryBefore;
+	}
+
+	public long getMemoryAfterK() {
+		return memoryAfter;
+	}
+
+	public long getHeapMemoryAfterK() {
+		return heapMemoryAfter;
+	}
+
+	private void setSpan(int field,CharSequence line,int start,int end){
+		this.line=line;
+		spans[field*2]=start;
+		spans[field*2+1]=end;
+		values[field]=null;
+		primitives[field]=false;
+	}
+
+	private void setPrimitive(int field){
+		spans[field*2]=-1;
+		values[field]=null;
+		primitives[field]=true;
+	}
+
+	private boolean hasValue(int field){
+		return values[field]!=null || spans[field*2]!=-1 || primitives[field];
+	}
+
+	private String getValue(int field){
+		if(values[field]==null && spans[field*2]!=-1){
+			values[field]=line.subSequence(spans[field*2], spans[field*2+1]).toString();
+		}
+		else if(values[field]==null && primitives[field]){
+			values[field]=format(field);
+		}
+		return values[field];
+	}
+
+	private String format(int field){
+		switch(field){
+			case OCCUR_TIME:
+				return BigDecimal.valueOf(occurTime).setScale(occurTimeScale, RoundingMode.HALF_UP).toPlainString();
+			case MEMORY_BEFORE:
+				return String.valueOf(memoryBefore);
+			case MEMORY_AFTER:
+				return String.valueOf(memoryAfter);
+			case HEAP_MEMORY_AFTER:
+				return String.valueOf(heapMemoryAfter);
+			default:
+				return null;
+		}
+	}
+
 }
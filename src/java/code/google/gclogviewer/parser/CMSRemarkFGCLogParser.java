@@ -9,9 +9,6 @@
  */
 package code.google.gclogviewer.parser;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
 import code.google.gclogviewer.GCLogParser;
 import code.google.gclogviewer.OneLineGCData;
 
@@ -24,13 +21,16 @@ import code.google.gclogviewer.OneLineGCData;
  *
  * @author <a href="mailto:bluedavy@gmail.com">bluedavy</a>
  */
-public class CMSRemarkFGCLogParser implements GCLogParser {
+public class CMSRemarkFGCLogParser extends CommonCMSGCLogParser implements GCLogParser {
 
-	private static final Pattern pattern1=Pattern.compile("([0-9-T:]+)..*: ([0-9.]+):.*CMS-remark: ([0-9]+)K\\(.*, ([0-9.]+) secs");
-	private static final Pattern pattern2=Pattern.compile("([0-9.]+):.*CMS-remark: ([0-9]+)K\\(.*, ([0-9.]+) secs");
+	private static final String KEYWORD="CMS-remark: ";
+	
+	public OneLineGCData parse(CharSequence lineInfo) throws Exception {
+		return parse(lineInfo, 0);
+	}
 	
-	public OneLineGCData parse(String lineInfo) throws Exception {
-		return parse(lineInfo, pattern1, pattern2);
+	public OneLineGCData parse(CharSequence lineInfo,int keywordOffset) throws Exception {
+		return parse(lineInfo, keywordOffset, KEYWORD);
 	}
 
 	public boolean isYGC() {
@@ -41,44 +41,6 @@ public class CMSRemarkFGCLogParser implements GCLogParser {
 		return "ConcMarkSweepGC";
 	}
 
-	private OneLineGCData parse(String lineInfo,Pattern pattern1,Pattern pattern2) throws Exception {
-		OneLineGCData data=new OneLineGCData();
-		boolean result=formData(lineInfo, data, pattern1);
-		if(!result){
-			result=formData(lineInfo, data, pattern2);
-			if(!result){
-				System.err.println("parse line failed: "+lineInfo);
-			}
-		}
-		return data;
-	}
-	
-	private boolean formData(String lineInfo,OneLineGCData data,Pattern pattern){
-		boolean result=false;
-		Matcher match = pattern.matcher(lineInfo);
-		String[] memoryChanges=new String[2];
-		if (match.find()) {
-			// because cms cannot get memory change info
-			if(match.groupCount() == 3){
-				data.setOccurTime(match.group(1));
-				memoryChanges[0]=match.group(2);
-				memoryChanges[1]=match.group(2);
-				data.setMemoryChangeInfo(memoryChanges);
-				data.setPauseTime(match.group(3));
-			}
-			else if(match.groupCount() == 4){
-				data.setOccurDateTime(match.group(1));
-				data.setOccurTime(match.group(2));
-				memoryChanges[0]=match.group(3);
-				memoryChanges[1]=match.group(3);
-				data.setMemoryChangeInfo(memoryChanges);
-				data.setPauseTime(match.group(4));
-			}
-			result=true;
-        }
-		return result;
-	}
-
 	public boolean isCMSGC() {
 		return true;
 	}
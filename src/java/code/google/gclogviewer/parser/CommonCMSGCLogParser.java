@@ -0,0 +1,47 @@
+/**
+ * GCLogViewer
+ * 
+ * A free open source tool to visualize data produced by the Java VM options -Xloggc:<file> or jstat > <file>.
+ * 
+ * Code license:	Apache License 2.0
+ * 
+ * http://code.google.com/p/gclogviewer
+ */
+package code.google.gclogviewer.parser;
+
+import code.google.gclogviewer.GCLogLineScanner;
+import code.google.gclogviewer.OneLineGCData;
+
+/**
+ * scan CMS pause log line: [datestamp: ]time: ...keyword: oldK(...)..., pause secs
+ * 
+ * @author <a href="mailto:bluedavy@gmail.com">bluedavy</a>
+ */
+public class CommonCMSGCLogParser {
+
+	public OneLineGCData parse(CharSequence lineInfo,int keywordOffset,String keyword) throws Exception {
+		OneLineGCData data=new OneLineGCData();
+		formData(lineInfo, keywordOffset, data, keyword);
+		return data;
+	}
+	
+	private boolean formData(CharSequence line,int keywordOffset,OneLineGCData data,String keyword){
+		int keywordStart=GCLogLineScanner.indexOf(line, keyword, keywordOffset);
+		if(keywordStart==-1)
+			return false;
+		int oldStart=keywordStart+keyword.length();
+		int oldEnd=GCLogLineScanner.digitsEnd(line, oldStart);
+		if(oldEnd==oldStart || !GCLogLineScanner.regionMatches(line, oldEnd, "K("))
+			return false;
+		int pauseStart=GCLogLineScanner.pauseTimeStart(line, oldEnd, line.length());
+		if(pauseStart==-1)
+			return false;
+		if(!GCLogLineScanner.scanOccurTime(line, keywordStart, data))
+			return false;
+		// because cms cannot get memory change info
+		data.setMemoryChangeInfo(line, oldStart, oldEnd, oldStart, oldEnd);
+		data.setPauseTime(line, pauseStart, GCLogLineScanner.numberEnd(line, pauseStart));
+		return true;
+	}
+	
+}
@@ -9,53 +9,46 @@
  */
 package code.google.gclogviewer.parser;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
+import code.google.gclogviewer.GCLogLineScanner;
 import code.google.gclogviewer.OneLineGCData;
 
 /**
+ * scan FGC log line: [datestamp: ]time: ...keyword...prefix beforeK->afterK(..., pause secs
+ * 
  * @author <a href="mailto:bluedavy@gmail.com">bluedavy</a>
  */
 public class CommonFGCLogParser {
 
-	public OneLineGCData parse(String lineInfo,Pattern pattern1,Pattern pattern2) throws Exception {
+	/**
+	 * @param keywordOffset scan keyword from this offset
+	 * @param prefix the heap memory change is the last one after this prefix
+	 */
+	public OneLineGCData parse(CharSequence lineInfo,int keywordOffset,String keyword,String prefix) throws Exception {
 		OneLineGCData data=new OneLineGCData();
-		boolean result=formData(lineInfo, data, pattern1);
-		if(!result){
-			result=formData(lineInfo, data, pattern2);
-			if(!result){
-				System.err.println("parse line failed: "+lineInfo);
-			}
-		}
+		formData(lineInfo, keywordOffset, data, keyword, prefix);
 		return data;
 	}
 	
-	private boolean formData(String lineInfo,OneLineGCData data,Pattern pattern){
-		boolean result=false;
-		Matcher match = pattern.matcher(lineInfo);
-		String[] memoryChanges=new String[2];
-		if (match.find()) {
-			if(match.groupCount() == 4){
-				data.setOccurTime(match.group(1));
-				memoryChanges[0]=match.group(2);
-				memoryChanges[1]=match.group(3);
-				data.setMemoryChangeInfo(memoryChanges);
-				data.setHeapMemoryAfter(match.group(3));
-				data.setPauseTime(match.group(4));
-			}
-			else if(match.groupCount() == 5){
-				data.setOccurDateTime(match.group(1));
-				data.setOccurTime(match.group(2));
-				memoryChanges[0]=match.group(3);
-				memoryChanges[1]=match.group(4);
-				data.setMemoryChangeInfo(memoryChanges);
-				data.setHeapMemoryAfter(match.group(4));
-				data.setPauseTime(match.group(5));
-			}
-			result=true;
-        }
-		return result;
+	private boolean formData(CharSequence line,int keywordOffset,OneLineGCData data,String keyword,String prefix){
+		int keywordStart=GCLogLineScanner.indexOf(line, keyword, keywordOffset);
+		if(keywordStart==-1)
+			return false;
+		int keywordEnd=keywordStart+keyword.length();
+		int pauseStart=GCLogLineScanner.pauseTimeStart(line, keywordEnd, line.length());
+		if(pauseStart==-1)
+			return false;
+		int beforeStart=GCLogLineScanner.lastMemoryChangeStart(line, prefix, keywordEnd, pauseStart);
+		if(beforeStart==-1)
+			return false;
+		if(!GCLogLineScanner.scanOccurTime(line, keywordStart, data))
+			return false;
+		int beforeEnd=GCLogLineScanner.digitsEnd(line, beforeStart);
+		int afterStart=beforeEnd+3;
+		int afterEnd=GCLogLineScanner.digitsEnd(line, afterStart);
+		data.setMemoryChangeInfo(line, beforeStart, beforeEnd, afterStart, afterEnd);
+		data.setHeapMemoryAfter(line, afterStart, afterEnd);
+		data.setPauseTime(line, pauseStart, GCLogLineScanner.numberEnd(line, pauseStart));
+		return true;
 	}
 	
 }
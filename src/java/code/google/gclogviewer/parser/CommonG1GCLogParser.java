@@ -0,0 +1,115 @@
+/**
+ * GCLogViewer
+ * 
+ * A free open source tool to visualize data produced by the Java VM options -Xloggc:<file> or jstat > <file>.
+ * 
+ * Code license:	Apache License 2.0
+ * 
+ * http://code.google.com/p/gclogviewer
+ */
+package code.google.gclogviewer.parser;
+
+import code.google.gclogviewer.GCLogLineScanner;
+import code.google.gclogviewer.GCLogPhase;
+import code.google.gclogviewer.OneLineGCData;
+
+/**
+ * scan G1 pause record: [datestamp: ]time: [keyword... [before->after(total)], pause secs] [details block]
+ *
+ * with -XX:+PrintGCDetails the record is the pause line with its indented details block,
+ * GCLogRecordAssembler joins them,heap change is in "[Eden: ... Survivors: ... Heap: ...]" of details
+ * and phase times are kept,without details heap change is in the pause line.
+ * 
+ * @author <a href="mailto:bluedavy@gmail.com">bluedavy</a>
+ */
+public class CommonG1GCLogParser {
+
+	private static final String EDEN="[Eden: ";
+	
+	private static final String SURVIVORS="Survivors: ";
+	
+	private static final String HEAP="Heap: ";
+	
+	/**
+	 * @param ygc young gen change of details is memory change,else heap change is
+	 * @param heapChange pause line has heap change,else memory is 0 when there are no details,e.g. remark
+	 */
+	public OneLineGCData parse(CharSequence lineInfo,int keywordOffset,String keyword,boolean ygc,boolean heapChange) throws Exception {
+		OneLineGCData data=new OneLineGCData();
+		data.setYGCData(ygc);
+		// data without occur time is counted as failed in diagnostics
+		formData(lineInfo, keywordOffset, data, keyword, heapChange);
+		return data;
+	}
+	
+	private boolean formData(CharSequence line,int keywordOffset,OneLineGCData data,String keyword,boolean heapChange){
+		int keywordStart=GCLogLineScanner.indexOf(line, keyword, keywordOffset);
+		if(keywordStart==-1)
+			return false;
+		int keywordEnd=keywordStart+keyword.length();
+		int pauseStart=GCLogLineScanner.pauseTimeStart(line, keywordEnd, line.length());
+		if(pauseStart==-1)
+			return false;
+		int pauseEnd=GCLogLineScanner.numberEnd(line, pauseStart);
+		int eden=GCLogLineScanner.indexOf(line, EDEN, pauseEnd);
+		long[] heap=null;
+		if(eden!=-1){
+			heap=memoryChange(line, GCLogLineScanner.indexOf(line, HEAP, eden)+HEAP.length());
+			if(heap==null)
+				return false;
+			long[] memory=heap;
+			if(data.isYGCData()){
+				long[] edenChange=memoryChange(line, eden+EDEN.length());
+				long[] survivors=memoryChange(line, GCLogLineScanner.indexOf(line, SURVIVORS, eden)+SURVIVORS.length());
+				if(edenChange==null || survivors==null)
+					return false;
+				memory=new long[]{edenChange[0]+survivors[0],edenChange[1]+survivors[1]};
+			}
+			data.setMemoryChangeInfo(memory[0], memory[1]);
+			data.setHeapMemoryAfter(heap[1]);
+			double[] phaseTimes=new double[GCLogPhase.count()];
+			if(GCLogPhase.scanBlock(line, pauseEnd, phaseTimes))
+				data.setPhaseTimes(phaseTimes);
+		}
+		else if(heapChange){
+			// before->after(total), pause secs
+			int arrow=GCLogLineScanner.lastIndexOf(line, "->", pauseStart);
+			int beforeStart=arrow;
+			while(beforeStart>keywordEnd && line.charAt(beforeStart-1)!=' '){
+				beforeStart--;
+			}
+			// only (cause) is between keyword and heap change,not [generation: ... of other collectors' Full GC
+			int bracket=GCLogLineScanner.indexOf(line, "[", keywordEnd);
+			if(arrow<keywordEnd || (bracket!=-1 && bracket<beforeStart))
+				return false;
+			heap=memoryChange(line, beforeStart);
+			if(heap==null)
+				return false;
+			data.setMemoryChangeInfo(heap[0], heap[1]);
+			data.setHeapMemoryAfter(heap[1]);
+		}
+		if(!GCLogLineScanner.scanOccurTime(line, keywordStart, data))
+			return false;
+		data.setPauseTime(line, pauseStart, pauseEnd);
+		return true;
+	}
+	
+	/**
+	 * before and after K of "before[(total)]->after" which begins at start,null if not found
+	 */
+	static long[] memoryChange(CharSequence line,int start){
+		int beforeEnd=GCLogLineScanner.sizeEnd(line, start);
+		if(beforeEnd==-1)
+			return null;
+		int arrow=beforeEnd;
+		if(arrow<line.length() && line.charAt(arrow)=='(')
+			arrow=GCLogLineScanner.indexOf(line, ")", arrow)+1;
+		if(arrow==0 || !GCLogLineScanner.regionMatches(line, arrow, "->"))
+			return null;
+		int afterEnd=GCLogLineScanner.sizeEnd(line, arrow+2);
+		if(afterEnd==-1)
+			return null;
+		return new long[]{GCLogLineScanner.sizeK(line, start, beforeEnd),GCLogLineScanner.sizeK(line, arrow+2, afterEnd)};
+	}
+	
+}
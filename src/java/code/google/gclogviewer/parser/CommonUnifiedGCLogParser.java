@@ -0,0 +1,88 @@
+/**
+ * GCLogViewer
+ * 
+ * A free open source tool to visualize data produced by the Java VM options -Xloggc:<file> or jstat > <file>.
+ * 
+ * Code license:	Apache License 2.0
+ * 
+ * http://code.google.com/p/gclogviewer
+ */
+package code.google.gclogviewer.parser;
+
+import java.math.BigDecimal;
+
+import code.google.gclogviewer.GCLogLineScanner;
+import code.google.gclogviewer.GCLogUnifiedLine;
+import code.google.gclogviewer.OneLineGCData;
+
+/**
+ * scan gc pause line of unified logging(-Xlog:gc): [decorators] GC(n) keyword... before->after(total) pause ms
+ *
+ * the line is written when gc ends,occur time is uptime minus pause,it is replaced by uptime of
+ * the [gc,start] line of same GC(n) when GCLogAnalyzeContext has seen it.
+ * memory change is of the whole heap,YGC gets young gen change from [gc,heap] lines the same way.
+ * 
+ * @author <a href="mailto:bluedavy@gmail.com">bluedavy</a>
+ */
+public class CommonUnifiedGCLogParser {
+
+	private static final String PAUSE_UNIT="ms";
+	
+	private static final String ARROW="->";
+	
+	public OneLineGCData parse(CharSequence lineInfo,int keywordOffset,boolean ygc) throws Exception {
+		OneLineGCData data=new OneLineGCData();
+		data.setYGCData(ygc);
+		// data without occur time is counted as failed in diagnostics
+		formData(lineInfo, keywordOffset, data);
+		return data;
+	}
+	
+	private boolean formData(CharSequence line,int keywordOffset,OneLineGCData data){
+		int messageStart=GCLogUnifiedLine.messageStart(line);
+		if(messageStart==-1)
+			return false;
+		int uptimeStart=GCLogUnifiedLine.uptimeStart(line, messageStart);
+		if(uptimeStart==-1)
+			return false;
+		int end=line.length();
+		while(end>keywordOffset && line.charAt(end-1)==' '){
+			end--;
+		}
+		if(!GCLogLineScanner.regionMatches(line, end-PAUSE_UNIT.length(), PAUSE_UNIT))
+			return false;
+		int pauseEnd=end-PAUSE_UNIT.length();
+		int pauseStart=pauseEnd;
+		while(pauseStart>keywordOffset && (GCLogLineScanner.isDigit(line.charAt(pauseStart-1)) || line.charAt(pauseStart-1)=='.')){
+			pauseStart--;
+		}
+		if(pauseStart==pauseEnd || line.charAt(pauseStart-1)!=' ')
+			return false;
+		int arrow=GCLogLineScanner.lastIndexOf(line, ARROW, pauseStart);
+		if(arrow<keywordOffset)
+			return false;
+		// before size ends with unit at arrow
+		int beforeStart=arrow-1;
+		while(beforeStart>keywordOffset && (GCLogLineScanner.isDigit(line.charAt(beforeStart-1)) || line.charAt(beforeStart-1)=='.')){
+			beforeStart--;
+		}
+		int afterStart=arrow+ARROW.length();
+		int afterEnd=GCLogLineScanner.sizeEnd(line, afterStart);
+		if(GCLogLineScanner.sizeEnd(line, beforeStart)!=arrow || afterEnd==-1)
+			return false;
+		long heapAfter=GCLogLineScanner.sizeK(line, afterStart, afterEnd);
+		// ms -> secs,decimal point is moved so secs are exact as in old format
+		String pause=new BigDecimal(line.subSequence(pauseStart, pauseEnd).toString()).movePointLeft(3).toPlainString();
+		int uptimeScale=GCLogUnifiedLine.uptimeScale(line, uptimeStart);
+		int dateStart=GCLogUnifiedLine.dateStart(line, messageStart);
+		if(dateStart!=-1)
+			data.setOccurDateTime(line, dateStart, dateStart+19);
+		data.setGCId(GCLogUnifiedLine.gcId(line, messageStart));
+		data.setPauseTime(pause);
+		data.setOccurTime(Math.max(GCLogUnifiedLine.uptimeSecs(line, uptimeStart)-data.getPauseTimeSecs(), 0), uptimeScale);
+		data.setMemoryChangeInfo(GCLogLineScanner.sizeK(line, beforeStart, arrow), heapAfter);
+		data.setHeapMemoryAfter(heapAfter);
+		return true;
+	}
+	
+}
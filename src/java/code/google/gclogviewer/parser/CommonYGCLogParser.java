@@ -9,54 +9,45 @@
  */
 package code.google.gclogviewer.parser;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
+import code.google.gclogviewer.GCLogLineScanner;
 import code.google.gclogviewer.OneLineGCData;
 
 /**
+ * scan YGC log line: [datestamp: ]time: ...keyword: beforeK->afterK(...)...->heapAfterK(...)..., pause secs
+ * 
  * @author <a href="mailto:bluedavy@gmail.com">bluedavy</a>
  */
 public class CommonYGCLogParser {
 
-	public OneLineGCData parse(String lineInfo,Pattern pattern1,Pattern pattern2) throws Exception {
+	public OneLineGCData parse(CharSequence lineInfo,int keywordOffset,String keyword) throws Exception {
 		OneLineGCData data=new OneLineGCData();
 		data.setYGCData(true);
-		boolean result=formData(lineInfo, data, pattern1);
-		if(!result){
-			result=formData(lineInfo, data, pattern2);
-			if(!result){
-				System.err.println("parse line failed: "+lineInfo);
-			}
-		}
+		formData(lineInfo, keywordOffset, data, keyword);
 		return data;
 	}
 	
-	private boolean formData(String lineInfo,OneLineGCData data,Pattern pattern){
-		boolean result=false;
-		Matcher match = pattern.matcher(lineInfo);
-		String[] memoryChanges=new String[2];
-		if (match.find()) {
-			if(match.groupCount() == 5){
-				data.setOccurTime(match.group(1));
-				memoryChanges[0]=match.group(2);
-				memoryChanges[1]=match.group(3);
-				data.setMemoryChangeInfo(memoryChanges);
-				data.setHeapMemoryAfter(match.group(4));
-				data.setPauseTime(match.group(5));
-			}
-			else if(match.groupCount() == 6){
-				data.setOccurDateTime(match.group(1));
-				data.setOccurTime(match.group(2));
-				memoryChanges[0]=match.group(3);
-				memoryChanges[1]=match.group(4);
-				data.setMemoryChangeInfo(memoryChanges);
-				data.setHeapMemoryAfter(match.group(5));
-				data.setPauseTime(match.group(6));
-			}
-			result=true;
-        }
-		return result;
+	private boolean formData(CharSequence line,int keywordOffset,OneLineGCData data,String keyword){
+		int keywordStart=GCLogLineScanner.indexOf(line, keyword, keywordOffset);
+		if(keywordStart==-1)
+			return false;
+		int beforeStart=keywordStart+keyword.length();
+		if(!GCLogLineScanner.isMemoryChange(line, beforeStart))
+			return false;
+		int beforeEnd=GCLogLineScanner.digitsEnd(line, beforeStart);
+		int afterStart=beforeEnd+3;
+		int afterEnd=GCLogLineScanner.digitsEnd(line, afterStart);
+		int pauseStart=GCLogLineScanner.pauseTimeStart(line, afterEnd, line.length());
+		if(pauseStart==-1)
+			return false;
+		int heapAfterStart=GCLogLineScanner.lastMemoryAfterStart(line, afterEnd, pauseStart);
+		if(heapAfterStart==-1)
+			return false;
+		if(!GCLogLineScanner.scanOccurTime(line, keywordStart, data))
+			return false;
+		data.setMemoryChangeInfo(line, beforeStart, beforeEnd, afterStart, afterEnd);
+		data.setHeapMemoryAfter(line, heapAfterStart, GCLogLineScanner.digitsEnd(line, heapAfterStart));
+		data.setPauseTime(line, pauseStart, GCLogLineScanner.numberEnd(line, pauseStart));
+		return true;
 	}
 	
 }
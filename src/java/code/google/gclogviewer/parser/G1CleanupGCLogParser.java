@@ -0,0 +1,47 @@
+/**
+ * GCLogViewer
+ * 
+ * A free open source tool to visualize data produced by the Java VM options -Xloggc:<file> or jstat > <file>.
+ * 
+ * Code license:	Apache License 2.0
+ * 
+ * http://code.google.com/p/gclogviewer
+ */
+package code.google.gclogviewer.parser;
+
+import code.google.gclogviewer.GCLogParser;
+import code.google.gclogviewer.OneLineGCData;
+
+/**
+ * parse G1 cleanup pause log, -XX:+UseG1GC
+ * 
+ * 	Log example:
+ *   3.200: [GC cleanup 120M->118M(256M), 0.0012340 secs]
+ *
+ * @author <a href="mailto:bluedavy@gmail.com">bluedavy</a>
+ */
+public class G1CleanupGCLogParser extends CommonG1GCLogParser implements GCLogParser {
+
+	private static final String KEYWORD="GC cleanup";
+	
+	public OneLineGCData parse(CharSequence lineInfo) throws Exception {
+		return parse(lineInfo, 0);
+	}
+	
+	public OneLineGCData parse(CharSequence lineInfo,int keywordOffset) throws Exception {
+		return parse(lineInfo, keywordOffset, KEYWORD, false, true);
+	}
+
+	public boolean isYGC() {
+		return false;
+	}
+
+	public String getGCDescription() {
+		return "G1GC";
+	}
+
+	public boolean isCMSGC() {
+		return true;
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,86 @@
+/**
+ * GCLogViewer
+ * 
+ * A free open source tool to visualize data produced by the Java VM options -Xloggc:<file> or jstat > <file>.
+ * 
+ * Code license:	Apache License 2.0
+ * 
+ * http://code.google.com/p/gclogviewer
+ */
+package code.google.gclogviewer.parser;
+
+import code.google.gclogviewer.GCLogLineScanner;
+import code.google.gclogviewer.GCLogParser;
+import code.google.gclogviewer.OneLineGCData;
+
+/**
+ * parse G1 full gc log, -XX:+UseG1GC
+ * 
+ * 	Log example:
+ *   2010-11-10T17:03:49.068+0800: 8.120: [Full GC (Allocation Failure)  250M->100M(256M), 0.5123450 secs]
+ *   8.120: [Full GC (System.gc())  250M->100M(256M), 0.5123450 secs]
+ *
+ * keyword is not only of G1,heap change must follow the keyword and (cause),
+ * Full GC of other collectors,e.g. [Full GC (System.gc()) 8.120: [CMS: ...,is not parsed.
+ *
+ * @author <a href="mailto:bluedavy@gmail.com">bluedavy</a>
+ */
+public class G1FGCLogParser extends CommonG1GCLogParser implements GCLogParser {
+
+	private static final String KEYWORD="Full GC";
+	
+	public OneLineGCData parse(CharSequence lineInfo) throws Exception {
+		return parse(lineInfo, 0);
+	}
+	
+	/**
+	 * @return null if it is not a G1 full gc
+	 */
+	public OneLineGCData parse(CharSequence lineInfo,int keywordOffset) throws Exception {
+		int keywordStart=GCLogLineScanner.indexOf(lineInfo, KEYWORD, keywordOffset);
+		if(keywordStart==-1 || !isG1(lineInfo, keywordStart+KEYWORD.length()))
+			return null;
+		return parse(lineInfo, keywordOffset, KEYWORD, false, true);
+	}
+
+	/**
+	 * heap change follows keyword and (cause)
+	 */
+	private static boolean isG1(CharSequence line,int keywordEnd){
+		int i=skipSpaces(line, keywordEnd);
+		if(i<line.length() && line.charAt(i)=='('){
+			// cause may have parentheses,e.g. (System.gc())
+			int depth=0;
+			for (; i < line.length(); i++) {
+				char c=line.charAt(i);
+				if(c=='(')
+					depth++;
+				else if(c==')' && --depth==0)
+					break;
+			}
+			i=skipSpaces(line, i+1);
+		}
+		return i<line.length() && memoryChange(line, i)!=null;
+	}
+
+	private static int skipSpaces(CharSequence line,int start){
+		int i=start;
+		while(i<line.length() && line.charAt(i)==' '){
+			i++;
+		}
+		return i;
+	}
+
+	public boolean isYGC() {
+		return false;
+	}
+
+	public String getGCDescription() {
+		return "G1GC";
+	}
+
+	public boolean isCMSGC() {
+		return false;
+	}
+
+}
\ No newline at end of file
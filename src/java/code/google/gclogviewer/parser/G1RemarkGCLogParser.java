@@ -0,0 +1,48 @@
+/**
+ * GCLogViewer
+ * 
+ * A free open source tool to visualize data produced by the Java VM options -Xloggc:<file> or jstat > <file>.
+ * 
+ * Code license:	Apache License 2.0
+ * 
+ * http://code.google.com/p/gclogviewer
+ */
+package code.google.gclogviewer.parser;
+
+import code.google.gclogviewer.GCLogParser;
+import code.google.gclogviewer.OneLineGCData;
+
+/**
+ * parse G1 remark pause log, -XX:+UseG1GC
+ * 
+ * 	Log example:
+ *   3.100: [GC remark 3.100: [Finalize Marking, 0.0001 secs] 3.101: [GC ref-proc, 0.0002 secs] 3.101: [Unloading, 0.0010 secs], 0.0020 secs]
+ *    [Times: user=0.01 sys=0.00, real=0.00 secs]
+ *
+ * @author <a href="mailto:bluedavy@gmail.com">bluedavy</a>
+ */
+public class G1RemarkGCLogParser extends CommonG1GCLogParser implements GCLogParser {
+
+	private static final String KEYWORD="GC remark";
+	
+	public OneLineGCData parse(CharSequence lineInfo) throws Exception {
+		return parse(lineInfo, 0);
+	}
+	
+	public OneLineGCData parse(CharSequence lineInfo,int keywordOffset) throws Exception {
+		return parse(lineInfo, keywordOffset, KEYWORD, false, false);
+	}
+
+	public boolean isYGC() {
+		return false;
+	}
+
+	public String getGCDescription() {
+		return "G1GC";
+	}
+
+	public boolean isCMSGC() {
+		return true;
+	}
+
+}
\ No newline at end of file
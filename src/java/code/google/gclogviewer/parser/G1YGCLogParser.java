@@ -0,0 +1,55 @@
+/**
+ * GCLogViewer
+ * 
+ * A free open source tool to visualize data produced by the Java VM options -Xloggc:<file> or jstat > <file>.
+ * 
+ * Code license:	Apache License 2.0
+ * 
+ * http://code.google.com/p/gclogviewer
+ */
+package code.google.gclogviewer.parser;
+
+import code.google.gclogviewer.GCLogParser;
+import code.google.gclogviewer.OneLineGCData;
+
+/**
+ * parse G1 evacuation pause log of young and mixed gc, -XX:+UseG1GC
+ * 
+ * 	Log example:
+ *   2010-11-10T17:03:49.068+0800: 0.297: [GC pause (G1 Evacuation Pause) (young) 24M->3633K(256M), 0.0046740 secs]
+ *   5.012: [GC pause (G1 Evacuation Pause) (mixed) 120M->80M(256M), 0.0081230 secs]
+ *   with -XX:+PrintGCDetails,young gen and phases are taken from the details block:
+ *   0.297: [GC pause (G1 Evacuation Pause) (young), 0.0046740 secs]
+ *      [Parallel Time: 3.6 ms, GC Workers: 4]
+ *         [Ext Root Scanning (ms): Min: 0.4, Avg: 0.6, Max: 0.9, Diff: 0.5, Sum: 2.4]
+ *         ...
+ *      [Eden: 24.0M(24.0M)->0.0B(13.0M) Survivors: 0.0B->3072.0K Heap: 24.0M(256.0M)->3633.0K(256.0M)]
+ *    [Times: user=0.01 sys=0.00, real=0.00 secs]
+ *
+ * @author <a href="mailto:bluedavy@gmail.com">bluedavy</a>
+ */
+public class G1YGCLogParser extends CommonG1GCLogParser implements GCLogParser {
+
+	private static final String KEYWORD="GC pause";
+	
+	public OneLineGCData parse(CharSequence lineInfo) throws Exception {
+		return parse(lineInfo, 0);
+	}
+	
+	public OneLineGCData parse(CharSequence lineInfo,int keywordOffset) throws Exception {
+		return parse(lineInfo, keywordOffset, KEYWORD, true, true);
+	}
+
+	public boolean isYGC() {
+		return true;
+	}
+
+	public String getGCDescription() {
+		return "G1GC";
+	}
+
+	public boolean isCMSGC() {
+		return false;
+	}
+
+}
\ No newline at end of file
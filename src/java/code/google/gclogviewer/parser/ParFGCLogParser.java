@@ -9,8 +9,6 @@
  */
 package code.google.gclogviewer.parser;
 
-import java.util.regex.Pattern;
-
 import code.google.gclogviewer.GCLogParser;
 import code.google.gclogviewer.OneLineGCData;
 
@@ -25,11 +23,15 @@ import code.google.gclogviewer.OneLineGCData;
  */
 public class ParFGCLogParser extends CommonFGCLogParser implements GCLogParser {
 
-	private static final Pattern pattern1=Pattern.compile("([0-9-T:]+)..*: ([0-9.]+):.*ParOldGen.*K\\)] ([0-9]+)K->([0-9]+)K\\(.*, ([0-9.]+) secs");
-	private static final Pattern pattern2=Pattern.compile("([0-9.]+):.*ParOldGen.*K\\)] ([0-9]+)K->([0-9]+)K\\(.*, ([0-9.]+) secs");
+	private static final String KEYWORD="ParOldGen";
+	private static final String PREFIX="K)] ";
+	
+	public OneLineGCData parse(CharSequence lineInfo) throws Exception {
+		return parse(lineInfo, 0);
+	}
 	
-	public OneLineGCData parse(String lineInfo) throws Exception {
-		return parse(lineInfo, pattern1, pattern2);
+	public OneLineGCData parse(CharSequence lineInfo,int keywordOffset) throws Exception {
+		return parse(lineInfo, keywordOffset, KEYWORD, PREFIX);
 	}
 
 	public boolean isYGC() {
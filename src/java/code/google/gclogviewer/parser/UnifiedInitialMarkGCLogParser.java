@@ -0,0 +1,51 @@
+/**
+ * GCLogViewer
+ * 
+ * A free open source tool to visualize data produced by the Java VM options -Xloggc:<file> or jstat > <file>.
+ * 
+ * Code license:	Apache License 2.0
+ * 
+ * http://code.google.com/p/gclogviewer
+ */
+package code.google.gclogviewer.parser;
+
+import code.google.gclogviewer.GCLogParser;
+import code.google.gclogviewer.OneLineGCData;
+
+/**
+ * parse CMS initial mark of unified logging, -Xlog:gc*
+ * 
+ * 	Log example:
+ *   [2023-01-01T10:00:05.130+0800][5.130s][info][gc          ] GC(7) Pause Initial Mark 520M->520M(1024M) 1.352ms
+ *   [5.130s][info][gc] GC(7) Pause Initial Mark 520M->520M(1024M) 1.352ms
+ *
+ * @author <a href="mailto:bluedavy@gmail.com">bluedavy</a>
+ */
+public class UnifiedInitialMarkGCLogParser extends CommonUnifiedGCLogParser implements GCLogParser {
+
+	private static final String KEYWORD="Pause Initial Mark";
+	
+	public OneLineGCData parse(CharSequence lineInfo) throws Exception {
+		return parse(lineInfo, 0);
+	}
+	
+	public OneLineGCData parse(CharSequence lineInfo,int keywordOffset) throws Exception {
+		return parse(lineInfo, keywordOffset, false);
+	}
+
+	public boolean isYGC() {
+		return false;
+	}
+
+	/**
+	 * collector is told by the "Using ..." line of log,see GCLogAnalyzeContext
+	 */
+	public String getGCDescription() {
+		return null;
+	}
+
+	public boolean isCMSGC() {
+		return true;
+	}
+
+}
@@ -0,0 +1,52 @@
+/**
+ * GCLogViewer
+ * 
+ * A free open source tool to visualize data produced by the Java VM options -Xloggc:<file> or jstat > <file>.
+ * 
+ * Code license:	Apache License 2.0
+ * 
+ * http://code.google.com/p/gclogviewer
+ */
+package code.google.gclogviewer.parser;
+
+import code.google.gclogviewer.GCLogParser;
+import code.google.gclogviewer.OneLineGCData;
+
+/**
+ * parse young gen pause of unified logging, -Xlog:gc*
+ * 
+ * 	Log example:
+ *   [2023-01-01T10:00:05.123+0800][5.123s][info][gc,start    ] GC(5) Pause Young (Allocation Failure)
+ *   [2023-01-01T10:00:05.130+0800][5.130s][info][gc          ] GC(5) Pause Young (Allocation Failure) 65M->10M(245M) 7.017ms
+ *   [5.130s][info][gc] GC(5) Pause Young (Allocation Failure) 65M->10M(245M) 7.017ms
+ *
+ * @author <a href="mailto:bluedavy@gmail.com">bluedavy</a>
+ */
+public class UnifiedYGCLogParser extends CommonUnifiedGCLogParser implements GCLogParser {
+
+	private static final String KEYWORD="Pause Young";
+	
+	public OneLineGCData parse(CharSequence lineInfo) throws Exception {
+		return parse(lineInfo, 0);
+	}
+	
+	public OneLineGCData parse(CharSequence lineInfo,int keywordOffset) throws Exception {
+		return parse(lineInfo, keywordOffset, true);
+	}
+
+	public boolean isYGC() {
+		return true;
+	}
+
+	/**
+	 * collector is told by the "Using ..." line of log,see GCLogAnalyzeContext
+	 */
+	public String getGCDescription() {
+		return null;
+	}
+
+	public boolean isCMSGC() {
+		return false;
+	}
+
+}
@@ -0,0 +1,926 @@
+/**
+ * GCLogViewer
+ * 
+ * A free open source tool to visualize data produced by the Java VM options -Xloggc:<file> or jstat > <file>.
+ * 
+ * Code license:	Apache License 2.0
+ * 
+ * http://code.google.com/p/gclogviewer
+ */
+package code.google.gclogviewer;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.PrintStream;
+import java.io.RandomAccessFile;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+import junit.framework.TestCase;
+
+/**
+ * Test for GCLogAnalyze
+ * 
+ * @author <a href="mailto:bluedavy@gmail.com">bluedavy</a>
+ */
+public class GCLogAnalyzeTest extends TestCase{
+
+	private File logFile;
+	
+	protected void setUp() throws Exception {
+		logFile=File.createTempFile("gclogviewer", ".log");
+		Writer writer=new FileWriter(logFile);
+		double time=1.0;
+		for (int i = 0; i < 2000; i++) {
+			writeLine(writer, time, i);
+			time+=1.5;
+		}
+		writer.close();
+	}
+	
+	protected void tearDown() throws Exception {
+		logFile.delete();
+		new GCLogCache(logFile).getCacheFile().delete();
+	}
+	
+	public void testParallelAnalysisSameAsSequential() throws Exception {
+		GCLogAnalyze analyze=new GCLogAnalyze();
+		GCLogData sequential=analyze.analysis(logFile.getPath());
+		GCLogData parallel=analyze.analysis(logFile.getPath(), 4, 4096);
+		assertTrue(sequential.getYGC()>0);
+		assertTrue(sequential.getFGC()>0);
+		assertTrue(sequential.getCMSGC()>0);
+		assertEquals(sequential.getRuntime(), parallel.getRuntime());
+		assertEquals(sequential.getGCType(), parallel.getGCType());
+		assertEquals(sequential.getYGCPauseTimes(), parallel.getYGCPauseTimes());
+		assertEquals(sequential.getFGCPauseTimes(), parallel.getFGCPauseTimes());
+		assertEquals(sequential.getCMSGCPauseTimes(), parallel.getCMSGCPauseTimes());
+		assertEquals(sequential.getYGCLDS(), parallel.getYGCLDS());
+		assertEquals(sequential.getYGCPTOS(), parallel.getYGCPTOS());
+		assertEquals(sequential.getThroughput(), parallel.getThroughput());
+	}
+	
+	public void testChunksKeepRecordsCutByConcurrentLines() throws Exception {
+		String times=" [Times: user=0.05 sys=0.00, real=0.02 secs]";
+		Writer writer=new FileWriter(logFile);
+		for (int i = 0; i < 3; i++) {
+			String time=(i+1)+".000";
+			writer.write(time+": [GC "+time+": [ParNew"+(i+1)+".001: [CMS-concurrent-abortable-preclean: 0.010/0.020 secs]"+times+"\n");
+			writer.write("Desired survivor size 3342336 bytes, new threshold 1 (max 6)\n");
+			writer.write("- age   1:    6669648 bytes,    6669648 total\n");
+			writer.write(": 558615K->13855K(563200K), 0.0177710 secs] 739960K->195200K(1624064K), 0.0179390 secs]"+times+"\n");
+		}
+		writer.close();
+		GCLogData sequential=sequentialData();
+		GCLogData parallel=new GCLogAnalyze().analysis(logFile.getPath(), 4, 16);
+		assertEquals(3, sequential.getYGC());
+		assertEquals(sequential.getYGC(), parallel.getYGC());
+		assertEquals(sequential.getYGCPauseTimes(), parallel.getYGCPauseTimes());
+		assertEquals(sequential.getDiagnostics().getUnknownLines(), parallel.getDiagnostics().getUnknownLines());
+	}
+	
+	public void testFollowAppendedLines() throws Exception {
+		GCLogAnalyze analyze=new GCLogAnalyze();
+		GCLogFollower follower=new GCLogFollower(analyze, logFile.getPath(), 2);
+		GCLogData whole=follower.follow();
+		assertTrue(follower.isRestarted());
+		int ygc=whole.getYGC();
+		assertNull(follower.follow());
+		Writer writer=new FileWriter(logFile, true);
+		writeLine(writer, 5000.0, 1);
+		// record being written,not consumed until it ends
+		writer.write("5001.000: [GC 5001.000: [ParNew: 558615K->13855K(563200K), 0.0177710 secs]");
+		writer.close();
+		GCLogData appended=follower.follow();
+		assertFalse(follower.isRestarted());
+		assertEquals(1, appended.getYGC());
+		assertEquals(ygc+1, follower.getData().getYGC());
+		writer=new FileWriter(logFile, true);
+		writer.write(" 739960K->195200K(1624064K), 0.0179390 secs] [Times: user=0.05 sys=0.00, real=0.02 secs]\n");
+		writer.close();
+		appended=follower.follow();
+		assertEquals("0.0179390", appended.getYGCPauseTimes().get("5001.000"));
+		assertEquals(sequentialData().getYGCLDS(), follower.getData().getYGCLDS());
+		// truncated
+		writer=new FileWriter(logFile);
+		writeLine(writer, 1.0, 1);
+		writer.close();
+		whole=follower.follow();
+		assertTrue(follower.isRestarted());
+		assertEquals(1, whole.getYGC());
+	}
+	
+	public void testFollowRecordWrittenInTwoWrites() throws Exception {
+		Writer writer=new FileWriter(logFile);
+		writeG1Lines(writer, 1.0, 0);
+		writer.close();
+		GCLogFollower follower=new GCLogFollower(new GCLogAnalyze(), logFile.getPath(), 1, false);
+		assertEquals(1, follower.follow().getYGC());
+		StringWriter record=new StringWriter();
+		writeG1Lines(record, 2.5, 1);
+		int split=record.toString().indexOf("      [Ext Root Scanning");
+		writer=new FileWriter(logFile, true);
+		writer.write(record.toString().substring(0, split));
+		writer.close();
+		// details block is not written whole,pause is held back
+		GCLogData appended=follower.follow();
+		assertEquals(0, appended.getYGC());
+		writer=new FileWriter(logFile, true);
+		writer.write(record.toString().substring(split));
+		writer.close();
+		appended=follower.follow();
+		assertEquals(1, appended.getYGC());
+		assertEquals(2.6, appended.getYGCEvents().getPhaseTime(0, GCLogPhase.OBJECT_COPY), 0.0001);
+		assertEquals(24*1024, appended.getYGCEvents().getMemoryBefore(0));
+		assertEquals(0, follower.getData().getDiagnostics().getUnknownLines());
+		assertEquals(2, follower.getData().getYGC());
+	}
+	
+	public void testEventsWithSameTimeAreKept() throws Exception {
+		Writer writer=new FileWriter(logFile);
+		writeLine(writer, 10.0, 1);
+		writeLine(writer, 10.0, 2);
+		writer.close();
+		GCLogData data=sequentialData();
+		assertEquals(2, data.getYGC());
+		GCLogEvents events=data.getYGCEvents();
+		assertEquals(10.0, events.getTime(1), 0);
+		assertEquals(0.0102, events.getPause(1), 0);
+		// LDS: 700202-(700101-13855)
+		assertEquals(13956L, events.getLDS(1));
+		assertEquals(101L, events.getPTOS(1));
+		assertEquals("10.000", events.getTimeText(0));
+		assertEquals("0.0101", data.getYGCPauseTimes().get("10.000"));
+		assertEquals("13855", data.getYGCMemoryChanges().get("10.000")[1]);
+		assertEquals(2, data.getYGCPauseTimes().size());
+		// both are seen by index
+		assertEquals("10.000", data.getYGCPauseTimes().getKey(1));
+		assertEquals("0.0102", data.getYGCPauseTimes().getValue(1));
+	}
+	
+	public void testColumnsKeepScaleOfEachEvent() throws Exception {
+		GCLogEvents events=new GCLogEvents();
+		events.add(1.5, 1, 0.0177710, 7, 0, 0, 0);
+		events.add(2.25, 2, 0.0177710, 7, 0, 0, 0);
+		// gc counted by jstat,not exact at its scale
+		events.add(29.3333333, 3, 3000.5, 7, 0, 0, 0);
+		assertEquals("1.5", events.getTimeText(0));
+		assertEquals("2.25", events.getTimeText(1));
+		assertEquals("29.333", events.getTimeText(2));
+		assertEquals(29.3333333, events.getTime(2), 0);
+		assertEquals("0.0177710", events.getPauseText(1));
+		assertEquals("3000.5000000", events.getPauseText(2));
+		ByteArrayOutputStream bytes=new ByteArrayOutputStream();
+		java.io.DataOutputStream out=new java.io.DataOutputStream(bytes);
+		events.write(out);
+		out.close();
+		GCLogEvents read=new GCLogEvents();
+		read.read(java.nio.ByteBuffer.wrap(bytes.toByteArray()));
+		assertEquals(events.pauseTimesView(), read.pauseTimesView());
+		read.append(events);
+		assertEquals(6, read.size());
+		assertEquals("2.25", read.getTimeText(4));
+	}
+	
+	public void testRunningAggregatesSameAsColumns() throws Exception {
+		GCLogData data=new GCLogAnalyze().analysis(logFile.getPath(), 4, 4096);
+		GCLogEvents[] allEvents=new GCLogEvents[]{data.getYGCEvents(),data.getFGCEvents(),data.getCMSGCEvents()};
+		for (GCLogEvents events : allEvents) {
+			double totalPause=0;
+			double maxPause=0;
+			double maxTime=0;
+			long totalMemoryAfter=0;
+			long totalLDS=0;
+			for (int i = 0; i < events.size(); i++) {
+				totalPause+=events.getPause(i);
+				maxPause=Math.max(maxPause, events.getPause(i));
+				maxTime=Math.max(maxTime, events.getTime(i));
+				totalMemoryAfter+=events.getMemoryAfter(i);
+				totalLDS+=events.getLDS(i);
+			}
+			assertEquals(totalPause, events.getTotalPause(), 1e-9);
+			assertEquals(maxPause, events.getMaxPause(), 0);
+			assertEquals(maxTime, events.getMaxTime(), 0);
+			assertEquals(totalMemoryAfter, events.getTotalMemoryAfter());
+			assertEquals(totalLDS, events.getTotalLDS());
+		}
+		assertEquals((int)(data.getYGCEvents().getTotalLDS()/data.getYGC()), data.getAVGYGCLDS());
+	}
+	
+	public void testPausePercentiles() throws Exception {
+		GCLogData data=new GCLogAnalyze().analysis(logFile.getPath(), 4, 4096);
+		GCLogEvents events=data.getYGCEvents();
+		double[] pauses=new double[events.size()];
+		for (int i = 0; i < pauses.length; i++) {
+			pauses[i]=events.getPause(i);
+		}
+		Arrays.sort(pauses);
+		GCLogPauseHistogram histogram=events.getPauseHistogram();
+		assertEquals(pauses.length, histogram.getCount());
+		assertEquals(pauses[pauses.length-1], histogram.getMax(), 1e-6);
+		double[] percents=new double[]{0,50,90,99,99.9,100};
+		for (double percent : percents) {
+			double exact=pauses[Math.max((int)Math.ceil(percent/100*pauses.length)-1, 0)];
+			// at most one bucket,1/64 of value,above exact
+			double percentile=histogram.getPercentile(percent);
+			assertTrue(percent+": "+percentile+" "+exact, percentile>=exact-1e-6 && percentile<=exact*(1+1.0/64)+1e-6);
+		}
+		assertEquals(0.0, new GCLogPauseHistogram().getPercentile(99), 0);
+		String[] ygcPercentiles=data.getYGCPercentiles().split("[/ ]");
+		assertEquals(6, ygcPercentiles.length);
+		assertEquals(new DecimalFormat("#0.000").format(histogram.getMax()), ygcPercentiles[4]);
+	}
+	
+	public void testMutatorUtilization() throws Exception {
+		GCLogData data=new GCLogData();
+		data.getYGCEvents().add(10, 3, 0.5, 3, 0, 0, 0);
+		data.getYGCEvents().add(20, 3, 0.2, 3, 0, 0, 0);
+		// overlaps ygc before it,only 2 secs are paused
+		data.getFGCEvents().add(10.4, 3, 1.6, 3, 0, 0, 0);
+		data.getCMSGCEvents().add(15, 3, 0.1, 3, 0, 0, 0);
+		data.setRuntime("40");
+		GCLogUtilization utilization=new GCLogUtilization(data);
+		assertEquals(3, utilization.size());
+		assertEquals(2.3, utilization.getTotalPause(), 1e-9);
+		assertEquals(0.0, utilization.getMMU(1), 1e-9);
+		assertEquals(0.0, utilization.getMMU(2), 1e-9);
+		assertEquals(0.5, utilization.getMMU(4), 1e-9);
+		assertEquals(1-2.3/20, utilization.getMMU(20), 1e-9);
+		assertEquals(1-2.3/40, utilization.getMMU(40), 1e-9);
+		assertTrue(Double.isNaN(utilization.getMMU(41)));
+		double[][] throughputs=utilization.getThroughputs(4, 10);
+		assertEquals(4.0, throughputs[0][0], 1e-9);
+		assertEquals(40.0, throughputs[0][9], 1e-9);
+		assertEquals(1.0, throughputs[1][0], 1e-9);
+		assertEquals(1.0, throughputs[1][9], 1e-9);
+		assertEquals(1-2.0/4, throughputs[1][2], 1e-9);
+		
+		GCLogData logData=new GCLogAnalyze().analysis(logFile.getPath(), 4, 4096);
+		utilization=new GCLogUtilization(logData);
+		// promotion failed pauses are longer than gc interval,brute force on merged pauses
+		List<double[]> pauses=new ArrayList<double[]>();
+		for (GCLogEvents events : new GCLogEvents[]{logData.getYGCEvents(),logData.getFGCEvents(),logData.getCMSGCEvents()}) {
+			for (int i = 0; i < events.size(); i++) {
+				pauses.add(new double[]{events.getTime(i),events.getTime(i)+events.getPause(i)});
+			}
+		}
+		Collections.sort(pauses, new Comparator<double[]>() {
+			public int compare(double[] o1, double[] o2) {
+				return Double.compare(o1[0], o2[0]);
+			}
+		});
+		List<double[]> merged=new ArrayList<double[]>();
+		for (double[] pause : pauses) {
+			double[] last=merged.isEmpty()?null:merged.get(merged.size()-1);
+			if(last!=null && pause[0]<last[1])
+				last[1]=Math.max(last[1], pause[1]);
+			else
+				merged.add(pause);
+		}
+		assertEquals(merged.size(), utilization.size());
+		double end=utilization.getEnd();
+		for (double window : new double[]{0.01,0.1,1,10,60}) {
+			// worst window by pause time in every window from each pause start and to each pause end
+			double maxPaused=0;
+			for (double[] pause : merged) {
+				for (double start : new double[]{Math.min(pause[0], end-window),Math.max(pause[1]-window, 0)}) {
+					double windowPaused=0;
+					for (double[] other : merged) {
+						windowPaused+=Math.max(Math.min(other[1], start+window)-Math.max(other[0], start), 0);
+					}
+					maxPaused=Math.max(maxPaused, windowPaused);
+				}
+			}
+			assertEquals(String.valueOf(window), Math.max(1-maxPaused/window, 0), utilization.getMMU(window), 1e-9);
+		}
+	}
+	
+	public void testProgressOfAllChunks() throws Exception {
+		int lines=0;
+		BufferedReader reader=new BufferedReader(new FileReader(logFile));
+		while(reader.readLine()!=null){
+			lines++;
+		}
+		reader.close();
+		GCLogProgress progress=new GCLogProgress();
+		assertEquals(0, progress.getPercent());
+		assertEquals(-1.0, progress.getETASecs(), 0);
+		GCLogFollower follower=new GCLogFollower(new GCLogAnalyze(), logFile.getPath(), 4, false);
+		follower.setProgressListener(progress);
+		GCLogData data=follower.follow();
+		assertEquals(logFile.length(), progress.getTotalBytes());
+		assertEquals(logFile.length(), progress.getBytes());
+		assertEquals(lines, progress.getLines());
+		assertEquals(data.getYGC()+data.getFGC()+data.getCMSGC(), progress.getEvents());
+		assertEquals(100, progress.getPercent());
+		assertEquals(0.0, progress.getETASecs(), 0);
+		assertTrue(progress.toString().contains(" lines/s,"));
+		// chunks report at the same time
+		GCLogProgress chunksProgress=new GCLogProgress();
+		new GCLogAnalyze().analysis(logFile, 0, logFile.length(), 4, 4096, chunksProgress);
+		assertEquals(logFile.length(), chunksProgress.getBytes());
+		assertEquals(lines, chunksProgress.getLines());
+		assertEquals(progress.getEvents(), chunksProgress.getEvents());
+	}
+	
+	public void testDiagnostics() throws Exception {
+		Writer writer=new FileWriter(logFile);
+		double time=1.0;
+		for (int i = 0; i < 20; i++) {
+			writer.write("Desired survivor size 3342336 bytes, new threshold 1 (max 6)\n");
+			writer.write("- age   1:    6669648 bytes,    6669648 total\n");
+			writeLine(writer, time, 0);
+			time+=1.5;
+		}
+		writer.write("{Heap before GC invocations=1 (full 0):\n");
+		writer.write(" par new generation   total 563200K, used 558615K [0x00000000, 0x00000000, 0x00000000)\n");
+		writer.write("}\n");
+		writer.write("\n");
+		writer.write("1.000: [GC 1.000: [DefNew: 558615K->13855K(563200K), 0.0177710 secs] 739960K->195200K(1624064K), 0.0179390 secs]\n");
+		writer.write("2.000: [GC 2.000: [ParNew: 558615K->13855K(563200K)]\n");
+		// Full GC keyword of G1,but a CMS full gc which has no parser
+		writer.write("3.000: [Full GC (System.gc()) 3.000: [CMS: 693918K->226725K(1060864K), 1.7836900 secs] 1215048K->226725K(1624064K), [CMS Perm : 20000K->20000K(65536K)], 1.7840000 secs] [Times: user=1.78 sys=0.00, real=1.78 secs]\n");
+		writer.close();
+		PrintStream systemErr=System.err;
+		ByteArrayOutputStream err=new ByteArrayOutputStream();
+		GCLogData data;
+		try{
+			System.setErr(new PrintStream(err));
+			data=new GCLogAnalyze().analysis(logFile.getPath());
+		}
+		finally{
+			System.setErr(systemErr);
+		}
+		assertEquals(0, err.size());
+		GCLogDiagnostics diagnostics=data.getDiagnostics();
+		assertEquals(67, diagnostics.getLines());
+		assertEquals(40, diagnostics.getCount(GCLogDiagnostics.Category.TENURING_DISTRIBUTION));
+		assertEquals(GCLogDiagnostics.MAX_SAMPLES, diagnostics.getSamples(GCLogDiagnostics.Category.TENURING_DISTRIBUTION).size());
+		assertEquals(2, diagnostics.getCount(GCLogDiagnostics.Category.HEAP_AT_GC));
+		assertEquals(1, diagnostics.getCount(GCLogDiagnostics.Category.NO_PARSER));
+		// "}" has no marker
+		assertEquals(2, diagnostics.getCount(GCLogDiagnostics.Category.UNKNOWN));
+		assertEquals("}", diagnostics.getSamples(GCLogDiagnostics.Category.UNKNOWN).get(0));
+		assertTrue(diagnostics.getSamples(GCLogDiagnostics.Category.UNKNOWN).get(1).startsWith("3.000: [Full GC (System.gc()) 3.000: [CMS: "));
+		assertEquals(3, diagnostics.getUnknownLines());
+		assertEquals(1, diagnostics.getFailedLines());
+		assertTrue(diagnostics.hasProblems());
+		GCLogDiagnostics.ParserStats stats=diagnostics.getParserStats().get(0);
+		assertEquals("ParNew", stats.getKeyword());
+		assertEquals(20, stats.getParsed());
+		assertEquals(20, data.getYGC());
+		assertEquals(1, stats.getFailed());
+		assertTrue(stats.getFailedSamples().get(0).startsWith("2.000: [GC 2.000: [ParNew: "));
+		assertTrue(diagnostics.getReport().contains("skipped -XX:+PrintTenuringDistribution: 40 lines"));
+		// chunks are merged in log order
+		GCLogDiagnostics parallel=new GCLogAnalyze().analysis(logFile.getPath(), 4, 512).getDiagnostics();
+		assertEquals(diagnostics.getReport().replaceAll(",[0-9.]+ ms", ""), parallel.getReport().replaceAll(",[0-9.]+ ms", ""));
+	}
+	
+	public void testReopenFromCache() throws Exception {
+		GCLogAnalyze analyze=new GCLogAnalyze();
+		GCLogData whole=new GCLogFollower(analyze, logFile.getPath(), 2).follow();
+		long length=logFile.length();
+		GCLogCache cache=new GCLogCache(logFile);
+		assertTrue(cache.getCacheFile().isFile());
+		Writer writer=new FileWriter(logFile, true);
+		writeLine(writer, 5000.0, 1);
+		writer.close();
+		RandomAccessFile randomAccessFile=new RandomAccessFile(logFile, "r");
+		try{
+			GCLogAnalyzeContext cached=cache.load(randomAccessFile.getChannel());
+			assertEquals(length, cache.getOffset());
+			assertEquals(whole.getYGCPauseTimes(), cached.getData().getYGCPauseTimes());
+			assertEquals(whole.getAVGPTOS(), cached.getData().getAVGPTOS());
+			assertEquals(whole.getYGCPercentiles(), cached.getData().getYGCPercentiles());
+		}
+		finally{
+			randomAccessFile.close();
+		}
+		GCLogFollower follower=new GCLogFollower(analyze, logFile.getPath(), 2);
+		GCLogData reopened=follower.follow();
+		assertTrue(follower.isRestarted());
+		assertEquals(whole.getYGC()+1, reopened.getYGC());
+		assertEquals(sequentialData().getYGCLDS(), reopened.getYGCLDS());
+		assertEquals(sequentialData().getThroughput(), reopened.getThroughput());
+		// head changed,cache is not valid
+		writer=new FileWriter(logFile);
+		writeLine(writer, 2.0, 1);
+		writeLine(writer, 5000.0, 1);
+		writer.close();
+		randomAccessFile=new RandomAccessFile(logFile, "r");
+		try{
+			assertNull(cache.load(randomAccessFile.getChannel()));
+			// outdated cache is not a problem
+			assertNull(cache.getLoadProblem());
+		}
+		finally{
+			randomAccessFile.close();
+		}
+		assertEquals(2, new GCLogFollower(analyze, logFile.getPath(), 2).follow().getYGC());
+		// broken cache is told by diagnostics,log is analyzed again
+		RandomAccessFile cacheFile=new RandomAccessFile(cache.getCacheFile(), "rw");
+		try{
+			cacheFile.setLength(cacheFile.length()-10);
+		}
+		finally{
+			cacheFile.close();
+		}
+		GCLogData data=new GCLogFollower(analyze, logFile.getPath(), 2).follow();
+		assertEquals(2, data.getYGC());
+		assertEquals(1, data.getDiagnostics().getCacheProblems().size());
+		assertTrue(data.getDiagnostics().getCacheProblems().get(0).startsWith("read cache file failed: "));
+		assertTrue(data.getDiagnostics().getReport().indexOf("cache file: 1 problems")!=-1);
+		assertFalse(data.getDiagnostics().hasProblems());
+	}
+	
+	public void testCompareLogsAtSameTime() throws Exception {
+		File otherFile=File.createTempFile("gclogviewer", ".log");
+		try{
+			Writer writer=new FileWriter(otherFile);
+			writeLine(writer, 1.0, 1);
+			writeLine(writer, 2.0, 2);
+			writer.close();
+			List<GCLogData> datas=new GCLogComparer(new GCLogAnalyze(), 4).analysis(Arrays.asList(logFile.getPath(),otherFile.getPath()));
+			assertEquals(2, datas.size());
+			assertEquals(sequentialData().getYGCPauseTimes(), datas.get(0).getYGCPauseTimes());
+			assertEquals(2, datas.get(1).getYGC());
+		}
+		finally{
+			otherFile.delete();
+			new GCLogCache(otherFile).getCacheFile().delete();
+		}
+	}
+	
+	public void testBatchSummary() throws Exception {
+		String name=logFile.getName();
+		String glob=logFile.getParent()+File.separator+name.substring(0, name.length()-4)+"*.log";
+		assertEquals(Arrays.asList(logFile.getPath()), GCLogBatch.expand(glob));
+		GCLogBatch batch=new GCLogBatch();
+		assertFalse(batch.parseArgs(new String[]{"-format","xml",glob}));
+		batch=new GCLogBatch();
+		assertTrue(batch.parseArgs(new String[]{"-threads","2","-format","json",glob,logFile.getPath()+".missing"}));
+		ByteArrayOutputStream out=new ByteArrayOutputStream();
+		ByteArrayOutputStream err=new ByteArrayOutputStream();
+		assertFalse(batch.run(new PrintStream(out), new PrintStream(err)));
+		String json=out.toString();
+		assertTrue(json.startsWith("["));
+		assertTrue(json.indexOf("\"ygc\": \""+sequentialData().getYGC()+"\"")!=-1);
+		assertTrue(json.indexOf("\"throughput\": \""+sequentialData().getThroughput()+"\"")!=-1);
+		assertTrue(json.indexOf("\"error\": ")!=-1);
+		assertTrue(err.toString().startsWith(logFile.getPath()+".missing"));
+		batch=new GCLogBatch();
+		assertTrue(batch.parseArgs(new String[]{glob}));
+		out=new ByteArrayOutputStream();
+		assertTrue(batch.run(new PrintStream(out), System.err));
+		assertTrue(out.toString().indexOf("\tYGC: "+sequentialData().getYGC())!=-1);
+	}
+	
+	public void testUnifiedLogging() throws Exception {
+		Writer writer=new FileWriter(logFile);
+		writer.write("[2023-01-01T10:00:00.010+0800][0.010s][info][gc] Using Parallel\n");
+		writer.write("[2023-01-01T10:00:00.011+0800][0.011s][info][gc,init] Version: 17.0.2+8 (release)\n");
+		double time=1.0;
+		for (int i = 0; i < 500; i++) {
+			writeUnifiedLines(writer, time, i);
+			time+=1.5;
+		}
+		writer.write("[751.000s][info][safepoint] Safepoint \"Cleanup\", Time since last: 1000 ns\n");
+		writer.close();
+		GCLogData data=new GCLogAnalyze().analysis(logFile.getPath());
+		assertEquals("ParallelGC", data.getGCType());
+		assertEquals(490, data.getYGC());
+		assertEquals(10, data.getFGC());
+		GCLogEvents ygcs=data.getYGCEvents();
+		// occur time is uptime of [gc,start] line,young gen change is of [gc,heap] line
+		assertEquals(1.0, ygcs.getTime(0), 0);
+		assertEquals(0.007017, ygcs.getPause(0), 0);
+		assertEquals(65536, ygcs.getMemoryBefore(0));
+		assertEquals(10720, ygcs.getMemoryAfter(0));
+		assertEquals(10*1024, ygcs.getHeapMemoryAfter(0));
+		// no [gc,start] line,occur time is uptime minus pause
+		assertEquals(4.0, ygcs.getTime(2), 0.0005);
+		assertEquals(1*1024*1024, data.getFGCEvents().getHeapMemoryAfter(0));
+		GCLogDiagnostics diagnostics=data.getDiagnostics();
+		assertEquals(1, diagnostics.getUnknownLines());
+		assertEquals(0, diagnostics.getFailedLines());
+		assertEquals(2+375+500*3, diagnostics.getCount(GCLogDiagnostics.Category.UNIFIED_GC));
+		// pause lines are chunk boundaries,so gc lines of one GC(n) are in one chunk
+		GCLogData parallel=new GCLogAnalyze().analysis(logFile.getPath(), 4, 4096);
+		assertEquals(data.getGCType(), parallel.getGCType());
+		assertEquals(data.getRuntime(), parallel.getRuntime());
+		assertEquals(data.getYGCPauseTimes(), parallel.getYGCPauseTimes());
+		assertEquals(data.getFGCPauseTimes(), parallel.getFGCPauseTimes());
+		assertEquals(data.getYGCPTOS(), parallel.getYGCPTOS());
+		for (int i = 0; i < ygcs.size(); i++) {
+			assertEquals(ygcs.getTime(i), parallel.getYGCEvents().getTime(i), 0);
+			assertEquals(ygcs.getMemoryBefore(i), parallel.getYGCEvents().getMemoryBefore(i));
+		}
+	}
+	
+	public void testG1Logging() throws Exception {
+		Writer writer=new FileWriter(logFile);
+		double time=1.0;
+		for (int i = 0; i < 500; i++) {
+			writeG1Lines(writer, time, i);
+			time+=1.5;
+		}
+		writer.close();
+		GCLogData data=new GCLogAnalyze().analysis(logFile.getPath());
+		assertEquals("G1GC", data.getGCType());
+		assertEquals(480, data.getYGC());
+		assertEquals(10, data.getFGC());
+		assertEquals(10, data.getCMSGC());
+		GCLogEvents ygcs=data.getYGCEvents();
+		assertTrue(ygcs.hasPhases());
+		assertEquals(2.6, ygcs.getPhaseTime(0, GCLogPhase.OBJECT_COPY), 0.0001);
+		assertEquals(24*1024, ygcs.getMemoryBefore(0));
+		GCLogDiagnostics diagnostics=data.getDiagnostics();
+		assertEquals(0, diagnostics.getUnknownLines());
+		assertEquals(0, diagnostics.getFailedLines());
+		assertEquals(500, diagnostics.getCount(GCLogDiagnostics.Category.CMS_CONCURRENT));
+		GCLogPauseComposition composition=new GCLogPauseComposition(ygcs, 10);
+		assertEquals(10, composition.size());
+		double sum=0;
+		for (int i = 0; i < composition.getComponentCount(); i++) {
+			sum+=composition.getValue(0, i);
+		}
+		assertEquals(4.674, sum, 0.0001);
+		assertFalse(composition.isUsed(GCLogPhase.EVACUATE.ordinal()));
+		// details block is not split into chunks
+		GCLogData parallel=new GCLogAnalyze().analysis(logFile.getPath(), 4, 4096);
+		assertEquals(data.getYGCPauseTimes(), parallel.getYGCPauseTimes());
+		assertEquals(data.getFGCPauseTimes(), parallel.getFGCPauseTimes());
+		assertEquals(data.getCMSGCPauseTimes(), parallel.getCMSGCPauseTimes());
+		for (int i = 0; i < ygcs.size(); i++) {
+			assertEquals(ygcs.getMemoryBefore(i), parallel.getYGCEvents().getMemoryBefore(i));
+			assertEquals(ygcs.getPhaseTime(i, GCLogPhase.OBJECT_COPY), parallel.getYGCEvents().getPhaseTime(i, GCLogPhase.OBJECT_COPY), 0);
+		}
+	}
+	
+	public void testUnifiedG1Logging() throws Exception {
+		Writer writer=new FileWriter(logFile);
+		writer.write("[0.010s][info][gc] Using G1\n");
+		writer.write("[0.011s][info][gc,init] Heap Region Size: 1M\n");
+		writer.write("[1.000s][info][gc,start    ] GC(0) Pause Young (Normal) (G1 Evacuation Pause)\n");
+		writer.write("[1.005s][info][gc,phases   ] GC(0)   Pre Evacuate Collection Set: 0.1ms\n");
+		writer.write("[1.005s][info][gc,phases   ] GC(0)   Evacuate Collection Set: 3.9ms\n");
+		writer.write("[1.005s][debug][gc,phases   ] GC(0)     Object Copy (ms):   Min:  2.4, Avg:  2.6, Max:  2.7, Diff:  0.3, Sum: 10.3, Workers: 4\n");
+		writer.write("[1.005s][info][gc,phases   ] GC(0)   Post Evacuate Collection Set: 0.4ms\n");
+		writer.write("[1.005s][info][gc,phases   ] GC(0)   Other: 0.2ms\n");
+		writer.write("[1.005s][info][gc,heap     ] GC(0) Eden regions: 24->0(13)\n");
+		writer.write("[1.005s][info][gc,heap     ] GC(0) Survivor regions: 0->3(3)\n");
+		writer.write("[1.005s][info][gc          ] GC(0) Pause Young (Normal) (G1 Evacuation Pause) 24M->3M(256M) 4.674ms\n");
+		writer.write("[2.000s][info][gc          ] GC(1) Pause Remark 120M->120M(256M) 2.001ms\n");
+		writer.write("[2.100s][info][gc          ] GC(1) Pause Cleanup 120M->118M(256M) 0.123ms\n");
+		writer.close();
+		GCLogData data=new GCLogAnalyze().analysis(logFile.getPath());
+		assertEquals("G1GC", data.getGCType());
+		assertEquals(1, data.getYGC());
+		assertEquals(2, data.getCMSGC());
+		GCLogEvents ygcs=data.getYGCEvents();
+		assertEquals(1.0, ygcs.getTime(0), 0);
+		assertEquals(24*1024, ygcs.getMemoryBefore(0));
+		assertEquals(3*1024, ygcs.getMemoryAfter(0));
+		assertEquals(3.9, ygcs.getPhaseTime(0, GCLogPhase.EVACUATE), 0.0001);
+		assertEquals(2.6, ygcs.getPhaseTime(0, GCLogPhase.OBJECT_COPY), 0.0001);
+		assertEquals(0.2, ygcs.getPhaseTime(0, GCLogPhase.OTHER), 0.0001);
+		assertEquals(0, data.getDiagnostics().getFailedLines());
+	}
+	
+	public void testUnifiedG1RegionSizeOfChunks() throws Exception {
+		Writer writer=new FileWriter(logFile);
+		writer.write("[0.010s][info][gc] Using G1\n");
+		writer.write("[0.011s][info][gc,init] Heap Region Size: 2M\n");
+		double time=1.0;
+		for (int i = 0; i < 500; i++) {
+			writeUnifiedG1Lines(writer, time, i);
+			time+=1.5;
+		}
+		writer.close();
+		GCLogData data=new GCLogAnalyze().analysis(logFile.getPath());
+		assertEquals(500, data.getYGC());
+		GCLogEvents ygcs=data.getYGCEvents();
+		// eden and survivor regions,not the heap change of pause line
+		assertEquals((13+499%10)*2*1024, ygcs.getMemoryBefore(499));
+		assertEquals(2*2*1024, ygcs.getMemoryAfter(499));
+		// chunks after the first one do not see the region size line
+		GCLogData parallel=new GCLogAnalyze().analysis(logFile.getPath(), 4, 4096);
+		assertEquals(data.getYGC(), parallel.getYGC());
+		for (int i = 0; i < ygcs.size(); i++) {
+			assertEquals(ygcs.getMemoryBefore(i), parallel.getYGCEvents().getMemoryBefore(i));
+			assertEquals(ygcs.getMemoryAfter(i), parallel.getYGCEvents().getMemoryAfter(i));
+		}
+		// neither do appended lines nor lines analyzed after the cache
+		GCLogFollower follower=new GCLogFollower(new GCLogAnalyze(), logFile.getPath(), 1);
+		follower.follow();
+		writer=new FileWriter(logFile, true);
+		writeUnifiedG1Lines(writer, time, 500);
+		writer.close();
+		GCLogData appended=follower.follow();
+		assertEquals(1, appended.getYGC());
+		assertEquals((13+500%10)*2*1024, appended.getYGCEvents().getMemoryBefore(0));
+		writer=new FileWriter(logFile, true);
+		writeUnifiedG1Lines(writer, time+1.5, 501);
+		writer.close();
+		GCLogData reopened=new GCLogFollower(new GCLogAnalyze(), logFile.getPath(), 1).follow();
+		assertEquals(502, reopened.getYGC());
+		assertEquals((13+501%10)*2*1024, reopened.getYGCEvents().getMemoryBefore(501));
+	}
+	
+	public void testUnifiedCollectorOfChunks() throws Exception {
+		Writer writer=new FileWriter(logFile);
+		writer.write("[0.010s][info][gc] Using G1\n");
+		writer.write("[0.011s][info][gc,init] Heap Region Size: 2M\n");
+		double time=1.0;
+		for (int i = 0; i < 500; i++) {
+			writeUnifiedG1Lines(writer, time, i);
+			time+=1.5;
+		}
+		writer.close();
+		// a chunk after the first one does not see the "Using G1" line
+		RandomAccessFile file=new RandomAccessFile(logFile, "r");
+		long middle=GCLogAnalyze.nextBoundary(file.getChannel(), logFile.length()/2, logFile.length());
+		file.close();
+		GCLogData half=new GCLogAnalyze().analysis(logFile, middle, logFile.length(), 1, 4096).getData();
+		assertTrue(half.getYGC()>0);
+		assertEquals("G1GC", half.getGCType());
+		assertEquals("G1GC", new GCLogAnalyze().analysis(logFile.getPath(), 4, 4096).getGCType());
+		GCLogFollower follower=new GCLogFollower(new GCLogAnalyze(), logFile.getPath(), 1);
+		follower.follow();
+		writer=new FileWriter(logFile, true);
+		writeUnifiedG1Lines(writer, time, 500);
+		writer.close();
+		GCLogData appended=follower.follow();
+		assertEquals(1, appended.getYGC());
+		assertEquals("G1GC", appended.getGCType());
+		assertEquals("G1GC", follower.getData().getGCType());
+		// collector is kept in cache file
+		follower=new GCLogFollower(new GCLogAnalyze(), logFile.getPath(), 1);
+		assertEquals("G1GC", follower.follow().getGCType());
+		writer=new FileWriter(logFile, true);
+		writeUnifiedG1Lines(writer, time+1.5, 501);
+		writer.close();
+		assertEquals("G1GC", follower.follow().getGCType());
+	}
+	
+	public void testJstat() throws Exception {
+		Writer writer=new FileWriter(logFile);
+		for (int i = 0; i < 1000; i++) {
+			writeJstatRow(writer, i);
+		}
+		writer.close();
+		GCLogData data=new GCLogAnalyze().analysis(logFile.getPath());
+		assertEquals("jstat -gc", data.getGCType());
+		// YGC grows every 3rd row,by 2 every 30th
+		assertEquals(333+33, data.getYGC());
+		assertEquals(9, data.getFGC());
+		assertEquals(333, data.getCMSGC());
+		assertEquals(999.0, data.getRuntimeSecs(), 0);
+		GCLogEvents ygcs=data.getYGCEvents();
+		// YGCT grows 0.006 in the interval between rows of 2 and 3 secs
+		assertEquals(2.5, ygcs.getTime(0), 0);
+		assertEquals(0.006, ygcs.getPause(0), 0);
+		assertEquals(2048+480, ygcs.getMemoryBefore(0));
+		assertEquals(480+100, ygcs.getMemoryAfter(0));
+		assertEquals(480+100+3000, ygcs.getHeapMemoryAfter(0));
+		// two gcs of one interval
+		int index=ygcs.indexOf(29.333);
+		assertEquals(0.006, ygcs.getPause(index), 0);
+		assertEquals(29.667, ygcs.getTime(index+1), 0);
+		GCLogDiagnostics diagnostics=data.getDiagnostics();
+		assertEquals(1000+10, diagnostics.getLines());
+		assertEquals(10, diagnostics.getCount(GCLogDiagnostics.Category.JSTAT_HEADER));
+		assertEquals(0, diagnostics.getUnknownLines());
+		// appended rows have no header,gcs between last analyzed row and first appended row are not lost
+		GCLogFollower follower=new GCLogFollower(new GCLogAnalyze(), logFile.getPath(), 1, false);
+		follower.follow();
+		writer=new FileWriter(logFile, true);
+		writeJstatRow(writer, 1000);
+		writeJstatRow(writer, 1001);
+		writeJstatRow(writer, 1002);
+		// row being written
+		writer.write("    1003.0");
+		writer.close();
+		GCLogData appended=follower.follow();
+		assertEquals(1, appended.getYGC());
+		assertEquals(1001.5, appended.getYGCEvents().getTime(0), 0);
+		assertEquals(data.getYGC()+1, follower.getData().getYGC());
+		assertEquals(1002.0, follower.getData().getRuntimeSecs(), 0);
+	}
+	
+	public void testJstatWithoutTimestampFollowed() throws Exception {
+		Writer writer=new FileWriter(logFile);
+		for (int i = 0; i < 1000; i++) {
+			writer.write(jstatRowWithoutTimestamp(i));
+		}
+		writer.close();
+		GCLogFollower follower=new GCLogFollower(new GCLogAnalyze(), logFile.getPath(), 1, false);
+		assertEquals(999.0, follower.follow().getRuntimeSecs(), 0);
+		writer=new FileWriter(logFile, true);
+		writer.write(jstatRowWithoutTimestamp(1000));
+		writer.write(jstatRowWithoutTimestamp(1001));
+		writer.write(jstatRowWithoutTimestamp(1002));
+		writer.close();
+		// time of a row is its index,rows before appended ones are counted by last follow
+		GCLogData appended=follower.follow();
+		assertEquals(1, appended.getYGC());
+		assertEquals(1001.5, appended.getYGCEvents().getTime(0), 0);
+		// rows are counted by whole data after appended data is merged
+		assertEquals(1002.0, follower.getData().getRuntimeSecs(), 0);
+		long start=logFile.length();
+		writer=new FileWriter(logFile, true);
+		writer.write(jstatRowWithoutTimestamp(1003));
+		writer.write(jstatRowWithoutTimestamp(1004));
+		writer.write(jstatRowWithoutTimestamp(1005));
+		writer.close();
+		appended=follower.follow();
+		assertEquals(1, appended.getYGC());
+		assertEquals(1004.5, appended.getYGCEvents().getTime(0), 0);
+		assertEquals(1005.0, follower.getData().getRuntimeSecs(), 0);
+		// rows before start are not read again when last context knows them
+		GCLogAnalyzeContext last=new GCLogAnalyzeContext();
+		last.setJstatRows(2000, null);
+		RandomAccessFile file=new RandomAccessFile(logFile, "r");
+		try{
+			GCLogData data=GCLogJstat.header(file.getChannel()).analysis(file.getChannel(), start, logFile.length(), last, null).getData();
+			assertEquals(2001.5, data.getYGCEvents().getTime(0), 0);
+		}
+		finally{
+			file.close();
+		}
+	}
+	
+	public void testSafepoints() throws Exception {
+		Writer writer=new FileWriter(logFile);
+		double time=1.0;
+		double stopped=0;
+		for (int i = 0; i < 200; i++) {
+			writeLine(writer, time, i);
+			// threads are stopped a bit longer than gc pause
+			double pause=(i%97==50)?1.9682580:(i%53==20)?0.0069590:Double.parseDouble("0.0"+(100+i%900));
+			writer.write(String.format(Locale.US, "%.3f: Total time for which application threads were stopped: %.7f seconds, Stopping threads took: 0.0001000 seconds\n", time+pause+0.001, pause+0.001));
+			stopped+=pause+0.001;
+			if(i%10==0){
+				// safepoint of no gc,e.g. biased lock revocation
+				writer.write(String.format(Locale.US, "%.3f: Total time for which application threads were stopped: 0.0100000 seconds, Stopping threads took: 0.0020000 seconds\n", time+0.71));
+				stopped+=0.01;
+			}
+			time+=1.5;
+		}
+		writer.close();
+		GCLogAnalyze analyze=new GCLogAnalyze();
+		GCLogData data=new GCLogFollower(analyze, logFile.getPath(), 2).follow();
+		GCLogSafepoints safepoints=data.getSafepoints();
+		assertEquals(220, safepoints.size());
+		assertEquals(20, data.getNonGCSafepoints());
+		assertEquals(stopped, safepoints.getTotalStopped(), 0.0000001);
+		DecimalFormat format=new DecimalFormat("#0.000");
+		assertEquals(format.format(stopped)+" secs", data.getStoppedTime());
+		assertEquals("0.200 secs", data.getNonGCStoppedTime());
+		assertEquals(220, safepoints.getTTSPHistogram().getCount());
+		assertEquals(0.0001, safepoints.getTTSPHistogram().getPercentile(50), 0.000002);
+		assertEquals(0.002, safepoints.getTTSPHistogram().getMax(), 0.00002);
+		assertTrue(data.getTTSPPercentiles().endsWith(" ms"));
+		// run time goes on to the last stopped line,throughput is of stopped time
+		double pauses=data.getYGCEvents().getTotalPause()+data.getFGCEvents().getTotalPause()+data.getCMSGCEvents().getTotalPause();
+		assertTrue(stopped>pauses);
+		assertEquals(299.531, data.getRuntimeSecs(), 0);
+		assertEquals(format.format((1-stopped/data.getRuntimeSecs())*100)+"%", data.getThroughput());
+		assertEquals(0, data.getDiagnostics().getUnknownLines());
+		assertEquals(data.getStoppedTime(), sequentialData().getStoppedTime());
+		// kept in cache
+		RandomAccessFile randomAccessFile=new RandomAccessFile(logFile, "r");
+		try{
+			GCLogData cached=new GCLogCache(logFile).load(randomAccessFile.getChannel()).getData();
+			assertEquals(220, cached.getSafepoints().size());
+			assertEquals(data.getTTSPPercentiles(), cached.getTTSPPercentiles());
+			assertEquals(data.getThroughput(), cached.getThroughput());
+		}
+		finally{
+			randomAccessFile.close();
+		}
+	}
+	
+	private GCLogData sequentialData() throws Exception {
+		return new GCLogAnalyze().analysis(logFile.getPath());
+	}
+	
+	/**
+	 * -Xlog:gc*:file:time,uptime,level,tags of JDK 11 Parallel,every 50th gc is a full gc,
+	 * every other one has no date,and no [gc,start] when i%4 is 2
+	 */
+	static void writeUnifiedLines(Writer writer,double time,int i) throws Exception {
+		String decorators=((i%2==0)?"[2023-01-01T10:00:00.000+0800]":"")+String.format(Locale.US, "[%.3fs][info]", time);
+		String endDecorators=((i%2==0)?"[2023-01-01T10:00:00.000+0800]":"")+String.format(Locale.US, "[%.3fs][info]", time+0.007);
+		String kind=(i%50==49)?"Pause Full (Ergonomics)":"Pause Young (Allocation Failure)";
+		if(i%4!=2)
+			writer.write(decorators+"[gc,start    ] GC("+i+") "+kind+"\n");
+		writer.write(endDecorators+"[gc,heap     ] GC("+i+") PSYoungGen: 65536K->10720K(76288K)\n");
+		writer.write(endDecorators+"[gc,heap     ] GC("+i+") ParOldGen: 0K->16K(175104K)\n");
+		if(i%50==49)
+			writer.write(endDecorators+"[gc          ] GC("+i+") "+kind+" 3G->1G(4G) 120.5ms\n");
+		else
+			writer.write(endDecorators+"[gc          ] GC("+i+") "+kind+" 65M->10M(245M) 7.017ms\n");
+		writer.write(endDecorators+"[gc,cpu      ] GC("+i+") User=0.02s Sys=0.01s Real=0.01s\n");
+	}
+	
+	/**
+	 * -XX:+UseG1GC -XX:+PrintGCDetails of JDK 8,every 50th gc is a full gc and every 50th a remark,
+	 * a concurrent line follows each pause
+	 */
+	static void writeG1Lines(Writer writer,double time,int i) throws Exception {
+		String timeStamp=String.format(Locale.US, "%.3f", time);
+		if(i%50==49){
+			writer.write(timeStamp+": [Full GC (Allocation Failure)  250M->100M(256M), 0.5123450 secs]\n");
+			writer.write("   [Eden: 0.0B(12.0M)->0.0B(12.0M) Survivors: 0.0B->0.0B Heap: 250.0M(256.0M)->100.0M(256.0M)], [Metaspace: 3000K->3000K(1056768K)]\n");
+			writer.write(" [Times: user=0.90 sys=0.01, real=0.51 secs] \n");
+		}
+		else if(i%50==20){
+			writer.write(timeStamp+": [GC remark "+timeStamp+": [Finalize Marking, 0.0001 secs] "+timeStamp+": [GC ref-proc, 0.0002 secs] "+timeStamp+": [Unloading, 0.0010 secs], 0.0020 secs]\n");
+			writer.write(" [Times: user=0.01 sys=0.00, real=0.00 secs] \n");
+		}
+		else{
+			writer.write(timeStamp+": [GC pause (G1 Evacuation Pause) ("+((i%7==3)?"mixed":"young")+"), 0.0046740 secs]\n");
+			writer.write("   [Parallel Time: 3.6 ms, GC Workers: 4]\n");
+			writer.write("      [Ext Root Scanning (ms): Min: 0.4, Avg: 0.6, Max: 0.9, Diff: 0.5, Sum: 2.4]\n");
+			writer.write("      [Object Copy (ms): Min: 2.4, Avg: 2.6, Max: 2.7, Diff: 0.3, Sum: 10.3]\n");
+			writer.write("      [Termination (ms): Min: 0.0, Avg: 0.1, Max: 0.2, Diff: 0.2, Sum: 0.4]\n");
+			writer.write("   [Code Root Fixup: 0.0 ms]\n");
+			writer.write("   [Clear CT: 0.1 ms]\n");
+			writer.write("   [Other: 0.9 ms]\n");
+			writer.write("   [Eden: 24.0M(24.0M)->0.0B(13.0M) Survivors: 0.0B->3072.0K Heap: 24.0M(256.0M)->3633.0K(256.0M)]\n");
+			writer.write(" [Times: user=0.01 sys=0.00, real=0.00 secs] \n");
+		}
+		writer.write(timeStamp+": [GC concurrent-root-region-scan-end, 0.0012340 secs]\n");
+	}
+	
+	/**
+	 * -Xlog:gc*:file of JDK 17 G1,a young gc of 12 to 21 eden regions
+	 */
+	static void writeUnifiedG1Lines(Writer writer,double time,int i) throws Exception {
+		String start=String.format(Locale.US, "[%.3fs][info]", time);
+		String end=String.format(Locale.US, "[%.3fs][info]", time+0.005);
+		writer.write(start+"[gc,start    ] GC("+i+") Pause Young (Normal) (G1 Evacuation Pause)\n");
+		writer.write(end+"[gc,heap     ] GC("+i+") Eden regions: "+(12+i%10)+"->0(10)\n");
+		writer.write(end+"[gc,heap     ] GC("+i+") Survivor regions: 1->2(2)\n");
+		writer.write(end+"[gc          ] GC("+i+") Pause Young (Normal) (G1 Evacuation Pause) 100M->50M(256M) 4.674ms\n");
+	}
+	
+	/**
+	 * jstat -gc -t -h100 of JDK 11,a young gc every 3 secs and two every 30 secs,a full gc every 100 secs,
+	 * a concurrent cycle pause every 3 secs
+	 */
+	static void writeJstatRow(Writer writer,int i) throws Exception {
+		if(i%100==0)
+			writer.write("Timestamp        S0C    S1C    S0U    S1U      EC       EU        OC         OU       MC     MU    CCSC   CCSU   YGC     YGCT    FGC    FGCT     CGC    CGCT     GCT   \n");
+		int ygc=i/3+i/30;
+		int fgc=i/100;
+		int cgc=i/3;
+		String survivor=(ygc%2==0)?"  0.0  480.0":"480.0    0.0";
+		String eden=(i%3==0)?"100.0":"2048.0";
+		writer.write(String.format(Locale.US, "%10.1f  512.0  512.0 %s   4096.0   %6s   10240.0     3000.0   4864.0 4620.9 512.0  470.4  %5d  %7.3f  %4d  %7.3f  %5d  %7.3f  %7.3f\n",
+				(double)i, survivor, eden, ygc, ygc*0.006, fgc, fgc*0.05, cgc, cgc*0.001, ygc*0.006+fgc*0.05+cgc*0.001));
+	}
+	
+	/**
+	 * jstat -gc -h100 of JDK 11,same rows as writeJstatRow without Timestamp column
+	 */
+	static String jstatRowWithoutTimestamp(int i) throws Exception {
+		StringWriter row=new StringWriter();
+		writeJstatRow(row, i);
+		StringBuilder lines=new StringBuilder();
+		for (String line : row.toString().split("\n")) {
+			String trimmed=line.trim();
+			lines.append(trimmed.substring(trimmed.indexOf(' '))).append('\n');
+		}
+		return lines.toString();
+	}
+	
+	static void writeLine(Writer writer,double time,int i) throws Exception {
+		String timeStamp=String.format(Locale.US, "%.3f", time);
+		int young=500000+(i*37)%60000;
+		int heap=700000+(i*101)%300000;
+		if(i%97==50){
+			writer.write(timeStamp+": [GC "+timeStamp+": [ParNew (promotion failed): 563061K->563061K(563200K), 0.1841480 secs]"+timeStamp+": [CMS: 693918K->"+(heap/3)+"K(1060864K), 1.7836900 secs] 1215048K->"+(heap/3)+"K(1624064K), 1.9682580 secs] [Times: user=2.06 sys=0.09, real=1.97 secs]\n");
+		}
+		else if(i%53==20){
+			writer.write(timeStamp+": [GC [1 CMS-initial-mark: "+heap+"K(1060864K)] 874081K(1624064K), 0.0069590 secs] [Times: user=0.00 sys=0.00, real=0.00 secs]\n");
+			writer.write(timeStamp+": [CMS-concurrent-mark-start]\n");
+		}
+		else{
+			writer.write(timeStamp+": [GC "+timeStamp+": [ParNew: "+young+"K->13855K(563200K), 0.0177710 secs] "+(heap+young)+"K->"+heap+"K(1624064K), 0.0"+(100+i%900)+" secs] [Times: user=0.05 sys=0.00, real=0.02 secs]\n");
+		}
+	}
+	
+}
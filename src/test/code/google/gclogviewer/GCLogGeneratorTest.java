@@ -0,0 +1,87 @@
+/**
+ * GCLogViewer
+ * 
+ * A free open source tool to visualize data produced by the Java VM options -Xloggc:<file> or jstat > <file>.
+ * 
+ * Code license:	Apache License 2.0
+ * 
+ * http://code.google.com/p/gclogviewer
+ */
+package code.google.gclogviewer;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+
+import junit.framework.TestCase;
+
+import code.google.gclogviewer.GCLogGenerator.Collector;
+
+/**
+ * Test for GCLogGenerator,generated logs must be analyzed without unknown lines
+ *
+ * @author <a href="mailto:bluedavy@gmail.com">bluedavy</a>
+ */
+public class GCLogGeneratorTest extends TestCase{
+
+	private File logFile;
+
+	protected void setUp() throws Exception {
+		logFile=File.createTempFile("gclogviewer", ".log");
+	}
+
+	protected void tearDown() throws Exception {
+		logFile.delete();
+	}
+
+	public void testAllCollectorsAreAnalyzed() throws Exception {
+		for (Collector collector : Collector.values()) {
+			for (int i = 0; i < 2; i++) {
+				GCLogGenerator generator=new GCLogGenerator();
+				generator.setCollector(collector);
+				generator.setDateStamps(i==1);
+				generator.setOldSize(200000);
+				Writer writer=new FileWriter(logFile);
+				long written=generator.generate(writer, 2*1024*1024);
+				writer.close();
+				assertEquals(written, logFile.length());
+				GCLogData data=new GCLogAnalyze().analysis(logFile.getPath(), 4, 256*1024);
+				GCLogDiagnostics diagnostics=data.getDiagnostics();
+				assertFalse(collector+": "+diagnostics.getReport(), diagnostics.hasProblems());
+				assertEquals(generator.getYGC(), data.getYGC());
+				assertEquals(generator.getFGC(), data.getFGC());
+				assertEquals(generator.getCMSGC(), data.getCMSGC());
+				assertTrue(data.getFGC()+data.getCMSGC()>0);
+				if(collector==Collector.CMS){
+					assertEquals("ConcMarkSweepGC", data.getGCType());
+					assertTrue(data.getCMSGC()>0);
+					// concurrent phases of cycles split by chunks are joined again
+					assertEquals(generator.getCMSCycles(), data.getCMSCycles());
+					assertTrue(data.getConcurrentPhases().getAvgCycleLength()>0);
+					assertTrue(data.getConcurrentPhases().getAvgCycleInterval()>data.getConcurrentPhases().getAvgCycleLength());
+				}
+				else{
+					assertEquals(0, data.getCMSGC());
+				}
+			}
+		}
+	}
+
+	public void testSameSeedSameLog() throws Exception {
+		StringWriter first=new StringWriter();
+		StringWriter second=new StringWriter();
+		GCLogGenerator generator=new GCLogGenerator();
+		generator.setDateStamps(true);
+		generator.generate(first, 256*1024);
+		generator.generate(second, 256*1024);
+		assertEquals(first.toString(), second.toString());
+		generator.setSeed(1);
+		StringWriter other=new StringWriter();
+		generator.generate(other, 256*1024);
+		assertFalse(first.toString().equals(other.toString()));
+		assertTrue(first.toString().startsWith("2010-11-11T00:00:01.000+0800: 1.000: [GC 1.001: [ParNew: "));
+		assertEquals(10L*1024*1024*1024, GCLogGenerator.parseSize("10g"));
+	}
+
+}
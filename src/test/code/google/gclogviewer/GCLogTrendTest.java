@@ -0,0 +1,105 @@
+/**
+ * GCLogViewer
+ * 
+ * A free open source tool to visualize data produced by the Java VM options -Xloggc:<file> or jstat > <file>.
+ * 
+ * Code license:	Apache License 2.0
+ * 
+ * http://code.google.com/p/gclogviewer
+ */
+package code.google.gclogviewer;
+
+import junit.framework.TestCase;
+
+import org.jfree.data.general.DatasetUtilities;
+
+/**
+ * Test for trend chart datasets
+ * 
+ * @author <a href="mailto:bluedavy@gmail.com">bluedavy</a>
+ */
+public class GCLogTrendTest extends TestCase{
+
+	private GCLogEvents events;
+	
+	protected void setUp() throws Exception {
+		events=new GCLogEvents();
+		for (int i = 0; i < 100000; i++) {
+			// one long pause in the middle
+			double pause=(i==54321)?3.5:0.01+(i%7)*0.001;
+			events.add(i*0.5, 3, pause, 4, 500000+i%1000, 10000, 700000);
+		}
+	}
+	
+	public void testDownsampleKeepsOutliers() throws Exception {
+		GCLogEventsSeries series=GCLogEventsSeries.pauseTimes("YGC", events);
+		int[] indices=GCLogDownsampler.downsample(series, 0, events.getTime(events.size()-1), 500);
+		assertTrue(indices.length<=500*4+2);
+		assertEquals(0, indices[0]);
+		assertEquals(events.size()-1, indices[indices.length-1]);
+		boolean outlier=false;
+		for (int i = 0; i < indices.length; i++) {
+			if(i>0)
+				assertTrue(indices[i]>indices[i-1]);
+			if(indices[i]==54321)
+				outlier=true;
+		}
+		assertTrue(outlier);
+	}
+	
+	public void testDownsampleVisibleRange() throws Exception {
+		GCLogEventsSeries series=GCLogEventsSeries.memoryChanges("YGC", events);
+		// [1000,1010] secs has 41 items,all kept with one item on each side
+		int[] indices=GCLogDownsampler.downsample(series, 1000, 1010, 500);
+		assertEquals(43, indices.length);
+		assertTrue(series.getX(indices[0])<1000);
+		assertTrue(series.getX(indices[indices.length-1])>1010);
+	}
+	
+	public void testPyramidLevels() throws Exception {
+		GCLogEventsSeries series=GCLogEventsSeries.pauseTimes("YGC", events);
+		GCLogEventsPyramid pyramid=new GCLogEventsPyramid(series);
+		assertTrue(pyramid.getLevels()>1);
+		assertEquals(pyramid.getBucketWidth(0)*2, pyramid.getBucketWidth(1), 0);
+		assertEquals(events.size(), pyramid.count(0, 50000));
+		// whole range and zoomed in range both read buckets,each bucket keeps its min and max
+		double[][] ranges=new double[][]{{0,events.getTime(events.size()-1)},{20000,30000}};
+		for (double[] range : ranges) {
+			int[] indices=pyramid.downsample(range[0], range[1], 500);
+			assertTrue(indices.length<=500*4+4);
+			boolean outlier=false;
+			for (int i = 0; i < indices.length; i++) {
+				if(i>0)
+					assertTrue(indices[i]>indices[i-1]);
+				if(indices[i]==54321)
+					outlier=true;
+			}
+			assertTrue(outlier);
+			assertTrue(series.getX(indices[0])<=range[0]);
+			assertTrue(series.getX(indices[indices.length-1])>=range[1]);
+		}
+		// finer than level 0,items are read
+		int[] indices=pyramid.downsample(1000, 1010, 500);
+		assertEquals(GCLogDownsampler.downsample(series, 1000, 1010, 500).length, indices.length);
+		assertFalse(pyramid.isStale());
+		events.add(50000, 3, 0.01, 4, 1, 1, 1);
+		assertTrue(pyramid.isStale());
+	}
+	
+	public void testResampleTrendDataset() throws Exception {
+		GCLogTrendDataset dataset=new GCLogTrendDataset();
+		dataset.addEventsSeries(GCLogEventsSeries.pauseTimes("YGC", events));
+		assertTrue(dataset.resample(Double.NaN, Double.NaN, 800));
+		assertFalse(dataset.resample(Double.NaN, Double.NaN, 800));
+		assertTrue(dataset.getItemCount(0)<=800*4);
+		assertEquals(3500.0, DatasetUtilities.findMaximumRangeValue(dataset).doubleValue(), 0);
+		events.add(50000, 3, 0.01, 4, 1, 1, 1);
+		assertTrue(dataset.resample(Double.NaN, Double.NaN, 800));
+		assertEquals(50000.0, DatasetUtilities.findMaximumDomainValue(dataset).doubleValue(), 0);
+		// fewer items than buckets are wrapped without copy
+		assertTrue(dataset.resample(Double.NaN, Double.NaN, 100000));
+		assertEquals(events.size(), dataset.getItemCount(0));
+		assertEquals(events.getTime(12345), dataset.getXValue(0, 12345), 0);
+	}
+	
+}
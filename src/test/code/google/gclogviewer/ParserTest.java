@@ -13,10 +13,16 @@ import junit.framework.TestCase;
 import code.google.gclogviewer.parser.CMSFailedFGCLogParser;
 import code.google.gclogviewer.parser.CMSInitialMarkFGCLogParser;
 import code.google.gclogviewer.parser.CMSRemarkFGCLogParser;
+import code.google.gclogviewer.parser.G1CleanupGCLogParser;
+import code.google.gclogviewer.parser.G1FGCLogParser;
+import code.google.gclogviewer.parser.G1RemarkGCLogParser;
+import code.google.gclogviewer.parser.G1YGCLogParser;
 import code.google.gclogviewer.parser.ParFGCLogParser;
 import code.google.gclogviewer.parser.ParallelFGCLogParser;
 import code.google.gclogviewer.parser.ParallelYGCLogParser;
 import code.google.gclogviewer.parser.ParnewYGCLogParser;
+import code.google.gclogviewer.parser.UnifiedFGCLogParser;
+import code.google.gclogviewer.parser.UnifiedYGCLogParser;
 
 /**
  * Test for different parser
@@ -160,5 +166,272 @@ public class ParserTest extends TestCase{
 		assertEquals("869959",data.getMemoryChangeInfo()[0]);
 		assertEquals("869959",data.getMemoryChangeInfo()[1]);
 	}
+	
+	public void testScannedPrimitives() throws Exception {
+		String line="2010-11-10T17:03:49.068+0800: 125.294: [GC 125.294: [ParNew: 558615K->13855K(563200K), 0.0177710 secs] 739960K->195200K(1624064K), 0.0179390 secs] [Times: user=0.05 sys=0.00, real=0.02 secs]";
+		OneLineGCData data = new ParnewYGCLogParser().parse(line);
+		assertEquals(125.294, data.getOccurTimeSecs(), 0);
+		assertEquals(0.0179390, data.getPauseTimeSecs(), 0);
+		assertEquals(558615, data.getMemoryBeforeK());
+		assertEquals(13855, data.getMemoryAfterK());
+		assertEquals(195200, data.getHeapMemoryAfterK());
+		line="83368.174: [GC 83368.175: [ParNew (promotion failed): 563061K->563061K(563200K), 0.1841480 secs]83368.359: [CMS: 693918K->226725K(1060864K), 1.7836900 secs] 1215048K->226725K(1624064K), 1.9682580 secs] [Times: user=2.06 sys=0.09, real=1.97 secs]";
+		data = new CMSFailedFGCLogParser().parse(line);
+		assertEquals(83368.174, data.getOccurTimeSecs(), 0);
+		assertEquals(1.9682580, data.getPauseTimeSecs(), 0);
+		assertEquals(1215048, data.getMemoryBeforeK());
+		assertEquals(226725, data.getHeapMemoryAfterK());
+		// record split into two lines,first part has no pause time
+		line="125.294: [GC 125.294: [ParNew: 558615K->13855K(563200K), 0.0177710 secs]";
+		data = new ParnewYGCLogParser().parse(line);
+		assertFalse(data.hasOccurTime());
+		assertNull(data.getOccurTime());
+	}
+	
+	public void testKeywordDispatch() throws Exception {
+		String line="83368.174: [GC 83368.175: [ParNew (promotion failed): 563061K->563061K(563200K), 0.1841480 secs]83368.359: [CMS: 693918K->226725K(1060864K), 1.7836900 secs] 1215048K->226725K(1624064K), 1.9682580 secs]";
+		long match=GCLogKeywordsAndParsers.match(line);
+		assertTrue(GCLogKeywordsAndParsers.getParser(match) instanceof CMSFailedFGCLogParser);
+		assertEquals(line.indexOf("ParNew (promotion failed)"), GCLogKeywordsAndParsers.getOffset(match));
+		line="125.294: [GC 125.294: [ParNew: 558615K->13855K(563200K), 0.0177710 secs] 739960K->195200K(1624064K), 0.0179390 secs]";
+		match=GCLogKeywordsAndParsers.match(line);
+		assertTrue(GCLogKeywordsAndParsers.getParser(match) instanceof ParnewYGCLogParser);
+		assertEquals(line.indexOf("ParNew"), GCLogKeywordsAndParsers.getOffset(match));
+		line="38500.303: [Full GC [PSYoungGen: 42686K->0K(512000K)] [PSOldGen: 958137K->140581K(958464K)] 1000824K->140581K(1470464K), 0.4473140 secs]";
+		match=GCLogKeywordsAndParsers.match(line);
+		assertEquals("PSOldGen", GCLogKeywordsAndParsers.getKeyword(match));
+		assertEquals(1000824, GCLogKeywordsAndParsers.getParser(match).parse(line, GCLogKeywordsAndParsers.getOffset(match)).getMemoryBeforeK());
+		assertEquals(-1, GCLogKeywordsAndParsers.match("Desired survivor size 3342336 bytes, new threshold 7 (max 15)"));
+	}
+	
+	public void testParseAsciiLine() throws Exception {
+		String lines="  24.791: [GC 24.791: [ParNew: 462628K->62805K(512000K), 0.0817750 secs] 462628K->62805K(1470464K), 0.0817750 secs] [Times: user=0.14 sys=0.15, real=0.08 secs]\r\n"
+				    +"25.000: [GC [PSYoungGen: 1000K->200K(512000K)] 3000K->2200K(1470464K), 0.0100000 secs]\n";
+		GCLogMappedLineSource source=new GCLogMappedLineSource(java.nio.ByteBuffer.wrap(lines.getBytes("ISO-8859-1")));
+		CharSequence line=source.readLine();
+		assertEquals(lines.substring(2, lines.indexOf('\r')), line.toString());
+		OneLineGCData data=new ParnewYGCLogParser().parse(line);
+		assertEquals("24.791",data.getOccurTime());
+		assertEquals("462628",data.getMemoryChangeInfo()[0]);
+		assertEquals(62805L, data.getHeapMemoryAfterK());
+		// window is reused,primitive values still hold
+		line=source.readLine();
+		assertEquals(0.01, new ParallelYGCLogParser().parse(line).getPauseTimeSecs(), 0);
+		assertEquals(62805L, data.getMemoryAfterK());
+		assertNull(source.readLine());
+	}
+	
+	public void testAssembleRecords() throws Exception {
+		String times=" [Times: user=0.05 sys=0.00, real=0.02 secs]";
+		String lines="2010-11-10T17:03:49.068+0800: 125.294: [GC 125.294: [ParNew2010-11-10T17:03:49.070+0800: 125.296: [CMS-concurrent-abortable-preclean: 0.123/0.456 secs]"+times+"\n"
+					+"Desired survivor size 3342336 bytes, new threshold 1 (max 6)\n"
+					+"- age   1:    6669648 bytes,    6669648 total\n"
+					+": 558615K->13855K(563200K), 0.0177710 secs] 739960K->195200K(1624064K), 0.0179390 secs]"+times+"\n"
+					+"126.000: Total time for which application threads were stopped: 0.0180000 seconds\n"
+					+"83368.174: [GC 83368.175: [ParNew (promotion failed): 563061K->563061K(563200K), 0.1841480 secs]83368.359: [CMS83368.400: [CMS-concurrent-mark: 0.100/0.200 secs]"+times+"\n"
+					+" (concurrent mode failure): 693918K->226725K(1060864K), 1.7836900 secs] 1215048K->226725K(1624064K), 1.9682580 secs]"+times+"\n"
+					+"83369.000: [GC 83369.000: [ParNew\n"
+					+"83370.000: [GC 83370.000: [ParNew: 558615K->13855K(563200K), 0.0177710 secs] 739960K->195200K(1624064K), 0.0179390 secs]\n";
+		GCLogRecordAssembler records=new GCLogRecordAssembler(new GCLogMappedLineSource(java.nio.ByteBuffer.wrap(lines.getBytes("ISO-8859-1"))));
+		assertEquals("2010-11-10T17:03:49.070+0800: 125.296: [CMS-concurrent-abortable-preclean: 0.123/0.456 secs]"+times, records.readLine().toString());
+		assertEquals("Desired survivor size 3342336 bytes, new threshold 1 (max 6)", records.readLine().toString());
+		assertFalse(records.isJoined());
+		assertEquals("- age   1:    6669648 bytes,    6669648 total", records.readLine().toString());
+		CharSequence record=records.readLine();
+		assertTrue(records.isJoined());
+		assertEquals("2010-11-10T17:03:49.068+0800: 125.294: [GC 125.294: [ParNew: 558615K->13855K(563200K), 0.0177710 secs] 739960K->195200K(1624064K), 0.0179390 secs]"+times, record.toString());
+		OneLineGCData data=new ParnewYGCLogParser().parse(record);
+		assertEquals("125.294", data.getOccurTime());
+		assertEquals(195200L, data.getHeapMemoryAfterK());
+		assertEquals("126.000: Total time for which application threads were stopped: 0.0180000 seconds", records.readLine().toString());
+		assertEquals("83368.400: [CMS-concurrent-mark: 0.100/0.200 secs]"+times, records.readLine().toString());
+		record=records.readLine();
+		assertTrue(records.isJoined());
+		data=new CMSFailedFGCLogParser().parse(record);
+		assertEquals("83368.174", data.getOccurTime());
+		assertEquals("1.9682580", data.getPauseTime());
+		assertEquals("226725", data.getHeapMemoryAfter());
+		// not ended before next record
+		assertEquals("83369.000: [GC 83369.000: [ParNew", records.readLine().toString());
+		assertFalse(records.isJoined());
+		assertEquals(0.0179390, new ParnewYGCLogParser().parse(records.readLine()).getPauseTimeSecs(), 0);
+		assertNull(records.readLine());
+		assertEquals(9, records.getLinesRead());
+		assertFalse(GCLogRecordAssembler.isRecordStart("126.000: Total time for which application threads were stopped: 0.0180000 seconds"));
+		assertTrue(GCLogRecordAssembler.isRecordStart("2010-11-10T17:03:49.068+0800: 125.294: [GC"));
+	}
+	
+	public void testG1Parsers() throws Exception {
+		String lines="0.297: [GC pause (G1 Evacuation Pause) (young), 0.0046740 secs]\n"
+					+"   [Parallel Time: 3.6 ms, GC Workers: 4]\n"
+					+"      [GC Worker Start (ms): Min: 297.1, Avg: 297.2, Max: 297.3, Diff: 0.2]\n"
+					+"      [Ext Root Scanning (ms): Min: 0.4, Avg: 0.6, Max: 0.9, Diff: 0.5, Sum: 2.4]\n"
+					+"      [Object Copy (ms): Min: 2.4, Avg: 2.6, Max: 2.7, Diff: 0.3, Sum: 10.3]\n"
+					+"      [Termination (ms): Min: 0.0, Avg: 0.1, Max: 0.2, Diff: 0.2, Sum: 0.4]\n"
+					+"   [Code Root Fixup: 0.0 ms]\n"
+					+"   [Clear CT: 0.1 ms]\n"
+					+"   [Other: 0.9 ms]\n"
+					+"   [Eden: 24.0M(24.0M)->0.0B(13.0M) Survivors: 0.0B->3072.0K Heap: 24.0M(256.0M)->3633.0K(256.0M)]\n"
+					+" [Times: user=0.01 sys=0.00, real=0.00 secs] \n"
+					+"0.300: [GC concurrent-root-region-scan-end, 0.0012340 secs]\n"
+					+"0.400: [GC pause (G1 Evacuation Pause) (mixed) 120M->80M(256M), 0.0081230 secs]\n";
+		GCLogRecordAssembler records=new GCLogRecordAssembler(new GCLogMappedLineSource(java.nio.ByteBuffer.wrap(lines.getBytes("ISO-8859-1"))));
+		CharSequence record=records.readLine();
+		assertTrue(records.isJoined());
+		assertEquals("GC pause", GCLogKeywordsAndParsers.getKeyword(GCLogKeywordsAndParsers.match(record)));
+		OneLineGCData data=new G1YGCLogParser().parse(record);
+		assertEquals("0.297", data.getOccurTime());
+		assertEquals("0.0046740", data.getPauseTime());
+		// eden and survivors
+		assertEquals(24*1024, data.getMemoryBeforeK());
+		assertEquals(3072, data.getMemoryAfterK());
+		assertEquals(3633, data.getHeapMemoryAfterK());
+		double[] phaseTimes=data.getPhaseTimes();
+		assertEquals(3.6, phaseTimes[GCLogPhase.EVACUATE.ordinal()], 0);
+		assertEquals(0.6, phaseTimes[GCLogPhase.EXT_ROOT_SCANNING.ordinal()], 0);
+		assertEquals(2.6, phaseTimes[GCLogPhase.OBJECT_COPY.ordinal()], 0);
+		assertEquals(0.1, phaseTimes[GCLogPhase.CLEAR_CT.ordinal()], 0);
+		assertEquals(0.9, phaseTimes[GCLogPhase.OTHER.ordinal()], 0);
+		assertEquals(0, phaseTimes[GCLogPhase.UPDATE_RS.ordinal()], 0);
+		assertEquals("0.300: [GC concurrent-root-region-scan-end, 0.0012340 secs]", records.readLine().toString());
+		assertFalse(records.isJoined());
+		data=new G1YGCLogParser().parse(records.readLine());
+		assertEquals("0.400", data.getOccurTime());
+		assertEquals(120*1024, data.getMemoryBeforeK());
+		assertEquals(80*1024, data.getHeapMemoryAfterK());
+		assertNull(data.getPhaseTimes());
+		assertNull(records.readLine());
+		data=new G1FGCLogParser().parse("2010-11-10T17:03:49.068+0800: 8.120: [Full GC (Allocation Failure)  250M->100M(256M), 0.5123450 secs]");
+		assertEquals("8.120", data.getOccurTime());
+		assertEquals("0.5123450", data.getPauseTime());
+		assertEquals(100*1024, data.getHeapMemoryAfterK());
+		// full gc of other collectors is not taken as G1
+		assertNull(new G1FGCLogParser().parse("1.000: [Full GC 1.000: [CMS: 693918K->226725K(1060864K), 1.7836900 secs] 1215048K->226725K(1624064K), [CMS Perm : 20K->20K(40K)], 1.9682580 secs]"));
+		assertNull(new G1FGCLogParser().parse("1.000: [Full GC (System.gc()) 1.000: [CMS: 693918K->226725K(1060864K), 1.7836900 secs] 1215048K->226725K(1624064K), [CMS Perm : 20K->20K(40K)], 1.9682580 secs]"));
+		data=new G1RemarkGCLogParser().parse("3.100: [GC remark 3.100: [Finalize Marking, 0.0001 secs] 3.101: [GC ref-proc, 0.0002 secs] 3.101: [Unloading, 0.0010 secs], 0.0020 secs]");
+		assertEquals("3.100", data.getOccurTime());
+		assertEquals("0.0020", data.getPauseTime());
+		data=new G1CleanupGCLogParser().parse("3.200: [GC cleanup 120M->118M(256M), 0.0012340 secs]");
+		assertEquals("0.0012340", data.getPauseTime());
+		assertEquals(118*1024, data.getHeapMemoryAfterK());
+	}
+	
+	public void testParseUnifiedLine() throws Exception {
+		String line="[2023-01-01T10:00:05.130+0800][5.130s][info][gc          ] GC(5) Pause Young (Allocation Failure) 65M->10M(245M) 7.017ms";
+		OneLineGCData data=new UnifiedYGCLogParser().parse(line);
+		assertEquals(5, data.getGCId());
+		assertEquals("2023-01-01T10:00:05", data.getOccurDateTime());
+		assertEquals("5.123",data.getOccurTime());
+		assertEquals("0.007017",data.getPauseTime());
+		assertEquals(65*1024, data.getMemoryBeforeK());
+		assertEquals(10*1024, data.getMemoryAfterK());
+		assertEquals("10240", data.getHeapMemoryAfter());
+		assertTrue(data.isYGCData());
+		// uptimemillis,no time decorator
+		data=new UnifiedFGCLogParser().parse("[12345ms][info][gc] GC(3) Pause Full (System.gc()) 10M->2M(30M) 12.345ms");
+		assertNull(data.getOccurDateTime());
+		assertEquals("12.333",data.getOccurTime());
+		assertEquals("0.012345",data.getPauseTime());
+		assertEquals(2048, data.getHeapMemoryAfterK());
+		assertFalse(data.isYGCData());
+		// start line of the pause has no heap change
+		data=new UnifiedYGCLogParser().parse("[5.123s][info][gc,start    ] GC(5) Pause Young (Allocation Failure)");
+		assertFalse(data.hasOccurTime());
+		// old format is never taken as decorators
+		assertEquals(-1, GCLogUnifiedLine.messageStart("[GC 1.000: [ParNew: 558615K->13855K(563200K), 0.0177710 secs]"));
+		assertEquals(-1, GCLogUnifiedLine.messageStart("[Times: user=0.05 sys=0.00, real=0.02 secs]"));
+		line="[0.345s][info][gc,heap,exit ] Heap";
+		int messageStart=GCLogUnifiedLine.messageStart(line);
+		assertEquals("Heap", line.substring(messageStart));
+		assertEquals(-1, GCLogUnifiedLine.gcId(line, messageStart));
+		assertTrue(GCLogUnifiedLine.hasTag(line, GCLogUnifiedLine.tagsStart(line, messageStart), "gc"));
+		assertFalse(GCLogUnifiedLine.isTags(line, GCLogUnifiedLine.tagsStart(line, messageStart), "gc"));
+		assertEquals(-1L, GCLogKeywordsAndParsers.match("[5.130s][info][gc,heap     ] GC(5) PSYoungGen: 65536K->10720K(76288K)"));
+		assertEquals("Pause Young", GCLogKeywordsAndParsers.getKeyword(GCLogKeywordsAndParsers.match("[5.130s][info][gc] GC(5) Pause Young (Normal) (G1 Evacuation Pause) 24M->3M(256M) 5.123ms")));
+	}
 
+	public void testSafepointLines() throws Exception {
+		GCLogSafepoints safepoints=new GCLogSafepoints();
+		assertTrue(safepoints.add("126.000: Total time for which application threads were stopped: 0.0180000 seconds"));
+		assertTrue(safepoints.add("2010-11-10T17:03:49.068+0800: 127.500: Total time for which application threads were stopped: 0.0005000 seconds, Stopping threads took: 0.0001000 seconds"));
+		assertTrue(safepoints.add("[2023-01-01T10:00:00.000+0800][128.000s][info][safepoint] Total time for which application threads were stopped: 0.0020000 seconds, Stopping threads took: 0.0000500 seconds"));
+		assertTrue(safepoints.add("[129.000s][info][safepoint] Safepoint \"G1CollectForAllocation\", Time since last: 1000 ns, Reaching safepoint: 12300 ns, At safepoint: 111100 ns, Total: 123400 ns"));
+		// no stopped time
+		assertFalse(safepoints.add("[751.000s][info][safepoint] Safepoint \"Cleanup\", Time since last: 1000 ns"));
+		assertFalse(safepoints.add("127.000: Application time: 0.9820000 seconds"));
+		assertEquals(4, safepoints.size());
+		// line is written when threads are resumed
+		assertEquals(125.982, safepoints.getTime(0), 0.0000001);
+		assertTrue(Double.isNaN(safepoints.getTTSP(0)));
+		assertEquals(127.4995, safepoints.getTime(1), 0.0000001);
+		assertEquals(0.0001, safepoints.getTTSP(1), 0);
+		assertEquals(127.998, safepoints.getTime(2), 0.0000001);
+		assertEquals(0.00005, safepoints.getTTSP(2), 0);
+		assertEquals(0.0001234, safepoints.getStopped(3), 0);
+		assertEquals(0.0000123, safepoints.getTTSP(3), 0);
+		assertEquals(0.018+0.0005+0.002+0.0001234, safepoints.getTotalStopped(), 0.0000001);
+		assertEquals(129.0, safepoints.getEndTime(), 0);
+		assertEquals(3, safepoints.getTTSPHistogram().getCount());
+		// a gc pause starts in the first one only
+		GCLogEvents gcs=new GCLogEvents();
+		gcs.add(125.982, 3, 0.017, 7, 0, 0, 0);
+		assertFalse(safepoints.isNonGC(0, gcs));
+		assertTrue(safepoints.isNonGC(1, gcs));
+		assertEquals(3, safepoints.getNonGCCount(gcs));
+		assertEquals(0.0005+0.002+0.0001234, safepoints.getNonGCStopped(gcs), 0.0000001);
+	}
+	
+	public void testConcurrentPhaseLines() throws Exception {
+		String times=" [Times: user=0.35 sys=0.01, real=0.20 secs]";
+		GCLogConcurrentPhases phases=new GCLogConcurrentPhases();
+		assertFalse(phases.add("100.000: [CMS-concurrent-mark-start]"));
+		assertTrue(phases.add("100.200: [CMS-concurrent-mark: 0.100/0.200 secs]"+times));
+		assertTrue(phases.add("100.210: [CMS-concurrent-preclean: 0.005/0.010 secs]"+times));
+		assertTrue(phases.add("2010-11-10T17:03:49.070+0800: 105.210: [CMS-concurrent-abortable-preclean: 0.123/5.000 secs]"+times));
+		assertTrue(phases.add("105.600: [CMS-concurrent-sweep: 0.300/0.350 secs]"+times));
+		assertTrue(phases.add("105.620: [CMS-concurrent-reset: 0.010/0.020 secs]"+times));
+		assertEquals(5, phases.size());
+		assertEquals(GCLogConcurrentPhases.Phase.ABORTABLE_PRECLEAN, phases.getPhase(2));
+		assertEquals(105.21, phases.getTime(2), 0);
+		assertEquals(0.123, phases.getCPU(2), 0);
+		assertEquals(5.0, phases.getWall(2), 0);
+		assertEquals(1, phases.getCycleCount());
+		assertEquals(100.0, phases.getCycleStart(0), 0.0000001);
+		assertEquals(105.62, phases.getCycleEnd(0), 0);
+		assertEquals(0.538, phases.getCycleCPU(0), 0.0000001);
+		// broken by concurrent mode failure,no reset before next mark
+		assertTrue(phases.add("200.200: [CMS-concurrent-mark: 0.100/0.200 secs]"+times));
+		assertTrue(phases.add("[300.200s][info][gc] GC(7) Concurrent Mark 200.000ms"));
+		assertTrue(phases.add("[300.300s][info][gc] GC(7) Concurrent Reset 10.500ms"));
+		assertFalse(phases.add("[300.300s][info][gc] GC(7) Concurrent Cycle 10.500ms"));
+		assertFalse(phases.add("[300.300s][info][gc,marking] GC(7) Concurrent Mark 10.500ms"));
+		assertTrue(Double.isNaN(phases.getCPU(6)));
+		assertEquals(0.0105, phases.getWall(7), 0.0000001);
+		assertEquals(2, phases.getCycleCount());
+		assertEquals(300.0, phases.getCycleStart(1), 0.0000001);
+		assertEquals((5.62+0.3)/2, phases.getAvgCycleLength(), 0.0000001);
+		assertEquals(200.0, phases.getAvgCycleInterval(), 0.0000001);
+	}
+	
+	public void testPrimitiveValuesAreFormattedWhenAsked() throws Exception {
+		OneLineGCData data=new OneLineGCData();
+		assertFalse(data.hasOccurTime());
+		// uptime of unified logging
+		data.setOccurTime(5.1234, 3);
+		data.setMemoryChangeInfo(65536, 10736);
+		data.setHeapMemoryAfter(10240);
+		assertTrue(data.hasOccurTime());
+		assertEquals(5.123, data.getOccurTimeSecs(), 0);
+		assertEquals(3, data.getOccurTimeScale());
+		assertEquals(10736L, data.getMemoryAfterK());
+		assertEquals("5.123", data.getOccurTime());
+		assertEquals("65536", data.getMemoryChangeInfo()[0]);
+		assertEquals("10736", data.getMemoryChangeInfo()[1]);
+		assertEquals("10240", data.getHeapMemoryAfter());
+		// a value of line wins again
+		data.setOccurTime("7.50", 0, 4);
+		assertEquals("7.50", data.getOccurTime());
+		assertEquals(2, data.getOccurTimeScale());
+	}
+	
 }